@@ -0,0 +1,113 @@
+package com.example.envdoc.config;
+
+import com.example.envdoc.model.ExtractionMode;
+import com.example.envdoc.model.UsagePurpose;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфигурация извлечения переменных окружения из исходного кода.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "extraction")
+public class ExtractionConfig {
+
+    /**
+     * Режим извлечения из Java файлов по умолчанию
+     */
+    private ExtractionMode mode = ExtractionMode.AST;
+
+    /**
+     * Количество потоков для параллельного извлечения (0 — по числу процессоров)
+     */
+    private int parallelism = 0;
+
+    /**
+     * Глубина поиска использований в других классах через геттеры, бины и константы
+     * (число переходов по индексу символов; 0 — только прямые использования)
+     */
+    private int usagePropagationDepth = 3;
+
+    /**
+     * Максимальное число хранимых использований одной переменной (0 — без ограничения);
+     * общее число и распределение по целям считаются точно
+     */
+    private int maxUsagesPerVariable = 50;
+
+    private TypeResolution typeResolution = new TypeResolution();
+
+    private Purpose purpose = new Purpose();
+
+    private Incremental incremental = new Incremental();
+
+    @Data
+    public static class TypeResolution {
+        /**
+         * Точная классификация Environment.getProperty через JavaParser symbol solver
+         */
+        private boolean enabled = false;
+
+        /**
+         * Бюджет времени на разрешение типов в одном файле (в миллисекундах)
+         */
+        private long fileBudgetMillis = 200;
+
+        /**
+         * Количество репозиториев, для которых кэшируются type solver'ы
+         */
+        private int cachedRepositories = 4;
+    }
+
+    @Data
+    public static class Incremental {
+        /**
+         * Сохранять результаты анализа использований между запусками и пересканировать
+         * только изменённые файлы и файлы, которые могут содержать новые переменные
+         */
+        private boolean enabled = true;
+
+        /**
+         * Директория снимков (вне app.temp-dir, которая очищается от старых клонов)
+         */
+        private String cacheDir = System.getProperty("java.io.tmpdir") + "/env-doc-agent-cache/usages";
+    }
+
+    @Data
+    public static class Purpose {
+        /**
+         * Использовать встроенные правила классификации целей использования
+         */
+        private boolean includeDefaults = true;
+
+        /**
+         * Дополнительные цели: метки с весом не ниже этой доли от веса основной
+         */
+        private double secondaryThreshold = 0.5;
+
+        /**
+         * Дополнительные правила (добавляются к встроенным или заменяют их)
+         */
+        private List<PurposeRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    public static class PurposeRule {
+        private UsagePurpose purpose;
+
+        /**
+         * Вес одного совпадения ключевого слова
+         */
+        private double weight = 1.0;
+
+        /**
+         * Ключевые слова; совпадают с целыми токенами идентификаторов или их склейкой
+         * (datasource совпадает с DataSource), допускается окончание -s
+         */
+        private List<String> keywords = new ArrayList<>();
+    }
+}
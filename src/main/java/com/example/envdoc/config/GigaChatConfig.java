@@ -6,14 +6,17 @@ import chat.giga.http.client.JdkHttpClientBuilder;
 import chat.giga.http.client.SSL;
 import chat.giga.langchain4j.GigaChatChatModel;
 import chat.giga.langchain4j.GigaChatChatRequestParameters;
+import chat.giga.langchain4j.GigaChatStreamingChatModel;
 import chat.giga.model.Scope;
 import com.example.envdoc.metrics.GigaChatMetricsListener;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -68,6 +71,11 @@ public class GigaChatConfig {
      */
     private boolean verifySsl = false;
 
+    /**
+     * Получать ответ потоково: строки таблицы и прогресс доступны до завершения генерации
+     */
+    private boolean streaming = false;
+
     /**
      * Тип keystore (например, PKCS12, JKS)
      */
@@ -99,29 +107,293 @@ public class GigaChatConfig {
     private String truststorePassword;
 
     /**
-     * Создаёт бин GigaChatChatModel для использования в сервисах.
+     * Кэш описаний переменных между запусками
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Разбиение переменных на пакеты запросов
+     */
+    private Batching batching = new Batching();
+
+    /**
+     * Кодирование входных данных промпта
+     */
+    private Prompt prompt = new Prompt();
+
+    /**
+     * Предзагрузка кода классов в промпт агента
+     */
+    private Prefetch prefetch = new Prefetch();
+
+    /**
+     * Ограничение частоты и параллельности запросов к GigaChat
+     */
+    private RateLimit rateLimit = new RateLimit();
+
+    /**
+     * Отключение GigaChat после серии ошибок
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Параллельный запуск простого клиента, если агент отвечает долго
+     */
+    private Hedging hedging = new Hedging();
+
+    /**
+     * Прогрев авторизации и соединений при старте
+     */
+    private Warmup warmup = new Warmup();
+
+    /**
+     * Словарь известных переменных, описываемых без GigaChat
+     */
+    private KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+    @Data
+    public static class Cache {
+        /**
+         * Заполнять описания неизменившихся переменных из кэша и отправлять в GigaChat только остальные
+         */
+        private boolean enabled = true;
+
+        /**
+         * Файл кэша
+         */
+        private String path = System.getProperty("java.io.tmpdir") + "/env-doc-agent-cache/descriptions.json";
+
+        /**
+         * Максимальное число записей; при превышении вытесняются давно не использованные
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * Срок жизни записи без обращений (в днях)
+         */
+        private int ttlDays = 30;
+    }
+
+    @Data
+    public static class Batching {
+        /**
+         * Разбивать переменные на пакеты и отправлять их параллельно
+         */
+        private boolean enabled = true;
+
+        /**
+         * Оценка токенов промпта одного пакета (входные данные и требования)
+         */
+        private int promptTokenBudget = 6000;
+
+        /**
+         * Максимум переменных в пакете: ответ (строка таблицы на переменную) должен уложиться в max-tokens
+         */
+        private int maxVariables = 30;
+
+        /**
+         * Количество одновременных запросов к GigaChat
+         */
+        private int concurrency = 4;
+
+        /**
+         * Попытки на пакет; после последней неудачной строки пакета строятся без GigaChat
+         */
+        private int maxAttempts = 2;
+
+        /**
+         * Пауза перед повтором (умножается на номер попытки)
+         */
+        private long retryBackoffMillis = 1000;
+    }
+
+    @Data
+    public static class Prompt {
+        /**
+         * Компактный JSON: словарь классов и файлов, сокращённые фрагменты, без пустых полей
+         */
+        private boolean compact = true;
+
+        /**
+         * Максимальная длина фрагмента кода определения (в символах)
+         */
+        private int snippetMaxChars = 300;
+
+        /**
+         * Максимальная длина контекста использования (в символах)
+         */
+        private int contextMaxChars = 160;
+
+        /**
+         * Использований на переменную в промпте; остальные учитываются в moreUsages (0 — без ограничения)
+         */
+        private int maxUsagesPerVariable = 10;
+
+        /**
+         * Запрашивать у GigaChat только описания; тип, категория и пример выводятся локально,
+         * таблица собирается без модели
+         */
+        private boolean descriptionsOnly = true;
+
+        /**
+         * Оценивать входные данные каждого промпта и во втором кодировании (полном или компактном),
+         * чтобы метрика documentation.prompt.tokens показывала экономию; требует лишней сериализации
+         */
+        private boolean tokenSavingsMetric = false;
+    }
+
+    @Data
+    public static class Prefetch {
+        /**
+         * Добавлять в промпт агента выдержки из классов, которые он скорее всего запросит инструментами
+         */
+        private boolean enabled = true;
+
+        /**
+         * Оценка токенов всех выдержек одного промпта
+         */
+        private int tokenBudget = 3000;
+
+        /**
+         * Максимум классов в выдержках
+         */
+        private int maxClasses = 8;
+
+        /**
+         * Максимум строк тела метода, использующего переменную; длинные тела сокращаются
+         */
+        private int maxMethodLines = 30;
+    }
+
+    @Data
+    public static class RateLimit {
+        /**
+         * Пропускать все запросы к GigaChat через общий ограничитель
+         */
+        private boolean enabled = true;
+
+        /**
+         * Запросов в секунду (0 — без ограничения)
+         */
+        private double requestsPerSecond = 2.0;
+
+        /**
+         * Токенов в минуту по оценке промпта с поправкой на фактический расход (0 — без ограничения)
+         */
+        private int tokensPerMinute = 60000;
+
+        /**
+         * Начальное число одновременных запросов; дальше подбирается по ответам 429 и задержке
+         */
+        private int initialConcurrency = 4;
+
+        private int minConcurrency = 1;
+
+        private int maxConcurrency = 8;
+
+        /**
+         * Задержка ответа, выше которой параллельность плавно снижается (0 — не учитывать)
+         */
+        private long latencyTargetMillis = 90000;
+
+        /**
+         * Повторы после ответа 429
+         */
+        private int maxRetries = 4;
+
+        /**
+         * Базовая пауза перед повтором; удваивается с каждой попыткой, к ней добавляется случайный разброс
+         */
+        private long retryBaseMillis = 1000;
+
+        private long retryMaxMillis = 30000;
+
+        /**
+         * Максимальное ожидание очереди ограничителя
+         */
+        private long maxQueueWaitSeconds = 300;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * После серии ошибок сразу строить документацию без GigaChat
+         */
+        private boolean enabled = true;
+
+        /**
+         * Ошибок или пустых ответов подряд до размыкания
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * Время в разомкнутом состоянии; затем один пробный запрос решает, замкнуть ли цепь
+         */
+        private long openSeconds = 60;
+    }
+
+    @Data
+    public static class Hedging {
+        /**
+         * Запускать простой клиент параллельно с агентом, если агент не ответил за hedge-after-millis
+         */
+        private boolean enabled = true;
+
+        private long hedgeAfterMillis = 30000;
+    }
+
+    @Data
+    public static class KnowledgeBase {
+        /**
+         * Описывать известные переменные Spring Boot и инфраструктуры из встроенного словаря
+         */
+        private boolean enabled = true;
+
+        /**
+         * Словарь организации в формате встроенного; его записи имеют приоритет
+         */
+        private String orgFile;
+    }
+
+    @Data
+    public static class Warmup {
+        /**
+         * После старта получить токен и открыть соединение с API, чтобы первая задача не ждала их
+         */
+        private boolean enabled = true;
+
+        /**
+         * Открывать соединение пробным запросом на один токен ответа
+         */
+        private boolean probeRequest = true;
+    }
+
+    /**
+     * Общий HTTP-клиент API GigaChat для обычной и потоковой модели: один пул соединений
+     * с поддержкой HTTP/2 и одна настройка TLS по keystore/truststore.
      */
     @Bean
-    public GigaChatChatModel gigaChatChatModel(MeterRegistry meterRegistry) {
-        if (hasKeyStoreConfigured()) {
-            var httpClient = buildCertificateHttpClient();
-            AuthClient authClient = AuthClient.builder()
-                .withCertificatesAuth(httpClient)
-                .build();
+    public chat.giga.http.client.HttpClient gigaChatHttpClient(HttpClientConfig httpClientConfig) {
+        if (!hasKeyStoreConfigured() && (credentials == null || credentials.isBlank())) {
+            return null;
+        }
 
-            return GigaChatChatModel.builder()
-                .apiHttpClient(httpClient)
-                .authClient(authClient)
-                .apiUrl(apiUrl)
-                .verifySslCerts(verifySsl)
-                .defaultChatRequestParameters(GigaChatChatRequestParameters.builder()
-                    .modelName(model)
-                    .temperature(temperature)
-                    .maxOutputTokens(maxTokens)
-                    .build())
-                .logRequests(true)
-                .logResponses(true)
-                .listeners(List.of(new GigaChatMetricsListener(meterRegistry)))
+        return new JdkHttpClientBuilder()
+            .httpClientBuilder(httpClientConfig.jdkHttpClientBuilder())
+            .connectTimeout(Duration.ofSeconds(httpClientConfig.getConnectTimeoutSeconds()))
+            .readTimeout(Duration.ofSeconds(timeoutSeconds))
+            .ssl(buildSsl())
+            .build();
+    }
+
+    /**
+     * Клиент авторизации, общий для моделей и прогрева: токен получается один раз на приложение.
+     */
+    @Bean
+    public AuthClient gigaChatAuthClient(ObjectProvider<chat.giga.http.client.HttpClient> gigaChatHttpClient) {
+        if (hasKeyStoreConfigured()) {
+            return AuthClient.builder()
+                .withCertificatesAuth(gigaChatHttpClient.getIfAvailable())
                 .build();
         }
 
@@ -129,20 +401,23 @@ public class GigaChatConfig {
             return null;
         }
 
-        Scope gigaScope = "GIGACHAT_API_CORP".equals(scope)
-            ? Scope.GIGACHAT_API_CORP
-            : Scope.GIGACHAT_API_PERS;
+        return buildOAuthClient();
+    }
 
-        AuthClient authClient = AuthClient.builder()
-            .withOAuth(AuthClientBuilder.OAuthBuilder.builder()
-                .scope(gigaScope)
-                .authKey(credentials)
-                .authApiUrl(authUrl)
-                .verifySslCerts(verifySsl)
-                .build())
-            .build();
+    /**
+     * Создаёт бин GigaChatChatModel для использования в сервисах.
+     */
+    @Bean
+    public GigaChatChatModel gigaChatChatModel(MeterRegistry meterRegistry,
+                                               ObjectProvider<chat.giga.http.client.HttpClient> gigaChatHttpClient,
+                                               ObjectProvider<AuthClient> gigaChatAuthClient) {
+        AuthClient authClient = gigaChatAuthClient.getIfAvailable();
+        if (authClient == null) {
+            return null;
+        }
 
         return GigaChatChatModel.builder()
+            .apiHttpClient(gigaChatHttpClient.getIfAvailable())
             .authClient(authClient)
             .apiUrl(apiUrl)
             .verifySslCerts(verifySsl)
@@ -157,21 +432,64 @@ public class GigaChatConfig {
             .build();
     }
 
+    /**
+     * Создаёт потоковую модель GigaChat, если включён {@code gigachat.streaming}.
+     */
+    @Bean
+    public GigaChatStreamingChatModel gigaChatStreamingChatModel(MeterRegistry meterRegistry,
+                                                                 ObjectProvider<chat.giga.http.client.HttpClient> gigaChatHttpClient,
+                                                                 ObjectProvider<AuthClient> gigaChatAuthClient) {
+        AuthClient authClient = gigaChatAuthClient.getIfAvailable();
+        if (!streaming || authClient == null) {
+            return null;
+        }
+
+        return GigaChatStreamingChatModel.builder()
+            .apiHttpClient(gigaChatHttpClient.getIfAvailable())
+            .authClient(authClient)
+            .apiUrl(apiUrl)
+            .verifySslCerts(verifySsl)
+            .defaultChatRequestParameters(GigaChatChatRequestParameters.builder()
+                .modelName(model)
+                .temperature(temperature)
+                .maxOutputTokens(maxTokens)
+                .build())
+            .logRequests(false)
+            .logResponses(false)
+            .listeners(List.of(new GigaChatMetricsListener(meterRegistry)))
+            .build();
+    }
+
+    private AuthClient buildOAuthClient() {
+        Scope gigaScope = "GIGACHAT_API_CORP".equals(scope)
+            ? Scope.GIGACHAT_API_CORP
+            : Scope.GIGACHAT_API_PERS;
+
+        return AuthClient.builder()
+            .withOAuth(AuthClientBuilder.OAuthBuilder.builder()
+                .scope(gigaScope)
+                .authKey(credentials)
+                .authApiUrl(authUrl)
+                .verifySslCerts(verifySsl)
+                .build())
+            .build();
+    }
+
     private boolean hasKeyStoreConfigured() {
         return keystorePath != null && !keystorePath.isBlank();
     }
 
-    private chat.giga.http.client.HttpClient buildCertificateHttpClient() {
-        if (keystorePath == null || keystorePath.isBlank()) {
-            throw new IllegalArgumentException("Certificate auth требует keystorePath");
-        }
-
+    private SSL buildSsl() {
         SSL.SSLBuilder sslBuilder = SSL.builder()
-            .keystorePath(keystorePath)
-            .keystorePassword(keystorePassword)
-            .keystoreType(keystoreType != null ? keystoreType : "PKCS12")
             .verifySslCerts(verifySsl);
 
+        if (hasKeyStoreConfigured()) {
+            sslBuilder
+                .keystorePath(keystorePath)
+                .keystorePassword(keystorePassword)
+                .keystoreType(keystoreType != null ? keystoreType : "PKCS12");
+        }
+
         if (truststorePath != null && !truststorePath.isBlank()) {
             sslBuilder
                 .truststorePath(truststorePath)
@@ -179,10 +497,6 @@ public class GigaChatConfig {
                 .trustStoreType(truststoreType != null ? truststoreType : "PKCS12");
         }
 
-        SSL ssl = sslBuilder.build();
-
-        return new JdkHttpClientBuilder()
-            .ssl(ssl)
-            .build();
+        return sslBuilder.build();
     }
 }
@@ -0,0 +1,101 @@
+package com.example.envdoc.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Общие HTTP-клиенты внешних интеграций: пул соединений с keep-alive и HTTP/2.
+ * <p>
+ * Клиенты создаются один раз на приложение, поэтому TCP/TLS-рукопожатие оплачивается
+ * при первом запросе (или прогреве), а не в каждой задаче. Пул и рукопожатия клиента
+ * Reactor Netty (Confluence) публикуются в Micrometer как метрики {@code reactor.netty.*}.
+ * JDK-клиент GigaChat берёт отсюда только версию протокола и таймаут соединения;
+ * {@code java.net.http} не даёт ни событий пула, ни времени рукопожатия, поэтому для него
+ * есть лишь время прогрева {@code gigachat.warmup.duration}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientConfig {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    /**
+     * Разрешить HTTP/2 (с откатом на HTTP/1.1, если сервер его не поддерживает)
+     */
+    private boolean http2 = true;
+
+    /**
+     * Максимум соединений в пуле на один хост
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Время простоя, после которого соединение закрывается
+     */
+    private int maxIdleSeconds = 60;
+
+    /**
+     * Сколько ждать свободного соединения из пула
+     */
+    private int pendingAcquireTimeoutSeconds = 30;
+
+    /**
+     * Таймаут установки соединения
+     */
+    private int connectTimeoutSeconds = 10;
+
+    /**
+     * Пул соединений Reactor Netty, общий для WebClient-интеграций.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider httpConnectionProvider() {
+        return ConnectionProvider.builder("env-doc")
+            .maxConnections(maxConnections)
+            .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeoutSeconds))
+            .metrics(true)
+            .build();
+    }
+
+    /**
+     * HTTP-клиент Reactor Netty поверх общего пула. Идентификаторы в пути заменяются
+     * на {@code {id}}, чтобы метрики не плодили теги на каждую страницу.
+     */
+    @Bean
+    public HttpClient reactorHttpClient(ConnectionProvider httpConnectionProvider) {
+        HttpProtocol[] protocols = http2
+            ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+            : new HttpProtocol[]{HttpProtocol.HTTP11};
+
+        return HttpClient.create(httpConnectionProvider)
+            .protocol(protocols)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutSeconds * 1000)
+            .keepAlive(true)
+            .metrics(true, HttpClientConfig::metricsUri);
+    }
+
+    /**
+     * Построитель JDK-клиента для SDK GigaChat с теми же таймаутом соединения и версией протокола.
+     */
+    public java.net.http.HttpClient.Builder jdkHttpClientBuilder() {
+        return java.net.http.HttpClient.newBuilder()
+            .version(http2 ? java.net.http.HttpClient.Version.HTTP_2 : java.net.http.HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds));
+    }
+
+    static String metricsUri(String uri) {
+        int query = uri.indexOf('?');
+        String path = query >= 0 ? uri.substring(0, query) : uri;
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
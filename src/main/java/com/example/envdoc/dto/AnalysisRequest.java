@@ -1,5 +1,7 @@
 package com.example.envdoc.dto;
 
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.ExtractionMode;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -42,6 +44,17 @@ public class AnalysisRequest {
      */
     private ConfluenceConfig confluenceConfig;
 
+    /**
+     * Java-экстракторы для запуска (SPRING_VALUE, CONFIG_PROPERTIES, SYSTEM_GETENV,
+     * SYSTEM_PROPERTY, ENVIRONMENT_API). По умолчанию включены все
+     */
+    private List<DefinitionType> extractors;
+
+    /**
+     * Режим извлечения из Java файлов (AST или LEXICAL). По умолчанию из конфигурации
+     */
+    private ExtractionMode extractionMode;
+
     public enum OutputFormat {
         MARKDOWN,
         CONFLUENCE
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ответ с результатами анализа.
@@ -40,6 +41,11 @@ public class AnalysisResponse {
      */
     private String message;
 
+    /**
+     * Частичный Markdown, пока идёт генерация документации
+     */
+    private String partialMarkdown;
+
     /**
      * Результат анализа (заполняется после завершения)
      */
@@ -62,6 +68,7 @@ public class AnalysisResponse {
         private long requiredVariables;
         private long optionalVariables;
         private List<EnvVariableDto> variables;
+        private Map<String, List<String>> modules;
         private String markdownUrl;
         private String confluencePageUrl;
     }
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO переменной окружения для API.
@@ -62,6 +63,21 @@ public class EnvVariableDto {
      */
     private List<UsageDto> usages;
 
+    /**
+     * Общее число использований
+     */
+    private int totalUsages;
+
+    /**
+     * Число использований, не вошедших в usages («ещё N»)
+     */
+    private int moreUsages;
+
+    /**
+     * Число использований по целям
+     */
+    private Map<UsagePurpose, Integer> usagesByPurpose;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -83,6 +99,7 @@ public class EnvVariableDto {
         private String methodName;
         private int lineNumber;
         private UsagePurpose purpose;
+        private List<UsagePurpose> purposes;
         private String context;
     }
 }
@@ -0,0 +1,36 @@
+package com.example.envdoc.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики прогрева соединений с GigaChat: время получения токена и первого соединения. Метрик пула и TLS-рукопожатий JDK-клиента GigaChat нет:
+ * {@code java.net.http} их не предоставляет. Для Confluence их публикует сам Reactor Netty
+ * ({@code reactor.netty.*}).
+ */
+@Component
+public class ConnectionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Записывает длительность этапа прогрева.
+     *
+     * @param stage token — получение токена, connection — пробный запрос к API
+     */
+    public void recordWarmup(String stage, boolean success, long durationNanos) {
+        Timer.builder("gigachat.warmup.duration")
+            .tag("stage", stage)
+            .tag("result", success ? "success" : "error")
+            .description("Time to warm up GigaChat authorization and API connection at startup")
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
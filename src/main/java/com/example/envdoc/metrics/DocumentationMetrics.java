@@ -0,0 +1,203 @@
+package com.example.envdoc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Метрики генерации документации: кэш описаний, сжатие промпта, пакеты запросов, потоковые ответы и вызовы инструментов агентом.
+ */
+@Component
+public class DocumentationMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter savedTokens;
+    private final Timer timeToFirstToken;
+    private final Counter prefetchTokensCounter;
+    private final Counter prefetchedRequestedCounter;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong resolvedLocally = new AtomicLong();
+    private final AtomicLong resolvedTotal = new AtomicLong();
+
+    public DocumentationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.cacheHits = Counter.builder("documentation.cache.lookups")
+            .tag("result", "hit")
+            .description("Variable description cache lookups")
+            .register(meterRegistry);
+
+        this.cacheMisses = Counter.builder("documentation.cache.lookups")
+            .tag("result", "miss")
+            .description("Variable description cache lookups")
+            .register(meterRegistry);
+
+        this.savedTokens = Counter.builder("documentation.cache.tokens.saved")
+            .description("Estimated prompt tokens not sent to GigaChat thanks to the description cache")
+            .register(meterRegistry);
+
+        this.timeToFirstToken = Timer.builder("documentation.stream.first.token")
+            .description("Time from a streaming GigaChat request to its first token")
+            .publishPercentiles(0.5, 0.95)
+            .register(meterRegistry);
+
+        this.prefetchTokensCounter = Counter.builder("documentation.prefetch.tokens")
+            .description("Estimated prompt tokens of prefetched class excerpts")
+            .register(meterRegistry);
+
+        this.prefetchedRequestedCounter = Counter.builder("documentation.prefetch.requested")
+            .description("Prefetched classes the agent still requested with a tool call")
+            .register(meterRegistry);
+
+        Gauge.builder("documentation.cache.hit.ratio", this, DocumentationMetrics::hitRatio)
+            .description("Share of variables described from the cache")
+            .register(meterRegistry);
+
+        Gauge.builder("documentation.local.resolution.ratio", this, DocumentationMetrics::localResolutionRatio)
+            .description("Share of variables described without GigaChat (knowledge base and cache)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Записывает результат обращений к кэшу описаний за один запуск.
+     *
+     * @param hitCount    переменные, описанные из кэша
+     * @param missCount   переменные, отправленные в GigaChat
+     * @param tokensSaved оценка токенов промпта для переменных из кэша
+     */
+    public void recordDescriptionCache(int hitCount, int missCount, long tokensSaved) {
+        cacheHits.increment(hitCount);
+        cacheMisses.increment(missCount);
+        savedTokens.increment(tokensSaved);
+        hits.addAndGet(hitCount);
+        lookups.addAndGet(hitCount + missCount);
+    }
+
+    /**
+     * Записывает обработку пакета переменных.
+     *
+     * @param result    success — с первой попытки, retried — после повторов, failed — строки построены без GigaChat
+     * @param nanos     время обработки пакета со всеми попытками
+     * @param variables количество переменных в пакете
+     */
+    public void recordBatch(String result, long nanos, int variables) {
+        Timer.builder("documentation.batch.duration")
+            .tag("result", result)
+            .description("Duration of GigaChat documentation batches including retries")
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+
+        Counter.builder("documentation.batch.variables")
+            .tag("result", result)
+            .description("Variables sent to GigaChat in documentation batches")
+            .register(meterRegistry)
+            .increment(variables);
+    }
+
+    /**
+     * Записывает оценку токенов входных данных промпта в заданном кодировании.
+     *
+     * @param encoding full или compact
+     */
+    public void recordPromptTokens(String encoding, int tokens) {
+        Counter.builder("documentation.prompt.tokens")
+            .tag("encoding", encoding)
+            .description("Estimated input tokens of GigaChat prompts by encoding")
+            .register(meterRegistry)
+            .increment(tokens);
+    }
+
+    /**
+     * Записывает, откуда взяты описания переменных задачи.
+     *
+     * @param knowledgeBase из словаря известных переменных
+     * @param cached        из кэша описаний
+     * @param generated     отправлено в GigaChat
+     */
+    public void recordResolution(int knowledgeBase, int cached, int generated) {
+        recordResolved("knowledge_base", knowledgeBase);
+        recordResolved("cache", cached);
+        recordResolved("gigachat", generated);
+        resolvedLocally.addAndGet(knowledgeBase + cached);
+        resolvedTotal.addAndGet(knowledgeBase + cached + generated);
+    }
+
+    private void recordResolved(String source, int count) {
+        Counter.builder("documentation.variables.resolved")
+            .tag("source", source)
+            .description("Documented variables by where their description came from")
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * Записывает поля, выведенные локально без GigaChat.
+     *
+     * @param field type, category или example
+     */
+    public void recordInferredFields(String field, int count) {
+        Counter.builder("documentation.inference.fields")
+            .tag("field", field)
+            .description("Variable fields inferred locally before the GigaChat stage")
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * Записывает запуск агента: вызовы инструментов и предзагруженный код классов.
+     * Экономию от предзагрузки показывает сравнение вызовов за запуск с тегом prefetch.
+     *
+     * @param toolCalls           вызовы по инструментам
+     * @param prefetchEnabled     включена ли предзагрузка кода классов
+     * @param prefetchTokens      оценка токенов предзагруженных выдержек
+     * @param prefetchedRequested предзагруженные классы, код которых агент всё равно запросил
+     */
+    public void recordAgentRun(Map<String, Integer> toolCalls,
+                               boolean prefetchEnabled,
+                               int prefetchTokens,
+                               int prefetchedRequested) {
+        int total = 0;
+        for (Map.Entry<String, Integer> calls : toolCalls.entrySet()) {
+            Counter.builder("documentation.agent.tool.calls")
+                .tag("tool", calls.getKey())
+                .description("Tool calls made by the GigaChat agent")
+                .register(meterRegistry)
+                .increment(calls.getValue());
+            total += calls.getValue();
+        }
+        DistributionSummary.builder("documentation.agent.tool.calls.per.run")
+            .tag("prefetch", prefetchEnabled ? "enabled" : "disabled")
+            .description("Tool calls per GigaChat agent run")
+            .register(meterRegistry)
+            .record(total);
+        prefetchTokensCounter.increment(prefetchTokens);
+        prefetchedRequestedCounter.increment(prefetchedRequested);
+    }
+
+    /**
+     * Записывает время до первого токена потокового ответа.
+     */
+    public void recordTimeToFirstToken(long nanos) {
+        timeToFirstToken.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private double localResolutionRatio() {
+        long total = resolvedTotal.get();
+        return total == 0 ? 0.0 : (double) resolvedLocally.get() / total;
+    }
+
+    private double hitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+}
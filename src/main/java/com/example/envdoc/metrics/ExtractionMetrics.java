@@ -0,0 +1,122 @@
+package com.example.envdoc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики извлечения переменных из исходного кода.
+ */
+@Component
+public class ExtractionMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer resolutionDuration;
+
+    public ExtractionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.resolutionDuration = Timer.builder("extraction.type.resolution.duration")
+            .description("Time spent resolving receiver types with the symbol solver")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Отмечает обращение к кэшу разрешения типов.
+     *
+     * @param cache имя кэша (solver — type solver'ы репозиториев, type — классификация типов)
+     * @param hit   true, если значение найдено в кэше
+     */
+    public void recordResolutionCache(String cache, boolean hit) {
+        Counter.builder("extraction.type.resolution.cache")
+            .tag("cache", cache)
+            .tag("result", hit ? "hit" : "miss")
+            .description("Type resolution cache lookups")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Записывает время разрешения типа получателя.
+     */
+    public void recordResolutionDuration(long nanos) {
+        resolutionDuration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Отмечает переход на эвристику (reason: budget, unresolved).
+     */
+    public void recordResolutionFallback(String reason) {
+        Counter.builder("extraction.type.resolution.fallback")
+            .tag("reason", reason)
+            .description("Receiver classifications that fell back to the name heuristic")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Записывает запуск плагина извлечения на одном файле.
+     *
+     * @param plugin       тип плагина
+     * @param nanos        время работы
+     * @param examined     количество разобранных плагином узлов AST (в лексическом режиме — токенов)
+     * @param candidates   количество найденных кандидатов
+     */
+    public void recordPluginRun(String plugin, long nanos, int examined, int candidates) {
+        Timer.builder("extraction.plugin.duration")
+            .tag("plugin", plugin)
+            .description("Duration of extractor plugin runs per file")
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+
+        Counter.builder("extraction.plugin.examined")
+            .tag("plugin", plugin)
+            .description("Matched AST nodes (tokens in lexical mode) examined by extractor plugin")
+            .register(meterRegistry)
+            .increment(examined);
+
+        Counter.builder("extraction.plugin.candidates")
+            .tag("plugin", plugin)
+            .description("Variable candidates found by extractor plugin")
+            .register(meterRegistry)
+            .increment(candidates);
+    }
+
+    /**
+     * Записывает обработку шарда модуля.
+     *
+     * @param stage стадия (extract, usages)
+     * @param nanos время обработки модуля
+     * @param files количество файлов модуля
+     */
+    public void recordModuleShard(String stage, long nanos, int files) {
+        Timer.builder("extraction.module.duration")
+            .tag("stage", stage)
+            .description("Duration of per-module extraction shards")
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+
+        Counter.builder("extraction.module.files")
+            .tag("stage", stage)
+            .description("Files processed by per-module shards")
+            .register(meterRegistry)
+            .increment(files);
+    }
+
+    /**
+     * Отмечает обработку файла при анализе использований.
+     *
+     * @param result reused — взят из кэша, rescanned — отпечаток содержит новые имена,
+     *               analyzed — новый или изменённый файл
+     */
+    public void recordUsageFile(String result) {
+        Counter.builder("extraction.usage.files")
+            .tag("result", result)
+            .description("Java files handled by incremental usage analysis")
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.envdoc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Метрики ограничителя запросов к GigaChat: ожидание в очереди, ответы 429 и повторы.
+ */
+@Component
+public class RateLimitMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter throttled;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public RateLimitMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.queueWait = Timer.builder("gigachat.ratelimit.queue.wait")
+            .description("Time GigaChat requests wait for the rate limiter")
+            .publishPercentiles(0.5, 0.95)
+            .register(meterRegistry);
+
+        this.throttled = Counter.builder("gigachat.ratelimit.throttled")
+            .description("GigaChat responses with HTTP 429")
+            .register(meterRegistry);
+
+        this.retries = Counter.builder("gigachat.ratelimit.retries")
+            .description("GigaChat requests retried after HTTP 429")
+            .register(meterRegistry);
+
+        this.exhausted = Counter.builder("gigachat.ratelimit.exhausted")
+            .description("GigaChat requests failed after all HTTP 429 retries or queue timeout")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Регистрирует текущий лимит параллельности и число запросов в работе.
+     */
+    public void registerConcurrency(Supplier<Number> limit, Supplier<Number> inFlight) {
+        Gauge.builder("gigachat.ratelimit.concurrency.limit", limit)
+            .description("Adaptive limit of concurrent GigaChat requests")
+            .register(meterRegistry);
+
+        Gauge.builder("gigachat.ratelimit.in.flight", inFlight)
+            .description("GigaChat requests in flight")
+            .register(meterRegistry);
+    }
+
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Записывает ответ 429.
+     *
+     * @param retried будет ли запрос повторён
+     */
+    public void recordThrottle(boolean retried) {
+        throttled.increment();
+        if (retried) {
+            retries.increment();
+        } else {
+            exhausted.increment();
+        }
+    }
+
+    public void recordQueueTimeout() {
+        exhausted.increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.envdoc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Метрики устойчивости генерации: состояние circuit breaker GigaChat и исход hedging-запросов.
+ */
+@Component
+public class ResilienceMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter shortCircuited;
+
+    public ResilienceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.shortCircuited = Counter.builder("gigachat.circuit.short.circuited")
+            .description("GigaChat requests skipped because the circuit breaker is open")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Регистрирует состояние circuit breaker: 0 — замкнут, 1 — пробный запрос, 2 — разомкнут.
+     */
+    public void registerCircuitState(Supplier<Number> state) {
+        Gauge.builder("gigachat.circuit.state", state)
+            .description("GigaChat circuit breaker state: 0 closed, 1 half-open, 2 open")
+            .register(meterRegistry);
+    }
+
+    public void recordCircuitTransition(String state) {
+        Counter.builder("gigachat.circuit.transitions")
+            .tag("state", state)
+            .description("GigaChat circuit breaker state transitions")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordShortCircuit() {
+        shortCircuited.increment();
+    }
+
+    /**
+     * Записывает исход генерации с hedging.
+     *
+     * @param hedged запускался ли простой клиент параллельно с агентом
+     * @param winner генератор, чей ответ использован: agent, simple или none
+     */
+    public void recordHedge(boolean hedged, String winner) {
+        Counter.builder("documentation.hedge.requests")
+            .tag("hedged", String.valueOf(hedged))
+            .tag("winner", winner)
+            .description("Agent generations by whether the simple client was started in parallel and which answer won")
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Результат анализа репозитория.
@@ -48,6 +50,12 @@ public class AnalysisResult {
     @Builder.Default
     private List<EnvVariable> variables = new ArrayList<>();
 
+    /**
+     * Переменные по модулям: имена переменных, определённых в каждом модуле
+     */
+    @Builder.Default
+    private Map<String, List<String>> moduleVariables = new LinkedHashMap<>();
+
     /**
      * Общее количество переменных
      */
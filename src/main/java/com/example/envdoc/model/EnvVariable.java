@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Модель переменной окружения с полной информацией о её определении и использовании.
@@ -42,6 +44,17 @@ public class EnvVariable {
     @Builder.Default
     private List<VariableUsage> usages = new ArrayList<>();
 
+    /**
+     * Общее число найденных использований (в usages может храниться только часть)
+     */
+    private int totalUsages;
+
+    /**
+     * Число использований по целям с учётом не сохранённых
+     */
+    @Builder.Default
+    private Map<UsagePurpose, Integer> usagePurposeCounts = new EnumMap<>(UsagePurpose.class);
+
     /**
      * Сгенерированное описание переменной (от GigaChat)
      */
@@ -62,6 +75,14 @@ public class EnvVariable {
      */
     private String exampleValue;
 
+    /**
+     * Число найденных, но не сохранённых использований («ещё N»)
+     */
+    public int getOmittedUsages() {
+        int retained = usages != null ? usages.size() : 0;
+        return Math.max(0, totalUsages - retained);
+    }
+
     /**
      * Добавить информацию об использовании переменной
      */
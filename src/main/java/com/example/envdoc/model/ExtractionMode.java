@@ -0,0 +1,16 @@
+package com.example.envdoc.model;
+
+/**
+ * Режим извлечения переменных из Java файлов.
+ */
+public enum ExtractionMode {
+    /**
+     * Полный разбор JavaParser: константы, точная классификация получателей, плагины
+     */
+    AST,
+
+    /**
+     * Поток токенов без построения AST: быстрее, только строковые литералы в аргументах
+     */
+    LEXICAL
+}
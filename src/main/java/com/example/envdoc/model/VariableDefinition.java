@@ -43,6 +43,11 @@ public class VariableDefinition {
      */
     private String fieldOrMethodName;
 
+    /**
+     * Java тип поля (для @Value и @ConfigurationProperties), например {@code Duration}
+     */
+    private String javaType;
+
     /**
      * Имя модуля, в котором найдено определение
      */
@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Информация об использовании переменной окружения в коде.
  */
@@ -43,6 +46,12 @@ public class VariableUsage {
      */
     private UsagePurpose purpose;
 
+    /**
+     * Все цели с достаточным весом, основная — первая
+     */
+    @Builder.Default
+    private List<UsagePurpose> purposes = new ArrayList<>();
+
     /**
      * Фрагмент кода с использованием
      */
@@ -18,6 +18,7 @@ public class AnalysisJob {
     private volatile int progress;
     private volatile String currentStep;
     private volatile String message;
+    private volatile String partialMarkdown;
     private LocalDateTime startedAt;
     private volatile AnalysisResult result;
 }
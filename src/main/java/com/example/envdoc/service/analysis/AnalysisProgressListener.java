@@ -6,4 +6,10 @@ package com.example.envdoc.service.analysis;
 @FunctionalInterface
 public interface AnalysisProgressListener {
     void onProgress(int progress, String step);
+
+    /**
+     * Частичный Markdown, пока GigaChat генерирует документацию.
+     */
+    default void onPartialMarkdown(String markdown) {
+    }
 }
@@ -34,6 +34,7 @@ public class AnalysisResultMapper {
                 .requiredVariables(result.getRequiredVariables())
                 .optionalVariables(result.getOptionalVariables())
                 .variables(variableDtos)
+                .modules(result.getModuleVariables())
                 .markdownUrl(markdownUrl)
                 .confluencePageUrl(result.getConfluencePageUrl())
                 .build();
@@ -58,6 +59,7 @@ public class AnalysisResultMapper {
                                 .methodName(u.getMethodName())
                                 .lineNumber(u.getLineNumber())
                                 .purpose(u.getPurpose())
+                                .purposes(u.getPurposes())
                                 .context(u.getUsageContext())
                                 .build())
                         .collect(Collectors.toList())
@@ -73,6 +75,9 @@ public class AnalysisResultMapper {
                 .category(var.getCategory())
                 .definition(definitionDto)
                 .usages(usageDtos)
+                .totalUsages(Math.max(var.getTotalUsages(), usageDtos.size()))
+                .moreUsages(var.getOmittedUsages())
+                .usagesByPurpose(var.getUsagePurposeCounts())
                 .build();
     }
 }
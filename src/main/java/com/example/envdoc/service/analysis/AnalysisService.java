@@ -87,6 +87,10 @@ public class AnalysisService {
                 .currentStep(job.getCurrentStep())
                 .message(job.getMessage());
 
+        if (job.getStatus() == AnalysisResponse.AnalysisStatus.PROCESSING) {
+            builder.partialMarkdown(job.getPartialMarkdown());
+        }
+
         if (job.getStatus() == AnalysisResponse.AnalysisStatus.COMPLETED && job.getResult() != null) {
             builder.result(resultMapper.toDto(job));
         }
@@ -128,10 +132,21 @@ public class AnalysisService {
                     job.getRequest(),
                     shouldGenerateMarkdown(job.getRequest()),
                     shouldPublishToConfluence(job.getRequest()),
-                    (progress, step) -> updateJobProgress(job, progress, step)
+                    new AnalysisProgressListener() {
+                        @Override
+                        public void onProgress(int progress, String step) {
+                            updateJobProgress(job, progress, step);
+                        }
+
+                        @Override
+                        public void onPartialMarkdown(String markdown) {
+                            job.setPartialMarkdown(markdown);
+                        }
+                    }
             );
 
             job.setResult(result);
+            job.setPartialMarkdown(null);
             job.setStatus(AnalysisResponse.AnalysisStatus.COMPLETED);
             job.setProgress(100);
             job.setCurrentStep("Completed");
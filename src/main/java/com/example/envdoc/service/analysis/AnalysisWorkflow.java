@@ -6,8 +6,11 @@ import com.example.envdoc.model.AnalysisResult;
 import com.example.envdoc.model.EnvVariable;
 import com.example.envdoc.service.confluence.ConfluencePublishService;
 import com.example.envdoc.service.documentation.DocumentGenerator;
+import com.example.envdoc.service.documentation.DocumentationListener;
 import com.example.envdoc.service.documentation.GigaChatService;
 import com.example.envdoc.service.extraction.EnvVarExtractor;
+import com.example.envdoc.service.extraction.ExtractionResult;
+import com.example.envdoc.service.extraction.ModuleProgressListener;
 import com.example.envdoc.service.extraction.UsageAnalyzer;
 import com.example.envdoc.service.repository.RepositoryHandle;
 import com.example.envdoc.service.repository.RepositoryResolver;
@@ -56,20 +59,26 @@ public class AnalysisWorkflow {
             // 1. Извлечение переменных
             notify(listener, 30, "Extracting environment variables...");
             Timer.Sample extractSample = analysisMetrics.startTimer();
-            Map<String, EnvVariable> variables = envVarExtractor.extractAllVariables(repository.getPath());
+            ExtractionResult extraction = envVarExtractor.extract(
+                    repository.getPath(), request.getExtractors(), request.getExtractionMode(),
+                    moduleProgress(listener, 30, 50, "Extracted module"));
+            Map<String, EnvVariable> variables = extraction.variables();
             analysisMetrics.recordStepDuration(extractSample, "extract");
 
             // 2. Анализ использования
             notify(listener, 50, "Analyzing variable usages...");
             Timer.Sample analyzeSample = analysisMetrics.startTimer();
-            usageAnalyzer.analyzeUsages(variables, repository.getPath());
+            usageAnalyzer.analyzeUsages(variables, repository.getPath(),
+                    moduleProgress(listener, 50, 70, "Analyzed usages in module"),
+                    request.getRepositoryUrl() + "#" + request.getBranch());
             analysisMetrics.recordStepDuration(analyzeSample, "analyze");
 
             // 3. Генерация документации
             notify(listener, 70, "Generating documentation with GigaChat...");
             Timer.Sample generateSample = analysisMetrics.startTimer();
             List<EnvVariable> varList = new ArrayList<>(variables.values());
-            String markdownContent = gigaChatService.generateDocumentation(varList, projectName, repository.getPath());
+            String markdownContent = gigaChatService.generateDocumentation(varList, projectName, repository.getPath(),
+                    extraction.javaFiles(), documentationProgress(listener, 70, 85));
             analysisMetrics.recordStepDuration(generateSample, "generate");
 
             // 4. Сохранение результата
@@ -82,6 +91,7 @@ public class AnalysisWorkflow {
                     .startedAt(LocalDateTime.now())
                     .completedAt(LocalDateTime.now())
                     .variables(varList)
+                    .moduleVariables(extraction.moduleVariables())
                     .markdownContent(markdownContent)
                     .build();
 
@@ -111,6 +121,32 @@ public class AnalysisWorkflow {
         }
     }
 
+    /**
+     * Переводит завершение модулей в прогресс внутри диапазона шага.
+     */
+    private ModuleProgressListener moduleProgress(AnalysisProgressListener listener,
+                                                  int from,
+                                                  int to,
+                                                  String step) {
+        return (module, completed, total) -> notify(listener,
+                from + (to - from) * completed / Math.max(1, total),
+                step + " " + module + " (" + completed + "/" + total + ")");
+    }
+
+    /**
+     * Переводит полученные строки таблицы в прогресс и частичный Markdown.
+     */
+    private DocumentationListener documentationProgress(AnalysisProgressListener listener, int from, int to) {
+        if (listener == null) {
+            return null;
+        }
+        return (rows, total, partialMarkdown) -> {
+            listener.onProgress(from + (to - from) * rows / Math.max(1, total),
+                    "Generating documentation with GigaChat (" + rows + "/" + total + " rows)");
+            listener.onPartialMarkdown(partialMarkdown);
+        };
+    }
+
     private void notify(AnalysisProgressListener listener, int progress, String step) {
         if (listener != null) {
             listener.onProgress(progress, step);
@@ -9,8 +9,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
 import java.util.Base64;
@@ -27,7 +29,7 @@ public class ConfluencePublisher {
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
 
-    public ConfluencePublisher(ConfluenceConfig config) {
+    public ConfluencePublisher(ConfluenceConfig config, HttpClient reactorHttpClient) {
         this.config = config;
         this.objectMapper = new ObjectMapper();
 
@@ -36,6 +38,7 @@ public class ConfluencePublisher {
 
         this.webClient = WebClient.builder()
                 .baseUrl(config.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(reactorHttpClient))
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + encodedCredentials)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .codecs(configurer -> configurer
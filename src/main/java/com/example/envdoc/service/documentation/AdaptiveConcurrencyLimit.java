@@ -0,0 +1,76 @@
+package com.example.envdoc.service.documentation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лимит одновременных запросов по схеме AIMD: после успешного ответа лимит растёт
+ * примерно на единицу за «окно» из {@code limit} ответов, после ответа 429 — уменьшается вдвое,
+ * после ответа дольше целевой задержки — на 10%.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    enum Outcome {
+        SUCCESS,
+        THROTTLED,
+        FAILED
+    }
+
+    private static final double LATENCY_DECREASE = 0.9;
+
+    private final int min;
+    private final int max;
+    private final long latencyTargetNanos;
+    private double limit;
+    private int inFlight;
+
+    AdaptiveConcurrencyLimit(int initial, int min, int max, long latencyTargetNanos) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = Math.min(this.max, Math.max(this.min, initial));
+    }
+
+    /**
+     * Ждёт свободного места в пределах лимита.
+     *
+     * @return false, если место не освободилось за {@code timeoutNanos}
+     */
+    synchronized boolean acquire(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (inFlight >= (int) limit) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        inFlight++;
+        return true;
+    }
+
+    synchronized void release(Outcome outcome, long latencyNanos) {
+        inFlight--;
+        switch (outcome) {
+            case THROTTLED -> limit = Math.max(min, limit / 2);
+            case SUCCESS -> {
+                if (latencyTargetNanos > 0 && latencyNanos > latencyTargetNanos) {
+                    limit = Math.max(min, limit * LATENCY_DECREASE);
+                } else {
+                    limit = Math.min(max, limit + 1 / limit);
+                }
+            }
+            case FAILED -> {
+                // Ошибка не говорит о загрузке квоты: лимит не меняется
+            }
+        }
+        notifyAll();
+    }
+
+    synchronized double limit() {
+        return limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.model.VariableUsage;
+import com.example.envdoc.tools.ClassCodeTool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Подбирает код классов для промпта агента до его запуска.
+ * <p>
+ * Каждый вызов инструмента агентом — отдельный запрос к GigaChat, поэтому классы,
+ * которые агент скорее всего запросит, передаются сразу: классы определения переменных
+ * и классы с наибольшим числом использований. Из классов берутся только поля, сигнатуры
+ * и методы, связанные с переменными, в пределах {@code gigachat.prefetch.token-budget}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContextPrefetcher {
+
+    /**
+     * Вес класса определения относительно одного использования.
+     */
+    private static final int DEFINITION_WEIGHT = 100;
+
+    private final GigaChatConfig config;
+
+    /**
+     * Выдержки из классов для промпта.
+     *
+     * @param context выдержки в виде Java-кода (пустая строка, если ничего не подобрано)
+     * @param classes полные имена классов в выдержках
+     * @param tokens  оценка токенов выдержек
+     */
+    public record Prefetch(String context, List<String> classes, int tokens) {
+
+        public static final Prefetch EMPTY = new Prefetch("", List.of(), 0);
+
+        public boolean isEmpty() {
+            return classes.isEmpty();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.getPrefetch().isEnabled();
+    }
+
+    public Prefetch prefetch(List<EnvVariable> variables, ClassCodeTool tool) {
+        GigaChatConfig.Prefetch settings = config.getPrefetch();
+        if (!settings.isEnabled() || tool == null || tool.getRepoPath() == null) {
+            return Prefetch.EMPTY;
+        }
+
+        Map<String, Candidate> candidates = new HashMap<>();
+        for (EnvVariable variable : variables) {
+            VariableDefinition definition = variable.getDefinition();
+            if (definition != null && definition.getClassName() != null) {
+                Candidate candidate = candidates.computeIfAbsent(definition.getClassName(), Candidate::new);
+                candidate.score += DEFINITION_WEIGHT;
+                if (definition.getFieldOrMethodName() != null) {
+                    candidate.focus.add(definition.getFieldOrMethodName());
+                }
+                if (definition.getLineNumber() > 0) {
+                    candidate.lines.add(definition.getLineNumber());
+                }
+            }
+            if (variable.getUsages() == null) {
+                continue;
+            }
+            for (VariableUsage usage : variable.getUsages()) {
+                if (usage.getClassName() == null) {
+                    continue;
+                }
+                Candidate candidate = candidates.computeIfAbsent(usage.getClassName(), Candidate::new);
+                candidate.score++;
+                if (usage.getMethodName() != null) {
+                    candidate.focus.add(usage.getMethodName());
+                }
+                if (usage.getLineNumber() > 0) {
+                    candidate.lines.add(usage.getLineNumber());
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(candidates.values());
+        ranked.sort(Comparator.comparingInt((Candidate c) -> -c.score).thenComparing(c -> c.className));
+
+        StringBuilder context = new StringBuilder();
+        List<String> classes = new ArrayList<>();
+        int tokens = 0;
+        for (Candidate candidate : ranked) {
+            if (classes.size() >= settings.getMaxClasses()) {
+                break;
+            }
+            Optional<String> excerpt = tool.classExcerpt(
+                    candidate.className, candidate.focus, candidate.lines, settings.getMaxMethodLines());
+            if (excerpt.isEmpty()) {
+                continue;
+            }
+            int excerptTokens = TokenEstimator.estimate(excerpt.get());
+            if (tokens + excerptTokens > settings.getTokenBudget()) {
+                continue;
+            }
+            context.append(excerpt.get()).append("\n");
+            classes.add(candidate.className);
+            tokens += excerptTokens;
+        }
+        log.debug("Prefetched {} of {} candidate classes (~{} tokens)", classes.size(), ranked.size(), tokens);
+        return classes.isEmpty() ? Prefetch.EMPTY : new Prefetch(context.toString().stripTrailing(), classes, tokens);
+    }
+
+    private static final class Candidate {
+        private final String className;
+        private final Set<String> focus = new HashSet<>();
+        private final Set<Integer> lines = new HashSet<>();
+        private int score;
+
+        private Candidate(String className) {
+            this.className = className;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableUsage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Кэш описаний переменных, сгенерированных GigaChat.
+ * <p>
+ * Ключ — SHA-256 смысловых входных данных переменной: имя, тип определения,
+ * значение по умолчанию, найденное в коде описание, фрагмент кода определения, набор целей использования,
+ * модель GigaChat, режим промпта ({@code descriptions-only}) и версии формата записей, словаря
+ * {@link KnowledgeBase} и правил {@link VariableTypeInference}. Если ни одно из них не изменилось,
+ * описание берётся из кэша без обращения к модели, а тип, категория и пример — только
+ * если они ещё не выведены локально.
+ * Записи хранятся в JSON файле {@code gigachat.cache.path}; при превышении
+ * {@code max-entries} вытесняются давно не использованные, записи старше
+ * {@code ttl-days} без обращений удаляются при сохранении.
+ */
+@Slf4j
+@Component
+public class DescriptionCache {
+
+    /**
+     * Версия формата записей; увеличивается, если меняется смысл сохраняемых полей
+     */
+    static final int SCHEMA_VERSION = 2;
+
+    private final GigaChatConfig config;
+    private final String knowledgeVersion;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private LinkedHashMap<String, Entry> entries;
+
+    @Autowired
+    public DescriptionCache(GigaChatConfig config, KnowledgeBase knowledgeBase) {
+        this(config, knowledgeBase, Clock.systemUTC());
+    }
+
+    DescriptionCache(GigaChatConfig config, KnowledgeBase knowledgeBase, Clock clock) {
+        this.config = config;
+        this.knowledgeVersion = knowledgeBase.version();
+        this.clock = clock;
+    }
+
+    /**
+     * Сохранённое описание переменной.
+     *
+     * @param lastUsed время последнего обращения (epoch millis)
+     */
+    public record Entry(String description, String dataType, String category, String exampleValue, long lastUsed) {
+
+        public static Entry of(EnvVariable variable, long lastUsed) {
+            return new Entry(variable.getDescription(), variable.getDataType(), variable.getCategory(),
+                    variable.getExampleValue(), lastUsed);
+        }
+
+        /**
+         * Переносит описание в переменную; тип, категория и пример заполняются, только
+         * если у переменной их ещё нет, поэтому выведенные локально значения не затираются.
+         */
+        public void applyTo(EnvVariable variable) {
+            variable.setDescription(description);
+            if (variable.getDataType() == null && dataType != null) {
+                variable.setDataType(dataType);
+            }
+            if (variable.getCategory() == null && category != null) {
+                variable.setCategory(category);
+            }
+            if (variable.getExampleValue() == null && exampleValue != null) {
+                variable.setExampleValue(exampleValue);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.getCache().isEnabled();
+    }
+
+    /**
+     * Ключ кэша переменной.
+     */
+    public String key(EnvVariable variable) {
+        StringBuilder input = new StringBuilder();
+        input.append(SCHEMA_VERSION).append('/').append(knowledgeVersion).append('/')
+                .append(VariableTypeInference.VERSION).append('\n');
+        input.append(config.getModel()).append('\n');
+        input.append(config.getPrompt().isDescriptionsOnly()).append('\n');
+        input.append(variable.getName()).append('\n');
+        input.append(variable.getDefaultValue()).append('\n');
+        input.append(variable.getDescription()).append('\n');
+        if (variable.getDefinition() != null) {
+            input.append(variable.getDefinition().getType()).append('\n');
+            input.append(variable.getDefinition().getCodeSnippet()).append('\n');
+        }
+        input.append(purposes(variable));
+        return sha256(input.toString());
+    }
+
+    public synchronized Optional<Entry> get(String key) {
+        Entry entry = entries().get(key);
+        if (entry == null || entry.description() == null) {
+            return Optional.empty();
+        }
+        Entry touched = new Entry(entry.description(), entry.dataType(), entry.category(), entry.exampleValue(),
+                clock.millis());
+        entries.put(key, touched);
+        return Optional.of(touched);
+    }
+
+    public synchronized void put(String key, EnvVariable variable) {
+        if (variable.getDescription() == null || variable.getDescription().isBlank()) {
+            return;
+        }
+        entries().put(key, Entry.of(variable, clock.millis()));
+        evictOverflow();
+    }
+
+    public synchronized int size() {
+        return entries().size();
+    }
+
+    /**
+     * Удаляет устаревшие записи и сохраняет кэш в файл.
+     */
+    public synchronized void flush() {
+        if (entries == null) {
+            return;
+        }
+        long expiredBefore = clock.millis() - Duration.ofDays(config.getCache().getTtlDays()).toMillis();
+        entries.values().removeIf(entry -> entry.lastUsed() < expiredBefore);
+
+        Path file = Path.of(config.getCache().getPath());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "descriptions", ".tmp");
+            objectMapper.writeValue(temp.toFile(), entries);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write description cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private LinkedHashMap<String, Entry> entries() {
+        if (entries == null) {
+            entries = new LinkedHashMap<>(16, 0.75f, true);
+            Path file = Path.of(config.getCache().getPath());
+            if (Files.isRegularFile(file)) {
+                try {
+                    Map<String, Entry> stored = objectMapper.readValue(file.toFile(), new TypeReference<>() {
+                    });
+                    // Порядок доступа восстанавливается по времени последнего обращения
+                    stored.entrySet().stream()
+                            .sorted(Map.Entry.comparingByValue(
+                                    (a, b) -> Long.compare(a.lastUsed(), b.lastUsed())))
+                            .forEach(e -> entries.put(e.getKey(), e.getValue()));
+                    log.info("Loaded {} cached descriptions", entries.size());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to read description cache {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void evictOverflow() {
+        Iterator<String> eldest = entries.keySet().iterator();
+        while (entries.size() > config.getCache().getMaxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Цели использования: из счётчиков по целям, а если их нет — из самих использований.
+     */
+    private static Set<UsagePurpose> purposes(EnvVariable variable) {
+        Set<UsagePurpose> purposes = EnumSet.noneOf(UsagePurpose.class);
+        if (variable.getUsagePurposeCounts() != null) {
+            purposes.addAll(variable.getUsagePurposeCounts().keySet());
+        }
+        if (purposes.isEmpty() && variable.getUsages() != null) {
+            for (VariableUsage usage : variable.getUsages()) {
+                if (usage.getPurpose() != null) {
+                    purposes.add(usage.getPurpose());
+                }
+            }
+        }
+        return purposes;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -179,6 +179,10 @@ public class DocumentGenerator {
                         doc.append("`").append(usage.getMethodName()).append("()` | ");
                         doc.append(usage.getPurpose() != null ? usage.getPurpose() : "-").append(" |\n");
                     }
+                    if (var.getOmittedUsages() > 0) {
+                        doc.append("\n_…и ещё ").append(var.getOmittedUsages())
+                           .append(" (всего ").append(var.getTotalUsages()).append(")_\n");
+                    }
                 }
 
                 doc.append("\n---\n\n");
@@ -306,71 +310,6 @@ public class DocumentGenerator {
      * Определяет категорию переменной по её имени и использованию.
      */
     private String detectCategory(EnvVariable var) {
-        String name = var.getName().toUpperCase();
-
-        if (name.contains("DATABASE") || name.contains("DB_") || name.contains("_DB") ||
-            name.contains("POSTGRES") || name.contains("MYSQL") || name.contains("MONGO") ||
-            name.contains("JDBC") || name.contains("DATASOURCE")) {
-            return "База данных";
-        }
-
-        if (name.contains("AUTH") || name.contains("TOKEN") || name.contains("SECRET") ||
-            name.contains("PASSWORD") || name.contains("API_KEY") || name.contains("CREDENTIAL") ||
-            name.contains("JWT") || name.contains("OAUTH")) {
-            return "Безопасность";
-        }
-
-        if (name.contains("KAFKA") || name.contains("RABBIT") || name.contains("MQ") ||
-            name.contains("QUEUE") || name.contains("AMQP")) {
-            return "Очереди сообщений";
-        }
-
-        if (name.contains("REDIS") || name.contains("CACHE") || name.contains("MEMCACHED")) {
-            return "Кэширование";
-        }
-
-        if (name.contains("LOG") || name.contains("DEBUG") || name.contains("TRACE")) {
-            return "Логирование";
-        }
-
-        if (name.contains("SERVER") || name.contains("PORT") || name.contains("HOST") ||
-            name.contains("URL") || name.contains("ENDPOINT")) {
-            return "Сервер и сеть";
-        }
-
-        if (name.contains("FEATURE") || name.contains("FLAG") || name.contains("ENABLED") ||
-            name.contains("TOGGLE")) {
-            return "Feature Flags";
-        }
-
-        // Анализ использований
-        if (var.getUsages() != null && !var.getUsages().isEmpty()) {
-            for (VariableUsage usage : var.getUsages()) {
-                if (usage.getPurpose() != null) {
-                    switch (usage.getPurpose()) {
-                        case DATABASE_CONNECTION:
-                            return "База данных";
-                        case AUTHENTICATION:
-                            return "Безопасность";
-                        case EXTERNAL_API:
-                            return "Внешние сервисы";
-                        case LOGGING_CONFIG:
-                            return "Логирование";
-                        case CACHE_CONFIG:
-                            return "Кэширование";
-                        case MESSAGING_CONFIG:
-                            return "Очереди сообщений";
-                        case SERVER_CONFIG:
-                            return "Сервер и сеть";
-                        case FEATURE_FLAG:
-                            return "Feature Flags";
-                        default:
-                            break;
-                    }
-                }
-            }
-        }
-
-        return "Прочее";
+        return VariableTypeInference.category(var);
     }
 }
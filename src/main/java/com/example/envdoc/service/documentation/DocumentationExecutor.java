@@ -0,0 +1,171 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Пул для параллельных запросов к GigaChat.
+ * <p>
+ * Запросы ждут сеть, а не процессор, поэтому пул отдельный от
+ * {@code ExtractionExecutor} и ограничен {@code gigachat.batching.concurrency}.
+ * Гонки генераторов ({@link #hedge}) выполняются в отдельном пуле, чтобы задачи
+ * пакетов не ждали места в собственном пуле.
+ */
+@Component
+public class DocumentationExecutor implements DisposableBean {
+
+    private final ExecutorService pool;
+    private final ExecutorService hedgePool;
+
+    /**
+     * Результат гонки основного и запасного генератора.
+     *
+     * @param value  принятый результат или null, если оба не дали подходящего
+     * @param winner PRIMARY, BACKUP или null
+     * @param hedged запускался ли запасной генератор параллельно с основным
+     */
+    public record Hedged<T>(T value, Winner winner, boolean hedged) {
+    }
+
+    public enum Winner {
+        PRIMARY,
+        BACKUP
+    }
+
+    public DocumentationExecutor(GigaChatConfig config) {
+        int concurrency = config.getBatching().getConcurrency();
+        AtomicInteger threads = new AtomicInteger();
+        AtomicInteger hedgeThreads = new AtomicInteger();
+        this.hedgePool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gigachat-hedge-" + hedgeThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pool = concurrency > 1
+                ? Executors.newFixedThreadPool(concurrency, runnable -> {
+                    Thread thread = new Thread(runnable, "gigachat-batch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Выполняет задачи и возвращает результаты в порядке задач.
+     * При concurrency 1 задачи выполняются в вызывающем потоке.
+     *
+     * @param tasks задачи
+     * @return результаты
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (pool == null || tasks.size() <= 1) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for GigaChat batches", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Запускает основной генератор и, если он не дал подходящего результата за {@code hedgeAfterMillis},
+     * запасной параллельно; используется первый подходящий результат, второй генератор прерывается.
+     * Если основной завершился без подходящего результата раньше, запасной запускается сразу.
+     *
+     * @param accept проверка результата (например, непустой ответ)
+     * @throws Exception ошибка последнего генератора, если ни один не дал подходящего результата
+     */
+    public <T> Hedged<T> hedge(Callable<T> primary,
+                               Callable<T> backup,
+                               long hedgeAfterMillis,
+                               Predicate<T> accept) throws Exception {
+        CompletionService<T> race = new ExecutorCompletionService<>(hedgePool);
+        Map<Future<T>, Winner> running = new HashMap<>();
+        running.put(race.submit(primary), Winner.PRIMARY);
+        boolean hedged = false;
+        boolean backupStarted = false;
+        Exception error = null;
+        try {
+            Future<T> done = race.poll(Math.max(0, hedgeAfterMillis), TimeUnit.MILLISECONDS);
+            if (done == null) {
+                running.put(race.submit(backup), Winner.BACKUP);
+                hedged = true;
+                backupStarted = true;
+            }
+            while (!running.isEmpty()) {
+                if (done == null) {
+                    done = race.take();
+                }
+                Winner winner = running.remove(done);
+                try {
+                    T value = done.get();
+                    if (accept.test(value)) {
+                        return new Hedged<>(value, winner, hedged);
+                    }
+                } catch (ExecutionException e) {
+                    error = e.getCause() instanceof Exception cause ? cause : e;
+                }
+                done = null;
+                if (!backupStarted) {
+                    running.put(race.submit(backup), Winner.BACKUP);
+                    backupStarted = true;
+                }
+            }
+        } finally {
+            running.keySet().forEach(future -> future.cancel(true));
+        }
+        if (error != null) {
+            throw error;
+        }
+        return new Hedged<>(null, null, hedged);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        hedgePool.shutdownNow();
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.envdoc.service.documentation;
+
+/**
+ * Получает промежуточный результат генерации документации.
+ */
+@FunctionalInterface
+public interface DocumentationListener {
+
+    /**
+     * @param rows            получено строк таблицы
+     * @param total           ожидается строк от GigaChat
+     * @param partialMarkdown заголовок и полученные строки таблицы
+     */
+    void onRows(int rows, int total, String partialMarkdown);
+}
@@ -0,0 +1,146 @@
+package com.example.envdoc.service.documentation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Буфер ответа GigaChat одной задачи.
+ * <p>
+ * Каждый пакет пишет в свою {@link Part}: при потоковой генерации — по мере прихода токенов,
+ * иначе — целым ответом. Завершённые строки таблицы всех пакетов (в порядке пакетов)
+ * вместе с заголовком первого ответа образуют частичный Markdown, который отдаётся
+ * {@link DocumentationListener} при каждом появлении новой строки.
+ */
+public final class DocumentationStream {
+
+    private final int expectedRows;
+    private final DocumentationListener listener;
+    private final List<Part> parts = new ArrayList<>();
+    private List<String> preamble;
+    private int reportedRows;
+
+    public DocumentationStream(int expectedRows, DocumentationListener listener) {
+        this.expectedRows = expectedRows;
+        this.listener = listener;
+    }
+
+    /**
+     * Создаёт часть буфера для очередного пакета.
+     */
+    public synchronized Part part() {
+        Part part = new Part();
+        parts.add(part);
+        return part;
+    }
+
+    public synchronized int rows() {
+        int rows = 0;
+        for (Part part : parts) {
+            rows += part.rows.size();
+        }
+        return rows;
+    }
+
+    /**
+     * Заголовок документа и полученные строки таблицы.
+     */
+    public synchronized String partialMarkdown() {
+        StringBuilder markdown = new StringBuilder();
+        if (preamble != null) {
+            preamble.forEach(line -> markdown.append(line).append('\n'));
+        }
+        for (Part part : parts) {
+            part.rows.forEach(row -> markdown.append(row).append('\n'));
+        }
+        return markdown.toString();
+    }
+
+    private void onLine(Part part, String line) {
+        String trimmed = line.trim();
+        if (part.tableLines < 2) {
+            part.head.add(line);
+            if (trimmed.startsWith("|")) {
+                part.tableLines++;
+                if (part.tableLines == 2 && preamble == null) {
+                    preamble = List.copyOf(part.head);
+                }
+            }
+            return;
+        }
+        if (trimmed.startsWith("|")) {
+            part.rows.add(trimmed);
+            notifyRows();
+        }
+    }
+
+    private void notifyRows() {
+        int rows = rows();
+        if (listener != null && rows != reportedRows) {
+            reportedRows = rows;
+            listener.onRows(Math.min(rows, expectedRows), expectedRows, partialMarkdown());
+        }
+    }
+
+    /**
+     * Часть буфера одного пакета.
+     */
+    public final class Part {
+
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+        private final List<String> head = new ArrayList<>();
+        private final List<String> rows = new ArrayList<>();
+        private int tableLines;
+
+        /**
+         * Добавляет фрагмент ответа; завершённые строки сразу разбираются.
+         */
+        public void append(String chunk) {
+            if (chunk == null || chunk.isEmpty()) {
+                return;
+            }
+            synchronized (DocumentationStream.this) {
+                text.append(chunk);
+                pending.append(chunk);
+                int newline;
+                while ((newline = pending.indexOf("\n")) >= 0) {
+                    String line = pending.substring(0, newline);
+                    pending.delete(0, newline + 1);
+                    onLine(this, line);
+                }
+            }
+        }
+
+        /**
+         * Завершает ответ: разбирает последнюю строку без перевода строки.
+         */
+        public void complete() {
+            synchronized (DocumentationStream.this) {
+                if (!pending.isEmpty()) {
+                    String line = pending.toString();
+                    pending.setLength(0);
+                    onLine(this, line);
+                }
+            }
+        }
+
+        /**
+         * Сбрасывает часть перед повторной попыткой пакета.
+         */
+        public void reset() {
+            synchronized (DocumentationStream.this) {
+                pending.setLength(0);
+                text.setLength(0);
+                head.clear();
+                rows.clear();
+                tableLines = 0;
+            }
+        }
+
+        public String text() {
+            synchronized (DocumentationStream.this) {
+                return text.toString();
+            }
+        }
+    }
+}
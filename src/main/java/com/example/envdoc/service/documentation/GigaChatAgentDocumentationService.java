@@ -1,17 +1,21 @@
 package com.example.envdoc.service.documentation;
 
 import chat.giga.langchain4j.GigaChatChatModel;
+import com.example.envdoc.metrics.DocumentationMetrics;
 import com.example.envdoc.model.EnvVariable;
 import com.example.envdoc.tools.ClassCodeTool;
+import com.example.envdoc.tools.ScopedClassCodeTool;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.CompiledGraph;
-import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.GraphStateException;
 import org.bsc.langgraph4j.agentexecutor.AgentExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,38 +23,58 @@ import java.util.Optional;
 
 /**
  * Генерация документации через AgentExecutor.
+ * <p>
+ * Граф агента компилируется один раз и используется всеми задачами; инструменты
+ * получают репозиторий задачи через {@link ScopedClassCodeTool}. Код классов, который
+ * агент скорее всего запросит, заранее добавляется в промпт {@link ContextPrefetcher}.
+ * Каждое обращение агента к модели проходит через {@link GigaChatRateLimiter}.
  */
+@Slf4j
 @Service
 public class GigaChatAgentDocumentationService {
 
     private final GigaChatPromptBuilder promptBuilder;
-    private final ClassCodeTool classCodeTool;
-    private final GigaChatChatModel chatModel;
+    private final ScopedClassCodeTool classCodeTool;
+    private final ContextPrefetcher contextPrefetcher;
+    private final DocumentationMetrics documentationMetrics;
+    private final ChatModel chatModel;
+    private volatile CompiledGraph<AgentExecutor.State> agent;
 
+    @Autowired
     public GigaChatAgentDocumentationService(GigaChatPromptBuilder promptBuilder,
-                                             ClassCodeTool classCodeTool,
+                                             ScopedClassCodeTool classCodeTool,
+                                             ContextPrefetcher contextPrefetcher,
+                                             DocumentationMetrics documentationMetrics,
+                                             GigaChatRateLimiter rateLimiter,
                                              Optional<GigaChatChatModel> chatModel) {
+        this(promptBuilder, classCodeTool, contextPrefetcher, documentationMetrics,
+                rateLimiter.wrap(chatModel.orElse(null)));
+    }
+
+    GigaChatAgentDocumentationService(GigaChatPromptBuilder promptBuilder,
+                                      ScopedClassCodeTool classCodeTool,
+                                      ContextPrefetcher contextPrefetcher,
+                                      DocumentationMetrics documentationMetrics,
+                                      ChatModel chatModel) {
         this.promptBuilder = promptBuilder;
         this.classCodeTool = classCodeTool;
-        this.chatModel = chatModel.orElse(null);
+        this.contextPrefetcher = contextPrefetcher;
+        this.documentationMetrics = documentationMetrics;
+        this.chatModel = chatModel;
     }
 
-    public String generateDocumentation(List<EnvVariable> variables, String projectName, Path repoPath)
+    /**
+     * @param tool инструмент репозитория задачи; один на задачу, чтобы пакеты
+     *             использовали общий индекс классов и кэш файлов
+     */
+    public String generateDocumentation(List<EnvVariable> variables, String projectName, ClassCodeTool tool)
             throws Exception {
         if (chatModel == null) {
             return null;
         }
 
-        classCodeTool.setRepoPath(repoPath);
-
-        String prompt = promptBuilder.buildPrompt(variables, projectName);
-
-        StateGraph<AgentExecutor.State> stateGraph = AgentExecutor.builder()
-                .chatModel(chatModel)
-                .toolsFromObject(classCodeTool)
-                .build();
-
-        CompiledGraph<AgentExecutor.State> agent = stateGraph.compile();
+        ContextPrefetcher.Prefetch prefetch = contextPrefetcher.prefetch(variables, tool);
+        String prompt = promptBuilder.buildPrompt(variables, projectName, prefetch.context());
 
         Map<String, Object> inputs = new HashMap<>();
         inputs.put("messages", List.of(
@@ -58,7 +82,13 @@ public class GigaChatAgentDocumentationService {
                 UserMessage.from(prompt)
         ));
 
-        var result = agent.invoke(inputs);
+        CompiledGraph<AgentExecutor.State> graph = agent();
+        ScopedClassCodeTool.ToolCalls calls = new ScopedClassCodeTool.ToolCalls();
+        var result = classCodeTool.call(tool, calls, () -> graph.invoke(inputs));
+        int requested = (int) prefetch.classes().stream().filter(calls::requested).count();
+        documentationMetrics.recordAgentRun(calls.byTool(), contextPrefetcher.isEnabled(), prefetch.tokens(), requested);
+        log.info("Agent run for {} variables: {} tool calls, {} classes prefetched (~{} tokens), {} still requested",
+                variables.size(), calls.total(), prefetch.classes().size(), prefetch.tokens(), requested);
         if (result.isPresent()) {
             var lastMessage = result.get().lastMessage();
             if (lastMessage.isPresent() && lastMessage.get() instanceof AiMessage aiMessage) {
@@ -67,4 +97,22 @@ public class GigaChatAgentDocumentationService {
         }
         return null;
     }
+
+    private CompiledGraph<AgentExecutor.State> agent() throws GraphStateException {
+        CompiledGraph<AgentExecutor.State> compiled = agent;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = agent;
+                if (compiled == null) {
+                    compiled = AgentExecutor.builder()
+                            .chatModel(chatModel)
+                            .toolsFromObject(classCodeTool)
+                            .build()
+                            .compile();
+                    agent = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
 }
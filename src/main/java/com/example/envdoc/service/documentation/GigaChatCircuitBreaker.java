@@ -0,0 +1,118 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.ResilienceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker над доступностью GigaChat, общий для всех задач.
+ * <p>
+ * После {@code failure-threshold} ошибок или пустых ответов подряд цепь размыкается,
+ * и на {@code open-seconds} документация строится без GigaChat. Затем пропускается один
+ * пробный запрос: успех замыкает цепь, ошибка снова размыкает.
+ */
+@Slf4j
+@Component
+public class GigaChatCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final GigaChatConfig.CircuitBreaker settings;
+    private final ResilienceMetrics metrics;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    @Autowired
+    public GigaChatCircuitBreaker(GigaChatConfig config, ResilienceMetrics metrics) {
+        this(config, metrics, System::nanoTime);
+    }
+
+    GigaChatCircuitBreaker(GigaChatConfig config, ResilienceMetrics metrics, LongSupplier clock) {
+        this.settings = config.getCircuitBreaker();
+        this.metrics = metrics;
+        this.clock = clock;
+        metrics.registerCircuitState(() -> state().ordinal());
+    }
+
+    /**
+     * Можно ли отправить запрос. В разомкнутом состоянии по истечении паузы
+     * пропускает ровно один пробный запрос.
+     */
+    public synchronized boolean allowRequest() {
+        if (!settings.isEnabled()) {
+            return true;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (!openExpired()) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Разомкнута ли цепь сейчас (без пробного запроса).
+     */
+    public synchronized boolean isOpen() {
+        return settings.isEnabled() && state == State.OPEN && !openExpired();
+    }
+
+    public synchronized void recordSuccess() {
+        failures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= settings.getFailureThreshold())) {
+            openedAt = clock.getAsLong();
+            transition(State.OPEN);
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private boolean openExpired() {
+        return clock.getAsLong() - openedAt >= TimeUnit.SECONDS.toNanos(settings.getOpenSeconds());
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            log.warn("GigaChat circuit opened after {} failures, using fallback for {} s",
+                    failures, settings.getOpenSeconds());
+        } else {
+            log.info("GigaChat circuit {}", next == State.CLOSED ? "closed" : "half-open, sending a trial request");
+        }
+        state = next;
+        metrics.recordCircuitTransition(next.name().toLowerCase());
+    }
+}
@@ -20,39 +20,51 @@ public class GigaChatFallbackDocumentationService {
         doc.append("|------------|----------|-----|--------------|-------------|--------|-----------|--------|----------|---------------|--------------|\n");
 
         for (EnvVariable var : variables) {
-            doc.append("| `").append(var.getName()).append("` | ");
-            doc.append(var.getDescription() != null ? var.getDescription() : "-").append(" | ");
-            doc.append(var.getDataType() != null ? var.getDataType() : "string").append(" | ");
-            doc.append(var.isRequired() ? "Да" : "Нет").append(" | ");
-            doc.append(var.getDefaultValue() != null ? "`" + var.getDefaultValue() + "`" : "-").append(" | ");
-            doc.append(var.getExampleValue() != null ? "`" + var.getExampleValue() + "`" : "-").append(" | ");
-            doc.append(var.getCategory() != null ? var.getCategory() : "-").append(" | ");
-            doc.append(var.getDefinition() != null && var.getDefinition().getModuleName() != null
-                       ? "`" + var.getDefinition().getModuleName() + "`"
-                       : "-").append(" | ");
-            if (var.getDefinition() != null && var.getDefinition().getFilePath() != null) {
-                doc.append("`").append(var.getDefinition().getFilePath());
-                if (var.getDefinition().getLineNumber() > 0) {
-                    doc.append(":").append(var.getDefinition().getLineNumber());
-                }
-                doc.append("` | ");
-            } else {
-                doc.append("- | ");
+            doc.append(row(var)).append("\n");
+        }
+
+        return doc.toString();
+    }
+
+    /**
+     * Строка таблицы для переменной (без перевода строки).
+     */
+    public String row(EnvVariable var) {
+        StringBuilder doc = new StringBuilder();
+        doc.append("| `").append(var.getName()).append("` | ");
+        doc.append(var.getDescription() != null ? escapeTableCell(var.getDescription()) : "-").append(" | ");
+        doc.append(var.getDataType() != null ? var.getDataType() : "string").append(" | ");
+        doc.append(var.isRequired() ? "Да" : "Нет").append(" | ");
+        doc.append(var.getDefaultValue() != null ? "`" + var.getDefaultValue() + "`" : "-").append(" | ");
+        doc.append(var.getExampleValue() != null ? "`" + var.getExampleValue() + "`" : "-").append(" | ");
+        doc.append(var.getCategory() != null ? var.getCategory() : "-").append(" | ");
+        doc.append(var.getDefinition() != null && var.getDefinition().getModuleName() != null
+                   ? "`" + var.getDefinition().getModuleName() + "`"
+                   : "-").append(" | ");
+        if (var.getDefinition() != null && var.getDefinition().getFilePath() != null) {
+            doc.append("`").append(var.getDefinition().getFilePath());
+            if (var.getDefinition().getLineNumber() > 0) {
+                doc.append(":").append(var.getDefinition().getLineNumber());
             }
-            doc.append(var.getDefinition() != null ? var.getDefinition().getType() : "-").append(" | ");
-            if (var.getUsages() != null && !var.getUsages().isEmpty()) {
-                String usages = var.getUsages().stream()
-                        .map(u -> u.getClassName() + "." + u.getMethodName() + "()")
-                        .distinct()
-                        .reduce((a, b) -> a + "; " + b)
-                        .orElse("-");
-                doc.append(escapeTableCell(usages));
-            } else {
-                doc.append("-");
+            doc.append("` | ");
+        } else {
+            doc.append("- | ");
+        }
+        doc.append(var.getDefinition() != null ? var.getDefinition().getType() : "-").append(" | ");
+        if (var.getUsages() != null && !var.getUsages().isEmpty()) {
+            String usages = var.getUsages().stream()
+                    .map(u -> u.getClassName() + "." + u.getMethodName() + "()")
+                    .distinct()
+                    .reduce((a, b) -> a + "; " + b)
+                    .orElse("-");
+            if (var.getOmittedUsages() > 0) {
+                usages += "; и ещё " + var.getOmittedUsages();
             }
-            doc.append(" |\n");
+            doc.append(escapeTableCell(usages));
+        } else {
+            doc.append("-");
         }
-
+        doc.append(" |");
         return doc.toString();
     }
 
@@ -1,17 +1,65 @@
 package com.example.envdoc.service.documentation;
 
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
 import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableDefinition;
 import com.example.envdoc.model.VariableUsage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Строит системное сообщение и промпт для GigaChat.
+ * <p>
+ * Входные данные пишутся потоково через {@link JsonGenerator}. В компактном режиме
+ * ({@code gigachat.prompt.compact}) имена классов и пути файлов выносятся в словари,
+ * фрагменты кода и контексты сокращаются, одинаковые использования схлопываются,
+ * а использования сверх лимита учитываются только в {@code moreUsages}. С
+ * {@code gigachat.prompt.descriptions-only} модель возвращает таблицу только из имён
+ * и описаний: тип, категория и пример к этому моменту выведены {@link VariableTypeInference}.
+ * <p>
+ * Оценка токенов входных данных берётся из уже построенного промпта; второе кодирование
+ * строится только для метрики экономии ({@code gigachat.prompt.token-savings-metric}) или debug-лога.
  */
+@Slf4j
 @Component
 public class GigaChatPromptBuilder {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String ELLIPSIS = "…";
+
+    private final GigaChatConfig.Prompt settings;
+    private final DocumentationMetrics documentationMetrics;
+
+    public GigaChatPromptBuilder() {
+        this(new GigaChatConfig());
+    }
+
+    public GigaChatPromptBuilder(GigaChatConfig config) {
+        this(config, null);
+    }
+
+    @Autowired
+    public GigaChatPromptBuilder(GigaChatConfig config, DocumentationMetrics documentationMetrics) {
+        this.settings = config.getPrompt();
+        this.documentationMetrics = documentationMetrics;
+    }
+
     public String systemMessage() {
         return "Ты — технический писатель, создающий документацию для DevOps команды. " +
                "Отвечай на русском языке. Формат ответа — Markdown. " +
@@ -20,6 +68,27 @@ public class GigaChatPromptBuilder {
     }
 
     public String buildPrompt(List<EnvVariable> variables, String projectName) {
+        return buildPrompt(variables, projectName, null);
+    }
+
+    /**
+     * Промпт с заранее подобранным кодом классов, чтобы агенту не запрашивать его инструментами.
+     *
+     * @param classContext выдержки из классов (может быть null)
+     */
+    public String buildPrompt(List<EnvVariable> variables, String projectName, String classContext) {
+        return buildPrompt(variables, projectName, classContext, true);
+    }
+
+    /**
+     * Оценка токенов промпта без переменных (инструкции и обрамление входных данных).
+     */
+    public int overheadTokens() {
+        return TokenEstimator.estimate(buildPrompt(List.of(), "", null, false));
+    }
+
+    private String buildPrompt(List<EnvVariable> variables, String projectName, String classContext,
+                               boolean recordTokens) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("ЗАДАЧА: Создать документацию по переменным окружения для проекта \"")
@@ -28,96 +97,312 @@ public class GigaChatPromptBuilder {
 
         prompt.append("ВХОДНЫЕ ДАННЫЕ В JSON:\n");
         prompt.append("```json\n");
-        prompt.append(buildInputJson(variables, projectName));
+        String input = buildInputJson(variables, projectName, settings.isCompact());
+        prompt.append(input);
         prompt.append("\n```\n\n");
+        if (recordTokens) {
+            recordInputTokens(variables, projectName, input);
+        }
+        if (settings.isCompact()) {
+            prompt.append("""
+                    ФОРМАТ ВХОДНЫХ ДАННЫХ:
+                    - classes и files — словари; поля class и file содержат индекс в них, в таблице выводи сами имена и пути.
+                    - line — номер строки, snippet — фрагмент кода определения, context — контекст использования; «…» в конце означает, что текст сокращён.
+                    - Отсутствующие поля означают "-".
+
+                    """);
+        }
+        if (classContext != null && !classContext.isBlank()) {
+            prompt.append("КОД КЛАССОВ (поля, сигнатуры и методы, связанные с переменными; ")
+                  .append("эти классы не запрашивай инструментами):\n");
+            prompt.append("```java\n");
+            prompt.append(classContext);
+            prompt.append("\n```\n\n");
+        }
 
-        prompt.append("""
-                ТРЕБОВАНИЯ К ДОКУМЕНТАЦИИ:
-                1. Вывод только в Markdown без дополнительных пояснений вне Markdown.
-                2. Структура строго фиксирована:
-                   - Заголовок: # Переменные окружения для проекта {projectName}
-                   - Одна таблица со всеми параметрами, без дополнительных разделов
-                3. В таблице должны быть все данные по параметрам, одна строка на параметр.
-                4. Колонки таблицы (строго в этом порядке):
-                   Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования
-                5. Источник — это путь к файлу с номером строки, если есть.
-                6. Инициализация — кратко, где и как задано (например: application.yml, @Value, System.getenv).
-                7. Использования — краткий список классов/методов (одно поле).
-                8. Если данных нет, ставь "-".
-                9. Никаких дополнительных секций, списков, кода или примеров.
-                """);
+        if (settings.isDescriptionsOnly()) {
+            prompt.append("""
+                    ТРЕБОВАНИЯ К ДОКУМЕНТАЦИИ:
+                    1. Вывод только в Markdown без дополнительных пояснений вне Markdown.
+                    2. Структура строго фиксирована:
+                       - Заголовок: # Переменные окружения для проекта {projectName}
+                       - Одна таблица, одна строка на переменную, без дополнительных разделов
+                    3. Колонки таблицы (строго в этом порядке):
+                       Переменная | Описание
+                    4. Описание — одно-два предложения: назначение переменной и на что влияет её значение.
+                       Тип, категория и пример уже есть во входных данных: используй их как подсказку, но не выводи.
+                    5. Никаких дополнительных секций, списков, кода или примеров.
+                    """);
+        } else {
+            prompt.append("""
+                    ТРЕБОВАНИЯ К ДОКУМЕНТАЦИИ:
+                    1. Вывод только в Markdown без дополнительных пояснений вне Markdown.
+                    2. Структура строго фиксирована:
+                       - Заголовок: # Переменные окружения для проекта {projectName}
+                       - Одна таблица со всеми параметрами, без дополнительных разделов
+                    3. В таблице должны быть все данные по параметрам, одна строка на параметр.
+                    4. Колонки таблицы (строго в этом порядке):
+                       Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования
+                    5. Источник — это путь к файлу с номером строки, если есть.
+                    6. Инициализация — кратко, где и как задано (например: application.yml, @Value, System.getenv).
+                    7. Использования — краткий список классов/методов (одно поле); если задано moreUsages, добавь «и ещё N».
+                    8. Если данных нет, ставь "-".
+                    9. Никаких дополнительных секций, списков, кода или примеров.
+                    """);
+        }
 
         return prompt.toString();
     }
 
-    private String buildInputJson(List<EnvVariable> variables, String projectName) {
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        json.append("\"projectName\":\"").append(escapeJson(projectName)).append("\",");
-        json.append("\"variables\":[");
-        for (int i = 0; i < variables.size(); i++) {
-            EnvVariable var = variables.get(i);
-            json.append("{");
-            json.append("\"name\":\"").append(escapeJson(var.getName())).append("\",");
-            json.append("\"required\":").append(var.isRequired()).append(",");
-            json.append("\"defaultValue\":").append(toJsonValue(var.getDefaultValue())).append(",");
-            json.append("\"description\":").append(toJsonValue(var.getDescription())).append(",");
-            json.append("\"type\":").append(toJsonValue(var.getDataType())).append(",");
-            json.append("\"example\":").append(toJsonValue(var.getExampleValue())).append(",");
-            json.append("\"category\":").append(toJsonValue(var.getCategory())).append(",");
-            json.append("\"definition\":");
-            if (var.getDefinition() == null) {
-                json.append("null,");
+    /**
+     * Просит ли промпт только описания (остальные колонки таблицы собираются локально).
+     */
+    public boolean isDescriptionsOnly() {
+        return settings.isDescriptionsOnly();
+    }
+
+    /**
+     * Записывает оценку токенов входных данных промпта; второе кодирование строится только
+     * для метрики экономии или debug-лога.
+     *
+     * @param input входные данные в том кодировании, что попало в промпт
+     */
+    private void recordInputTokens(List<EnvVariable> variables, String projectName, String input) {
+        String encoding = settings.isCompact() ? "compact" : "full";
+        int tokens = TokenEstimator.estimate(input);
+        if (documentationMetrics != null) {
+            documentationMetrics.recordPromptTokens(encoding, tokens);
+        }
+        boolean savingsMetric = documentationMetrics != null && settings.isTokenSavingsMetric();
+        if (!savingsMetric && !log.isDebugEnabled()) {
+            return;
+        }
+        String otherEncoding = settings.isCompact() ? "full" : "compact";
+        int otherTokens = TokenEstimator.estimate(buildInputJson(variables, projectName, !settings.isCompact()));
+        if (savingsMetric) {
+            documentationMetrics.recordPromptTokens(otherEncoding, otherTokens);
+        }
+        log.debug("Prompt input for {} variables: ~{} tokens {}, ~{} {}",
+                variables.size(), tokens, encoding, otherTokens, otherEncoding);
+    }
+
+    /**
+     * Входные данные для одной переменной (со своими словарями) — для оценки её доли в промпте.
+     */
+    String variableJson(EnvVariable variable) {
+        return buildInputJson(List.of(variable), "", settings.isCompact());
+    }
+
+    private String buildInputJson(List<EnvVariable> variables, String projectName, boolean compact) {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("projectName", projectName != null ? projectName : "");
+            if (compact) {
+                List<List<VariableUsage>> usages = new ArrayList<>(variables.size());
+                Map<String, Integer> classes = new LinkedHashMap<>();
+                Map<String, Integer> files = new LinkedHashMap<>();
+                for (EnvVariable variable : variables) {
+                    List<VariableUsage> kept = compactUsages(variable);
+                    usages.add(kept);
+                    if (variable.getDefinition() != null && variable.getDefinition().getFilePath() != null) {
+                        files.putIfAbsent(variable.getDefinition().getFilePath(), files.size());
+                    }
+                    for (VariableUsage usage : kept) {
+                        if (usage.getClassName() != null) {
+                            classes.putIfAbsent(usage.getClassName(), classes.size());
+                        }
+                    }
+                }
+                writeStrings(json, "classes", classes.keySet());
+                writeStrings(json, "files", files.keySet());
+                json.writeArrayFieldStart("variables");
+                for (int i = 0; i < variables.size(); i++) {
+                    writeCompactVariable(json, variables.get(i), usages.get(i), classes, files);
+                }
             } else {
-                json.append("{");
-                json.append("\"type\":\"").append(escapeJson(String.valueOf(var.getDefinition().getType()))).append("\",");
-                json.append("\"filePath\":").append(toJsonValue(var.getDefinition().getFilePath())).append(",");
-                json.append("\"lineNumber\":").append(var.getDefinition().getLineNumber()).append(",");
-                json.append("\"moduleName\":").append(toJsonValue(var.getDefinition().getModuleName())).append(",");
-                json.append("\"codeSnippet\":").append(toJsonValue(var.getDefinition().getCodeSnippet()));
-                json.append("},");
+                json.writeArrayFieldStart("variables");
+                for (EnvVariable variable : variables) {
+                    writeFullVariable(json, variable);
+                }
             }
-            json.append("\"usages\":[");
-            if (var.getUsages() != null) {
-                for (int u = 0; u < var.getUsages().size(); u++) {
-                    VariableUsage usage = var.getUsages().get(u);
-                    json.append("{");
-                    json.append("\"className\":").append(toJsonValue(usage.getClassName())).append(",");
-                    json.append("\"methodName\":").append(toJsonValue(usage.getMethodName())).append(",");
-                    json.append("\"lineNumber\":").append(usage.getLineNumber()).append(",");
-                    json.append("\"purpose\":").append(toJsonValue(String.valueOf(usage.getPurpose()))).append(",");
-                    json.append("\"context\":").append(toJsonValue(usage.getUsageContext()));
-                    json.append("}");
-                    if (u < var.getUsages().size() - 1) {
-                        json.append(",");
-                    }
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private void writeFullVariable(JsonGenerator json, EnvVariable var) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", var.getName());
+        json.writeBooleanField("required", var.isRequired());
+        json.writeStringField("defaultValue", var.getDefaultValue());
+        json.writeStringField("description", var.getDescription());
+        json.writeStringField("type", var.getDataType());
+        json.writeStringField("example", var.getExampleValue());
+        json.writeStringField("category", var.getCategory());
+        VariableDefinition definition = var.getDefinition();
+        if (definition == null) {
+            json.writeNullField("definition");
+        } else {
+            json.writeObjectFieldStart("definition");
+            json.writeStringField("type", String.valueOf(definition.getType()));
+            json.writeStringField("filePath", definition.getFilePath());
+            json.writeNumberField("lineNumber", definition.getLineNumber());
+            json.writeStringField("moduleName", definition.getModuleName());
+            json.writeStringField("codeSnippet", definition.getCodeSnippet());
+            json.writeEndObject();
+        }
+        json.writeArrayFieldStart("usages");
+        if (var.getUsages() != null) {
+            for (VariableUsage usage : var.getUsages()) {
+                json.writeStartObject();
+                json.writeStringField("className", usage.getClassName());
+                json.writeStringField("methodName", usage.getMethodName());
+                json.writeNumberField("lineNumber", usage.getLineNumber());
+                json.writeStringField("purpose", String.valueOf(usage.getPurpose()));
+                json.writeStringField("context", usage.getUsageContext());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+        if (var.getOmittedUsages() > 0) {
+            json.writeNumberField("moreUsages", var.getOmittedUsages());
+            writePurposeCounts(json, var.getUsagePurposeCounts());
+        }
+        json.writeEndObject();
+    }
+
+    private void writeCompactVariable(JsonGenerator json,
+                                      EnvVariable var,
+                                      List<VariableUsage> usages,
+                                      Map<String, Integer> classes,
+                                      Map<String, Integer> files) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", var.getName());
+        json.writeBooleanField("required", var.isRequired());
+        writeOptional(json, "defaultValue", var.getDefaultValue());
+        writeOptional(json, "description", var.getDescription());
+        writeOptional(json, "type", var.getDataType());
+        writeOptional(json, "example", var.getExampleValue());
+        writeOptional(json, "category", var.getCategory());
+        VariableDefinition definition = var.getDefinition();
+        if (definition != null) {
+            json.writeObjectFieldStart("definition");
+            json.writeStringField("type", String.valueOf(definition.getType()));
+            if (definition.getFilePath() != null) {
+                json.writeNumberField("file", files.get(definition.getFilePath()));
+            }
+            if (definition.getLineNumber() > 0) {
+                json.writeNumberField("line", definition.getLineNumber());
+            }
+            writeOptional(json, "module", definition.getModuleName());
+            writeOptional(json, "snippet", truncate(definition.getCodeSnippet(), settings.getSnippetMaxChars()));
+            json.writeEndObject();
+        }
+        if (!usages.isEmpty()) {
+            json.writeArrayFieldStart("usages");
+            for (VariableUsage usage : usages) {
+                json.writeStartObject();
+                if (usage.getClassName() != null) {
+                    json.writeNumberField("class", classes.get(usage.getClassName()));
+                }
+                writeOptional(json, "method", usage.getMethodName());
+                if (usage.getLineNumber() > 0) {
+                    json.writeNumberField("line", usage.getLineNumber());
                 }
+                if (usage.getPurpose() != null) {
+                    json.writeStringField("purpose", usage.getPurpose().name());
+                }
+                writeOptional(json, "context", truncate(usage.getUsageContext(), settings.getContextMaxChars()));
+                json.writeEndObject();
             }
-            json.append("]");
-            json.append("}");
-            if (i < variables.size() - 1) {
-                json.append(",");
+            json.writeEndArray();
+        }
+        int listed = var.getUsages() != null ? var.getUsages().size() : 0;
+        int more = var.getOmittedUsages() + listed - usages.size();
+        if (more > 0) {
+            json.writeNumberField("moreUsages", more);
+            writePurposeCounts(json, purposeCounts(var));
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Использования переменной без дублей и в пределах лимита.
+     */
+    private List<VariableUsage> compactUsages(EnvVariable var) {
+        if (var.getUsages() == null || var.getUsages().isEmpty()) {
+            return List.of();
+        }
+        int limit = settings.getMaxUsagesPerVariable() > 0 ? settings.getMaxUsagesPerVariable() : Integer.MAX_VALUE;
+        Set<String> seen = new HashSet<>();
+        List<VariableUsage> kept = new ArrayList<>();
+        for (VariableUsage usage : var.getUsages()) {
+            String key = usage.getClassName() + '#' + usage.getMethodName() + '#' + usage.getPurpose() + '#'
+                    + truncate(usage.getUsageContext(), settings.getContextMaxChars());
+            if (kept.size() < limit && seen.add(key)) {
+                kept.add(usage);
+            }
+        }
+        return kept;
+    }
+
+    private static Map<UsagePurpose, Integer> purposeCounts(EnvVariable var) {
+        if (var.getUsagePurposeCounts() != null && !var.getUsagePurposeCounts().isEmpty()) {
+            return var.getUsagePurposeCounts();
+        }
+        Map<UsagePurpose, Integer> counts = new EnumMap<>(UsagePurpose.class);
+        if (var.getUsages() != null) {
+            for (VariableUsage usage : var.getUsages()) {
+                if (usage.getPurpose() != null) {
+                    counts.merge(usage.getPurpose(), 1, Integer::sum);
+                }
             }
         }
-        json.append("]}");
-        return json.toString();
+        return counts;
     }
 
-    private String toJsonValue(String value) {
-        if (value == null) {
-            return "null";
+    private static void writePurposeCounts(JsonGenerator json, Map<UsagePurpose, Integer> counts) throws IOException {
+        json.writeObjectFieldStart("usagesByPurpose");
+        if (counts != null) {
+            for (Map.Entry<UsagePurpose, Integer> count : counts.entrySet()) {
+                json.writeNumberField(count.getKey().name(), count.getValue());
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeStrings(JsonGenerator json, String field, Iterable<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
         }
-        return "\"" + escapeJson(value) + "\"";
+        json.writeEndArray();
     }
 
-    private String escapeJson(String value) {
-        if (value == null) {
-            return "";
+    private static void writeOptional(JsonGenerator json, String field, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(field, value);
+        }
+    }
+
+    /**
+     * Сжимает пробелы и обрезает текст до {@code maxChars} символов.
+     */
+    static String truncate(String text, int maxChars) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = text.strip()
+                .replaceAll("\\R", "\n")
+                .replaceAll("[ \t]+", " ")
+                .replaceAll("\\n\\s*\\n+", "\n");
+        if (maxChars <= 0 || normalized.length() <= maxChars) {
+            return normalized;
         }
-        return value.replace("\\", "\\\\")
-                    .replace("\"", "\\\"")
-                    .replace("\n", "\\n")
-                    .replace("\r", "\\r")
-                    .replace("\t", "\\t");
+        return normalized.substring(0, maxChars).stripTrailing() + ELLIPSIS;
     }
 }
@@ -0,0 +1,253 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.RateLimitMetrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Общий ограничитель запросов к GigaChat для всех задач.
+ * <p>
+ * Перед запросом резервируются разрешения в двух token bucket — по запросам в секунду
+ * и по токенам в минуту — и место в {@link AdaptiveConcurrencyLimit}. Ответ 429 уменьшает
+ * параллельность и повторяется с экспоненциальной паузой со случайным разбросом, поэтому
+ * пачка задач упирается в квоту, а не уходит в документацию без GigaChat.
+ */
+@Slf4j
+@Component
+public class GigaChatRateLimiter {
+
+    private static final Pattern TOO_MANY_REQUESTS = Pattern.compile("\\b429\\b|too many requests",
+            Pattern.CASE_INSENSITIVE);
+
+    private final GigaChatConfig.RateLimit settings;
+    private final RateLimitMetrics metrics;
+    private final TokenBucket requests;
+    private final TokenBucket tokens;
+    private final AdaptiveConcurrencyLimit concurrency;
+
+    public GigaChatRateLimiter(GigaChatConfig config, RateLimitMetrics metrics) {
+        this.settings = config.getRateLimit();
+        this.metrics = metrics;
+        this.requests = settings.getRequestsPerSecond() > 0
+                ? new TokenBucket(Math.max(1, settings.getRequestsPerSecond()), settings.getRequestsPerSecond(),
+                        System::nanoTime)
+                : null;
+        this.tokens = settings.getTokensPerMinute() > 0
+                ? new TokenBucket(settings.getTokensPerMinute(), settings.getTokensPerMinute() / 60.0, System::nanoTime)
+                : null;
+        this.concurrency = new AdaptiveConcurrencyLimit(settings.getInitialConcurrency(),
+                settings.getMinConcurrency(), settings.getMaxConcurrency(),
+                TimeUnit.MILLISECONDS.toNanos(settings.getLatencyTargetMillis()));
+        metrics.registerConcurrency(concurrency::limit, concurrency::inFlight);
+    }
+
+    /**
+     * Модель, все запросы которой проходят через ограничитель.
+     */
+    public ChatModel wrap(ChatModel model) {
+        if (model == null || !settings.isEnabled()) {
+            return model;
+        }
+        return new RateLimitedChatModel(model, this);
+    }
+
+    /**
+     * Выполняет запрос в пределах квоты, повторяя его после ответа 429.
+     *
+     * @param estimatedTokens оценка токенов запроса
+     * @param call            запрос
+     * @param actualTokens    фактический расход токенов по ответу (может быть null)
+     * @return результат запроса
+     */
+    public <T> T execute(int estimatedTokens, Callable<T> call, ToIntFunction<T> actualTokens) throws Exception {
+        if (!settings.isEnabled()) {
+            return call.call();
+        }
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            acquire(estimatedTokens);
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = call.call();
+            } catch (Exception e) {
+                concurrency.release(outcome(e), System.nanoTime() - start);
+                if (!retryAfter(e, attempt)) {
+                    throw e;
+                }
+                continue;
+            }
+            concurrency.release(AdaptiveConcurrencyLimit.Outcome.SUCCESS, System.nanoTime() - start);
+            if (tokens != null && actualTokens != null && result != null) {
+                int actual = actualTokens.applyAsInt(result);
+                if (actual > 0) {
+                    tokens.adjust(actual - estimatedTokens);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Выполняет потоковый запрос в пределах квоты, повторяя его после ответа 429.
+     * <p>
+     * Место освобождается, когда завершается поток ответа, а не когда {@code call} вернул
+     * управление: поток, который вызывающий перестал ждать по таймауту, расходует квоту,
+     * пока не закончится.
+     *
+     * @param estimatedTokens оценка токенов запроса
+     * @param call            запрос; обязан завершить переданный future, когда поток ответа закончится
+     * @return результат запроса
+     */
+    public <T> T executeStreaming(int estimatedTokens, StreamingCall<T> call) throws Exception {
+        if (!settings.isEnabled()) {
+            return call.call(new CompletableFuture<>());
+        }
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            acquire(estimatedTokens);
+            long start = System.nanoTime();
+            CompletableFuture<Void> finished = new CompletableFuture<>();
+            finished.whenComplete((ignored, error) -> concurrency.release(error == null
+                    ? AdaptiveConcurrencyLimit.Outcome.SUCCESS
+                    : outcome(error), System.nanoTime() - start));
+            try {
+                return call.call(finished);
+            } catch (Exception e) {
+                if (!retryAfter(e, attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Потоковый запрос.
+     */
+    @FunctionalInterface
+    public interface StreamingCall<T> {
+
+        /**
+         * @param finished завершается, когда поток ответа закончился (успешно или с ошибкой)
+         */
+        T call(CompletableFuture<Void> finished) throws Exception;
+    }
+
+    /**
+     * Оценка токенов сообщений запроса.
+     */
+    public static int estimateTokens(List<ChatMessage> messages) {
+        int total = 0;
+        for (ChatMessage message : messages) {
+            if (message instanceof SystemMessage system) {
+                total += TokenEstimator.estimate(system.text());
+            } else if (message instanceof UserMessage user) {
+                total += TokenEstimator.estimate(user.hasSingleText() ? user.singleText() : user.toString());
+            } else if (message instanceof AiMessage ai) {
+                total += TokenEstimator.estimate(ai.text());
+                if (ai.hasToolExecutionRequests()) {
+                    total += TokenEstimator.estimate(ai.toolExecutionRequests().toString());
+                }
+            } else if (message instanceof ToolExecutionResultMessage result) {
+                total += TokenEstimator.estimate(result.text());
+            } else {
+                total += TokenEstimator.estimate(message.toString());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Ответ 429: {@link RateLimitException}, HTTP-ошибка с кодом 429 или сообщение клиента GigaChat о нём.
+     */
+    static boolean isThrottled(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RateLimitException) {
+                return true;
+            }
+            if (cause instanceof HttpException http && http.statusCode() == 429) {
+                return true;
+            }
+            if (cause.getMessage() != null && TOO_MANY_REQUESTS.matcher(cause.getMessage()).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AdaptiveConcurrencyLimit.Outcome outcome(Throwable error) {
+        return isThrottled(error)
+                ? AdaptiveConcurrencyLimit.Outcome.THROTTLED
+                : AdaptiveConcurrencyLimit.Outcome.FAILED;
+    }
+
+    /**
+     * Решает, повторять ли запрос после ошибки, и выдерживает паузу перед повтором.
+     */
+    private boolean retryAfter(Exception error, int attempt) throws InterruptedException {
+        boolean throttled = isThrottled(error);
+        boolean retry = throttled && attempt <= settings.getMaxRetries();
+        if (throttled) {
+            metrics.recordThrottle(retry);
+        }
+        if (!retry) {
+            return false;
+        }
+        long backoff = backoff(attempt);
+        log.warn("GigaChat rate limit hit (attempt {}/{}), concurrency limit {}, retrying in {} ms",
+                attempt, settings.getMaxRetries() + 1, String.format("%.1f", concurrency.limit()), backoff);
+        TimeUnit.MILLISECONDS.sleep(backoff);
+        return true;
+    }
+
+    double concurrencyLimit() {
+        return concurrency.limit();
+    }
+
+    private void acquire(int estimatedTokens) throws InterruptedException {
+        long queued = System.nanoTime();
+        long wait = 0;
+        if (requests != null) {
+            wait = requests.reserve(1);
+        }
+        if (tokens != null) {
+            wait = Math.max(wait, tokens.reserve(estimatedTokens));
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        long timeout = TimeUnit.SECONDS.toNanos(settings.getMaxQueueWaitSeconds());
+        if (!concurrency.acquire(Math.max(0, timeout - (System.nanoTime() - queued)))) {
+            metrics.recordQueueTimeout();
+            throw new IllegalStateException("GigaChat rate limiter queue timeout after "
+                    + settings.getMaxQueueWaitSeconds() + " s");
+        }
+        metrics.recordQueueWait(System.nanoTime() - queued);
+    }
+
+    private long backoff(int attempt) {
+        long cap = Math.min(settings.getRetryMaxMillis(),
+                settings.getRetryBaseMillis() << Math.min(attempt - 1, 20));
+        long half = Math.max(1, cap / 2);
+        return half + ThreadLocalRandom.current().nextLong(half);
+    }
+}
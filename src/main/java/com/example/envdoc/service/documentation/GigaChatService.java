@@ -1,13 +1,23 @@
 package com.example.envdoc.service.documentation;
 
 import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
+import com.example.envdoc.metrics.ResilienceMetrics;
 import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.tools.ClassCodeTool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Сервис для интеграции с GigaChat API через langchain4j-gigachat.
@@ -20,10 +30,36 @@ public class GigaChatService {
     private final GigaChatConfig config;
     private final GigaChatAgentDocumentationService agentService;
     private final GigaChatSimpleDocumentationService simpleService;
+    private final GigaChatStreamingDocumentationService streamingService;
     private final GigaChatFallbackDocumentationService fallbackService;
+    private final GigaChatPromptBuilder promptBuilder;
+    private final DescriptionCache descriptionCache;
+    private final DocumentationMetrics documentationMetrics;
+    private final PromptBatcher promptBatcher;
+    private final DocumentationExecutor documentationExecutor;
+    private final GigaChatCircuitBreaker circuitBreaker;
+    private final ResilienceMetrics resilienceMetrics;
+    private final VariableTypeInference typeInference;
+    private final KnowledgeBase knowledgeBase;
+
+    /**
+     * Ответ GigaChat на один пакет переменных.
+     *
+     * @param table таблица ответа или null, если её не удалось разобрать
+     */
+    private record BatchResult(List<EnvVariable> variables, String response, MarkdownTable table) {
+    }
 
     /**
      * Генерирует документацию для переменных окружения с использованием GigaChat.
+     * <p>
+     * Известные переменные описываются по {@link KnowledgeBase}, тип, категория и пример
+     * остальных сначала выводятся локально {@link VariableTypeInference}.
+     * Переменные, описание которых есть в {@link DescriptionCache}, в GigaChat не отправляются.
+     * Остальные делятся {@link PromptBatcher} на пакеты, которые отправляются параллельно
+     * и повторяются при ошибке; строки всех пакетов и кэша собираются в одну таблицу
+     * в исходном порядке переменных. Пока {@link GigaChatCircuitBreaker} разомкнут,
+     * документация сразу строится без GigaChat.
      *
      * @param variables список переменных окружения
      * @param projectName имя проекта
@@ -31,30 +67,299 @@ public class GigaChatService {
      * @return сгенерированная документация в формате Markdown
      */
     public String generateDocumentation(List<EnvVariable> variables, String projectName, Path repoPath) {
+        return generateDocumentation(variables, projectName, repoPath, null);
+    }
+
+    /**
+     * Генерирует документацию, сообщая о полученных строках таблицы.
+     *
+     * @param listener получает число строк и частичный Markdown по мере ответа GigaChat (может быть null)
+     */
+    public String generateDocumentation(List<EnvVariable> variables,
+                                        String projectName,
+                                        Path repoPath,
+                                        DocumentationListener listener) {
+        return generateDocumentation(variables, projectName, repoPath, null, listener);
+    }
+
+    /**
+     * Генерирует документацию, строя индекс классов агента по уже найденным Java файлам.
+     *
+     * @param javaFiles Java файлы репозитория из извлечения (null — инструмент обойдёт репозиторий сам)
+     * @param listener  получает число строк и частичный Markdown по мере ответа GigaChat (может быть null)
+     */
+    public String generateDocumentation(List<EnvVariable> variables,
+                                        String projectName,
+                                        Path repoPath,
+                                        List<Path> javaFiles,
+                                        DocumentationListener listener) {
         log.info("Generating documentation with GigaChat for {} variables", variables.size());
+        List<EnvVariable> unknown = knowledgeBase.resolve(variables);
+        typeInference.inferAll(variables).forEach((field, count) ->
+                documentationMetrics.recordInferredFields(field.name().toLowerCase(), count));
 
         if (config.getCredentials() == null || config.getCredentials().isBlank()) {
             log.warn("GigaChat not configured, using fallback documentation generation");
             return fallbackService.generateDocumentation(variables, projectName);
         }
 
-        try {
-            String response = agentService.generateDocumentation(variables, projectName, repoPath);
+        Map<EnvVariable, String> keys = new IdentityHashMap<>();
+        List<EnvVariable> misses = applyCache(unknown, keys);
+        reportResolution(variables.size(), variables.size() - unknown.size(), unknown.size() - misses.size());
+        if (misses.isEmpty()) {
+            log.info("All {} variables described from knowledge base and cache", variables.size());
+            return fallbackService.generateDocumentation(variables, projectName);
+        }
+        if (circuitBreaker.isOpen()) {
+            log.warn("GigaChat circuit is open, using fallback for {} variables", misses.size());
+            resilienceMetrics.recordShortCircuit();
+            return fallbackService.generateDocumentation(variables, projectName);
+        }
 
-            if (response != null && !response.isBlank()) {
-                return response;
+        // Без потоковой генерации пакеты описывает агент
+        List<List<EnvVariable>> batches = promptBatcher.split(misses, !streamingService.isAvailable());
+        if (batches.size() > 1) {
+            log.info("Sending {} variables to GigaChat in {} batches", misses.size(), batches.size());
+        }
+        DocumentationStream stream = new DocumentationStream(misses.size(), listener);
+        ClassCodeTool classCodeTool = new ClassCodeTool(repoPath, javaFiles);
+        List<Callable<BatchResult>> tasks = new ArrayList<>(batches.size());
+        for (List<EnvVariable> batch : batches) {
+            DocumentationStream.Part part = stream.part();
+            tasks.add(() -> describeBatch(batch, projectName, classCodeTool, part));
+        }
+        List<BatchResult> results = documentationExecutor.invokeAll(tasks);
+
+        if (results.stream().allMatch(result -> result.response() == null)) {
+            log.warn("Empty response from GigaChat, using fallback");
+            return fallbackService.generateDocumentation(variables, projectName);
+        }
+        return merge(variables, results, keys, projectName);
+    }
+
+    /**
+     * Сообщает, какая доля переменных описана без GigaChat.
+     */
+    private void reportResolution(int total, int known, int cached) {
+        int generated = total - known - cached;
+        documentationMetrics.recordResolution(known, cached, generated);
+        if (total > 0) {
+            log.info("Resolved {} of {} variables without GigaChat ({}%): {} from knowledge base v{}, {} from cache",
+                    known + cached, total, (known + cached) * 100 / total, known, knowledgeBase.version(), cached);
+        }
+    }
+
+    /**
+     * Описывает пакет переменных, повторяя запрос при ошибке, пустом ответе или ответе без таблицы.
+     */
+    private BatchResult describeBatch(List<EnvVariable> batch,
+                                      String projectName,
+                                      ClassCodeTool classCodeTool,
+                                      DocumentationStream.Part part) {
+        GigaChatConfig.Batching batching = config.getBatching();
+        int maxAttempts = Math.max(1, batching.getMaxAttempts());
+        long start = System.nanoTime();
+        String response = null;
+        MarkdownTable table = null;
+        int attempt = 0;
+        while (table == null && attempt < maxAttempts) {
+            attempt++;
+            if (attempt > 1 && !pause(batching.getRetryBackoffMillis() * (attempt - 1))) {
+                break;
             }
-            log.warn("Empty response from GigaChat agent, trying simple client");
-            response = simpleService.generateDocumentation(variables, projectName);
+            if (!circuitBreaker.allowRequest()) {
+                log.warn("GigaChat circuit is open, skipping batch of {} variables", batch.size());
+                resilienceMetrics.recordShortCircuit();
+                break;
+            }
+            part.reset();
+            try {
+                String candidate = describe(batch, projectName, classCodeTool, part);
+                if (candidate == null) {
+                    circuitBreaker.recordFailure();
+                    log.warn("No usable response from GigaChat for {} variables (attempt {}/{})",
+                            batch.size(), attempt, maxAttempts);
+                    continue;
+                }
+                circuitBreaker.recordSuccess();
+                response = candidate;
+                table = MarkdownTable.parse(candidate).orElse(null);
+                if (table == null) {
+                    log.warn("GigaChat response for {} variables has no variables table (attempt {}/{})",
+                            batch.size(), attempt, maxAttempts);
+                }
+            } catch (Exception e) {
+                circuitBreaker.recordFailure();
+                log.error("Error calling GigaChat API (attempt {}/{}): {}", attempt, maxAttempts, e.getMessage(), e);
+            }
+        }
+        String result = table == null ? "failed" : attempt == 1 ? "success" : "retried";
+        documentationMetrics.recordBatch(result, System.nanoTime() - start, batch.size());
+        return new BatchResult(batch, response, table);
+    }
+
+    private String describe(List<EnvVariable> variables,
+                            String projectName,
+                            ClassCodeTool classCodeTool,
+                            DocumentationStream.Part part) throws Exception {
+        if (streamingService.isAvailable()) {
+            String response = streamingService.generateDocumentation(variables, projectName, part);
             if (response != null && !response.isBlank()) {
                 return response;
             }
-            log.warn("Empty response from GigaChat, using fallback");
-            return fallbackService.generateDocumentation(variables, projectName);
+            log.warn("Empty streaming response from GigaChat, trying agent");
+        }
+        String response = generate(variables, projectName, classCodeTool);
+        if (response == null || response.isBlank()) {
+            return null;
+        }
+        part.reset();
+        part.append(response);
+        part.complete();
+        return response;
+    }
 
-        } catch (Exception e) {
-            log.error("Error calling GigaChat API: {}", e.getMessage(), e);
+    /**
+     * Заполняет переменные из кэша и возвращает те, что нужно отправить в GigaChat.
+     */
+    private List<EnvVariable> applyCache(List<EnvVariable> variables, Map<EnvVariable, String> keys) {
+        if (!descriptionCache.isEnabled()) {
+            return variables;
+        }
+        List<EnvVariable> misses = new ArrayList<>();
+        long tokensSaved = 0;
+        for (EnvVariable variable : variables) {
+            String key = descriptionCache.key(variable);
+            keys.put(variable, key);
+            Optional<DescriptionCache.Entry> cached = descriptionCache.get(key);
+            if (cached.isPresent()) {
+                tokensSaved += TokenEstimator.estimate(promptBuilder.variableJson(variable));
+                cached.get().applyTo(variable);
+            } else {
+                misses.add(variable);
+            }
+        }
+        documentationMetrics.recordDescriptionCache(variables.size() - misses.size(), misses.size(), tokensSaved);
+        return misses;
+    }
+
+    /**
+     * Переносит описания из ответов в переменные и кэш и собирает одну таблицу. Если GigaChat
+     * просили только об описаниях, все строки строятся локально; иначе берутся строки GigaChat
+     * для описанных переменных и локальные — для переменных из кэша и из неудавшихся пакетов.
+     */
+    private String merge(List<EnvVariable> variables,
+                         List<BatchResult> results,
+                         Map<EnvVariable, String> keys,
+                         String projectName) {
+        Map<EnvVariable, String> rows = new IdentityHashMap<>();
+        MarkdownTable layout = null;
+        for (BatchResult result : results) {
+            MarkdownTable table = result.table();
+            if (table == null) {
+                continue;
+            }
+            layout = layout != null ? layout : table;
+            for (EnvVariable variable : result.variables()) {
+                table.row(variable.getName()).ifPresent(row -> rows.put(variable, row));
+                learn(table, variable);
+                if (descriptionCache.isEnabled()) {
+                    descriptionCache.put(keys.get(variable), variable);
+                }
+            }
+        }
+        if (layout != null && descriptionCache.isEnabled()) {
+            descriptionCache.flush();
+        }
+        if (promptBuilder.isDescriptionsOnly()) {
+            if (layout == null) {
+                log.warn("No GigaChat batch returned a descriptions table, rows are built without descriptions");
+            }
             return fallbackService.generateDocumentation(variables, projectName);
         }
+
+        BatchResult single = results.size() == 1 ? results.get(0) : null;
+        boolean allSent = single != null && single.variables().size() == variables.size();
+        if (layout == null) {
+            if (single == null) {
+                log.warn("No GigaChat batch returned a variables table, using fallback");
+                return fallbackService.generateDocumentation(variables, projectName);
+            }
+            log.warn("GigaChat response has no variables table, cached rows are appended as is");
+            if (allSent) {
+                return single.response();
+            }
+            Set<EnvVariable> described = Collections.newSetFromMap(new IdentityHashMap<>());
+            described.addAll(single.variables());
+            StringBuilder doc = new StringBuilder(single.response().stripTrailing()).append("\n");
+            variables.stream()
+                    .filter(variable -> !described.contains(variable))
+                    .forEach(variable -> doc.append(fallbackService.row(variable)).append("\n"));
+            return doc.toString();
+        }
+        if (allSent) {
+            return single.response();
+        }
+
+        List<String> table = new ArrayList<>(variables.size());
+        for (EnvVariable variable : variables) {
+            String row = rows.get(variable);
+            table.add(row != null ? row : fallbackService.row(variable));
+        }
+        return layout.withRows(table);
+    }
+
+    /**
+     * Агент, а если он не ответил за {@code gigachat.hedging.hedge-after-millis} или ответил
+     * без таблицы переменных — простой клиент; используется первый ответ с таблицей.
+     * Одно правило при любом {@code gigachat.hedging.enabled}: если таблицы нет ни в одном
+     * ответе, возвращается null, и попытка считается ошибкой для {@link GigaChatCircuitBreaker}.
+     */
+    private String generate(List<EnvVariable> variables,
+                            String projectName,
+                            ClassCodeTool classCodeTool) throws Exception {
+        Callable<String> agent = () -> agentService.generateDocumentation(variables, projectName, classCodeTool);
+        Callable<String> simple = () -> {
+            log.warn("GigaChat agent is slow or returned no table, trying simple client");
+            return simpleService.generateDocumentation(variables, projectName);
+        };
+        if (!config.getHedging().isEnabled()) {
+            String response = agent.call();
+            if (hasTable(response)) {
+                return response;
+            }
+            response = simple.call();
+            return hasTable(response) ? response : null;
+        }
+        DocumentationExecutor.Hedged<String> result = documentationExecutor.hedge(
+                agent, simple, config.getHedging().getHedgeAfterMillis(), GigaChatService::hasTable);
+        resilienceMetrics.recordHedge(result.hedged(), result.winner() == null ? "none"
+                : result.winner() == DocumentationExecutor.Winner.PRIMARY ? "agent" : "simple");
+        return result.value();
+    }
+
+    private static boolean hasTable(String response) {
+        return MarkdownTable.parse(response).isPresent();
+    }
+
+    private static boolean pause(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void learn(MarkdownTable table, EnvVariable variable) {
+        String name = variable.getName();
+        table.cell(name, "Описание").ifPresent(variable::setDescription);
+        table.cell(name, "Тип").ifPresent(variable::setDataType);
+        table.cell(name, "Пример").ifPresent(variable::setExampleValue);
+        table.cell(name, "Категория").ifPresent(variable::setCategory);
     }
 }
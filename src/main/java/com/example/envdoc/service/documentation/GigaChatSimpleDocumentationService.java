@@ -5,6 +5,7 @@ import com.example.envdoc.model.EnvVariable;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,17 +13,19 @@ import java.util.Optional;
 
 /**
  * Генерация документации через прямой вызов GigaChat.
+ * Запросы проходят через {@link GigaChatRateLimiter}.
  */
 @Service
 public class GigaChatSimpleDocumentationService {
 
-    private final GigaChatChatModel chatModel;
+    private final ChatModel chatModel;
     private final GigaChatPromptBuilder promptBuilder;
 
     public GigaChatSimpleDocumentationService(GigaChatPromptBuilder promptBuilder,
+                                              GigaChatRateLimiter rateLimiter,
                                               Optional<GigaChatChatModel> chatModel) {
         this.promptBuilder = promptBuilder;
-        this.chatModel = chatModel.orElse(null);
+        this.chatModel = rateLimiter.wrap(chatModel.orElse(null));
     }
 
     public String generateDocumentation(List<EnvVariable> variables, String projectName) {
@@ -0,0 +1,168 @@
+package com.example.envdoc.service.documentation;
+
+import chat.giga.langchain4j.GigaChatStreamingChatModel;
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
+import com.example.envdoc.model.EnvVariable;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Потоковая генерация документации через GigaChat.
+ * <p>
+ * Токены ответа пишутся в {@link DocumentationStream.Part} по мере прихода,
+ * поэтому строки таблицы доступны до завершения генерации. Запрос занимает место
+ * в {@link GigaChatRateLimiter} до конца ответа — даже если ответ перестали ждать по таймауту.
+ * Брошенная попытка отменяется: её токены больше не попадают в часть буфера, которую
+ * использует повторная попытка.
+ */
+@Service
+public class GigaChatStreamingDocumentationService {
+
+    private final GigaChatPromptBuilder promptBuilder;
+    private final GigaChatConfig config;
+    private final DocumentationMetrics documentationMetrics;
+    private final GigaChatRateLimiter rateLimiter;
+    private final StreamingChatModel chatModel;
+
+    @Autowired
+    public GigaChatStreamingDocumentationService(GigaChatPromptBuilder promptBuilder,
+                                                 GigaChatConfig config,
+                                                 DocumentationMetrics documentationMetrics,
+                                                 GigaChatRateLimiter rateLimiter,
+                                                 Optional<GigaChatStreamingChatModel> chatModel) {
+        this(promptBuilder, config, documentationMetrics, rateLimiter, chatModel.orElse(null));
+    }
+
+    GigaChatStreamingDocumentationService(GigaChatPromptBuilder promptBuilder,
+                                          GigaChatConfig config,
+                                          DocumentationMetrics documentationMetrics,
+                                          GigaChatRateLimiter rateLimiter,
+                                          StreamingChatModel chatModel) {
+        this.promptBuilder = promptBuilder;
+        this.config = config;
+        this.documentationMetrics = documentationMetrics;
+        this.rateLimiter = rateLimiter;
+        this.chatModel = chatModel;
+    }
+
+    public boolean isAvailable() {
+        return chatModel != null && config.isStreaming();
+    }
+
+    public String generateDocumentation(List<EnvVariable> variables,
+                                        String projectName,
+                                        DocumentationStream.Part part) throws Exception {
+        if (!isAvailable()) {
+            return null;
+        }
+
+        String prompt = promptBuilder.buildPrompt(variables, projectName);
+        List<ChatMessage> messages = List.of(
+                SystemMessage.from(promptBuilder.systemMessage()),
+                UserMessage.from(prompt)
+        );
+
+        return rateLimiter.executeStreaming(GigaChatRateLimiter.estimateTokens(messages),
+                finished -> stream(messages, part, finished));
+    }
+
+    private String stream(List<ChatMessage> messages,
+                          DocumentationStream.Part part,
+                          CompletableFuture<Void> finished) throws Exception {
+        part.reset();
+        Attempt attempt = new Attempt(part, finished);
+        try {
+            chatModel.chat(messages, attempt);
+        } catch (RuntimeException e) {
+            attempt.onError(e);
+        }
+
+        try {
+            return attempt.done.get(config.getTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            if (attempt.cancel()) {
+                // Поток не ответил вовремя: квота занята, пока он не закончится, но не дольше ещё одного таймаута
+                finished.orTimeout(config.getTimeoutSeconds(), TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Одна попытка потоковой генерации. После отмены обработчик игнорирует токены
+     * брошенного потока и только отмечает его завершение.
+     */
+    private final class Attempt implements StreamingChatResponseHandler {
+
+        private final DocumentationStream.Part part;
+        private final CompletableFuture<Void> finished;
+        private final CompletableFuture<String> done = new CompletableFuture<>();
+        private final long start = System.nanoTime();
+        private boolean firstToken = true;
+        private boolean cancelled;
+
+        private Attempt(DocumentationStream.Part part, CompletableFuture<Void> finished) {
+            this.part = part;
+            this.finished = finished;
+        }
+
+        @Override
+        public synchronized void onPartialResponse(String token) {
+            if (cancelled) {
+                return;
+            }
+            if (firstToken) {
+                firstToken = false;
+                documentationMetrics.recordTimeToFirstToken(System.nanoTime() - start);
+            }
+            part.append(token);
+        }
+
+        @Override
+        public synchronized void onCompleteResponse(ChatResponse response) {
+            finished.complete(null);
+            if (cancelled) {
+                return;
+            }
+            part.complete();
+            String text = response != null && response.aiMessage() != null
+                    ? response.aiMessage().text()
+                    : null;
+            done.complete(text != null && !text.isBlank() ? text : part.text());
+        }
+
+        @Override
+        public synchronized void onError(Throwable error) {
+            finished.completeExceptionally(error);
+            cancelled = true;
+            done.completeExceptionally(error);
+        }
+
+        /**
+         * Отменяет попытку, если поток ещё не закончился.
+         *
+         * @return true, если поток брошен незавершённым
+         */
+        synchronized boolean cancel() {
+            cancelled = true;
+            return !finished.isDone();
+        }
+    }
+}
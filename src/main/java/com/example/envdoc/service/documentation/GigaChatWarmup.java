@@ -0,0 +1,105 @@
+package com.example.envdoc.service.documentation;
+
+import chat.giga.client.auth.AuthClient;
+import chat.giga.langchain4j.GigaChatChatModel;
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.ConnectionMetrics;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев GigaChat после старта приложения.
+ * <p>
+ * Получает OAuth-токен и открывает соединение с API пробным запросом на один токен ответа,
+ * чтобы первая задача не платила за авторизацию и TLS-рукопожатие. Дальше токен обновляет
+ * SDK — лениво, в первом запросе после истечения срока: SDK не даёт ни срока токена,
+ * ни принудительного обновления, поэтому обновить его заранее отсюда нельзя.
+ */
+@Slf4j
+@Component
+public class GigaChatWarmup {
+
+    private static final String PROBE_PROMPT = "ping";
+
+    private final GigaChatConfig.Warmup settings;
+    private final ConnectionMetrics metrics;
+    private final AuthClient authClient;
+    private final ChatModel chatModel;
+
+    @Autowired
+    public GigaChatWarmup(GigaChatConfig config,
+                          ConnectionMetrics metrics,
+                          GigaChatRateLimiter rateLimiter,
+                          Optional<AuthClient> authClient,
+                          Optional<GigaChatChatModel> chatModel) {
+        this(config, metrics, authClient.orElse(null), rateLimiter.wrap(chatModel.orElse(null)));
+    }
+
+    GigaChatWarmup(GigaChatConfig config, ConnectionMetrics metrics, AuthClient authClient, ChatModel chatModel) {
+        this.settings = config.getWarmup();
+        this.metrics = metrics;
+        this.authClient = authClient;
+        this.chatModel = chatModel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!settings.isEnabled() || authClient == null) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "gigachat-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Получает токен и, если включено, открывает соединение пробным запросом.
+     * Ошибки только логируются: прогрев не должен мешать старту.
+     */
+    void warmUp() {
+        long start = System.nanoTime();
+        boolean tokenReady = fetchToken();
+        metrics.recordWarmup("token", tokenReady, System.nanoTime() - start);
+        if (!tokenReady || !settings.isProbeRequest() || chatModel == null) {
+            return;
+        }
+
+        start = System.nanoTime();
+        boolean connected = false;
+        try {
+            chatModel.chat(ChatRequest.builder()
+                .messages(UserMessage.from(PROBE_PROMPT))
+                .parameters(ChatRequestParameters.builder()
+                    .maxOutputTokens(1)
+                    .build())
+                .build());
+            connected = true;
+        } catch (RuntimeException e) {
+            log.warn("GigaChat warm-up request failed: {}", e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.recordWarmup("connection", connected, elapsed);
+        if (connected) {
+            log.info("GigaChat connection warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private boolean fetchToken() {
+        try {
+            return authClient.getToken() != null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to obtain GigaChat access token: {}", e.getMessage());
+            return false;
+        }
+    }
+}
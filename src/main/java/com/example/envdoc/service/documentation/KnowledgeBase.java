@@ -0,0 +1,242 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.EnvVariable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Словарь известных переменных окружения (Spring Boot, Actuator, JVM, инфраструктура).
+ * <p>
+ * Встроенный словарь {@code knowledge/well-known-variables.yml} версионируется вместе
+ * с приложением; файл организации {@code gigachat.knowledge-base.org-file} в том же формате
+ * дополняет его и имеет приоритет: сначала целиком проверяется словарь организации, затем
+ * встроенный. Внутри словаря точные имена проверяются раньше шаблонов, из шаблонов
+ * выбирается самый конкретный (с наибольшей неизменной частью). Имена сравниваются
+ * как при relaxed binding Spring: точки и дефисы заменяются на подчёркивания, регистр
+ * не важен, поэтому {@code server.port} находит запись {@code SERVER_PORT}. Найденные
+ * переменные описываются без GigaChat.
+ */
+@Slf4j
+@Component
+public class KnowledgeBase {
+
+    static final String BUILT_IN = "/knowledge/well-known-variables.yml";
+    private static final String MATCH = "{match}";
+
+    private final Tier organization = new Tier();
+    private final Tier builtIn = new Tier();
+    private final String version;
+
+    /**
+     * Запись словаря.
+     */
+    public record Entry(String description, String type, String category, String example) {
+
+        /**
+         * Заполняет описание и те поля, которые у переменной ещё пусты. Тип из объявления
+         * (Java тип поля или значение по умолчанию) важнее типа записи; если они расходятся,
+         * пример записи тоже не переносится.
+         *
+         * @param declaredType тип из объявления или null
+         */
+        public void applyTo(EnvVariable variable, String declaredType) {
+            variable.setDescription(description);
+            boolean typeMatches = declaredType == null || type == null || declaredType.equals(type);
+            if (variable.getDataType() == null) {
+                variable.setDataType(declaredType != null ? declaredType : type);
+            }
+            if (variable.getCategory() == null && category != null) {
+                variable.setCategory(category);
+            }
+            if (variable.getExampleValue() == null && example != null && typeMatches) {
+                variable.setExampleValue(example);
+            }
+        }
+
+        private Entry withMatch(String match) {
+            return new Entry(replace(description, match), type, category, replace(example, match));
+        }
+
+        private static String replace(String text, String match) {
+            return text != null ? text.replace(MATCH, match) : null;
+        }
+    }
+
+    private record PatternEntry(Pattern pattern, int literalLength, Entry entry) {
+    }
+
+    /**
+     * Записи одного файла словаря.
+     */
+    private static final class Tier {
+
+        private final Map<String, Entry> byName = new HashMap<>();
+        private final List<PatternEntry> patterns = new ArrayList<>();
+
+        Optional<Entry> lookup(String key) {
+            Entry exact = byName.get(key);
+            if (exact != null) {
+                return Optional.of(exact);
+            }
+            for (PatternEntry candidate : patterns) {
+                Matcher matcher = candidate.pattern().matcher(key);
+                if (matcher.matches()) {
+                    StringJoiner match = new StringJoiner(".");
+                    for (int i = 1; i <= matcher.groupCount(); i++) {
+                        match.add(matcher.group(i).toLowerCase(Locale.ROOT).replace('_', '.'));
+                    }
+                    return Optional.of(candidate.entry().withMatch(match.toString()));
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Загружает файл словаря; при повторе имени остаётся первая запись.
+         *
+         * @return версия файла
+         */
+        String load(Reader reader) {
+            Object data = new Yaml().load(reader);
+            if (!(data instanceof Map<?, ?> root)) {
+                return null;
+            }
+            if (root.get("variables") instanceof List<?> variables) {
+                for (Object item : variables) {
+                    if (item instanceof Map<?, ?> map) {
+                        add(map);
+                    }
+                }
+            }
+            patterns.sort(Comparator.comparingInt(PatternEntry::literalLength).reversed());
+            return root.get("version") != null ? String.valueOf(root.get("version")) : null;
+        }
+
+        int size() {
+            return byName.size() + patterns.size();
+        }
+
+        private void add(Map<?, ?> map) {
+            Entry entry = new Entry(text(map.get("description")), text(map.get("type")),
+                    text(map.get("category")), text(map.get("example")));
+            if (entry.description() == null) {
+                return;
+            }
+            if (map.get("names") instanceof List<?> names) {
+                for (Object name : names) {
+                    byName.putIfAbsent(normalize(String.valueOf(name)), entry);
+                }
+            }
+            String pattern = text(map.get("pattern"));
+            if (pattern != null) {
+                String glob = normalize(pattern);
+                StringBuilder regex = new StringBuilder();
+                int literal = 0;
+                for (String part : glob.split("\\*", -1)) {
+                    if (!regex.isEmpty()) {
+                        regex.append("(.+)");
+                    }
+                    regex.append(Pattern.quote(part));
+                    literal += part.length();
+                }
+                patterns.add(new PatternEntry(Pattern.compile(regex.toString()), literal, entry));
+            }
+        }
+    }
+
+    public KnowledgeBase(GigaChatConfig config) {
+        GigaChatConfig.KnowledgeBase settings = config.getKnowledgeBase();
+        if (!settings.isEnabled()) {
+            this.version = "disabled";
+            return;
+        }
+        String orgVersion = null;
+        String orgFile = settings.getOrgFile();
+        if (orgFile != null && !orgFile.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(orgFile), StandardCharsets.UTF_8)) {
+                orgVersion = organization.load(reader);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to read knowledge base {}: {}", orgFile, e.getMessage());
+            }
+        }
+        String builtInVersion;
+        try (InputStream in = KnowledgeBase.class.getResourceAsStream(BUILT_IN)) {
+            builtInVersion = in != null ? builtIn.load(new InputStreamReader(in, StandardCharsets.UTF_8)) : null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read built-in knowledge base", e);
+        }
+        this.version = orgVersion != null ? builtInVersion + "+org-" + orgVersion : builtInVersion;
+        log.info("Knowledge base v{}: {} built-in entries, {} organization entries",
+                version, builtIn.size(), organization.size());
+    }
+
+    /**
+     * Версия словаря: встроенная и, если задан, файла организации.
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Запись для имени переменной: сначала из словаря организации, затем из встроенного.
+     */
+    public Optional<Entry> lookup(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String key = normalize(name);
+        Optional<Entry> entry = organization.lookup(key);
+        return entry.isPresent() ? entry : builtIn.lookup(key);
+    }
+
+    /**
+     * Описывает переменные из словаря.
+     *
+     * @return переменные, которых нет в словаре или у которых описание уже было
+     */
+    public List<EnvVariable> resolve(List<EnvVariable> variables) {
+        List<EnvVariable> unresolved = new ArrayList<>();
+        for (EnvVariable variable : variables) {
+            Optional<Entry> entry = variable.getDescription() == null
+                    ? lookup(variable.getName())
+                    : Optional.empty();
+            if (entry.isPresent()) {
+                entry.get().applyTo(variable, VariableTypeInference.declaredType(variable));
+            } else {
+                unresolved.add(variable);
+            }
+        }
+        return unresolved;
+    }
+
+    /**
+     * Ключ словаря: имя в виде переменной окружения ({@code spring.datasource-url} → {@code SPRING_DATASOURCE_URL}).
+     */
+    private static String normalize(String name) {
+        return name.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT);
+    }
+
+    private static String text(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.envdoc.service.documentation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Таблица переменных в ответе GigaChat.
+ * <p>
+ * Находит первую таблицу с колонкой «Переменная», разбирает строки по ячейкам
+ * (с учётом экранированного {@code \|}) и позволяет пересобрать документ
+ * с другим набором строк, сохранив текст до и после таблицы.
+ */
+public final class MarkdownTable {
+
+    private static final String NAME_COLUMN = "Переменная";
+
+    private final List<String> lines;
+    private final int headerLine;
+    private final int endLine;
+    private final List<String> columns;
+    private final Map<String, String> rowsByVariable;
+
+    private MarkdownTable(List<String> lines,
+                          int headerLine,
+                          int endLine,
+                          List<String> columns,
+                          Map<String, String> rowsByVariable) {
+        this.lines = lines;
+        this.headerLine = headerLine;
+        this.endLine = endLine;
+        this.columns = columns;
+        this.rowsByVariable = rowsByVariable;
+    }
+
+    public static Optional<MarkdownTable> parse(String markdown) {
+        if (markdown == null) {
+            return Optional.empty();
+        }
+        List<String> lines = markdown.lines().toList();
+        for (int i = 0; i + 1 < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (!line.startsWith("|") || !lines.get(i + 1).trim().startsWith("|")) {
+                continue;
+            }
+            List<String> columns = cells(line);
+            int nameColumn = columns.indexOf(NAME_COLUMN);
+            if (nameColumn < 0) {
+                continue;
+            }
+            Map<String, String> rows = new LinkedHashMap<>();
+            int end = i + 2;
+            while (end < lines.size() && lines.get(end).trim().startsWith("|")) {
+                String row = lines.get(end).trim();
+                List<String> cells = cells(row);
+                if (nameColumn < cells.size()) {
+                    rows.putIfAbsent(stripCode(cells.get(nameColumn)), row);
+                }
+                end++;
+            }
+            return Optional.of(new MarkdownTable(lines, i, end, columns, rows));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Значение ячейки строки переменной; «-» и пустые значения — empty.
+     */
+    public Optional<String> cell(String variable, String column) {
+        String row = rowsByVariable.get(variable);
+        int index = columns.indexOf(column);
+        if (row == null || index < 0) {
+            return Optional.empty();
+        }
+        List<String> cells = cells(row);
+        if (index >= cells.size()) {
+            return Optional.empty();
+        }
+        String value = stripCode(cells.get(index)).replace("\\|", "|");
+        return value.isEmpty() || value.equals("-") ? Optional.empty() : Optional.of(value);
+    }
+
+    public Optional<String> row(String variable) {
+        return Optional.ofNullable(rowsByVariable.get(variable));
+    }
+
+    /**
+     * Документ с теми же заголовком и текстом вокруг таблицы, но с указанными строками.
+     */
+    public String withRows(List<String> rows) {
+        List<String> result = new ArrayList<>(lines.subList(0, headerLine + 2));
+        result.addAll(rows);
+        result.addAll(lines.subList(endLine, lines.size()));
+        return String.join("\n", result) + "\n";
+    }
+
+    private static List<String> cells(String row) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        String trimmed = row.trim();
+        int from = trimmed.startsWith("|") ? 1 : 0;
+        for (int i = from; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '\\' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '|') {
+                cell.append("\\|");
+                i++;
+            } else if (c == '|') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (!cell.toString().isBlank()) {
+            cells.add(cell.toString().trim());
+        }
+        return cells;
+    }
+
+    private static String stripCode(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("`") && trimmed.endsWith("`")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.EnvVariable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Делит переменные на пакеты запросов к GigaChat.
+ * <p>
+ * Переменные группируются по модулю и категории, чтобы в одном промпте оказывался
+ * связанный контекст. Группы укладываются в пакеты по оценке токенов входного JSON
+ * ({@code gigachat.batching.prompt-token-budget}) и по числу строк ответа
+ * ({@code max-variables}); группа делится между пакетами, только если не помещается
+ * в пустой пакет. Разбиение детерминировано для одного и того же входа. В промпт агента
+ * после разбиения добавляются выдержки {@link ContextPrefetcher}, поэтому для пакетов агента
+ * из бюджета вычитается {@code gigachat.prefetch.token-budget}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PromptBatcher {
+
+    private final GigaChatConfig config;
+    private final GigaChatPromptBuilder promptBuilder;
+
+    public List<List<EnvVariable>> split(List<EnvVariable> variables) {
+        return split(variables, false);
+    }
+
+    /**
+     * @param agent пакеты пойдут агенту (с предзагруженным кодом классов в промпте)
+     */
+    public List<List<EnvVariable>> split(List<EnvVariable> variables, boolean agent) {
+        GigaChatConfig.Batching batching = config.getBatching();
+        if (!batching.isEnabled() || variables.size() <= 1) {
+            return List.of(variables);
+        }
+
+        int overhead = promptBuilder.overheadTokens();
+        if (agent && config.getPrefetch().isEnabled()) {
+            overhead += config.getPrefetch().getTokenBudget();
+        }
+        int budget = Math.max(1, batching.getPromptTokenBudget() - overhead);
+        int maxVariables = Math.max(1, batching.getMaxVariables());
+
+        Map<String, List<EnvVariable>> groups = new TreeMap<>();
+        for (EnvVariable variable : variables) {
+            groups.computeIfAbsent(groupKey(variable), k -> new ArrayList<>()).add(variable);
+        }
+
+        List<List<EnvVariable>> batches = new ArrayList<>();
+        List<EnvVariable> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (List<EnvVariable> group : groups.values()) {
+            int[] tokens = group.stream()
+                    .mapToInt(variable -> TokenEstimator.estimate(promptBuilder.variableJson(variable)))
+                    .toArray();
+            int groupTokens = 0;
+            for (int t : tokens) {
+                groupTokens += t;
+            }
+            if (!current.isEmpty()
+                    && (currentTokens + groupTokens > budget || current.size() + group.size() > maxVariables)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            for (int i = 0; i < group.size(); i++) {
+                if (!current.isEmpty() && (currentTokens + tokens[i] > budget || current.size() >= maxVariables)) {
+                    batches.add(current);
+                    current = new ArrayList<>();
+                    currentTokens = 0;
+                }
+                current.add(group.get(i));
+                currentTokens += tokens[i];
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private static String groupKey(EnvVariable variable) {
+        String module = variable.getDefinition() != null && variable.getDefinition().getModuleName() != null
+                ? variable.getDefinition().getModuleName()
+                : "";
+        String category = variable.getCategory() != null ? variable.getCategory() : "";
+        return module + '\u0000' + category;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.envdoc.service.documentation;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.util.Set;
+
+/**
+ * Модель, каждый запрос которой проходит через {@link GigaChatRateLimiter}.
+ * Нужна агенту: AgentExecutor обращается к модели несколько раз за запуск.
+ */
+final class RateLimitedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final GigaChatRateLimiter rateLimiter;
+
+    RateLimitedChatModel(ChatModel delegate, GigaChatRateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        try {
+            return rateLimiter.execute(GigaChatRateLimiter.estimateTokens(request.messages()),
+                    () -> delegate.chat(request), RateLimitedChatModel::totalTokens);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for GigaChat rate limiter", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    private static int totalTokens(ChatResponse response) {
+        TokenUsage usage = response.tokenUsage();
+        return usage != null && usage.totalTokenCount() != null ? usage.totalTokenCount() : 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.envdoc.service.documentation;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket с резервированием: запрос сразу забирает разрешения (баланс может уйти
+ * в минус) и получает время, которое нужно подождать до восстановления баланса.
+ * Так ожидающие запросы выстраиваются в очередь без повторных проверок.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier clock;
+    private double available;
+    private long updated;
+
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.clock = clock;
+        this.available = capacity;
+        this.updated = clock.getAsLong();
+    }
+
+    /**
+     * Забирает разрешения.
+     *
+     * @return время ожидания в наносекундах (0 — можно выполнять сразу)
+     */
+    synchronized long reserve(double permits) {
+        refill();
+        available -= permits;
+        return available >= 0 ? 0 : (long) Math.ceil(-available / refillPerNano);
+    }
+
+    /**
+     * Поправка после запроса: положительное значение докупает разрешения, отрицательное возвращает.
+     */
+    synchronized void adjust(double permits) {
+        refill();
+        available = Math.min(capacity, available - permits);
+    }
+
+    synchronized double available() {
+        refill();
+        return available;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        available = Math.min(capacity, available + (now - updated) * refillPerNano);
+        updated = now;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.envdoc.service.documentation;
+
+/**
+ * Оценка числа токенов текста без токенизатора модели.
+ * <p>
+ * Для смеси JSON, латиницы и кириллицы GigaChat в среднем тратит около
+ * одного токена на 4 символа; оценка нужна для метрик и бюджетов, а не для биллинга.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
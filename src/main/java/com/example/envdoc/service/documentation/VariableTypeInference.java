@@ -0,0 +1,366 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableUsage;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Локальный вывод типа, категории и примера значения переменной.
+ * <p>
+ * Работает до обращения к GigaChat и только по извлечённым данным: Java тип поля
+ * в {@code @Value} или {@code @ConfigurationProperties}, значение по умолчанию,
+ * слова имени переменной и цели использований. Заполняет только пустые поля,
+ * поэтому значения из кода и кэша не перезаписываются. Результат детерминирован:
+ * от GigaChat после этого нужны только описания.
+ */
+@Component
+public class VariableTypeInference {
+
+    public static final String BOOLEAN = "boolean";
+    public static final String INT = "int";
+    public static final String NUMBER = "number";
+    public static final String DURATION = "duration";
+    public static final String URL = "url";
+    public static final String LIST = "list";
+    public static final String SECRET = "secret";
+    public static final String STRING = "string";
+
+    /**
+     * Версия правил вывода; увеличивается при их изменении, чтобы кэш описаний не отдавал старые записи
+     */
+    public static final int VERSION = 1;
+
+    private static final Pattern INTEGER = Pattern.compile("-?\\d+");
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+\\.\\d+");
+    private static final Pattern DURATION_VALUE = Pattern.compile("(?i)\\d+\\s*(ns|us|ms|s|m|h|d)|P(T?\\d.*)");
+    private static final Pattern URL_VALUE = Pattern.compile("(?i)[a-z][a-z0-9+.-]*:(//|[a-z]+:).*");
+
+    private static final Set<String> SECRET_WORDS = Set.of(
+            "PASSWORD", "PASSWD", "PWD", "SECRET", "TOKEN", "CREDENTIALS", "CREDENTIAL", "APIKEY", "PASSPHRASE");
+    private static final Set<String> KEY_QUALIFIERS = Set.of("API", "PRIVATE", "ACCESS", "SECRET", "CLIENT", "SIGNING");
+    private static final Set<String> BOOLEAN_WORDS = Set.of("ENABLED", "DISABLED", "ENABLE", "DISABLE", "FLAG");
+    private static final Set<String> BOOLEAN_PREFIXES = Set.of("IS", "USE", "ALLOW", "SKIP");
+    private static final Set<String> DURATION_WORDS = Set.of(
+            "TIMEOUT", "TTL", "INTERVAL", "DELAY", "DURATION", "PERIOD", "EXPIRATION", "BACKOFF");
+    private static final Set<String> INT_WORDS = Set.of(
+            "PORT", "SIZE", "COUNT", "MAX", "MIN", "LIMIT", "THREADS", "RETRIES", "ATTEMPTS", "CAPACITY", "WORKERS");
+    private static final Set<String> URL_WORDS = Set.of("URL", "URI", "ENDPOINT");
+    private static final Set<String> LIST_WORDS = Set.of("HOSTS", "SERVERS", "NODES", "ORIGINS", "LIST");
+    private static final Set<String> INT_JAVA_TYPES = Set.of(
+            "int", "Integer", "long", "Long", "short", "Short", "byte", "Byte", "BigInteger");
+    private static final Set<String> NUMBER_JAVA_TYPES = Set.of("double", "Double", "float", "Float", "BigDecimal");
+
+    public enum Field {
+        TYPE,
+        CATEGORY,
+        EXAMPLE
+    }
+
+    /**
+     * Заполняет пустые тип, категорию и пример у переменных.
+     *
+     * @return сколько полей заполнено по каждому из них
+     */
+    public Map<Field, Integer> inferAll(List<EnvVariable> variables) {
+        Map<Field, Integer> filled = new EnumMap<>(Field.class);
+        for (EnvVariable variable : variables) {
+            if (variable.getDataType() == null) {
+                variable.setDataType(type(variable));
+                filled.merge(Field.TYPE, 1, Integer::sum);
+            }
+            if (variable.getCategory() == null) {
+                variable.setCategory(category(variable));
+                filled.merge(Field.CATEGORY, 1, Integer::sum);
+            }
+            if (variable.getExampleValue() == null) {
+                String example = example(variable, variable.getDataType());
+                if (example != null) {
+                    variable.setExampleValue(example);
+                    filled.merge(Field.EXAMPLE, 1, Integer::sum);
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Тип значения: сначала Java тип поля, затем значение по умолчанию, затем слова имени.
+     * Строковые переменные с паролем, токеном или ключом в имени считаются секретами.
+     */
+    static String type(EnvVariable variable) {
+        List<String> words = words(variable.getName());
+        String type = declaredType(variable);
+        if (type == null) {
+            type = nameType(words);
+        }
+        if ((type == null || type.equals(STRING)) && isSecret(words)) {
+            return SECRET;
+        }
+        return type != null ? type : STRING;
+    }
+
+    /**
+     * Тип из объявления переменной: Java тип поля или литерал значения по умолчанию.
+     *
+     * @return тип или null, если объявление тип не задаёт
+     */
+    static String declaredType(EnvVariable variable) {
+        String type = javaType(variable);
+        return type != null ? type : valueType(usableDefault(variable));
+    }
+
+    /**
+     * Категория по словам имени, а если они ничего не говорят — по преобладающей цели использований.
+     */
+    public static String category(EnvVariable var) {
+        String name = var.getName().toUpperCase(Locale.ROOT);
+
+        if (name.contains("DATABASE") || name.contains("DB_") || name.contains("_DB") ||
+            name.contains("POSTGRES") || name.contains("MYSQL") || name.contains("MONGO") ||
+            name.contains("JDBC") || name.contains("DATASOURCE")) {
+            return "База данных";
+        }
+
+        if (name.contains("AUTH") || name.contains("TOKEN") || name.contains("SECRET") ||
+            name.contains("PASSWORD") || name.contains("API_KEY") || name.contains("CREDENTIAL") ||
+            name.contains("JWT") || name.contains("OAUTH")) {
+            return "Безопасность";
+        }
+
+        if (name.contains("KAFKA") || name.contains("RABBIT") || name.contains("MQ") ||
+            name.contains("QUEUE") || name.contains("AMQP")) {
+            return "Очереди сообщений";
+        }
+
+        if (name.contains("REDIS") || name.contains("CACHE") || name.contains("MEMCACHED")) {
+            return "Кэширование";
+        }
+
+        if (name.contains("LOG") || name.contains("DEBUG") || name.contains("TRACE")) {
+            return "Логирование";
+        }
+
+        if (name.contains("SERVER") || name.contains("PORT") || name.contains("HOST") ||
+            name.contains("URL") || name.contains("ENDPOINT")) {
+            return "Сервер и сеть";
+        }
+
+        if (name.contains("FEATURE") || name.contains("FLAG") || name.contains("ENABLED") ||
+            name.contains("TOGGLE")) {
+            return "Feature Flags";
+        }
+
+        UsagePurpose purpose = dominantPurpose(var);
+        if (purpose != null) {
+            switch (purpose) {
+                case DATABASE_CONNECTION:
+                    return "База данных";
+                case AUTHENTICATION:
+                    return "Безопасность";
+                case EXTERNAL_API:
+                    return "Внешние сервисы";
+                case LOGGING_CONFIG:
+                    return "Логирование";
+                case CACHE_CONFIG:
+                    return "Кэширование";
+                case MESSAGING_CONFIG:
+                    return "Очереди сообщений";
+                case SERVER_CONFIG:
+                    return "Сервер и сеть";
+                case FEATURE_FLAG:
+                    return "Feature Flags";
+                default:
+                    break;
+            }
+        }
+
+        return "Прочее";
+    }
+
+    /**
+     * Пример значения: для флага — противоположный умолчанию, для секрета — заглушка,
+     * иначе значение по умолчанию или типичное значение по типу и имени. Для строк без
+     * умолчания пример не придумывается.
+     */
+    static String example(EnvVariable variable, String type) {
+        String defaultValue = usableDefault(variable);
+        List<String> words = words(variable.getName());
+        switch (type) {
+            case SECRET:
+                return "<secret>";
+            case BOOLEAN:
+                return "true".equalsIgnoreCase(defaultValue) ? "false" : "true";
+            case INT:
+                return defaultValue != null ? defaultValue : words.contains("PORT") ? "8080" : "10";
+            case NUMBER:
+                return defaultValue != null ? defaultValue : "0.5";
+            case DURATION:
+                return defaultValue != null ? defaultValue : "30s";
+            case URL:
+                return defaultValue != null ? defaultValue : exampleUrl(variable.getName().toUpperCase(Locale.ROOT));
+            default:
+                if (defaultValue != null) {
+                    return defaultValue;
+                }
+                if (words.contains("HOST")) {
+                    return "localhost";
+                }
+                if (words.contains("LEVEL") && (words.contains("LOG") || words.contains("LOGGING"))) {
+                    return "INFO";
+                }
+                return null;
+        }
+    }
+
+    private static String javaType(EnvVariable variable) {
+        if (variable.getDefinition() == null || variable.getDefinition().getJavaType() == null) {
+            return null;
+        }
+        String javaType = variable.getDefinition().getJavaType().trim();
+        int generic = javaType.indexOf('<');
+        String raw = generic >= 0 ? javaType.substring(0, generic) : javaType;
+        raw = raw.substring(raw.lastIndexOf('.') + 1);
+        if (raw.equals("boolean") || raw.equals("Boolean")) {
+            return BOOLEAN;
+        }
+        if (INT_JAVA_TYPES.contains(raw)) {
+            return INT;
+        }
+        if (NUMBER_JAVA_TYPES.contains(raw)) {
+            return NUMBER;
+        }
+        if (raw.equals("Duration") || raw.equals("Period")) {
+            return DURATION;
+        }
+        if (raw.equals("URI") || raw.equals("URL")) {
+            return URL;
+        }
+        if (raw.endsWith("[]") && !raw.equals("char[]") || raw.equals("List") || raw.equals("Set")
+            || raw.equals("Collection")) {
+            return LIST;
+        }
+        if (raw.equals("String") || raw.equals("char[]")) {
+            return STRING;
+        }
+        return null;
+    }
+
+    private static String valueType(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return BOOLEAN;
+        }
+        if (INTEGER.matcher(value).matches()) {
+            return INT;
+        }
+        if (DECIMAL.matcher(value).matches()) {
+            return NUMBER;
+        }
+        if (DURATION_VALUE.matcher(value).matches()) {
+            return DURATION;
+        }
+        if (URL_VALUE.matcher(value).matches()) {
+            return URL;
+        }
+        return null;
+    }
+
+    private static String nameType(List<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        String last = words.get(words.size() - 1);
+        if (BOOLEAN_WORDS.contains(last) || BOOLEAN_PREFIXES.contains(words.get(0)) && words.size() > 1) {
+            return BOOLEAN;
+        }
+        if (DURATION_WORDS.contains(last)) {
+            return DURATION;
+        }
+        if (INT_WORDS.contains(last) || words.contains("MAX") || words.contains("MIN")) {
+            return INT;
+        }
+        if (URL_WORDS.contains(last)) {
+            return URL;
+        }
+        if (LIST_WORDS.contains(last)) {
+            return LIST;
+        }
+        return null;
+    }
+
+    private static boolean isSecret(List<String> words) {
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (SECRET_WORDS.contains(word)) {
+                return true;
+            }
+            if (word.equals("KEY") && i > 0 && KEY_QUALIFIERS.contains(words.get(i - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String exampleUrl(String name) {
+        if (name.contains("JDBC") || name.contains("DATASOURCE") || name.contains("DB")
+            || name.contains("DATABASE") || name.contains("POSTGRES")) {
+            return "jdbc:postgresql://localhost:5432/app";
+        }
+        if (name.contains("REDIS")) {
+            return "redis://localhost:6379";
+        }
+        if (name.contains("RABBIT") || name.contains("AMQP")) {
+            return "amqp://localhost:5672";
+        }
+        return "https://api.example.com";
+    }
+
+    /**
+     * Значение по умолчанию, если это литерал, а не ссылка на другое свойство.
+     */
+    private static String usableDefault(EnvVariable variable) {
+        String value = variable.getDefaultValue();
+        if (value == null || value.isBlank() || value.contains("${")) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static UsagePurpose dominantPurpose(EnvVariable variable) {
+        Map<UsagePurpose, Integer> counts = new EnumMap<>(UsagePurpose.class);
+        if (variable.getUsagePurposeCounts() != null && !variable.getUsagePurposeCounts().isEmpty()) {
+            counts.putAll(variable.getUsagePurposeCounts());
+        } else if (variable.getUsages() != null) {
+            for (VariableUsage usage : variable.getUsages()) {
+                if (usage.getPurpose() != null) {
+                    counts.merge(usage.getPurpose(), 1, Integer::sum);
+                }
+            }
+        }
+        counts.remove(UsagePurpose.OTHER);
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    private static List<String> words(String name) {
+        if (name == null) {
+            return List.of();
+        }
+        return Arrays.stream(name.toUpperCase(Locale.ROOT).split("[^A-Z0-9]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.envdoc.service.extraction;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Фильтр Блума над строками: отвечает «точно нет» или «возможно есть».
+ * <p>
+ * Используется как отпечаток файла — множество токенов идентификаторов и
+ * строковых литералов — чтобы при изменении набора переменных повторно
+ * сканировать только файлы, которые могут содержать новые имена.
+ * Позиции битов вычисляются двойным хешированием {@code h1 + i * h2}.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int hashes;
+
+    private BloomFilter(long[] bits, int hashes) {
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Пустой фильтр под ожидаемое число элементов и долю ложных срабатываний.
+     */
+    public static BloomFilter create(int expectedItems, double falsePositiveRate) {
+        int items = Math.max(1, expectedItems);
+        long bitCount = (long) Math.ceil(-items * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 64, (bitCount + 63) / 64));
+        int hashes = Math.max(1, (int) Math.round((double) words * 64 / items * Math.log(2)));
+        return new BloomFilter(new long[words], Math.min(hashes, 16));
+    }
+
+    public static BloomFilter of(Collection<String> items, double falsePositiveRate) {
+        BloomFilter filter = create(items.size(), falsePositiveRate);
+        items.forEach(filter::add);
+        return filter;
+    }
+
+    /**
+     * Восстанавливает фильтр из сохранённого состояния.
+     */
+    public static BloomFilter restore(long[] bits, int hashes) {
+        return new BloomFilter(bits.clone(), hashes);
+    }
+
+    public void add(String item) {
+        long bitCount = (long) bits.length * 64;
+        int h1 = item.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String item) {
+        long bitCount = (long) bits.length * 64;
+        int h1 = item.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long[] bits() {
+        return bits.clone();
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    /**
+     * Второй хеш — перемешивание первого (финализатор MurmurHash3), нечётный,
+     * чтобы шаги не зацикливались на части битов.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BloomFilter other && hashes == other.hashes && Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(bits) + hashes;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.*;
+
+/**
+ * Индекс строковых констант репозитория ({@code static final String}).
+ * <p>
+ * Заполняется в том же проходе, что и извлечение переменных, и позволяет
+ * разрешать аргументы вида {@code System.getenv(Keys.DB_URL)} или
+ * {@code env.getProperty(PREFIX + "timeout")} без JavaSymbolSolver.
+ * Выражения захватываются в символьном виде (литералы и кандидаты FQN),
+ * поэтому индекс не удерживает AST после обработки файла.
+ */
+public class ConstantIndex {
+
+    private static final int MAX_RESOLVE_DEPTH = 16;
+    private static final String SIMPLE_NAME_MARKER = "*.";
+    private static final Set<String> STRING_TYPES = Set.of("String", "java.lang.String");
+
+    /**
+     * FQN константы (com.example.Keys.DB_URL) -> символьное значение
+     */
+    private final Map<String, ConstantExpression> constants = new HashMap<>();
+
+    /**
+     * Простое имя типа + имя поля (Keys.DB_URL) -> FQN констант
+     */
+    private final Map<String, List<String>> bySimpleName = new HashMap<>();
+
+    private final Map<String, Optional<String>> resolved = new HashMap<>();
+
+    /**
+     * Регистрирует все строковые константы из CompilationUnit.
+     *
+     * @param cu CompilationUnit
+     */
+    public void register(CompilationUnit cu) {
+        for (TypeDeclaration<?> type : cu.findAll(TypeDeclaration.class)) {
+            Optional<String> typeName = type.getFullyQualifiedName();
+            if (typeName.isEmpty()) {
+                continue;
+            }
+            boolean isInterface = type instanceof ClassOrInterfaceDeclaration cid && cid.isInterface();
+
+            for (FieldDeclaration field : type.getFields()) {
+                boolean constant = isInterface || (field.isStatic() && field.isFinal());
+                if (!constant || !STRING_TYPES.contains(field.getElementType().asString())) {
+                    continue;
+                }
+                for (VariableDeclarator var : field.getVariables()) {
+                    var.getInitializer()
+                            .flatMap(this::capture)
+                            .ifPresent(value -> put(typeName.get(), type.getNameAsString(),
+                                    var.getNameAsString(), value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Захватывает выражение в символьном виде с учётом контекста файла
+     * (импорты, пакет, объемлющие типы).
+     *
+     * @param expr выражение (литерал, ссылка на константу или конкатенация)
+     * @return символьное значение или empty, если форма выражения не поддерживается
+     */
+    public Optional<ConstantExpression> capture(Expression expr) {
+        List<Object> parts = new ArrayList<>();
+        return collectParts(expr, parts) ? Optional.of(new ConstantExpression(parts)) : Optional.empty();
+    }
+
+    /**
+     * Вычисляет значение символьного выражения по индексу.
+     *
+     * @param expression символьное выражение
+     * @return строковое значение или empty, если какая-то часть не разрешилась
+     */
+    public synchronized Optional<String> resolve(ConstantExpression expression) {
+        return evaluate(expression, 0);
+    }
+
+    /**
+     * Захватывает и сразу вычисляет выражение.
+     *
+     * @param expr выражение
+     * @return строковое значение или empty
+     */
+    public Optional<String> resolve(Expression expr) {
+        return capture(expr).flatMap(this::resolve);
+    }
+
+    public int size() {
+        return constants.size();
+    }
+
+    private synchronized void put(String typeFqn, String simpleTypeName, String fieldName, ConstantExpression value) {
+        String fqn = typeFqn + "." + fieldName;
+        constants.put(fqn, value);
+        bySimpleName.computeIfAbsent(simpleTypeName + "." + fieldName, k -> new ArrayList<>()).add(fqn);
+        resolved.clear();
+    }
+
+    private Optional<String> evaluate(ConstantExpression expression, int depth) {
+        if (depth > MAX_RESOLVE_DEPTH) {
+            return Optional.empty();
+        }
+        StringBuilder value = new StringBuilder();
+        for (Object part : expression.parts) {
+            if (part instanceof String literal) {
+                value.append(literal);
+                continue;
+            }
+            Optional<String> ref = resolveReference((String[]) part, depth);
+            if (ref.isEmpty()) {
+                return Optional.empty();
+            }
+            value.append(ref.get());
+        }
+        return Optional.of(value.toString());
+    }
+
+    private Optional<String> resolveReference(String[] candidates, int depth) {
+        for (String candidate : candidates) {
+            String fqn = candidate;
+            if (candidate.startsWith(SIMPLE_NAME_MARKER)) {
+                List<String> matches = bySimpleName.get(candidate.substring(SIMPLE_NAME_MARKER.length()));
+                if (matches == null || matches.size() != 1) {
+                    continue;
+                }
+                fqn = matches.get(0);
+            }
+            Optional<String> cached = resolved.get(fqn);
+            if (cached != null) {
+                return cached;
+            }
+            ConstantExpression definition = constants.get(fqn);
+            if (definition != null) {
+                Optional<String> value = evaluate(definition, depth + 1);
+                resolved.put(fqn, value);
+                return value;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean collectParts(Expression expr, List<Object> parts) {
+        if (expr.isEnclosedExpr()) {
+            return collectParts(expr.asEnclosedExpr().getInner(), parts);
+        }
+        if (expr.isStringLiteralExpr()) {
+            parts.add(expr.asStringLiteralExpr().getValue());
+            return true;
+        }
+        if (expr.isTextBlockLiteralExpr()) {
+            parts.add(expr.asTextBlockLiteralExpr().asString());
+            return true;
+        }
+        if (expr.isCharLiteralExpr()) {
+            parts.add(String.valueOf(expr.asCharLiteralExpr().asChar()));
+            return true;
+        }
+        if (expr.isIntegerLiteralExpr() || expr.isLongLiteralExpr()) {
+            parts.add(expr.asLiteralStringValueExpr().getValue());
+            return true;
+        }
+        if (expr.isBinaryExpr() && expr.asBinaryExpr().getOperator() == BinaryExpr.Operator.PLUS) {
+            return collectParts(expr.asBinaryExpr().getLeft(), parts) &&
+                   collectParts(expr.asBinaryExpr().getRight(), parts);
+        }
+        if (expr.isNameExpr()) {
+            parts.add(nameCandidates(expr.asNameExpr()));
+            return true;
+        }
+        if (expr.isFieldAccessExpr()) {
+            String[] candidates = fieldAccessCandidates(expr.asFieldAccessExpr());
+            if (candidates.length == 0) {
+                return false;
+            }
+            parts.add(candidates);
+            return true;
+        }
+        return false;
+    }
+
+    private String[] nameCandidates(NameExpr nameExpr) {
+        String name = nameExpr.getNameAsString();
+        Set<String> candidates = new LinkedHashSet<>();
+
+        List<TypeDeclaration<?>> enclosing = enclosingTypes(nameExpr);
+        for (TypeDeclaration<?> type : enclosing) {
+            type.getFullyQualifiedName().ifPresent(fqn -> candidates.add(fqn + "." + name));
+        }
+
+        nameExpr.findCompilationUnit().ifPresent(cu -> {
+            for (ImportDeclaration imp : cu.getImports()) {
+                if (!imp.isStatic()) {
+                    continue;
+                }
+                String importName = imp.getNameAsString();
+                if (imp.isAsterisk()) {
+                    candidates.add(importName + "." + name);
+                } else if (importName.endsWith("." + name)) {
+                    candidates.add(importName);
+                }
+            }
+        });
+
+        // Константы, унаследованные от интерфейсов и суперклассов
+        for (TypeDeclaration<?> type : enclosing) {
+            if (type instanceof ClassOrInterfaceDeclaration cid) {
+                List<ClassOrInterfaceType> supertypes = new ArrayList<>(cid.getExtendedTypes());
+                supertypes.addAll(cid.getImplementedTypes());
+                for (ClassOrInterfaceType supertype : supertypes) {
+                    for (String typeCandidate : typeCandidates(nameExpr, supertype.getNameWithScope())) {
+                        candidates.add(typeCandidate + "." + name);
+                    }
+                }
+            }
+        }
+
+        return candidates.toArray(String[]::new);
+    }
+
+    private String[] fieldAccessCandidates(FieldAccessExpr fieldAccess) {
+        String scope = fieldAccess.getScope().toString();
+        if (!isTypeLikeName(scope)) {
+            return new String[0];
+        }
+        String name = fieldAccess.getNameAsString();
+
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String typeCandidate : typeCandidates(fieldAccess, scope)) {
+            candidates.add(typeCandidate + "." + name);
+        }
+        return candidates.toArray(String[]::new);
+    }
+
+    /**
+     * Кандидаты FQN для имени типа (простого или квалифицированного) в контексте узла.
+     */
+    private List<String> typeCandidates(Node context, String typeName) {
+        Set<String> candidates = new LinkedHashSet<>();
+        int dot = typeName.indexOf('.');
+        String first = dot >= 0 ? typeName.substring(0, dot) : typeName;
+        String rest = dot >= 0 ? typeName.substring(dot) : "";
+
+        if (dot >= 0) {
+            candidates.add(typeName);
+        }
+
+        for (TypeDeclaration<?> type : enclosingTypes(context)) {
+            type.getFullyQualifiedName().ifPresent(fqn -> {
+                if (type.getNameAsString().equals(first)) {
+                    candidates.add(fqn + rest);
+                }
+                candidates.add(fqn + "." + typeName);
+            });
+        }
+
+        context.findCompilationUnit().ifPresent(cu -> {
+            for (ImportDeclaration imp : cu.getImports()) {
+                if (!imp.isStatic() && !imp.isAsterisk() && imp.getNameAsString().endsWith("." + first)) {
+                    candidates.add(imp.getNameAsString() + rest);
+                }
+            }
+            String packageName = cu.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
+            candidates.add(packageName.isEmpty() ? typeName : packageName + "." + typeName);
+            for (ImportDeclaration imp : cu.getImports()) {
+                if (!imp.isStatic() && imp.isAsterisk()) {
+                    candidates.add(imp.getNameAsString() + "." + typeName);
+                }
+            }
+        });
+
+        if (dot < 0) {
+            candidates.add(SIMPLE_NAME_MARKER + typeName);
+        }
+        return new ArrayList<>(candidates);
+    }
+
+    private List<TypeDeclaration<?>> enclosingTypes(Node node) {
+        List<TypeDeclaration<?>> types = new ArrayList<>();
+        Optional<Node> current = node.getParentNode();
+        while (current.isPresent()) {
+            if (current.get() instanceof TypeDeclaration<?> type) {
+                types.add(type);
+            }
+            current = current.get().getParentNode();
+        }
+        return types;
+    }
+
+    /**
+     * Ссылка на тип начинается с заглавной буквы в последнем сегменте
+     * (Keys, com.example.Keys); поля экземпляров (this.key, config.key) пропускаем.
+     */
+    private boolean isTypeLikeName(String scope) {
+        if (scope.isEmpty() || scope.equals("this") || scope.startsWith("this.") || scope.contains("(")) {
+            return false;
+        }
+        String last = scope.substring(scope.lastIndexOf('.') + 1);
+        return !last.isEmpty() && Character.isUpperCase(last.charAt(0));
+    }
+
+    /**
+     * Символьное значение строкового выражения: последовательность литералов
+     * и ссылок на константы (списков кандидатов FQN).
+     */
+    public static final class ConstantExpression {
+        private final List<Object> parts;
+
+        private ConstantExpression(List<Object> parts) {
+            this.parts = List.copyOf(parts);
+        }
+
+        /**
+         * Создаёт выражение из готового строкового значения.
+         */
+        public static ConstantExpression literal(String value) {
+            return new ConstantExpression(List.of(value));
+        }
+
+        /**
+         * Выражение состоит только из литералов и не требует индекса.
+         */
+        public boolean isLiteral() {
+            return parts.stream().allMatch(p -> p instanceof String);
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.example.envdoc.service.extraction;
 
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.metrics.ExtractionMetrics;
 import com.example.envdoc.model.DefinitionType;
 import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.ExtractionMode;
 import com.example.envdoc.model.VariableDefinition;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.VariableDeclarator;
-import com.github.javaparser.ast.expr.AnnotationExpr;
-import com.github.javaparser.ast.expr.Expression;
-import com.github.javaparser.ast.expr.MethodCallExpr;
-import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.example.envdoc.service.extraction.plugin.EnvVarExtractorPlugin;
+import com.example.envdoc.service.extraction.plugin.ExtractionSink;
+import com.example.envdoc.service.extraction.plugin.ExtractionSupport;
+import com.example.envdoc.service.extraction.plugin.JavaFileContext;
+import com.example.envdoc.service.extraction.plugin.VariableCandidate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,44 +32,166 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class EnvVarExtractor {
 
-    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+    private static final Pattern PACKAGE_PATTERN =
+            Pattern.compile("^\\s*package\\s+([\\w.\\s]+?)\\s*;", Pattern.MULTILINE);
 
-    // Паттерны для поиска переменных
-    // Поддерживаем как env-стиль (UPPER_SNAKE), так и property-стиль (db.url, my-key)
-    private static final Pattern ENV_VAR_PATTERN =
-            Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)(:[^}]*)?}");
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+    private final EnvironmentReceiverClassifier environmentReceiverClassifier;
+    private final List<EnvVarExtractorPlugin> plugins;
+    private final ExtractionExecutor extractionExecutor;
+    private final ExtractionMetrics extractionMetrics;
+    private final LexicalEnvVarScanner lexicalScanner;
+    private final ExtractionConfig extractionConfig;
+    private final ModuleLayout moduleLayout;
 
     /**
-     * Извлекает все переменные окружения из репозитория.
+     * Извлекает все переменные окружения из репозитория всеми плагинами.
      *
      * @param repoPath путь к репозиторию
      * @return Map с переменными окружения (ключ - имя переменной)
      */
     public Map<String, EnvVariable> extractAllVariables(Path repoPath) {
+        return extractAllVariables(repoPath, null, null);
+    }
+
+    /**
+     * Извлекает переменные окружения из репозитория.
+     *
+     * @param repoPath   путь к репозиторию
+     * @param extractors типы Java-экстракторов, которые нужно запустить (null или пусто — все);
+     *                   конфигурационные файлы анализируются всегда
+     * @param mode       режим извлечения из Java файлов (null — из конфигурации)
+     * @return Map с переменными окружения (ключ - имя переменной)
+     */
+    public Map<String, EnvVariable> extractAllVariables(Path repoPath,
+                                                        Collection<DefinitionType> extractors,
+                                                        ExtractionMode mode) {
+        return extract(repoPath, extractors, mode, ModuleProgressListener.NONE).variables();
+    }
+
+    /**
+     * Извлекает переменные окружения по модулям репозитория.
+     * <p>
+     * Каждый модуль Maven/Gradle обрабатывается как независимый шард, шарды
+     * и файлы внутри них выполняются параллельно. Результаты объединяются
+     * в порядке модулей: сначала конфигурационные файлы всех модулей, затем
+     * Java файлы; при совпадении имён побеждает первое определение.
+     * Индекс констант общий для репозитория, так как константы часто
+     * объявляются в соседних модулях.
+     *
+     * @param repoPath   путь к репозиторию
+     * @param extractors типы Java-экстракторов (null или пусто — все)
+     * @param mode       режим извлечения из Java файлов (null — из конфигурации)
+     * @param progress   колбэк завершения модулей
+     * @return объединённые переменные и пространства имён модулей
+     */
+    public ExtractionResult extract(Path repoPath,
+                                    Collection<DefinitionType> extractors,
+                                    ExtractionMode mode,
+                                    ModuleProgressListener progress) {
+        ExtractionMode effectiveMode = mode != null ? mode : extractionConfig.getMode();
+        List<Path> configFiles = sourceCodeAnalyzer.findConfigFiles(repoPath);
+        List<Path> javaFiles = sourceCodeAnalyzer.findJavaFiles(repoPath);
+        Map<String, String> propertyDefaults = collectPropertyDefaults(configFiles);
+        List<ModuleLayout.ModuleShard> shards = moduleLayout.partition(repoPath, configFiles, javaFiles);
+
+        log.info("Analyzing {} modules ({} mode)...", shards.size(), effectiveMode);
+        ConstantIndex constantIndex = new ConstantIndex();
+        List<EnvVarExtractorPlugin> enabledPlugins = enabledPlugins(extractors);
+        ModuleProgress moduleProgress = new ModuleProgress(progress, shards.size());
+
+        List<Callable<ModuleExtraction>> tasks = shards.stream()
+                .<Callable<ModuleExtraction>>map(shard -> () -> {
+                    ModuleExtraction extraction = extractModule(repoPath, shard, effectiveMode, extractors,
+                            enabledPlugins, constantIndex, propertyDefaults);
+                    moduleProgress.completed(shard.name());
+                    return extraction;
+                })
+                .toList();
+        List<ModuleExtraction> extractions = extractionExecutor.invokeAll(tasks);
+
         Map<String, EnvVariable> variables = new LinkedHashMap<>();
-        Map<String, String> propertyDefaults = collectPropertyDefaults(repoPath);
+        Map<String, Set<String>> moduleNamespaces = new LinkedHashMap<>();
+        for (ModuleExtraction extraction : extractions) {
+            Set<String> namespace = moduleNamespaces.computeIfAbsent(extraction.module(), k -> new LinkedHashSet<>());
+            extraction.configVariables().forEach((name, envVar) -> {
+                variables.putIfAbsent(name, envVar);
+                namespace.add(name);
+            });
+        }
 
-        // 1. Анализ YAML/Properties файлов
-        log.info("Analyzing configuration files...");
-        extractFromConfigFiles(repoPath, variables);
+        // Лексический режим не разрешает ссылки на константы
+        ConstantIndex resolution = effectiveMode == ExtractionMode.LEXICAL ? new ConstantIndex() : constantIndex;
+        log.debug("Constant index contains {} string constants", constantIndex.size());
+        for (ModuleExtraction extraction : extractions) {
+            Set<String> namespace = moduleNamespaces.get(extraction.module());
+            for (VariableCandidate candidate : extraction.candidates()) {
+                candidate.resolve(resolution).ifPresent(envVar -> {
+                    variables.putIfAbsent(envVar.getName(), envVar);
+                    namespace.add(envVar.getName());
+                });
+            }
+        }
 
-        // 2. Анализ Java файлов
-        log.info("Analyzing Java files...");
-        extractFromJavaFiles(repoPath, variables, propertyDefaults);
+        Map<String, List<String>> moduleVariables = new LinkedHashMap<>();
+        moduleNamespaces.forEach((module, names) -> {
+            if (!names.isEmpty()) {
+                moduleVariables.put(module, List.copyOf(names));
+            }
+        });
 
-        log.info("Found {} environment variables", variables.size());
-        return variables;
+        log.info("Found {} environment variables in {} modules", variables.size(), moduleVariables.size());
+        return new ExtractionResult(variables, moduleVariables, javaFiles);
     }
 
     /**
-     * Извлекает переменные из конфигурационных файлов (YAML, Properties).
+     * Обрабатывает один модуль: конфигурационные файлы по порядку, Java файлы параллельно.
+     * Кандидаты из Java файлов возвращаются неразрешёнными.
      */
-    private void extractFromConfigFiles(Path repoPath, Map<String, EnvVariable> variables) {
-        List<Path> configFiles = sourceCodeAnalyzer.findConfigFiles(repoPath);
+    private ModuleExtraction extractModule(Path repoPath,
+                                           ModuleLayout.ModuleShard shard,
+                                           ExtractionMode mode,
+                                           Collection<DefinitionType> enabledTypes,
+                                           List<EnvVarExtractorPlugin> enabledPlugins,
+                                           ConstantIndex constantIndex,
+                                           Map<String, String> propertyDefaults) {
+        long start = System.nanoTime();
+        Map<String, EnvVariable> configVariables = new LinkedHashMap<>();
+        extractFromConfigFiles(repoPath, shard.name(), shard.configFiles(), configVariables);
+
+        List<Callable<List<VariableCandidate>>> files;
+        if (mode == ExtractionMode.LEXICAL) {
+            files = shard.javaFiles().stream()
+                    .<Callable<List<VariableCandidate>>>map(javaFile -> () -> scanLexically(
+                            repoPath, javaFile, shard.name(), propertyDefaults, enabledTypes))
+                    .toList();
+        } else if (enabledPlugins.isEmpty()) {
+            files = List.of();
+        } else {
+            files = shard.javaFiles().stream()
+                    .<Callable<List<VariableCandidate>>>map(javaFile -> () -> extractFromJavaFile(
+                            repoPath, javaFile, shard.name(), propertyDefaults, enabledPlugins, constantIndex))
+                    .toList();
+        }
+
+        List<VariableCandidate> candidates = new ArrayList<>();
+        extractionExecutor.invokeAll(files).forEach(candidates::addAll);
+
+        extractionMetrics.recordModuleShard("extract", System.nanoTime() - start, shard.size());
+        log.debug("Module {}: {} config variables, {} candidates", shard.name(), configVariables.size(),
+                candidates.size());
+        return new ModuleExtraction(shard.name(), configVariables, candidates);
+    }
 
+    /**
+     * Извлекает переменные из конфигурационных файлов модуля (YAML, Properties).
+     */
+    private void extractFromConfigFiles(Path repoPath,
+                                        String moduleName,
+                                        List<Path> configFiles,
+                                        Map<String, EnvVariable> variables) {
         for (Path configFile : configFiles) {
             String relativePath = repoPath.relativize(configFile).toString();
-            String moduleName = resolveModuleName(repoPath, configFile);
             log.debug("Processing config file: {}", relativePath);
 
             if (configFile.toString().endsWith(".yml") || configFile.toString().endsWith(".yaml")) {
@@ -90,7 +214,7 @@ public class EnvVarExtractor {
             List<String> lines = Files.readAllLines(yamlFile);
 
             // Поиск паттернов ${VAR} в содержимом
-            Matcher matcher = ENV_VAR_PATTERN.matcher(content);
+            Matcher matcher = ExtractionSupport.ENV_VAR_PATTERN.matcher(content);
             while (matcher.find()) {
                 String varName = matcher.group(1);
                 String defaultValue = matcher.group(2);
@@ -142,7 +266,7 @@ public class EnvVarExtractor {
 
             for (int i = 0; i < lines.size(); i++) {
                 String line = lines.get(i);
-                Matcher matcher = ENV_VAR_PATTERN.matcher(line);
+                Matcher matcher = ExtractionSupport.ENV_VAR_PATTERN.matcher(line);
 
                 while (matcher.find()) {
                     String varName = matcher.group(1);
@@ -178,319 +302,122 @@ public class EnvVarExtractor {
     }
 
     /**
-     * Извлекает переменные из Java файлов.
+     * Извлекает кандидатов из Java файла включёнными плагинами.
+     * <p>
+     * Плагины файла выполняются параллельно над общим CompilationUnit,
+     * их результаты объединяются в фиксированном порядке типов определений.
+     * Имена разрешаются по индексу констант после прохода по всем модулям,
+     * чтобы ссылки на константы из ещё не прочитанных файлов тоже находились.
      */
-    private void extractFromJavaFiles(Path repoPath,
-                                      Map<String, EnvVariable> variables,
-                                      Map<String, String> propertyDefaults) {
-        List<Path> javaFiles = sourceCodeAnalyzer.findJavaFiles(repoPath);
-
-        for (Path javaFile : javaFiles) {
-            String relativePath = repoPath.relativize(javaFile).toString();
-            String moduleName = resolveModuleName(repoPath, javaFile);
-            log.debug("Processing Java file: {}", relativePath);
-
-            sourceCodeAnalyzer.parseJavaFile(javaFile).ifPresent(cu -> {
-                String className = sourceCodeAnalyzer.extractFullClassName(cu);
-
-                // 1. @Value аннотации
-                extractFromValueAnnotations(cu, relativePath, className, moduleName, variables);
-
-                // 2. @ConfigurationProperties
-                extractFromConfigProperties(cu, relativePath, className, moduleName, variables, propertyDefaults);
-
-                // 3. System.getenv()
-                extractFromSystemGetenv(cu, relativePath, className, moduleName, variables);
-
-                // 4. System.getProperty()
-                extractFromSystemGetProperty(cu, relativePath, className, moduleName, variables);
-
-                // 5. Environment.getProperty()
-                extractFromEnvironmentApi(cu, relativePath, className, moduleName, variables);
-            });
-        }
-    }
-
-    /**
-     * Извлекает переменные из аннотаций @Value.
-     */
-    private void extractFromValueAnnotations(CompilationUnit cu,
-                                             String filePath,
-                                             String className,
-                                             String moduleName,
-                                             Map<String, EnvVariable> variables) {
-        List<FieldDeclaration> fields = sourceCodeAnalyzer.findFieldsWithAnnotation(cu, "Value");
-
-        for (FieldDeclaration field : fields) {
-            Optional<AnnotationExpr> valueAnnotation = field.getAnnotationByName("Value");
-            if (valueAnnotation.isEmpty()) continue;
-
-            Optional<String> annotationContent = sourceCodeAnalyzer.extractValueAnnotationContent(valueAnnotation.get());
-            if (annotationContent.isEmpty()) continue;
-
-            String content = annotationContent.get();
-            Matcher matcher = ENV_VAR_PATTERN.matcher(content);
-
-            while (matcher.find()) {
-                String varName = matcher.group(1);
-                String defaultValue = matcher.group(2);
-
-                if (defaultValue != null && defaultValue.startsWith(":")) {
-                    defaultValue = defaultValue.substring(1);
-                }
-
-                String fieldName = field.getVariables().stream()
-                        .findFirst()
-                        .map(VariableDeclarator::getNameAsString)
-                        .orElse("unknown");
-
-                int lineNumber = field.getBegin().map(p -> p.line).orElse(0);
-
-                VariableDefinition definition = VariableDefinition.builder()
-                        .type(DefinitionType.SPRING_VALUE)
-                        .filePath(filePath)
-                        .lineNumber(lineNumber)
-                        .className(className)
-                        .fieldOrMethodName(fieldName)
-                        .codeSnippet(field.toString())
+    private List<VariableCandidate> extractFromJavaFile(Path repoPath,
+                                                        Path javaFile,
+                                                        String moduleName,
+                                                        Map<String, String> propertyDefaults,
+                                                        List<EnvVarExtractorPlugin> enabledPlugins,
+                                                        ConstantIndex constantIndex) {
+        String relativePath = repoPath.relativize(javaFile).toString();
+        log.debug("Processing Java file: {}", relativePath);
+
+        return sourceCodeAnalyzer.parseJavaFile(javaFile).map(cu -> {
+            constantIndex.register(cu);
+
+            try (EnvironmentReceiverClassifier.FileSession receivers =
+                         environmentReceiverClassifier.openFile(repoPath, cu)) {
+                JavaFileContext file = JavaFileContext.builder()
+                        .cu(cu)
+                        .repoPath(repoPath)
+                        .filePath(relativePath)
+                        .className(sourceCodeAnalyzer.extractFullClassName(cu))
                         .moduleName(moduleName)
+                        .constantIndex(constantIndex)
+                        .receivers(receivers)
+                        .propertyDefaults(propertyDefaults)
+                        .identifiers(IdentifierIndex.of(cu))
                         .build();
 
-                if (!variables.containsKey(varName)) {
-                    EnvVariable envVar = EnvVariable.builder()
-                            .name(varName)
-                            .defaultValue(defaultValue)
-                            .required(defaultValue == null || defaultValue.isBlank())
-                            .definition(definition)
-                            .usages(new ArrayList<>())
-                            .build();
-                    variables.put(varName, envVar);
-                } else {
-                    // Обновляем definition если уже есть из YAML
-                    EnvVariable existing = variables.get(varName);
-                    if (existing.getDefinition().getType() == DefinitionType.APPLICATION_YAML) {
-                        // YAML приоритетнее, но сохраняем информацию о @Value использовании
-                    }
-                }
+                List<Callable<List<VariableCandidate>>> runs = enabledPlugins.stream()
+                        .<Callable<List<VariableCandidate>>>map(plugin -> () -> runPlugin(plugin, file))
+                        .toList();
+                List<VariableCandidate> candidates = new ArrayList<>();
+                extractionExecutor.invokeAll(runs).forEach(candidates::addAll);
+                return candidates;
             }
-        }
+        }).orElse(List.of());
     }
 
     /**
-     * Извлекает переменные из классов с @ConfigurationProperties.
+     * Лексический режим: файл сканируется по потоку токенов без построения AST.
      */
-    private void extractFromConfigProperties(CompilationUnit cu,
-                                             String filePath,
-                                             String className,
-                                             String moduleName,
-                                             Map<String, EnvVariable> variables,
-                                             Map<String, String> propertyDefaults) {
-        if (!sourceCodeAnalyzer.hasClassAnnotation(cu, "ConfigurationProperties")) {
-            return;
-        }
-
-        // Находим prefix аннотации
-        cu.findAll(AnnotationExpr.class).stream()
-                .filter(a -> a.getNameAsString().equals("ConfigurationProperties"))
-                .findFirst()
-                .ifPresent(annotation -> {
-                    String prefix = extractConfigPropertiesPrefix(annotation);
-                    if (prefix != null) {
-                        // Анализируем поля класса
-                        cu.findAll(FieldDeclaration.class).forEach(field -> {
-                            field.getVariables().forEach(var -> {
-                                String propertyName = prefix + "." + camelToKebab(var.getNameAsString());
-                                String envVarName = propertyName.toUpperCase().replace(".", "_").replace("-", "_");
-
-                                int lineNumber = field.getBegin().map(p -> p.line).orElse(0);
-                                String defaultValue = resolvePropertyDefault(propertyDefaults, propertyName);
-                                if (defaultValue == null) {
-                                    defaultValue = var.getInitializer()
-                                            .map(this::extractLiteralValue)
-                                            .orElse(null);
-                                }
-
-                                if (!variables.containsKey(envVarName)) {
-                                    VariableDefinition definition = VariableDefinition.builder()
-                                            .type(DefinitionType.CONFIG_PROPERTIES)
-                                            .filePath(filePath)
-                                            .lineNumber(lineNumber)
-                                            .className(className)
-                                            .fieldOrMethodName(var.getNameAsString())
-                                            .codeSnippet(field.toString())
-                                            .moduleName(moduleName)
-                                            .build();
-
-                                    EnvVariable envVar = EnvVariable.builder()
-                                            .name(envVarName)
-                                            .defaultValue(defaultValue)
-                                            .required(defaultValue == null)
-                                            .definition(definition)
-                                            .usages(new ArrayList<>())
-                                            .build();
-                                    variables.put(envVarName, envVar);
-                                }
-                            });
-                        });
-                    }
-                });
+    private List<VariableCandidate> scanLexically(Path repoPath,
+                                                  Path javaFile,
+                                                  String moduleName,
+                                                  Map<String, String> propertyDefaults,
+                                                  Collection<DefinitionType> enabledTypes) {
+        String relativePath = repoPath.relativize(javaFile).toString();
+        String content = sourceCodeAnalyzer.readFileContent(javaFile);
+        String className = lexicalClassName(javaFile, content);
+
+        long start = System.nanoTime();
+        LexicalEnvVarScanner.ScanResult result = lexicalScanner.scan(content.toCharArray(), relativePath, className,
+                moduleName, propertyDefaults);
+        extractionMetrics.recordPluginRun(ExtractionMode.LEXICAL.name(), System.nanoTime() - start,
+                result.tokens(), result.candidates().size());
+
+        if (enabledTypes == null || enabledTypes.isEmpty()) {
+            return result.candidates();
+        }
+        return result.candidates().stream()
+                .filter(candidate -> enabledTypes.contains(candidate.definition().getType()))
+                .toList();
     }
 
     /**
-     * Извлекает переменные из вызовов System.getenv().
+     * Имя класса как в AST режиме: пакет + имя файла.
      */
-    private void extractFromSystemGetenv(CompilationUnit cu,
-                                         String filePath,
-                                         String className,
-                                         String moduleName,
-                                         Map<String, EnvVariable> variables) {
-        List<MethodCallExpr> getenvCalls = sourceCodeAnalyzer.findMethodCalls(cu, "getenv");
-
-        for (MethodCallExpr call : getenvCalls) {
-            if (call.getScope().map(s -> s.toString().equals("System")).orElse(false)) {
-                call.getArguments().stream()
-                        .filter(arg -> arg instanceof StringLiteralExpr)
-                        .map(arg -> ((StringLiteralExpr) arg).getValue())
-                        .forEach(varName -> {
-                            int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
-
-                            // Найти метод, содержащий этот вызов
-                            String methodName = findContainingMethodName(cu, lineNumber);
-
-                            if (!variables.containsKey(varName)) {
-                                VariableDefinition definition = VariableDefinition.builder()
-                                        .type(DefinitionType.SYSTEM_GETENV)
-                                        .filePath(filePath)
-                                        .lineNumber(lineNumber)
-                                        .className(className)
-                                        .fieldOrMethodName(methodName)
-                                        .codeSnippet(call.toString())
-                                        .moduleName(moduleName)
-                                        .build();
-
-                                EnvVariable envVar = EnvVariable.builder()
-                                        .name(varName)
-                                        .required(true) // System.getenv обычно для обязательных переменных
-                                        .definition(definition)
-                                        .usages(new ArrayList<>())
-                                        .build();
-                                variables.put(varName, envVar);
-                            }
-                        });
-            }
-        }
+    private String lexicalClassName(Path javaFile, String content) {
+        String fileName = javaFile.getFileName().toString();
+        String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+        Matcher matcher = PACKAGE_PATTERN.matcher(content);
+        return matcher.find() ? matcher.group(1).replaceAll("\\s+", "") + "." + simpleName : simpleName;
     }
 
-    /**
-     * Извлекает переменные из вызовов System.getProperty().
-     */
-    private void extractFromSystemGetProperty(CompilationUnit cu,
-                                              String filePath,
-                                              String className,
-                                              String moduleName,
-                                              Map<String, EnvVariable> variables) {
-        List<MethodCallExpr> getPropertyCalls = sourceCodeAnalyzer.findMethodCalls(cu, "getProperty");
-
-        for (MethodCallExpr call : getPropertyCalls) {
-            if (call.getScope().map(s -> s.toString().equals("System")).orElse(false)) {
-                if (!call.getArguments().isEmpty() && call.getArgument(0) instanceof StringLiteralExpr) {
-                    String propName = ((StringLiteralExpr) call.getArgument(0)).getValue();
-
-                    // Преобразуем в формат переменной окружения
-                    String varName = propName.toUpperCase().replace(".", "_").replace("-", "_");
-
-                    int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
-                    String methodName = findContainingMethodName(cu, lineNumber);
-
-                    // Проверяем наличие default value
-                    String defaultValue = null;
-                    if (call.getArguments().size() > 1) {
-                        defaultValue = extractLiteralValue(call.getArgument(1));
-                    }
-
-                    if (!variables.containsKey(varName)) {
-                        VariableDefinition definition = VariableDefinition.builder()
-                                .type(DefinitionType.SYSTEM_PROPERTY)
-                                .filePath(filePath)
-                                .lineNumber(lineNumber)
-                                .className(className)
-                                .fieldOrMethodName(methodName)
-                                .codeSnippet(call.toString())
-                                .moduleName(moduleName)
-                                .build();
+    private List<VariableCandidate> runPlugin(EnvVarExtractorPlugin plugin, JavaFileContext file) {
+        List<VariableCandidate> candidates = new ArrayList<>();
+        int[] examined = new int[1];
+        ExtractionSink sink = new ExtractionSink() {
+            @Override
+            public void add(VariableCandidate candidate) {
+                candidates.add(candidate);
+            }
 
-                        EnvVariable envVar = EnvVariable.builder()
-                                .name(varName)
-                                .defaultValue(defaultValue)
-                                .required(defaultValue == null)
-                                .definition(definition)
-                                .usages(new ArrayList<>())
-                                .build();
-                        variables.put(varName, envVar);
-                    }
-                }
+            @Override
+            public void examined(int nodes) {
+                examined[0] += nodes;
             }
-        }
+        };
+
+        long start = System.nanoTime();
+        try {
+            plugin.extract(file, sink);
+        } catch (RuntimeException e) {
+            log.warn("Extractor {} failed on {}: {}", plugin.type(), file.getFilePath(), e.getMessage());
+            log.debug("Extractor failure details", e);
+        } finally {
+            extractionMetrics.recordPluginRun(plugin.type().name(), System.nanoTime() - start,
+                    examined[0], candidates.size());
+        }
+        return candidates;
     }
 
     /**
-     * Извлекает переменные из Spring Environment API.
+     * Плагины, включённые в запросе, в порядке типов определений.
+     * Пустой или отсутствующий список означает все плагины.
      */
-    private void extractFromEnvironmentApi(CompilationUnit cu, String filePath, String className,
-                                           String moduleName,
-                                           Map<String, EnvVariable> variables) {
-        List<MethodCallExpr> getPropertyCalls = sourceCodeAnalyzer.findMethodCalls(cu, "getProperty");
-
-        for (MethodCallExpr call : getPropertyCalls) {
-            // Проверяем, что это вызов на Environment объекте
-            Optional<String> scope = call.getScope().map(Object::toString);
-            if (scope.isPresent() && (scope.get().contains("environment") ||
-                                       scope.get().contains("Environment") ||
-                                       scope.get().contains("env"))) {
-
-                if (!call.getArguments().isEmpty() && call.getArgument(0) instanceof StringLiteralExpr) {
-                    String propName = ((StringLiteralExpr) call.getArgument(0)).getValue();
-
-                    // Проверяем, содержит ли имя placeholder ${...}
-                    Matcher matcher = ENV_VAR_PATTERN.matcher(propName);
-                    String varName;
-                    if (matcher.find()) {
-                        varName = matcher.group(1);
-                    } else {
-                        varName = propName.toUpperCase().replace(".", "_").replace("-", "_");
-                    }
-
-                    int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
-                    String methodName = findContainingMethodName(cu, lineNumber);
-
-                    String defaultValue = null;
-                    if (call.getArguments().size() > 1) {
-                        defaultValue = extractLiteralValue(call.getArgument(1));
-                    }
-
-                    if (!variables.containsKey(varName)) {
-                        VariableDefinition definition = VariableDefinition.builder()
-                                .type(DefinitionType.ENVIRONMENT_API)
-                                .filePath(filePath)
-                                .lineNumber(lineNumber)
-                                .className(className)
-                                .fieldOrMethodName(methodName)
-                                .codeSnippet(call.toString())
-                                .moduleName(moduleName)
-                                .build();
-
-                        EnvVariable envVar = EnvVariable.builder()
-                                .name(varName)
-                                .defaultValue(defaultValue)
-                                .required(defaultValue == null)
-                                .definition(definition)
-                                .usages(new ArrayList<>())
-                                .build();
-                        variables.put(varName, envVar);
-                    }
-                }
-            }
-        }
+    private List<EnvVarExtractorPlugin> enabledPlugins(Collection<DefinitionType> enabledTypes) {
+        return plugins.stream()
+                .filter(plugin -> enabledTypes == null || enabledTypes.isEmpty() || enabledTypes.contains(plugin.type()))
+                .sorted(Comparator.comparing(EnvVarExtractorPlugin::type))
+                .toList();
     }
 
     // ===== Вспомогательные методы =====
@@ -515,60 +442,9 @@ public class EnvVarExtractor {
         return snippet.toString().trim();
     }
 
-    private String extractConfigPropertiesPrefix(AnnotationExpr annotation) {
-        if (annotation.isSingleMemberAnnotationExpr()) {
-            return annotation.asSingleMemberAnnotationExpr()
-                    .getMemberValue().toString()
-                    .replace("\"", "");
-        } else if (annotation.isNormalAnnotationExpr()) {
-            return annotation.asNormalAnnotationExpr().getPairs().stream()
-                    .filter(p -> p.getNameAsString().equals("prefix") || p.getNameAsString().equals("value"))
-                    .findFirst()
-                    .map(p -> p.getValue().toString().replace("\"", ""))
-                    .orElse(null);
-        }
-        return null;
-    }
-
-    private String camelToKebab(String camelCase) {
-        return camelCase.replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
-    }
-
-    private String findContainingMethodName(CompilationUnit cu, int lineNumber) {
-        return cu.findAll(com.github.javaparser.ast.body.MethodDeclaration.class).stream()
-                .filter(md -> md.getBegin().isPresent() && md.getEnd().isPresent())
-                .filter(md -> md.getBegin().get().line <= lineNumber && md.getEnd().get().line >= lineNumber)
-                .findFirst()
-                .map(md -> md.getNameAsString())
-                .orElse("unknown");
-    }
-
-    private String extractLiteralValue(Expression expr) {
-        if (expr.isStringLiteralExpr()) {
-            return expr.asStringLiteralExpr().getValue();
-        }
-        if (expr.isBooleanLiteralExpr()) {
-            return Boolean.toString(expr.asBooleanLiteralExpr().getValue());
-        }
-        if (expr.isIntegerLiteralExpr()) {
-            return expr.asIntegerLiteralExpr().getValue();
-        }
-        if (expr.isLongLiteralExpr()) {
-            return expr.asLongLiteralExpr().getValue();
-        }
-        if (expr.isDoubleLiteralExpr()) {
-            return expr.asDoubleLiteralExpr().getValue();
-        }
-        if (expr.isCharLiteralExpr()) {
-            return String.valueOf(expr.asCharLiteralExpr().getValue());
-        }
-        return null;
-    }
-
-    private Map<String, String> collectPropertyDefaults(Path repoPath) {
+    private Map<String, String> collectPropertyDefaults(List<Path> configFiles) {
         Map<String, DefaultValue> collected = new HashMap<>();
 
-        List<Path> configFiles = sourceCodeAnalyzer.findConfigFiles(repoPath);
         for (Path configFile : configFiles) {
             String filename = configFile.getFileName().toString().toLowerCase();
             int priority = filePriority(filename);
@@ -603,7 +479,7 @@ public class EnvVarExtractor {
             String value = properties.getProperty(name);
             String resolved = resolvePlaceholderDefault(value);
             if (resolved != null) {
-                result.put(normalizePropertyKey(name), resolved);
+                result.put(ExtractionSupport.normalizePropertyKey(name), resolved);
             }
         }
         return result;
@@ -636,7 +512,7 @@ public class EnvVarExtractor {
                 String strValue = String.valueOf(value);
                 String resolved = resolvePlaceholderDefault(strValue);
                 if (resolved != null) {
-                    result.put(normalizePropertyKey(fullKey), resolved);
+                    result.put(ExtractionSupport.normalizePropertyKey(fullKey), resolved);
                 }
             }
         }
@@ -646,7 +522,7 @@ public class EnvVarExtractor {
                                Map<String, String> values,
                                int priority) {
         for (Map.Entry<String, String> entry : values.entrySet()) {
-            String key = normalizePropertyKey(entry.getKey());
+            String key = ExtractionSupport.normalizePropertyKey(entry.getKey());
             String value = entry.getValue();
             DefaultValue existing = collected.get(key);
             if (existing == null || priority > existing.priority) {
@@ -655,35 +531,11 @@ public class EnvVarExtractor {
         }
     }
 
-    private String resolvePropertyDefault(Map<String, String> defaults, String propertyName) {
-        for (String candidate : relaxedPropertyKeys(propertyName)) {
-            String value = defaults.get(normalizePropertyKey(candidate));
-            if (value != null) {
-                return value;
-            }
-        }
-        return null;
-    }
-
-    private Set<String> relaxedPropertyKeys(String propertyName) {
-        Set<String> keys = new LinkedHashSet<>();
-        keys.add(propertyName);
-        keys.add(propertyName.replace('-', '_'));
-        keys.add(propertyName.replace('.', '_'));
-        keys.add(propertyName.replace('.', '-'));
-        keys.add(propertyName.replace('.', '_').replace('-', '_'));
-        return keys;
-    }
-
-    private String normalizePropertyKey(String key) {
-        return key == null ? "" : key.trim().toLowerCase();
-    }
-
     private String resolvePlaceholderDefault(String value) {
         if (value == null) {
             return null;
         }
-        Matcher matcher = ENV_VAR_PATTERN.matcher(value);
+        Matcher matcher = ExtractionSupport.ENV_VAR_PATTERN.matcher(value);
         if (!matcher.find()) {
             return value;
         }
@@ -695,28 +547,6 @@ public class EnvVarExtractor {
         return null;
     }
 
-    private String resolveModuleName(Path repoPath, Path filePath) {
-        Path repoRoot = repoPath.toAbsolutePath().normalize();
-        Path current = filePath.toAbsolutePath().normalize().getParent();
-        while (current != null && current.startsWith(repoRoot)) {
-            if (isModuleRoot(current)) {
-                Path relative = repoRoot.relativize(current);
-                if (relative.toString().isBlank()) {
-                    return repoRoot.getFileName() != null ? repoRoot.getFileName().toString() : "root";
-                }
-                return relative.toString().replace("\\", "/");
-            }
-            current = current.getParent();
-        }
-        return repoRoot.getFileName() != null ? repoRoot.getFileName().toString() : "root";
-    }
-
-    private boolean isModuleRoot(Path directory) {
-        return Files.exists(directory.resolve("pom.xml")) ||
-               Files.exists(directory.resolve("build.gradle")) ||
-               Files.exists(directory.resolve("build.gradle.kts"));
-    }
-
     private int filePriority(String filename) {
         boolean isProfile = filename.startsWith("application-");
         boolean isProps = filename.endsWith(".properties");
@@ -740,6 +570,14 @@ public class EnvVarExtractor {
         return base;
     }
 
+    /**
+     * Результат шарда модуля до слияния.
+     */
+    private record ModuleExtraction(String module,
+                                    Map<String, EnvVariable> configVariables,
+                                    List<VariableCandidate> candidates) {
+    }
+
     private static final class DefaultValue {
         private final String value;
         private final int priority;
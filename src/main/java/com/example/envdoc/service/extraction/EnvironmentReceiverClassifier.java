@@ -0,0 +1,283 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.metrics.ExtractionMetrics;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.types.ResolvedReferenceType;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Определяет, является ли получатель вызова {@code getProperty(...)} Spring Environment.
+ * <p>
+ * По умолчанию используется эвристика по имени получателя (env, environment).
+ * В точном режиме ({@code extraction.type-resolution.enabled}) тип получателя
+ * вычисляется JavaSymbolSolver'ом. Type solver'ы строятся на репозиторий и кэшируются (LRU);
+ * solver не потокобезопасен, поэтому файл берёт свободный solver из пула репозитория и
+ * возвращает его при закрытии сессии — параллельные потоки не ждут друг друга. На каждый
+ * файл выделяется бюджет времени, после исчерпания которого, как и при ошибке разрешения,
+ * используется эвристика.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnvironmentReceiverClassifier {
+
+    private static final Set<String> ENVIRONMENT_TYPES = Set.of(
+            "org.springframework.core.env.PropertyResolver",
+            "org.springframework.core.env.ConfigurablePropertyResolver",
+            "org.springframework.core.env.Environment",
+            "org.springframework.core.env.ConfigurableEnvironment",
+            "org.springframework.core.env.AbstractEnvironment",
+            "org.springframework.core.env.StandardEnvironment"
+    );
+
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", "target", "build", "node_modules", ".idea");
+
+    private final ExtractionConfig extractionConfig;
+    private final ExtractionMetrics extractionMetrics;
+
+    private final Map<Path, RepositoryContext> contexts = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Открывает сессию классификации для одного файла.
+     *
+     * @param repoPath путь к репозиторию
+     * @param cu       разобранный файл
+     * @return сессия; в точном режиме её нужно закрыть после обработки файла
+     */
+    public FileSession openFile(Path repoPath, CompilationUnit cu) {
+        if (!extractionConfig.getTypeResolution().isEnabled()) {
+            return new FileSession(null, null, cu, 0);
+        }
+        RepositoryContext context = contextFor(repoPath);
+        JavaSymbolSolver symbolSolver = context.acquire();
+        cu.setData(Node.SYMBOL_RESOLVER_KEY, symbolSolver);
+        long budget = TimeUnit.MILLISECONDS.toNanos(extractionConfig.getTypeResolution().getFileBudgetMillis());
+        return new FileSession(context, symbolSolver, cu, budget);
+    }
+
+    /**
+     * Эвристика: имя получателя похоже на Environment.
+     */
+    static boolean looksLikeEnvironment(String scope) {
+        return scope.contains("environment") ||
+               scope.contains("Environment") ||
+               scope.contains("env");
+    }
+
+    /**
+     * Сигнатура метода или конструктора, в котором находится узел (пусто вне них).
+     */
+    private static String enclosingCallable(Node node) {
+        Optional<Node> parent = node.getParentNode();
+        while (parent.isPresent()) {
+            if (parent.get() instanceof CallableDeclaration<?> callable) {
+                return callable.getDeclarationAsString();
+            }
+            parent = parent.get().getParentNode();
+        }
+        return "";
+    }
+
+    private RepositoryContext contextFor(Path repoPath) {
+        Path key = repoPath.toAbsolutePath().normalize();
+        synchronized (contexts) {
+            RepositoryContext context = contexts.get(key);
+            extractionMetrics.recordResolutionCache("solver", context != null);
+            if (context == null) {
+                context = new RepositoryContext(key);
+                contexts.put(key, context);
+                int limit = Math.max(1, extractionConfig.getTypeResolution().getCachedRepositories());
+                Iterator<Path> eldest = contexts.keySet().iterator();
+                while (contexts.size() > limit && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return context;
+        }
+    }
+
+    /**
+     * Пул type solver'ов и кэш классификации типов одного репозитория.
+     * Каждый solver одновременно используется только одним потоком.
+     */
+    private static final class RepositoryContext {
+        private final Path repoRoot;
+        private final List<Path> sourceRoots;
+        private final Deque<JavaSymbolSolver> idleSolvers = new ConcurrentLinkedDeque<>();
+        private final Map<String, Boolean> environmentTypes = new ConcurrentHashMap<>();
+
+        private RepositoryContext(Path repoRoot) {
+            this.repoRoot = repoRoot;
+            this.sourceRoots = findSourceRoots(repoRoot);
+        }
+
+        private JavaSymbolSolver acquire() {
+            JavaSymbolSolver solver = idleSolvers.pollFirst();
+            if (solver != null) {
+                return solver;
+            }
+            CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(false));
+            for (Path sourceRoot : sourceRoots) {
+                typeSolver.add(new JavaParserTypeSolver(sourceRoot));
+            }
+            log.debug("Created type solver for {} with {} source roots", repoRoot, sourceRoots.size());
+            return new JavaSymbolSolver(typeSolver);
+        }
+
+        private void release(JavaSymbolSolver solver) {
+            idleSolvers.offerFirst(solver);
+        }
+
+        private static List<Path> findSourceRoots(Path repoRoot) {
+            List<Path> roots = new ArrayList<>();
+            try (Stream<Path> paths = Files.walk(repoRoot)) {
+                paths.filter(Files::isDirectory)
+                        .filter(p -> p.getFileName() != null && p.getFileName().toString().equals("java"))
+                        .filter(p -> p.getParent() != null && p.getParent().getParent() != null &&
+                                     p.getParent().getParent().getFileName().toString().equals("src"))
+                        .filter(p -> !isSkipped(repoRoot.relativize(p)))
+                        .forEach(roots::add);
+            } catch (IOException e) {
+                log.debug("Failed to collect source roots: {}", repoRoot, e);
+            }
+            if (roots.isEmpty()) {
+                roots.add(repoRoot);
+            }
+            return roots;
+        }
+
+        private static boolean isSkipped(Path relative) {
+            for (Path part : relative) {
+                if (SKIPPED_DIRECTORIES.contains(part.toString())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Классификация получателей в пределах одного файла.
+     */
+    public final class FileSession implements AutoCloseable {
+        private final RepositoryContext context;
+        private final JavaSymbolSolver symbolSolver;
+        private final CompilationUnit cu;
+        private final long budgetNanos;
+        private final Map<String, Boolean> scopeCache = new HashMap<>();
+        private long spentNanos;
+
+        private FileSession(RepositoryContext context, JavaSymbolSolver symbolSolver,
+                            CompilationUnit cu, long budgetNanos) {
+            this.context = context;
+            this.symbolSolver = symbolSolver;
+            this.cu = cu;
+            this.budgetNanos = budgetNanos;
+        }
+
+        /**
+         * @param call вызов getProperty(...)
+         * @return true, если получатель — Spring Environment (или PropertyResolver)
+         */
+        public boolean isEnvironmentCall(MethodCallExpr call) {
+            Optional<Expression> scope = call.getScope();
+            if (scope.isEmpty()) {
+                return false;
+            }
+            String scopeText = scope.get().toString();
+            if (context == null) {
+                return looksLikeEnvironment(scopeText);
+            }
+            if (spentNanos >= budgetNanos) {
+                extractionMetrics.recordResolutionFallback("budget");
+                return looksLikeEnvironment(scopeText);
+            }
+
+            // Одинаковый получатель внутри одного метода имеет один и тот же тип
+            String cacheKey = enclosingCallable(call) + "#" + scopeText;
+            Boolean cached = scopeCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+
+            boolean result = resolve(scope.get(), scopeText);
+            scopeCache.put(cacheKey, result);
+            return result;
+        }
+
+        private boolean resolve(Expression scope, String scopeText) {
+            long start = System.nanoTime();
+            try {
+                ResolvedType type = scope.calculateResolvedType();
+                if (!type.isReferenceType()) {
+                    return false;
+                }
+                return isEnvironmentType(type.asReferenceType());
+            } catch (RuntimeException | StackOverflowError e) {
+                log.trace("Failed to resolve receiver type of {}: {}", scopeText, e.getMessage());
+                extractionMetrics.recordResolutionFallback("unresolved");
+                return looksLikeEnvironment(scopeText);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                spentNanos += elapsed;
+                extractionMetrics.recordResolutionDuration(elapsed);
+            }
+        }
+
+        private boolean isEnvironmentType(ResolvedReferenceType type) {
+            String qualifiedName = type.getQualifiedName();
+            Boolean cached = context.environmentTypes.get(qualifiedName);
+            extractionMetrics.recordResolutionCache("type", cached != null);
+            if (cached != null) {
+                return cached;
+            }
+
+            boolean result = ENVIRONMENT_TYPES.contains(qualifiedName);
+            if (!result) {
+                try {
+                    result = type.getAllAncestors().stream()
+                            .anyMatch(ancestor -> ENVIRONMENT_TYPES.contains(ancestor.getQualifiedName()));
+                } catch (RuntimeException e) {
+                    // Предки не разрешились: тип точно определён и не является Environment
+                    log.trace("Failed to resolve ancestors of {}: {}", qualifiedName, e.getMessage());
+                }
+            }
+            context.environmentTypes.put(qualifiedName, result);
+            return result;
+        }
+
+        /**
+         * Отсоединяет symbol solver от файла, чтобы кэш репозитория не удерживал AST,
+         * и возвращает его в пул.
+         */
+        @Override
+        public void close() {
+            if (context != null) {
+                cu.removeData(Node.SYMBOL_RESOLVER_KEY);
+                context.release(symbolSolver);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Пул для параллельных шагов извлечения и анализа.
+ * <p>
+ * Основан на ForkJoinPool: вложенные вызовы {@link #invokeAll(List)} из задач пула
+ * не блокируют потоки, а помогают выполнять подзадачи, поэтому пул можно
+ * использовать на нескольких уровнях (модули → файлы → плагины).
+ * Отдельный пул не конкурирует с пулом фоновых задач анализа.
+ */
+@Component
+public class ExtractionExecutor implements DisposableBean {
+
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    public ExtractionExecutor(ExtractionConfig extractionConfig) {
+        int configured = extractionConfig.getParallelism();
+        this.parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Выполняет задачи и возвращает результаты в порядке задач.
+     * При параллелизме 1 задачи выполняются в вызывающем потоке.
+     *
+     * @param tasks задачи
+     * @return результаты
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        if (pool == null || tasks.size() <= 1) {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        List<ForkJoinTask<T>> forked = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            forked.add(ForkJoinTask.adapt(() -> call(task)));
+        }
+        if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(forked);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forked)));
+        }
+
+        List<T> results = new ArrayList<>(forked.size());
+        for (ForkJoinTask<T> task : forked) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
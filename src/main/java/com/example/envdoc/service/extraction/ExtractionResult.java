@@ -0,0 +1,20 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.model.EnvVariable;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат извлечения по модулям.
+ *
+ * @param variables        объединённые переменные (первое определение побеждает)
+ * @param moduleVariables  пространства имён модулей: имена переменных, определённых в каждом модуле,
+ *                         включая перекрытые определениями других модулей
+ * @param javaFiles        Java файлы репозитория, найденные при извлечении (без тестов и собранных файлов)
+ */
+public record ExtractionResult(Map<String, EnvVariable> variables,
+                               Map<String, List<String>> moduleVariables,
+                               List<Path> javaFiles) {
+}
@@ -0,0 +1,83 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс идентификаторов одного CompilationUnit.
+ * <p>
+ * Строится за один обход: для каждого метода собираются имена из {@link NameExpr}
+ * ({@code url}) и {@link FieldAccessExpr} ({@code this.url}, {@code config.url}).
+ * Поиск методов, использующих поле, — обращение к карте по точному имени,
+ * поэтому {@code url} не находится внутри {@code urlBuilder}.
+ * Метод, содержащий вложенный класс, считается использующим и имена из его методов.
+ * Индекс неизменяем после построения.
+ */
+public final class IdentifierIndex {
+
+    private final List<MethodDeclaration> methods;
+    private final Map<String, List<MethodDeclaration>> methodsByIdentifier;
+
+    private IdentifierIndex(List<MethodDeclaration> methods, Map<String, List<MethodDeclaration>> methodsByIdentifier) {
+        this.methods = methods;
+        this.methodsByIdentifier = methodsByIdentifier;
+    }
+
+    public static IdentifierIndex of(CompilationUnit cu) {
+        List<MethodDeclaration> methods = cu.findAll(MethodDeclaration.class);
+        Map<String, Set<MethodDeclaration>> collected = new HashMap<>();
+
+        for (MethodDeclaration method : methods) {
+            method.getBody().ifPresent(body -> body.walk(node -> {
+                String identifier = null;
+                if (node instanceof NameExpr name) {
+                    identifier = name.getNameAsString();
+                } else if (node instanceof FieldAccessExpr fieldAccess) {
+                    identifier = fieldAccess.getNameAsString();
+                }
+                if (identifier != null) {
+                    collected.computeIfAbsent(identifier, k -> new LinkedHashSet<>()).add(method);
+                }
+            }));
+        }
+
+        Map<String, List<MethodDeclaration>> methodsByIdentifier = new HashMap<>(collected.size() * 2);
+        collected.forEach((identifier, users) -> methodsByIdentifier.put(identifier, List.copyOf(users)));
+        return new IdentifierIndex(Collections.unmodifiableList(new ArrayList<>(methods)), methodsByIdentifier);
+    }
+
+    /**
+     * Методы, в теле которых встречается идентификатор, в порядке объявления.
+     */
+    public List<MethodDeclaration> methodsUsing(String identifier) {
+        return methodsByIdentifier.getOrDefault(identifier, List.of());
+    }
+
+    public Set<String> identifiers() {
+        return Collections.unmodifiableSet(methodsByIdentifier.keySet());
+    }
+
+    /**
+     * Первый (внешний) метод, диапазон строк которого содержит указанную строку.
+     */
+    public Optional<MethodDeclaration> methodAt(int lineNumber) {
+        for (MethodDeclaration method : methods) {
+            if (method.getBegin().isPresent() && method.getEnd().isPresent() &&
+                method.getBegin().get().line <= lineNumber && method.getEnd().get().line >= lineNumber) {
+                return Optional.of(method);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.envdoc.service.extraction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Упрощённый лексер Java для лексического режима извлечения.
+ * <p>
+ * Разбивает исходный текст на идентификаторы, литералы и символы, пропуская
+ * пробелы и комментарии. Строковые литералы декодируются (основные escape-последовательности),
+ * поэтому вызовы внутри строк и комментариев не принимаются за код.
+ * Полноценный разбор грамматики не выполняется.
+ */
+public final class JavaLexer {
+
+    public enum Kind {
+        IDENTIFIER,
+        STRING,
+        CHAR,
+        NUMBER,
+        SYMBOL
+    }
+
+    /**
+     * Токен: вид, текст (для строк — декодированное значение), позиция в исходнике и номер строки.
+     */
+    public record Token(Kind kind, String text, int start, int end, int line) {
+
+        public boolean is(Kind expectedKind, String expectedText) {
+            return kind == expectedKind && text.equals(expectedText);
+        }
+
+        public boolean isSymbol(char symbol) {
+            return kind == Kind.SYMBOL && text.length() == 1 && text.charAt(0) == symbol;
+        }
+
+        public boolean isLiteral() {
+            return kind == Kind.STRING || kind == Kind.NUMBER || kind == Kind.CHAR ||
+                   (kind == Kind.IDENTIFIER && (text.equals("true") || text.equals("false")));
+        }
+    }
+
+    private final char[] source;
+    private int pos;
+    private int line = 1;
+
+    private JavaLexer(char[] source) {
+        this.source = source;
+    }
+
+    /**
+     * Разбивает исходный текст на токены.
+     *
+     * @param source исходный текст
+     * @return токены в порядке следования
+     */
+    public static List<Token> tokenize(char[] source) {
+        return new JavaLexer(source).run();
+    }
+
+    private List<Token> run() {
+        List<Token> tokens = new ArrayList<>(source.length / 4);
+        while (pos < source.length) {
+            char c = source[pos];
+            if (c == '\n') {
+                line++;
+                pos++;
+            } else if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '/' && peek(1) == '/') {
+                skipLineComment();
+            } else if (c == '/' && peek(1) == '*') {
+                skipBlockComment();
+            } else if (c == '"' && peek(1) == '"' && peek(2) == '"') {
+                tokens.add(textBlock());
+            } else if (c == '"') {
+                tokens.add(quoted(Kind.STRING, '"'));
+            } else if (c == '\'') {
+                tokens.add(quoted(Kind.CHAR, '\''));
+            } else if (Character.isJavaIdentifierStart(c)) {
+                tokens.add(identifier());
+            } else if (Character.isDigit(c) || (c == '.' && Character.isDigit(peek(1)))) {
+                tokens.add(number());
+            } else {
+                tokens.add(new Token(Kind.SYMBOL, String.valueOf(c), pos, pos + 1, line));
+                pos++;
+            }
+        }
+        return tokens;
+    }
+
+    private char peek(int offset) {
+        int index = pos + offset;
+        return index < source.length ? source[index] : '\0';
+    }
+
+    private void skipLineComment() {
+        while (pos < source.length && source[pos] != '\n') {
+            pos++;
+        }
+    }
+
+    private void skipBlockComment() {
+        pos += 2;
+        while (pos < source.length && !(source[pos] == '*' && peek(1) == '/')) {
+            if (source[pos] == '\n') {
+                line++;
+            }
+            pos++;
+        }
+        pos = Math.min(source.length, pos + 2);
+    }
+
+    private Token identifier() {
+        int start = pos;
+        while (pos < source.length && Character.isJavaIdentifierPart(source[pos])) {
+            pos++;
+        }
+        return new Token(Kind.IDENTIFIER, new String(source, start, pos - start), start, pos, line);
+    }
+
+    private Token number() {
+        int start = pos;
+        while (pos < source.length && (Character.isLetterOrDigit(source[pos]) ||
+                                        source[pos] == '.' || source[pos] == '_')) {
+            pos++;
+        }
+        return new Token(Kind.NUMBER, new String(source, start, pos - start), start, pos, line);
+    }
+
+    private Token quoted(Kind kind, char quote) {
+        int start = pos;
+        int startLine = line;
+        StringBuilder value = new StringBuilder();
+        pos++;
+        while (pos < source.length && source[pos] != quote && source[pos] != '\n') {
+            char c = source[pos];
+            if (c == '\\' && pos + 1 < source.length) {
+                value.append(unescape(source[pos + 1]));
+                pos += 2;
+            } else {
+                value.append(c);
+                pos++;
+            }
+        }
+        pos = Math.min(source.length, pos + 1);
+        return new Token(kind, value.toString(), start, pos, startLine);
+    }
+
+    private Token textBlock() {
+        int start = pos;
+        int startLine = line;
+        pos += 3;
+        int contentStart = pos;
+        while (pos < source.length && !(source[pos] == '"' && peek(1) == '"' && peek(2) == '"')) {
+            if (source[pos] == '\\') {
+                pos++;
+                if (pos < source.length && source[pos] == '\n') {
+                    line++;
+                }
+            } else if (source[pos] == '\n') {
+                line++;
+            }
+            pos++;
+        }
+        String content = new String(source, contentStart, Math.min(pos, source.length) - contentStart);
+        pos = Math.min(source.length, pos + 3);
+        return new Token(Kind.STRING, content.stripIndent().strip(), start, pos, startLine);
+    }
+
+    private static char unescape(char c) {
+        return switch (c) {
+            case 'n' -> '\n';
+            case 't' -> '\t';
+            case 'r' -> '\r';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case '0' -> '\0';
+            default -> c;
+        };
+    }
+}
@@ -0,0 +1,584 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.JavaLexer.Kind;
+import com.example.envdoc.service.extraction.JavaLexer.Token;
+import com.example.envdoc.service.extraction.plugin.ExtractionSupport;
+import com.example.envdoc.service.extraction.plugin.VariableCandidate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+
+/**
+ * Лексический режим извлечения: находит обращения к переменным окружения
+ * по потоку токенов, не строя AST.
+ * <p>
+ * Небольшой конечный автомат отслеживает вложенность типов и методов (по скобкам)
+ * и распознаёт последовательности {@code @Value("...")}, {@code System.getenv("...")},
+ * {@code x.getProperty("..."[, default])} и {@code @ConfigurationProperties("...")}.
+ * Результат — те же {@link VariableDefinition}, что и в AST режиме. В отличие от него
+ * поддерживаются только строковые литералы в аргументах (без индекса констант),
+ * а получатель getProperty классифицируется только эвристикой по имени.
+ */
+@Component
+public class LexicalEnvVarScanner {
+
+    private static final Set<String> TYPE_KEYWORDS = Set.of("class", "interface", "enum", "record");
+    private static final Set<String> NON_METHOD_KEYWORDS = Set.of(
+            "if", "for", "while", "switch", "catch", "synchronized", "return", "new", "throw", "assert");
+    private static final Set<String> FIELD_MODIFIERS = Set.of(
+            "public", "protected", "private", "static", "final", "transient", "volatile");
+
+    /**
+     * Сканирует один Java файл.
+     *
+     * @param source           исходный текст
+     * @param filePath         путь относительно репозитория
+     * @param className        полное имя основного класса файла
+     * @param moduleName       модуль
+     * @param propertyDefaults значения свойств из конфигурационных файлов (для @ConfigurationProperties)
+     * @return кандидаты и количество токенов файла
+     */
+    public ScanResult scan(char[] source,
+                           String filePath,
+                           String className,
+                           String moduleName,
+                           Map<String, String> propertyDefaults) {
+        List<Token> tokens = JavaLexer.tokenize(source);
+        FileScan scan = new FileScan(source, tokens, filePath, className, moduleName);
+        scan.run();
+        return new ScanResult(scan.candidates(propertyDefaults), tokens.size());
+    }
+
+    /**
+     * Результат сканирования файла.
+     *
+     * @param candidates кандидаты в порядке типов определений, внутри типа — в порядке следования в файле
+     * @param tokens     количество просмотренных токенов
+     */
+    public record ScanResult(List<VariableCandidate> candidates, int tokens) {
+    }
+
+    private enum FrameKind { TYPE, METHOD, BLOCK }
+
+    private record Frame(FrameKind kind, String name, int parenDepth, boolean resetOnClose) {
+    }
+
+    private record FieldInfo(String name, String javaType, int line, String snippet, String initializer) {
+    }
+
+    private record ValuePlaceholder(String varName, String defaultValue) {
+    }
+
+    /**
+     * Состояние разбора одного файла.
+     */
+    private static final class FileScan {
+        private final char[] source;
+        private final List<Token> tokens;
+        private final String filePath;
+        private final String className;
+        private final String moduleName;
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final List<VariableCandidate> found = new ArrayList<>();
+        private final List<FieldInfo> fields = new ArrayList<>();
+        private String configPrefix;
+
+        private int parenDepth;
+        private String pendingType;
+        private boolean enumConstantsPending;
+
+        // Текущее объявление на уровне членов типа
+        private int statementStart = -1;
+        private Token lastIdentifier;
+        private int lastIdentifierIndex = -1;
+        private String fieldName;
+        private int fieldNameIndex = -1;
+        private int initializerStart = -1;
+        private int angleDepth;
+        private boolean methodDeclaration;
+        private String pendingMethod;
+        private final List<ValuePlaceholder> valuePlaceholders = new ArrayList<>();
+
+        private FileScan(char[] source, List<Token> tokens, String filePath, String className, String moduleName) {
+            this.source = source;
+            this.tokens = tokens;
+            this.filePath = filePath;
+            this.className = className;
+            this.moduleName = moduleName;
+        }
+
+        private void run() {
+            for (int i = 0; i < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                boolean member = isMemberLevel();
+
+                if (token.kind() == Kind.IDENTIFIER) {
+                    matchPatterns(i, member);
+                    if (TYPE_KEYWORDS.contains(token.text()) && !previousIs(i, '.') && next(i, Kind.IDENTIFIER)) {
+                        pendingType = tokens.get(i + 1).text();
+                        enumConstantsPending = token.text().equals("enum");
+                    }
+                }
+
+                if (member) {
+                    onMemberToken(i, token);
+                } else if (token.isSymbol('{')) {
+                    if (pendingType != null) {
+                        pushType();
+                    } else {
+                        frames.push(new Frame(FrameKind.BLOCK, null, parenDepth, false));
+                    }
+                } else if (token.isSymbol('}')) {
+                    popFrame();
+                }
+
+                if (token.isSymbol('(')) {
+                    parenDepth++;
+                } else if (token.isSymbol(')')) {
+                    parenDepth = Math.max(0, parenDepth - 1);
+                }
+            }
+        }
+
+        private boolean isMemberLevel() {
+            Frame top = frames.peek();
+            return top != null && top.kind() == FrameKind.TYPE && top.parenDepth() == parenDepth;
+        }
+
+        /**
+         * Отслеживает объявление на уровне членов типа: поле, метод, вложенный тип или блок инициализации.
+         */
+        private void onMemberToken(int i, Token token) {
+            if (token.isSymbol('}')) {
+                popFrame();
+                return;
+            }
+            if (statementStart < 0 && !token.isSymbol(';')) {
+                statementStart = i;
+            }
+
+            if (token.kind() == Kind.IDENTIFIER) {
+                if (fieldName == null && angleDepth == 0) {
+                    lastIdentifier = token;
+                    lastIdentifierIndex = i;
+                }
+            } else if (token.isSymbol('<')) {
+                angleDepth++;
+            } else if (token.isSymbol('>')) {
+                angleDepth = Math.max(0, angleDepth - 1);
+            } else if (token.isSymbol('=') && angleDepth == 0 && fieldName == null && !methodDeclaration) {
+                fieldName = lastIdentifier != null ? lastIdentifier.text() : null;
+                fieldNameIndex = lastIdentifierIndex;
+                initializerStart = i + 1;
+            } else if (token.isSymbol(',') && angleDepth == 0 && fieldName == null && !methodDeclaration) {
+                fieldName = lastIdentifier != null ? lastIdentifier.text() : null;
+                fieldNameIndex = lastIdentifierIndex;
+            } else if (token.isSymbol('(') && fieldName == null && isMethodName(i - 1)) {
+                methodDeclaration = true;
+                pendingMethod = tokens.get(i - 1).text();
+            } else if (token.isSymbol(';')) {
+                endFieldStatement(i);
+            } else if (token.isSymbol('{')) {
+                if (pendingType != null) {
+                    pushType();
+                } else if (methodDeclaration) {
+                    frames.push(new Frame(FrameKind.METHOD, pendingMethod, parenDepth, true));
+                    resetStatement();
+                } else if (fieldName != null) {
+                    // Инициализатор массива или тело лямбды в инициализаторе поля
+                    frames.push(new Frame(FrameKind.BLOCK, null, parenDepth, false));
+                } else {
+                    frames.push(new Frame(FrameKind.BLOCK, null, parenDepth, true));
+                    resetStatement();
+                }
+            }
+        }
+
+        private boolean isMethodName(int index) {
+            if (index < 0 || tokens.get(index).kind() != Kind.IDENTIFIER) {
+                return false;
+            }
+            if (NON_METHOD_KEYWORDS.contains(tokens.get(index).text())) {
+                return false;
+            }
+            return !previousIs(index, '@') && !previousIs(index, '.');
+        }
+
+        private void endFieldStatement(int end) {
+            if (enumConstantsPending) {
+                enumConstantsPending = false;
+            } else if (!methodDeclaration) {
+                String name = fieldName != null ? fieldName : (lastIdentifier != null ? lastIdentifier.text() : null);
+                if (name != null && statementStart >= 0) {
+                    Token first = tokens.get(statementStart);
+                    String snippet = slice(first, tokens.get(end));
+                    String javaType = fieldType(fieldName != null ? fieldNameIndex : lastIdentifierIndex);
+                    fields.add(new FieldInfo(name, javaType, first.line(), snippet, initializerLiteral(end)));
+                    for (ValuePlaceholder placeholder : valuePlaceholders) {
+                        VariableDefinition definition = definition(DefinitionType.SPRING_VALUE, first.line(),
+                                name, javaType, snippet);
+                        String defaultValue = placeholder.defaultValue();
+                        found.add(VariableCandidate.literal(placeholder.varName(), defaultValue,
+                                defaultValue == null || defaultValue.isBlank(), definition));
+                    }
+                }
+            }
+            resetStatement();
+        }
+
+        /**
+         * Тип поля в том виде, в каком его печатает JavaParser ({@code Map<String,List<? extends T>>}):
+         * токены между аннотациями с модификаторами и именем поля.
+         */
+        private String fieldType(int nameIndex) {
+            int j = statementStart;
+            while (j < nameIndex) {
+                if (symbolAt(j, '@') && kindAt(j + 1, Kind.IDENTIFIER)) {
+                    j += 2;
+                    while (symbolAt(j, '.') && kindAt(j + 1, Kind.IDENTIFIER)) {
+                        j += 2;
+                    }
+                    if (symbolAt(j, '(')) {
+                        int close = findClosingParen(j);
+                        if (close < 0) {
+                            return null;
+                        }
+                        j = close + 1;
+                    }
+                } else if (kindAt(j, Kind.IDENTIFIER) && FIELD_MODIFIERS.contains(tokens.get(j).text())) {
+                    j++;
+                } else {
+                    break;
+                }
+            }
+            if (j >= nameIndex) {
+                return null;
+            }
+            StringBuilder type = new StringBuilder();
+            for (int k = j; k < nameIndex; k++) {
+                Token token = tokens.get(k);
+                if (k > j && isTypeWord(token) && isTypeWord(tokens.get(k - 1))) {
+                    type.append(' ');
+                }
+                type.append(token.text());
+            }
+            return type.toString();
+        }
+
+        private static boolean isTypeWord(Token token) {
+            return token.kind() == Kind.IDENTIFIER || token.isSymbol('?');
+        }
+
+        private String initializerLiteral(int end) {
+            if (initializerStart < 0 || initializerStart != end - 1) {
+                return null;
+            }
+            Token literal = tokens.get(initializerStart);
+            return literal.isLiteral() ? literal.text() : null;
+        }
+
+        private void resetStatement() {
+            statementStart = -1;
+            lastIdentifier = null;
+            lastIdentifierIndex = -1;
+            fieldName = null;
+            fieldNameIndex = -1;
+            initializerStart = -1;
+            angleDepth = 0;
+            methodDeclaration = false;
+            pendingMethod = null;
+            valuePlaceholders.clear();
+        }
+
+        private void pushType() {
+            frames.push(new Frame(FrameKind.TYPE, pendingType, parenDepth, true));
+            pendingType = null;
+            resetStatement();
+        }
+
+        private void popFrame() {
+            if (frames.isEmpty()) {
+                return;
+            }
+            Frame closed = frames.pop();
+            if (closed.kind() == FrameKind.TYPE) {
+                enumConstantsPending = false;
+            }
+            if (closed.resetOnClose() && isMemberLevel()) {
+                resetStatement();
+            }
+        }
+
+        // ===== Распознавание последовательностей токенов =====
+
+        private void matchPatterns(int i, boolean member) {
+            String text = tokens.get(i).text();
+            switch (text) {
+                case "Value" -> {
+                    if (member && isAnnotationName(i)) {
+                        annotationString(i).ifPresent(this::addValuePlaceholders);
+                    }
+                }
+                case "ConfigurationProperties" -> {
+                    if (configPrefix == null && isAnnotationName(i) && annotatesType(i)) {
+                        configPrefix = annotationString(i).orElse(null);
+                    }
+                }
+                case "getenv" -> matchGetenv(i);
+                case "getProperty" -> matchGetProperty(i);
+                default -> {
+                }
+            }
+        }
+
+        private void addValuePlaceholders(String content) {
+            Matcher matcher = ExtractionSupport.ENV_VAR_PATTERN.matcher(content);
+            while (matcher.find()) {
+                String defaultValue = matcher.group(2);
+                if (defaultValue != null && defaultValue.startsWith(":")) {
+                    defaultValue = defaultValue.substring(1);
+                }
+                valuePlaceholders.add(new ValuePlaceholder(matcher.group(1), defaultValue));
+            }
+        }
+
+        /**
+         * System.getenv("NAME")
+         */
+        private void matchGetenv(int i) {
+            if (!isSystemCall(i) || !symbolAt(i + 1, '(') || !kindAt(i + 2, Kind.STRING) || !symbolAt(i + 3, ')')) {
+                return;
+            }
+            Token scope = tokens.get(i - 2);
+            VariableDefinition definition = definition(DefinitionType.SYSTEM_GETENV, scope.line(),
+                    currentMethodName(), slice(scope, tokens.get(i + 3)));
+            found.add(VariableCandidate.literal(tokens.get(i + 2).text(), null, true, definition));
+        }
+
+        /**
+         * System.getProperty("name"[, default]) и env.getProperty("name"[, default])
+         */
+        private void matchGetProperty(int i) {
+            if (!previousIs(i, '.') || !symbolAt(i + 1, '(') || !kindAt(i + 2, Kind.STRING)) {
+                return;
+            }
+            String defaultValue = null;
+            int close = i + 3;
+            if (symbolAt(i + 3, ',')) {
+                if (i + 5 < tokens.size() && tokens.get(i + 4).isLiteral() && symbolAt(i + 5, ')')) {
+                    defaultValue = tokens.get(i + 4).text();
+                    close = i + 5;
+                } else {
+                    close = findClosingParen(i + 1);
+                }
+            }
+            if (close < 0 || !symbolAt(close, ')')) {
+                return;
+            }
+
+            Token scopeStart = scopeStart(i - 2);
+            if (scopeStart == null) {
+                return;
+            }
+            String scopeText = new String(source, scopeStart.start(), tokens.get(i - 1).start() - scopeStart.start());
+            String propertyName = tokens.get(i + 2).text();
+            String snippet = slice(scopeStart, tokens.get(close));
+
+            if (isSystemCall(i)) {
+                VariableDefinition definition = definition(DefinitionType.SYSTEM_PROPERTY, scopeStart.line(),
+                        currentMethodName(), snippet);
+                found.add(VariableCandidate.literal(ExtractionSupport.toEnvName(propertyName), defaultValue,
+                        defaultValue == null, definition));
+            } else if (EnvironmentReceiverClassifier.looksLikeEnvironment(scopeText)) {
+                VariableDefinition definition = definition(DefinitionType.ENVIRONMENT_API, scopeStart.line(),
+                        currentMethodName(), snippet);
+                found.add(VariableCandidate.literal(ExtractionSupport.environmentPropertyToEnvName(propertyName),
+                        defaultValue, defaultValue == null, definition));
+            }
+        }
+
+        /**
+         * Начало выражения-получателя: a.b.c или method().
+         */
+        private Token scopeStart(int index) {
+            if (index < 0) {
+                return null;
+            }
+            int current = index;
+            if (symbolAt(current, ')')) {
+                current = findOpeningParen(current) - 1;
+                if (current < 0 || tokens.get(current).kind() != Kind.IDENTIFIER) {
+                    return null;
+                }
+            } else if (tokens.get(current).kind() != Kind.IDENTIFIER) {
+                return null;
+            }
+            while (current >= 2 && symbolAt(current - 1, '.') && kindAt(current - 2, Kind.IDENTIFIER)) {
+                current -= 2;
+            }
+            return tokens.get(current);
+        }
+
+        private boolean isSystemCall(int i) {
+            return previousIs(i, '.') && i >= 2 && tokens.get(i - 2).is(Kind.IDENTIFIER, "System") &&
+                   !previousIs(i - 2, '.');
+        }
+
+        private boolean isAnnotationName(int i) {
+            int current = i;
+            while (current >= 2 && symbolAt(current - 1, '.') && kindAt(current - 2, Kind.IDENTIFIER)) {
+                current -= 2;
+            }
+            return previousIs(current, '@');
+        }
+
+        /**
+         * Строковое значение аннотации: ("...") или (value = "...") / (prefix = "...").
+         */
+        private Optional<String> annotationString(int nameIndex) {
+            if (!symbolAt(nameIndex + 1, '(')) {
+                return Optional.empty();
+            }
+            if (kindAt(nameIndex + 2, Kind.STRING) && symbolAt(nameIndex + 3, ')')) {
+                return Optional.of(tokens.get(nameIndex + 2).text());
+            }
+            int close = findClosingParen(nameIndex + 1);
+            for (int j = nameIndex + 2; close > 0 && j + 2 < close; j++) {
+                Token key = tokens.get(j);
+                if ((key.is(Kind.IDENTIFIER, "value") || key.is(Kind.IDENTIFIER, "prefix")) &&
+                    symbolAt(j + 1, '=') && kindAt(j + 2, Kind.STRING)) {
+                    return Optional.of(tokens.get(j + 2).text());
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Аннотация относится к объявлению типа (пропускаем модификаторы и другие аннотации).
+         */
+        private boolean annotatesType(int nameIndex) {
+            int j = symbolAt(nameIndex + 1, '(') ? findClosingParen(nameIndex + 1) + 1 : nameIndex + 1;
+            while (j > 0 && j < tokens.size()) {
+                Token token = tokens.get(j);
+                if (token.kind() == Kind.IDENTIFIER) {
+                    if (TYPE_KEYWORDS.contains(token.text())) {
+                        return true;
+                    }
+                    j++;
+                } else if (token.isSymbol('@')) {
+                    j += 2;
+                    while (symbolAt(j, '.') && kindAt(j + 1, Kind.IDENTIFIER)) {
+                        j += 2;
+                    }
+                    if (symbolAt(j, '(')) {
+                        j = findClosingParen(j) + 1;
+                    }
+                } else {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private int findClosingParen(int open) {
+            int depth = 0;
+            for (int j = open; j < tokens.size(); j++) {
+                if (symbolAt(j, '(')) {
+                    depth++;
+                } else if (symbolAt(j, ')') && --depth == 0) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        private int findOpeningParen(int close) {
+            int depth = 0;
+            for (int j = close; j >= 0; j--) {
+                if (symbolAt(j, ')')) {
+                    depth++;
+                } else if (symbolAt(j, '(') && --depth == 0) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        private String currentMethodName() {
+            // Как и в AST режиме, берётся внешний метод (лямбды и анонимные классы не учитываются)
+            String name = "unknown";
+            for (Frame frame : frames) {
+                if (frame.kind() == FrameKind.METHOD) {
+                    name = frame.name();
+                }
+            }
+            return name;
+        }
+
+        // ===== Результат =====
+
+        private List<VariableCandidate> candidates(Map<String, String> propertyDefaults) {
+            if (configPrefix != null) {
+                for (FieldInfo field : fields) {
+                    String propertyName = configPrefix + "." + ExtractionSupport.camelToKebab(field.name());
+                    String defaultValue = ExtractionSupport.resolvePropertyDefault(propertyDefaults, propertyName);
+                    if (defaultValue == null) {
+                        defaultValue = field.initializer();
+                    }
+                    VariableDefinition definition = definition(DefinitionType.CONFIG_PROPERTIES, field.line(),
+                            field.name(), field.javaType(), field.snippet());
+                    found.add(VariableCandidate.literal(ExtractionSupport.toEnvName(propertyName), defaultValue,
+                            defaultValue == null, definition));
+                }
+            }
+            // Тот же порядок, что у плагинов AST режима
+            List<VariableCandidate> ordered = new ArrayList<>(found);
+            ordered.sort(Comparator.comparing(candidate -> candidate.definition().getType()));
+            return ordered;
+        }
+
+        private VariableDefinition definition(DefinitionType type, int line, String member, String snippet) {
+            return definition(type, line, member, null, snippet);
+        }
+
+        private VariableDefinition definition(DefinitionType type, int line, String member, String javaType,
+                                              String snippet) {
+            return VariableDefinition.builder()
+                    .type(type)
+                    .filePath(filePath)
+                    .lineNumber(line)
+                    .className(className)
+                    .fieldOrMethodName(member)
+                    .javaType(javaType)
+                    .codeSnippet(snippet)
+                    .moduleName(moduleName)
+                    .build();
+        }
+
+        // ===== Доступ к токенам =====
+
+        private String slice(Token from, Token to) {
+            return new String(source, from.start(), to.end() - from.start());
+        }
+
+        private boolean previousIs(int index, char symbol) {
+            return index > 0 && tokens.get(index - 1).isSymbol(symbol);
+        }
+
+        private boolean next(int index, Kind kind) {
+            return kindAt(index + 1, kind);
+        }
+
+        private boolean symbolAt(int index, char symbol) {
+            return index >= 0 && index < tokens.size() && tokens.get(index).isSymbol(symbol);
+        }
+
+        private boolean kindAt(int index, Kind kind) {
+            return index >= 0 && index < tokens.size() && tokens.get(index).kind() == kind;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.envdoc.service.extraction;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Разбиение репозитория на модули Maven/Gradle.
+ * <p>
+ * Модуль файла — ближайшая родительская директория с pom.xml, build.gradle
+ * или build.gradle.kts; файлы вне модулей относятся к корню репозитория.
+ * Модули используются как независимые шарды извлечения и анализа использований.
+ */
+@Component
+public class ModuleLayout {
+
+    /**
+     * Файлы одного модуля в порядке обхода репозитория.
+     *
+     * @param name        имя модуля (путь относительно репозитория, для корня — имя директории)
+     * @param configFiles YAML/Properties файлы модуля
+     * @param javaFiles   Java файлы модуля
+     */
+    public record ModuleShard(String name, List<Path> configFiles, List<Path> javaFiles) {
+
+        public int size() {
+            return configFiles.size() + javaFiles.size();
+        }
+    }
+
+    /**
+     * Определяет имя модуля, к которому относится файл.
+     *
+     * @param repoPath путь к репозиторию
+     * @param filePath путь к файлу
+     * @return имя модуля
+     */
+    public String resolveModuleName(Path repoPath, Path filePath) {
+        return resolveModuleName(repoPath.toAbsolutePath().normalize(), filePath, new HashMap<>());
+    }
+
+    /**
+     * Группирует файлы по модулям. Порядок модулей — порядок первого появления
+     * (сначала по конфигурационным, затем по Java файлам), порядок файлов внутри
+     * модуля сохраняется, поэтому слияние шардов по порядку даёт тот же приоритет
+     * первого определения, что и последовательный обход.
+     *
+     * @param repoPath    путь к репозиторию
+     * @param configFiles конфигурационные файлы
+     * @param javaFiles   Java файлы
+     * @return шарды модулей
+     */
+    public List<ModuleShard> partition(Path repoPath, List<Path> configFiles, List<Path> javaFiles) {
+        Path repoRoot = repoPath.toAbsolutePath().normalize();
+        Map<Path, String> directoryModules = new HashMap<>();
+        Map<String, List<Path>> configByModule = new LinkedHashMap<>();
+        Map<String, List<Path>> javaByModule = new LinkedHashMap<>();
+
+        for (Path configFile : configFiles) {
+            String module = resolveModuleName(repoRoot, configFile, directoryModules);
+            configByModule.computeIfAbsent(module, k -> new ArrayList<>()).add(configFile);
+            javaByModule.computeIfAbsent(module, k -> new ArrayList<>());
+        }
+        for (Path javaFile : javaFiles) {
+            String module = resolveModuleName(repoRoot, javaFile, directoryModules);
+            javaByModule.computeIfAbsent(module, k -> new ArrayList<>()).add(javaFile);
+        }
+
+        List<ModuleShard> shards = new ArrayList<>(javaByModule.size());
+        javaByModule.forEach((module, moduleJavaFiles) -> shards.add(new ModuleShard(
+                module,
+                configByModule.getOrDefault(module, List.of()),
+                moduleJavaFiles)));
+        return shards;
+    }
+
+    private String resolveModuleName(Path repoRoot, Path filePath, Map<Path, String> directoryModules) {
+        Path directory = filePath.toAbsolutePath().normalize().getParent();
+        if (directory == null || !directory.startsWith(repoRoot)) {
+            return rootModuleName(repoRoot);
+        }
+        String cached = directoryModules.get(directory);
+        if (cached != null) {
+            return cached;
+        }
+
+        String module;
+        if (isModuleRoot(directory)) {
+            Path relative = repoRoot.relativize(directory);
+            module = relative.toString().isBlank()
+                    ? rootModuleName(repoRoot)
+                    : relative.toString().replace("\\", "/");
+        } else {
+            module = resolveModuleName(repoRoot, directory, directoryModules);
+        }
+        directoryModules.put(directory, module);
+        return module;
+    }
+
+    private String rootModuleName(Path repoRoot) {
+        return repoRoot.getFileName() != null ? repoRoot.getFileName().toString() : "root";
+    }
+
+    private boolean isModuleRoot(Path directory) {
+        return Files.exists(directory.resolve("pom.xml")) ||
+               Files.exists(directory.resolve("build.gradle")) ||
+               Files.exists(directory.resolve("build.gradle.kts"));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.envdoc.service.extraction;
+
+/**
+ * Счётчик завершённых шардов модулей, общий для параллельных задач.
+ */
+final class ModuleProgress {
+
+    private final ModuleProgressListener listener;
+    private final int total;
+    private int completed;
+
+    ModuleProgress(ModuleProgressListener listener, int total) {
+        this.listener = listener != null ? listener : ModuleProgressListener.NONE;
+        this.total = total;
+    }
+
+    synchronized void completed(String module) {
+        completed++;
+        listener.onModuleCompleted(module, completed, total);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.envdoc.service.extraction;
+
+/**
+ * Колбэк завершения обработки модуля.
+ * <p>
+ * Шарды выполняются параллельно, но уведомления приходят последовательно,
+ * с возрастающим {@code completed}.
+ */
+@FunctionalInterface
+public interface ModuleProgressListener {
+
+    ModuleProgressListener NONE = (module, completed, total) -> { };
+
+    void onModuleCompleted(String module, int completed, int total);
+}
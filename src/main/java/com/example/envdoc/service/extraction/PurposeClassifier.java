@@ -0,0 +1,268 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.model.UsagePurpose;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Классификатор целей использования переменных по идентификаторам.
+ * <p>
+ * Текст разбивается на токены идентификаторов (camelCase, snake_case, точки),
+ * затем ключевые слова ищутся скомпилированным префиксным деревом за один проход
+ * по токенам. Ключевое слово совпадает с целым токеном или склейкой соседних
+ * токенов ({@code datasource} — {@code DataSource}), допускается окончание -s.
+ * Каждое совпадение добавляет вес правила к своей метке; основная цель — метка
+ * с наибольшим весом, при равенстве — правило, объявленное раньше.
+ */
+@Component
+public class PurposeClassifier {
+
+    /**
+     * Встроенные правила в порядке приоритета.
+     */
+    static final List<ExtractionConfig.PurposeRule> DEFAULT_RULES = List.of(
+            rule(UsagePurpose.AUTHENTICATION, 1.5,
+                    "security", "auth", "authentication", "authorization", "jwt", "oauth", "oauth2",
+                    "password", "credential", "secret", "token", "keystore", "truststore"),
+            rule(UsagePurpose.CACHE_CONFIG, 1.3,
+                    "cache", "redis", "ehcache", "caffeine", "hazelcast", "memcached"),
+            rule(UsagePurpose.DATABASE_CONNECTION, 1.2,
+                    "datasource", "jdbc", "hikari", "database", "db", "postgres", "postgresql", "mysql",
+                    "oracle", "mongo", "mongodb", "r2dbc", "liquibase", "flyway"),
+            rule(UsagePurpose.MESSAGING_CONFIG, 1.1,
+                    "kafka", "rabbit", "rabbitmq", "mq", "jms", "amqp", "queue", "topic", "message",
+                    "producer", "consumer"),
+            rule(UsagePurpose.EXTERNAL_API, 1.0,
+                    "resttemplate", "webclient", "feign", "http", "client", "endpoint", "url", "uri"),
+            rule(UsagePurpose.FEATURE_FLAG, 1.0,
+                    "feature", "flag", "toggle", "enabled", "disabled"),
+            rule(UsagePurpose.LOGGING_CONFIG, 1.0,
+                    "log", "logging", "logger", "slf4j", "logback", "log4j"),
+            rule(UsagePurpose.SERVER_CONFIG, 0.8,
+                    "server", "port", "host", "address", "ssl", "tls")
+    );
+
+    private final KeywordTrie trie;
+    private final UsagePurpose[] purposes;
+    private final double secondaryThreshold;
+
+    public PurposeClassifier(ExtractionConfig extractionConfig) {
+        ExtractionConfig.Purpose config = extractionConfig.getPurpose();
+        List<ExtractionConfig.PurposeRule> rules = new ArrayList<>();
+        if (config.isIncludeDefaults()) {
+            rules.addAll(DEFAULT_RULES);
+        }
+        rules.addAll(config.getRules());
+
+        List<UsagePurpose> order = new ArrayList<>();
+        this.trie = new KeywordTrie();
+        for (ExtractionConfig.PurposeRule rule : rules) {
+            if (rule.getPurpose() == null) {
+                continue;
+            }
+            if (!order.contains(rule.getPurpose())) {
+                order.add(rule.getPurpose());
+            }
+            for (String keyword : rule.getKeywords()) {
+                trie.add(keyword.toLowerCase(Locale.ROOT), rule.getPurpose(), rule.getWeight());
+            }
+        }
+        this.purposes = order.toArray(UsagePurpose[]::new);
+        this.secondaryThreshold = config.getSecondaryThreshold();
+    }
+
+    /**
+     * Результат классификации: метки по убыванию веса.
+     *
+     * @param purposes метки с весом не ниже порога относительно основной (первая — основная)
+     * @param scores   веса всех найденных меток
+     */
+    public record Classification(List<UsagePurpose> purposes, Map<UsagePurpose, Double> scores) {
+
+        public UsagePurpose primary() {
+            return purposes.isEmpty() ? UsagePurpose.OTHER : purposes.get(0);
+        }
+    }
+
+    /**
+     * Классифицирует использование по фрагментам текста (имя класса, метода, сигнатура и т.п.).
+     */
+    public Classification classify(CharSequence... parts) {
+        double[] scores = new double[UsagePurpose.values().length];
+        char[] buffer = new char[64];
+        for (CharSequence part : parts) {
+            if (part != null) {
+                buffer = score(part, scores, buffer);
+            }
+        }
+
+        Map<UsagePurpose, Double> found = new EnumMap<>(UsagePurpose.class);
+        double best = 0;
+        for (UsagePurpose purpose : purposes) {
+            double score = scores[purpose.ordinal()];
+            if (score > 0) {
+                found.put(purpose, score);
+                best = Math.max(best, score);
+            }
+        }
+        if (found.isEmpty()) {
+            return new Classification(List.of(), Map.of());
+        }
+
+        List<UsagePurpose> ranked = new ArrayList<>();
+        for (UsagePurpose purpose : purposes) {
+            Double score = found.get(purpose);
+            if (score != null && score >= best * secondaryThreshold) {
+                ranked.add(purpose);
+            }
+        }
+        // Стабильная сортировка сохраняет порядок правил при равных весах
+        ranked.sort((a, b) -> Double.compare(found.get(b), found.get(a)));
+        return new Classification(List.copyOf(ranked), found);
+    }
+
+    /**
+     * Разбивает текст на токены и ищет ключевые слова, начиная с каждого токена.
+     * Токены записываются в нижнем регистре подряд в buffer, границы — в ends.
+     */
+    private char[] score(CharSequence text, double[] scores, char[] buffer) {
+        int length = text.length();
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        int size = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int tokenStart = size;
+            int j = i;
+            while (j < length && Character.isLetterOrDigit(text.charAt(j))) {
+                char current = text.charAt(j);
+                if (j > i && isBoundary(text, j)) {
+                    break;
+                }
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = Character.toLowerCase(current);
+                j++;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = tokenStart;
+            ends[count] = size;
+            count++;
+            i = j;
+        }
+
+        for (int token = 0; token < count; token++) {
+            trie.match(buffer, starts[token], size, ends, token, count, scores);
+        }
+        return buffer;
+    }
+
+    /**
+     * Граница токена внутри буквенно-цифровой последовательности: aB, 2B и ABc
+     * (перед последней заглавной). Цифры остаются в токене: oauth2, log4j, r2dbc.
+     */
+    private static boolean isBoundary(CharSequence text, int index) {
+        char previous = text.charAt(index - 1);
+        char current = text.charAt(index);
+        if (!Character.isUpperCase(current)) {
+            return false;
+        }
+        if (Character.isLowerCase(previous) || Character.isDigit(previous)) {
+            return true;
+        }
+        return Character.isUpperCase(previous) && index + 1 < text.length()
+               && Character.isLowerCase(text.charAt(index + 1));
+    }
+
+    private static ExtractionConfig.PurposeRule rule(UsagePurpose purpose, double weight, String... keywords) {
+        ExtractionConfig.PurposeRule rule = new ExtractionConfig.PurposeRule();
+        rule.setPurpose(purpose);
+        rule.setWeight(weight);
+        rule.setKeywords(List.of(keywords));
+        return rule;
+    }
+
+    /**
+     * Префиксное дерево ключевых слов в массивах; веса меток хранятся на конечных узлах.
+     */
+    private static final class KeywordTrie {
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<Map<UsagePurpose, Double>> weights = new ArrayList<>();
+
+        KeywordTrie() {
+            newNode();
+        }
+
+        void add(String keyword, UsagePurpose purpose, double weight) {
+            if (keyword.isBlank()) {
+                return;
+            }
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    continue;
+                }
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            weights.get(node).merge(purpose, weight, Math::max);
+        }
+
+        /**
+         * Ищет ключевые слова, начинающиеся с токена {@code token}: совпадение засчитывается,
+         * если оно заканчивается на границе токена (или за ним следует только 's').
+         */
+        void match(char[] buffer, int from, int size, int[] ends, int token, int count, double[] scores) {
+            int node = 0;
+            int boundary = token;
+            for (int position = from; position < size; position++) {
+                Integer next = children.get(node).get(buffer[position]);
+                if (next == null) {
+                    return;
+                }
+                node = next;
+                while (boundary < count && ends[boundary] <= position) {
+                    boundary++;
+                }
+                Map<UsagePurpose, Double> hit = weights.get(node);
+                if (hit.isEmpty() || boundary >= count) {
+                    continue;
+                }
+                int end = ends[boundary];
+                if (position + 1 == end || (position + 2 == end && buffer[position + 1] == 's')) {
+                    hit.forEach((purpose, weight) -> scores[purpose.ordinal()] += weight);
+                }
+            }
+        }
+
+        private int newNode() {
+            children.add(new HashMap<>(4));
+            weights.add(new EnumMap<>(UsagePurpose.class));
+            return children.size() - 1;
+        }
+    }
+}
@@ -29,13 +29,17 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class SourceCodeAnalyzer {
 
-    private final JavaParser javaParser = new JavaParser();
+    /**
+     * JavaParser не потокобезопасен: файлы модулей разбираются параллельно,
+     * поэтому у каждого потока свой экземпляр.
+     */
+    private final ThreadLocal<JavaParser> javaParser = ThreadLocal.withInitial(JavaParser::new);
 
     /**
      * Находит все Java файлы в репозитории.
      *
      * @param repoPath путь к репозиторию
-     * @return список путей к Java файлам
+     * @return список путей к Java файлам, отсортированный по пути
      */
     public List<Path> findJavaFiles(Path repoPath) {
         try (Stream<Path> paths = Files.walk(repoPath)) {
@@ -46,6 +50,7 @@ public class SourceCodeAnalyzer {
                         String path = normalizePath(p);
                         return !path.contains("/test/") && !path.contains("/target/");
                     })
+                    .sorted()
                     .toList();
         } catch (IOException e) {
             log.error("Error finding Java files", e);
@@ -88,7 +93,7 @@ public class SourceCodeAnalyzer {
      */
     public Optional<CompilationUnit> parseJavaFile(Path javaFile) {
         try {
-            ParseResult<CompilationUnit> result = javaParser.parse(javaFile);
+            ParseResult<CompilationUnit> result = javaParser.get().parse(javaFile);
             if (result.isSuccessful() && result.getResult().isPresent()) {
                 return result.getResult();
             } else {
@@ -101,6 +106,25 @@ public class SourceCodeAnalyzer {
         }
     }
 
+    /**
+     * Парсит уже прочитанный исходный текст Java файла.
+     * Позиции узлов соответствуют переданному тексту, что позволяет
+     * брать фрагменты через {@link SourceText}.
+     *
+     * @param javaFile путь к Java файлу (для сообщений)
+     * @param content  содержимое файла
+     * @return Optional с CompilationUnit
+     */
+    public Optional<CompilationUnit> parseJavaSource(Path javaFile, String content) {
+        ParseResult<CompilationUnit> result = javaParser.get().parse(content);
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            // Имя основного типа определяется по имени файла
+            return result.getResult().map(cu -> cu.setStorage(javaFile));
+        }
+        log.warn("Failed to parse {}: {}", javaFile, result.getProblems());
+        return Optional.empty();
+    }
+
     /**
      * Читает содержимое файла.
      *
@@ -165,29 +189,15 @@ public class SourceCodeAnalyzer {
     }
 
     /**
-     * Находит все методы, использующие указанное поле.
+     * Находит все методы, использующие указанное поле (точное совпадение идентификатора).
+     * Для нескольких полей одного файла эффективнее построить {@link IdentifierIndex} один раз.
      *
      * @param cu CompilationUnit
      * @param fieldName имя поля
      * @return список методов
      */
     public List<MethodDeclaration> findMethodsUsingField(CompilationUnit cu, String fieldName) {
-        List<MethodDeclaration> methods = new ArrayList<>();
-
-        cu.accept(new VoidVisitorAdapter<Void>() {
-            @Override
-            public void visit(MethodDeclaration md, Void arg) {
-                super.visit(md, arg);
-                if (md.getBody().isPresent()) {
-                    String body = md.getBody().get().toString();
-                    if (body.contains(fieldName)) {
-                        methods.add(md);
-                    }
-                }
-            }
-        }, null);
-
-        return methods;
+        return IdentifierIndex.of(cu).methodsUsing(fieldName);
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.ast.Node;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Исходный текст файла как массив символов с таблицей начал строк.
+ * <p>
+ * Переводит позиции JavaParser (строка, колонка) в смещения, чтобы работать
+ * с фрагментами исходника по диапазону узла без повторной печати AST
+ * через {@code toString()}. Колонки считаются как у JavaParser по умолчанию:
+ * табуляция — один символ, переводы строк {@code \n}, {@code \r\n}, {@code \r}.
+ */
+public final class SourceText {
+
+    private final char[] chars;
+    private final int[] lineStarts;
+
+    private SourceText(char[] chars, int[] lineStarts) {
+        this.chars = chars;
+        this.lineStarts = lineStarts;
+    }
+
+    public static SourceText of(String content) {
+        char[] chars = content.toCharArray();
+        int[] lineStarts = new int[16];
+        int lines = 1;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c == '\r' && i + 1 < chars.length && chars[i + 1] == '\n') {
+                continue;
+            }
+            if (c == '\n' || c == '\r') {
+                if (lines == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                }
+                lineStarts[lines++] = i + 1;
+            }
+        }
+        return new SourceText(chars, Arrays.copyOf(lineStarts, lines));
+    }
+
+    public char[] chars() {
+        return chars;
+    }
+
+    public int length() {
+        return chars.length;
+    }
+
+    /**
+     * Смещение первого символа узла или -1, если у узла нет позиции.
+     */
+    public int begin(Node node) {
+        return node.getBegin().map(this::offset).orElse(-1);
+    }
+
+    /**
+     * Смещение за последним символом узла или -1, если у узла нет позиции.
+     */
+    public int end(Node node) {
+        return node.getEnd().map(position -> {
+            int offset = offset(position);
+            return offset < 0 ? -1 : Math.min(chars.length, offset + 1);
+        }).orElse(-1);
+    }
+
+    /**
+     * Фрагмент исходника узла без копирования символов; пустой, если позиции нет.
+     */
+    public CharSequence view(Node node) {
+        int begin = begin(node);
+        int end = end(node);
+        return begin < 0 || end < begin ? "" : CharBuffer.wrap(chars, begin, end - begin);
+    }
+
+    private int offset(Position position) {
+        int line = position.line - 1;
+        if (line < 0 || line >= lineStarts.length) {
+            return -1;
+        }
+        int offset = lineStarts[line] + position.column - 1;
+        return offset >= 0 && offset < chars.length ? offset : -1;
+    }
+}
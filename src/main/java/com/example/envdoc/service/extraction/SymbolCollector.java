@@ -0,0 +1,275 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.service.extraction.plugin.ExtractionSupport;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.type.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Сбор символов одного файла для {@link SymbolIndex}: типы, поля с привязанными
+ * переменными и ссылки методов на поля и методы других типов.
+ * <p>
+ * Типы получателей определяются по объявлениям без symbol solver: локальные
+ * переменные и параметры метода, поля класса (в том числе внедрённые через
+ * конструктор), статические обращения {@code Type.CONST} и {@code Type.method()}.
+ * Ссылки сохраняются с типом в том виде, как он записан в коде, и разрешаются
+ * по импортам при построении индекса.
+ */
+public final class SymbolCollector {
+
+    private static final Pattern PLACEHOLDER_PATTERN =
+            Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)(:[^}]*)?}");
+
+    /**
+     * Символы файла.
+     *
+     * @param packageName пакет
+     * @param imports     одиночные импорты: простое имя → полное
+     * @param types       объявленные типы, включая вложенные
+     */
+    public record FileSymbols(String packageName, Map<String, String> imports, List<TypeSymbols> types) {
+    }
+
+    public record TypeSymbols(String name, List<FieldSymbol> fields, List<MethodSymbols> methods) {
+    }
+
+    /**
+     * Поле и переменные, значения которых оно получает (@Value, @ConfigurationProperties, строковая константа).
+     */
+    public record FieldSymbol(String name, Set<String> boundVariables) {
+    }
+
+    public record MethodSymbols(String name, int line, List<Reference> references) {
+    }
+
+    /**
+     * Ссылка из тела метода.
+     *
+     * @param type   тип в записи из кода (null — собственный тип)
+     * @param member имя поля или метода
+     * @param method true для вызова метода, false для чтения поля
+     */
+    public record Reference(String type, String member, boolean method) {
+    }
+
+    private SymbolCollector() {
+    }
+
+    public static FileSymbols collect(CompilationUnit cu) {
+        String packageName = cu.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
+        Map<String, String> imports = new HashMap<>();
+        cu.getImports().forEach(importDecl -> {
+            if (!importDecl.isAsterisk() && !importDecl.isStatic()) {
+                String name = importDecl.getNameAsString();
+                imports.put(name.substring(name.lastIndexOf('.') + 1), name);
+            }
+        });
+
+        List<TypeSymbols> types = new ArrayList<>();
+        for (TypeDeclaration<?> type : cu.findAll(TypeDeclaration.class)) {
+            type.getFullyQualifiedName().ifPresent(name -> types.add(collectType(name, type)));
+        }
+        return new FileSymbols(packageName, imports, types);
+    }
+
+    private static TypeSymbols collectType(String name, TypeDeclaration<?> type) {
+        String propertiesPrefix = type.getAnnotationByName("ConfigurationProperties")
+                .map(SymbolCollector::configurationPrefix)
+                .orElse(null);
+
+        Map<String, String> fieldTypes = new HashMap<>();
+        List<FieldSymbol> fields = new ArrayList<>();
+        for (FieldDeclaration field : type.getFields()) {
+            for (VariableDeclarator variable : field.getVariables()) {
+                String fieldName = variable.getNameAsString();
+                fieldTypes.put(fieldName, typeName(variable.getType()));
+                fields.add(new FieldSymbol(fieldName, boundVariables(field, variable, propertiesPrefix)));
+            }
+        }
+
+        List<MethodSymbols> methods = new ArrayList<>();
+        for (MethodDeclaration method : type.getMethods()) {
+            methods.add(new MethodSymbols(method.getNameAsString(),
+                    method.getBegin().map(p -> p.line).orElse(0),
+                    collectReferences(method, fieldTypes)));
+        }
+        return new TypeSymbols(name, fields, methods);
+    }
+
+    private static Set<String> boundVariables(FieldDeclaration field,
+                                              VariableDeclarator variable,
+                                              String propertiesPrefix) {
+        Set<String> bound = new LinkedHashSet<>();
+        field.getAnnotationByName("Value")
+                .flatMap(SymbolCollector::annotationValue)
+                .ifPresent(value -> addPlaceholders(value, bound));
+
+        if (propertiesPrefix != null && !field.isStatic()) {
+            bound.add(ExtractionSupport.toEnvName(
+                    propertiesPrefix + "." + ExtractionSupport.camelToKebab(variable.getNameAsString())));
+        }
+
+        if (field.hasModifier(Modifier.Keyword.STATIC) && field.hasModifier(Modifier.Keyword.FINAL)) {
+            variable.getInitializer()
+                    .filter(Expression::isStringLiteralExpr)
+                    .map(init -> init.asStringLiteralExpr().asString())
+                    .ifPresent(value -> {
+                        bound.add(value);
+                        addPlaceholders(value, bound);
+                    });
+        }
+        return bound;
+    }
+
+    /**
+     * Ссылки метода: вызовы методов на известных получателях и чтения полей.
+     */
+    private static List<Reference> collectReferences(MethodDeclaration method, Map<String, String> fieldTypes) {
+        Map<String, String> locals = new HashMap<>();
+        for (Parameter parameter : method.getParameters()) {
+            locals.put(parameter.getNameAsString(), typeName(parameter.getType()));
+        }
+        Set<Reference> references = new LinkedHashSet<>();
+        method.getBody().ifPresent(body -> {
+            body.findAll(VariableDeclarationExpr.class).forEach(declaration ->
+                    declaration.getVariables().forEach(variable -> locals.put(variable.getNameAsString(),
+                            localType(variable))));
+
+            body.walk(node -> {
+                if (node instanceof MethodCallExpr call) {
+                    receiverType(call, locals, fieldTypes)
+                            .ifPresent(type -> references.add(new Reference(type, call.getNameAsString(), true)));
+                    if (call.getScope().isEmpty()) {
+                        references.add(new Reference(null, call.getNameAsString(), true));
+                    }
+                } else if (node instanceof FieldAccessExpr access) {
+                    Expression scope = access.getScope();
+                    if (scope instanceof ThisExpr) {
+                        references.add(new Reference(null, access.getNameAsString(), false));
+                    } else if (scope instanceof NameExpr name && isTypeName(name.getNameAsString(), locals, fieldTypes)) {
+                        references.add(new Reference(name.getNameAsString(), access.getNameAsString(), false));
+                    } else if (scope instanceof FieldAccessExpr qualified && isQualifiedTypeName(qualified)) {
+                        references.add(new Reference(qualified.toString(), access.getNameAsString(), false));
+                    }
+                } else if (node instanceof NameExpr name) {
+                    String identifier = name.getNameAsString();
+                    if (!locals.containsKey(identifier) && fieldTypes.containsKey(identifier)) {
+                        references.add(new Reference(null, identifier, false));
+                    }
+                }
+            });
+        });
+        return List.copyOf(references);
+    }
+
+    private static Optional<String> receiverType(MethodCallExpr call,
+                                                 Map<String, String> locals,
+                                                 Map<String, String> fieldTypes) {
+        Optional<Expression> scope = call.getScope();
+        if (scope.isEmpty()) {
+            return Optional.empty();
+        }
+        Expression receiver = scope.get();
+        if (receiver instanceof NameExpr name) {
+            String identifier = name.getNameAsString();
+            if (locals.containsKey(identifier)) {
+                return Optional.ofNullable(locals.get(identifier));
+            }
+            if (fieldTypes.containsKey(identifier)) {
+                return Optional.ofNullable(fieldTypes.get(identifier));
+            }
+            return isTypeName(identifier, locals, fieldTypes) ? Optional.of(identifier) : Optional.empty();
+        }
+        if (receiver instanceof FieldAccessExpr access && access.getScope() instanceof ThisExpr) {
+            return Optional.ofNullable(fieldTypes.get(access.getNameAsString()));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isTypeName(String identifier, Map<String, String> locals, Map<String, String> fieldTypes) {
+        return !identifier.isEmpty() && Character.isUpperCase(identifier.charAt(0))
+               && !locals.containsKey(identifier) && !fieldTypes.containsKey(identifier);
+    }
+
+    /**
+     * Полное имя типа вида {@code com.example.Keys} в выражении {@code com.example.Keys.DB_URL}.
+     */
+    private static boolean isQualifiedTypeName(FieldAccessExpr expression) {
+        String text = expression.toString();
+        return Character.isUpperCase(expression.getNameAsString().charAt(0))
+               && Character.isLowerCase(text.charAt(0)) && !text.startsWith("this.");
+    }
+
+    private static String localType(VariableDeclarator variable) {
+        Type type = variable.getType();
+        if (type.isVarType()) {
+            return variable.getInitializer()
+                    .filter(Expression::isObjectCreationExpr)
+                    .map(Expression::asObjectCreationExpr)
+                    .map(ObjectCreationExpr::getType)
+                    .map(SymbolCollector::typeName)
+                    .orElse(null);
+        }
+        return typeName(type);
+    }
+
+    /**
+     * Имя типа без параметров и массивов, с квалификатором, если он записан.
+     */
+    private static String typeName(Type type) {
+        Type element = type.getElementType();
+        if (element.isClassOrInterfaceType()) {
+            return element.asClassOrInterfaceType().getNameWithScope();
+        }
+        return null;
+    }
+
+    private static String configurationPrefix(AnnotationExpr annotation) {
+        return annotationValue(annotation).orElse(null);
+    }
+
+    private static Optional<String> annotationValue(AnnotationExpr annotation) {
+        Expression value = null;
+        if (annotation.isSingleMemberAnnotationExpr()) {
+            value = annotation.asSingleMemberAnnotationExpr().getMemberValue();
+        } else if (annotation.isNormalAnnotationExpr()) {
+            value = annotation.asNormalAnnotationExpr().getPairs().stream()
+                    .filter(p -> p.getNameAsString().equals("prefix") || p.getNameAsString().equals("value"))
+                    .findFirst()
+                    .map(p -> p.getValue())
+                    .orElse(null);
+        }
+        return value instanceof StringLiteralExpr literal ? Optional.of(literal.asString()) : Optional.empty();
+    }
+
+    private static void addPlaceholders(String value, Set<String> bound) {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(value);
+        while (matcher.find()) {
+            bound.add(matcher.group(1));
+        }
+    }
+}
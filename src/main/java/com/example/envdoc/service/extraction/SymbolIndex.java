@@ -0,0 +1,367 @@
+package com.example.envdoc.service.extraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Индекс символов и ссылок по всему репозиторию для межклассового анализа использований.
+ * <p>
+ * Символы — поля ({@code com.example.OrderProperties#url}) и методы
+ * ({@code com.example.OrderService#load()}) — хранятся один раз в таблице строк
+ * и адресуются целыми числами. Обратные рёбра «символ → методы, которые к нему
+ * обращаются» хранятся в сжатом виде (CSR: массив смещений и массив номеров),
+ * поэтому индекс для тысяч классов занимает несколько массивов int.
+ * <p>
+ * Корни обхода — поля, получающие значение переменной: {@code @Value},
+ * поля класса с {@code @ConfigurationProperties} и строковые константы
+ * с именем переменной. Обход в ширину по обратным рёбрам с ограничением
+ * глубины находит методы других классов, которые используют переменную
+ * через геттер, внедрённый бин или константу. Индекс неизменяем после построения.
+ */
+public final class SymbolIndex {
+
+    private static final int NONE = -1;
+
+    private final String[] symbols;
+    private final int[] referrerStart;
+    private final int[] referrers;
+    private final int[] methodSlot;
+    private final String[] methodClasses;
+    private final String[] methodNames;
+    private final int[] methodLines;
+    private final String[] methodFiles;
+    private final Map<String, int[]> seeds;
+
+    private SymbolIndex(String[] symbols,
+                        int[] referrerStart,
+                        int[] referrers,
+                        int[] methodSlot,
+                        String[] methodClasses,
+                        String[] methodNames,
+                        int[] methodLines,
+                        String[] methodFiles,
+                        Map<String, int[]> seeds) {
+        this.symbols = symbols;
+        this.referrerStart = referrerStart;
+        this.referrers = referrers;
+        this.methodSlot = methodSlot;
+        this.methodClasses = methodClasses;
+        this.methodNames = methodNames;
+        this.methodLines = methodLines;
+        this.methodFiles = methodFiles;
+        this.seeds = seeds;
+    }
+
+    /**
+     * Метод, достигнутый из поля переменной.
+     *
+     * @param className  полное имя класса метода
+     * @param methodName имя метода
+     * @param lineNumber строка объявления
+     * @param filePath   путь к файлу относительно репозитория
+     * @param via        символ, через который метод использует переменную ({@code OrderProperties.getUrl})
+     * @param depth      число переходов от поля переменной (1 — прямое обращение к полю)
+     */
+    public record Reach(String className, String methodName, int lineNumber, String filePath, String via, int depth) {
+    }
+
+    /**
+     * Создаёт построитель индекса для набора переменных: корни сохраняются только для них.
+     */
+    public static Builder builder(Set<String> variableNames) {
+        return new Builder(variableNames);
+    }
+
+    /**
+     * Методы, использующие переменную не далее {@code maxDepth} переходов от её полей,
+     * в порядке обхода в ширину.
+     */
+    public List<Reach> reachable(String variableName, int maxDepth) {
+        int[] roots = seeds.get(variableName);
+        if (roots == null || maxDepth <= 0) {
+            return List.of();
+        }
+        BitSet visited = new BitSet(symbols.length);
+        int[] frontier = roots.clone();
+        int frontierSize = frontier.length;
+        for (int root : roots) {
+            visited.set(root);
+        }
+
+        List<Reach> reached = new ArrayList<>();
+        for (int depth = 1; depth <= maxDepth && frontierSize > 0; depth++) {
+            int[] next = new int[Math.max(4, frontierSize)];
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                int symbol = frontier[i];
+                for (int edge = referrerStart[symbol]; edge < referrerStart[symbol + 1]; edge++) {
+                    int method = referrers[edge];
+                    if (visited.get(method)) {
+                        continue;
+                    }
+                    visited.set(method);
+                    int slot = methodSlot[method];
+                    reached.add(new Reach(methodClasses[slot], methodNames[slot], methodLines[slot],
+                            methodFiles[slot], displayName(symbols[symbol]), depth));
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = method;
+                }
+            }
+            frontier = next;
+            frontierSize = nextSize;
+        }
+        return reached;
+    }
+
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    public int edgeCount() {
+        return referrers.length;
+    }
+
+    /**
+     * {@code com.example.OrderProperties#getUrl()} → {@code OrderProperties.getUrl}.
+     */
+    static String displayName(String symbol) {
+        int hash = symbol.indexOf('#');
+        String type = symbol.substring(0, hash);
+        String member = symbol.substring(hash + 1);
+        if (member.endsWith("()")) {
+            member = member.substring(0, member.length() - 2);
+        }
+        return type.substring(type.lastIndexOf('.') + 1) + "." + member;
+    }
+
+    private static String fieldSymbol(String type, String field) {
+        return type + "#" + field;
+    }
+
+    private static String methodSymbol(String type, String method) {
+        return type + "#" + method + "()";
+    }
+
+    /**
+     * Построитель индекса. Файлы добавляются в любом порядке, но последовательно;
+     * ссылки разрешаются в {@link #build()}, когда известны все типы репозитория.
+     */
+    public static final class Builder {
+
+        private final Set<String> variableNames;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> symbols = new ArrayList<>();
+        private final Map<String, List<String>> typesBySimpleName = new HashMap<>();
+        private final Set<String> types = new HashSet<>();
+        private final Map<Integer, Integer> methodSlots = new HashMap<>();
+        private final List<String> methodClasses = new ArrayList<>();
+        private final List<String> methodNames = new ArrayList<>();
+        private final List<Integer> methodLines = new ArrayList<>();
+        private final List<String> methodFiles = new ArrayList<>();
+        private final Map<String, List<Integer>> seeds = new HashMap<>();
+        private final List<PendingReferences> pending = new ArrayList<>();
+
+        private Builder(Set<String> variableNames) {
+            this.variableNames = variableNames;
+        }
+
+        private record PendingReferences(int method,
+                                         String ownType,
+                                         SymbolCollector.FileSymbols file,
+                                         List<SymbolCollector.Reference> references) {
+        }
+
+        public Builder addFile(String filePath, SymbolCollector.FileSymbols file) {
+            for (SymbolCollector.TypeSymbols type : file.types()) {
+                String typeName = type.name();
+                if (types.add(typeName)) {
+                    typesBySimpleName.computeIfAbsent(typeName.substring(typeName.lastIndexOf('.') + 1),
+                            k -> new ArrayList<>(1)).add(typeName);
+                }
+                for (SymbolCollector.FieldSymbol field : type.fields()) {
+                    int id = intern(fieldSymbol(typeName, field.name()));
+                    for (String variable : field.boundVariables()) {
+                        if (variableNames.contains(variable)) {
+                            seeds.computeIfAbsent(variable, k -> new ArrayList<>(1)).add(id);
+                        }
+                    }
+                }
+                for (SymbolCollector.MethodSymbols method : type.methods()) {
+                    int id = intern(methodSymbol(typeName, method.name()));
+                    // Перегрузки объединяются в один символ; позиция — первой из них
+                    methodSlots.computeIfAbsent(id, k -> {
+                        methodClasses.add(typeName);
+                        methodNames.add(method.name());
+                        methodLines.add(method.line());
+                        methodFiles.add(filePath);
+                        return methodClasses.size() - 1;
+                    });
+                    if (!method.references().isEmpty()) {
+                        pending.add(new PendingReferences(id, typeName, file, method.references()));
+                    }
+                }
+            }
+            return this;
+        }
+
+        public SymbolIndex build() {
+            int[] targets = new int[16];
+            int[] sources = new int[16];
+            int edges = 0;
+            for (PendingReferences method : pending) {
+                for (SymbolCollector.Reference reference : method.references()) {
+                    int target = resolve(reference, method.ownType(), method.file());
+                    if (target == NONE || target == method.method()) {
+                        continue;
+                    }
+                    if (edges == targets.length) {
+                        targets = Arrays.copyOf(targets, edges * 2);
+                        sources = Arrays.copyOf(sources, edges * 2);
+                    }
+                    targets[edges] = target;
+                    sources[edges] = method.method();
+                    edges++;
+                }
+            }
+
+            // Обратные рёбра в CSR: подсчёт по целям, затем раскладка по смещениям
+            int symbolCount = symbols.size();
+            int[] referrerStart = new int[symbolCount + 1];
+            for (int i = 0; i < edges; i++) {
+                referrerStart[targets[i] + 1]++;
+            }
+            for (int i = 0; i < symbolCount; i++) {
+                referrerStart[i + 1] += referrerStart[i];
+            }
+            int[] position = Arrays.copyOf(referrerStart, symbolCount);
+            int[] referrers = new int[edges];
+            for (int i = 0; i < edges; i++) {
+                referrers[position[targets[i]]++] = sources[i];
+            }
+
+            int[] methodSlot = new int[symbolCount];
+            Arrays.fill(methodSlot, NONE);
+            methodSlots.forEach((symbol, slot) -> methodSlot[symbol] = slot);
+
+            Map<String, int[]> seedArrays = new HashMap<>(seeds.size() * 2);
+            seeds.forEach((variable, ids) ->
+                    seedArrays.put(variable, ids.stream().distinct().mapToInt(Integer::intValue).toArray()));
+
+            int[] uniqueReferrers = dedupeRuns(referrerStart, referrers);
+            return new SymbolIndex(
+                    symbols.toArray(String[]::new),
+                    referrerStart,
+                    uniqueReferrers,
+                    methodSlot,
+                    methodClasses.toArray(String[]::new),
+                    methodNames.toArray(String[]::new),
+                    methodLines.stream().mapToInt(Integer::intValue).toArray(),
+                    methodFiles.toArray(String[]::new),
+                    seedArrays);
+        }
+
+        /**
+         * Удаляет повторы внутри списка каждого символа (метод обращается к полю несколько раз
+         * через разные выражения), сдвигая смещения.
+         */
+        private static int[] dedupeRuns(int[] start, int[] referrers) {
+            int write = 0;
+            int symbolCount = start.length - 1;
+            int runStart = start[0];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int runEnd = start[symbol + 1];
+                int from = write;
+                for (int i = runStart; i < runEnd; i++) {
+                    int value = referrers[i];
+                    boolean seen = false;
+                    for (int j = from; j < write && !seen; j++) {
+                        seen = referrers[j] == value;
+                    }
+                    if (!seen) {
+                        referrers[write++] = value;
+                    }
+                }
+                runStart = runEnd;
+                start[symbol + 1] = write;
+            }
+            return write == referrers.length ? referrers : Arrays.copyOf(referrers, write);
+        }
+
+        /**
+         * Символ, на который указывает ссылка, или NONE, если тип или член не объявлен в репозитории.
+         * Вызов необъявленного геттера ({@code getUrl()}, {@code isEnabled()}, {@code url()})
+         * сводится к полю — так учитываются геттеры Lombok и аксессоры.
+         */
+        private int resolve(SymbolCollector.Reference reference, String ownType, SymbolCollector.FileSymbols file) {
+            String type = reference.type() == null ? ownType : resolveType(reference.type(), ownType, file);
+            if (type == null) {
+                return NONE;
+            }
+            String member = reference.member();
+            if (!reference.method()) {
+                return id(fieldSymbol(type, member));
+            }
+            int method = id(methodSymbol(type, member));
+            if (method != NONE) {
+                return method;
+            }
+            String field = propertyName(member);
+            return field != null ? id(fieldSymbol(type, field)) : id(fieldSymbol(type, member));
+        }
+
+        private String resolveType(String written, String ownType, SymbolCollector.FileSymbols file) {
+            if (types.contains(written)) {
+                return written;
+            }
+            int dot = written.indexOf('.');
+            String head = dot < 0 ? written : written.substring(0, dot);
+            String tail = dot < 0 ? "" : written.substring(dot);
+
+            String imported = file.imports().get(head);
+            if (imported != null && types.contains(imported + tail)) {
+                return imported + tail;
+            }
+            String nested = ownType + "." + written;
+            if (types.contains(nested)) {
+                return nested;
+            }
+            String samePackage = file.packageName().isEmpty() ? written : file.packageName() + "." + written;
+            if (types.contains(samePackage)) {
+                return samePackage;
+            }
+            List<String> candidates = typesBySimpleName.get(written.substring(written.lastIndexOf('.') + 1));
+            return candidates != null && candidates.size() == 1 && imported == null ? candidates.get(0) : null;
+        }
+
+        private static String propertyName(String method) {
+            int prefix = method.startsWith("get") ? 3 : method.startsWith("is") ? 2 : 0;
+            if (prefix == 0 || method.length() == prefix || !Character.isUpperCase(method.charAt(prefix))) {
+                return null;
+            }
+            return Character.toLowerCase(method.charAt(prefix)) + method.substring(prefix + 1);
+        }
+
+        private int intern(String symbol) {
+            Integer id = ids.get(symbol);
+            if (id == null) {
+                id = symbols.size();
+                symbols.add(symbol);
+                ids.put(symbol, id);
+            }
+            return id;
+        }
+
+        private int id(String symbol) {
+            Integer id = ids.get(symbol);
+            return id == null ? NONE : id;
+        }
+    }
+}
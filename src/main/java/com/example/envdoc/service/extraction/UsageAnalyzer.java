@@ -1,5 +1,7 @@
 package com.example.envdoc.service.extraction;
 
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.metrics.ExtractionMetrics;
 import com.example.envdoc.model.EnvVariable;
 import com.example.envdoc.model.UsagePurpose;
 import com.example.envdoc.model.VariableUsage;
@@ -7,12 +9,14 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 
 /**
@@ -24,42 +28,56 @@ import java.util.regex.Pattern;
 public class UsageAnalyzer {
 
     private final SourceCodeAnalyzer sourceCodeAnalyzer;
+    private final ModuleLayout moduleLayout;
+    private final ExtractionExecutor extractionExecutor;
+    private final ExtractionMetrics extractionMetrics;
+    private final PurposeClassifier purposeClassifier;
+    private final ExtractionConfig extractionConfig;
+    private final UsageCache usageCache;
 
-    // Паттерны для определения цели использования
-    private static final Map<Pattern, UsagePurpose> PURPOSE_PATTERNS = new LinkedHashMap<>();
-
-    static {
-        // Authentication & Security (check first - more specific)
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(security|auth|jwt|oauth|password|credential|secret)"),
-                UsagePurpose.AUTHENTICATION);
-
-        // Cache (check before database - redis is cache, not database)
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(cache|redis|ehcache|caffeine|hazelcast)"),
-                UsagePurpose.CACHE_CONFIG);
-
-        // Database
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(datasource|jdbc|hikari|database|db|postgres|mysql|oracle|mongo)"),
-                UsagePurpose.DATABASE_CONNECTION);
-
-        // External API
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(resttemplate|webclient|feign|http|client|endpoint|url|uri)"),
-                UsagePurpose.EXTERNAL_API);
-
-        // Feature flags
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(feature|flag|toggle|enabled|disabled)"),
-                UsagePurpose.FEATURE_FLAG);
+    /**
+     * Использования и символы одного файла.
+     *
+     * @param cacheEntry запись для сохранения между запусками (null, если кэш не используется)
+     */
+    private record FileAnalysis(String filePath,
+                                String module,
+                                Map<String, List<VariableUsage>> usages,
+                                SymbolCollector.FileSymbols symbols,
+                                UsageCache.FileEntry cacheEntry) {
+    }
 
-        // Logging
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(log|logging|logger|slf4j|logback)"),
-                UsagePurpose.LOGGING_CONFIG);
+    /**
+     * План инкрементального анализа по снимку прошлого запуска.
+     *
+     * @param snapshot   снимок
+     * @param addedNames переменные, которых не было в прошлом запуске
+     */
+    private record IncrementalPlan(UsageCache.Snapshot snapshot, List<String> addedNames) {
+
+        static IncrementalPlan of(UsageCache.Snapshot snapshot, Set<String> variableNames) {
+            List<String> added = variableNames.stream()
+                    .filter(name -> !snapshot.variables().contains(name))
+                    .sorted()
+                    .toList();
+            return new IncrementalPlan(snapshot, added);
+        }
 
-        // Server config
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(server|port|host|address|ssl|tls)"),
-                UsagePurpose.SERVER_CONFIG);
+        UsageCache.FileEntry previous(String filePath, String contentHash) {
+            UsageCache.FileEntry entry = snapshot.files().get(filePath);
+            return entry != null && entry.contentHash().equals(contentHash) ? entry : null;
+        }
 
-        // Messaging
-        PURPOSE_PATTERNS.put(Pattern.compile("(?i)(kafka|rabbit|mq|jms|amqp|queue|topic|message)"),
-                UsagePurpose.MESSAGING_CONFIG);
+        /**
+         * Файл не изменился, но может содержать новые имена — его нужно пересканировать.
+         */
+        boolean mayContainAddedNames(UsageCache.FileEntry entry) {
+            if (addedNames.isEmpty()) {
+                return false;
+            }
+            BloomFilter fingerprint = entry.filter();
+            return addedNames.stream().anyMatch(name -> UsageCache.mayContain(fingerprint, name));
+        }
     }
 
     /**
@@ -69,41 +87,219 @@ public class UsageAnalyzer {
      * @param repoPath    путь к репозиторию
      */
     public void analyzeUsages(Map<String, EnvVariable> variables, Path repoPath) {
+        analyzeUsages(variables, repoPath, ModuleProgressListener.NONE);
+    }
+
+    /**
+     * Анализирует использование переменных по модулям репозитория.
+     * <p>
+     * Модули и файлы внутри них обрабатываются параллельно в пуле с перехватом
+     * задач, каждый файл собирает использования в собственный буфер без общих
+     * структур. Буферы сливаются в порядке модулей и файлов с дедупликацией по паре
+     * (класс, метод) — первое вхождение сохраняется, поэтому итог не зависит
+     * от числа потоков и планирования. Для каждой переменной хранится не более
+     * {@code extraction.max-usages-per-variable} использований (см. {@link UsageCollector}),
+     * точное общее число и распределение по целям сохраняются в переменной.
+     * Затем по индексу символов всего репозитория добавляются использования в других
+     * классах — через геттеры, внедрённые бины и константы (см. {@link SymbolIndex}).
+     *
+     * @param variables Map с переменными окружения
+     * @param repoPath  путь к репозиторию
+     * @param progress  колбэк завершения модулей
+     */
+    public void analyzeUsages(Map<String, EnvVariable> variables, Path repoPath, ModuleProgressListener progress) {
+        analyzeUsages(variables, repoPath, progress, null);
+    }
+
+    /**
+     * Анализирует использование переменных с переиспользованием результатов прошлого запуска.
+     * <p>
+     * Файл с неизменным содержимым берётся из снимка, если его отпечаток точно
+     * не содержит переменных, появившихся с прошлого запуска; удалённые переменные
+     * просто отбрасываются из сохранённых результатов. Новые и изменённые файлы
+     * анализируются заново. Без ключа репозитория или при выключенном
+     * {@code extraction.incremental.enabled} анализ выполняется полностью.
+     *
+     * @param variables     Map с переменными окружения
+     * @param repoPath      путь к репозиторию
+     * @param progress      колбэк завершения модулей
+     * @param repositoryKey ключ снимка (URL и ветка репозитория), может быть null
+     */
+    public void analyzeUsages(Map<String, EnvVariable> variables,
+                              Path repoPath,
+                              ModuleProgressListener progress,
+                              String repositoryKey) {
         log.info("Analyzing variable usages in repository...");
 
         if (variables.isEmpty()) {
             return;
         }
 
-        List<Path> javaFiles = sourceCodeAnalyzer.findJavaFiles(repoPath);
-        Pattern placeholderPattern = buildPlaceholderPattern(variables.keySet());
-        Pattern stringPattern = buildStringLiteralPattern(variables.keySet());
+        List<ModuleLayout.ModuleShard> shards =
+                moduleLayout.partition(repoPath, List.of(), sourceCodeAnalyzer.findJavaFiles(repoPath));
+        Set<String> variableNames = Set.copyOf(variables.keySet());
+        VariableNameMatcher nameMatcher = VariableNameMatcher.of(variables.keySet());
+        ModuleProgress moduleProgress = new ModuleProgress(progress, shards.size());
+        int propagationDepth = extractionConfig.getUsagePropagationDepth();
+        boolean persist = repositoryKey != null && usageCache.isEnabled();
+        IncrementalPlan plan = usageCache.load(repositoryKey)
+                .map(snapshot -> IncrementalPlan.of(snapshot, variableNames))
+                .orElse(null);
+        if (plan != null) {
+            log.info("Reusing usage cache: {} files, {} new variables", plan.snapshot().files().size(),
+                    plan.addedNames().size());
+        }
 
-        for (Path javaFile : javaFiles) {
-            String relativePath = repoPath.relativize(javaFile).toString();
+        List<Callable<List<FileAnalysis>>> tasks = shards.stream()
+                .<Callable<List<FileAnalysis>>>map(shard -> () -> {
+                    List<FileAnalysis> files = analyzeModule(repoPath, shard, variableNames, nameMatcher,
+                            propagationDepth > 0, persist, plan);
+                    moduleProgress.completed(shard.name());
+                    return files;
+                })
+                .toList();
+
+        List<List<FileAnalysis>> modules = extractionExecutor.invokeAll(tasks);
+
+        // Слияние буферов файлов в порядке модулей и файлов с дедупликацией по методу
+        int usageLimit = extractionConfig.getMaxUsagesPerVariable();
+        Map<String, UsageCollector> collectors = new HashMap<>(variables.size() * 2);
+        variables.forEach((varName, variable) -> {
+            UsageCollector collector = new UsageCollector(usageLimit);
+            variable.getUsages().forEach(usage -> collector.add(usage, null));
+            collectors.put(varName, collector);
+        });
+        for (List<FileAnalysis> moduleFiles : modules) {
+            for (FileAnalysis file : moduleFiles) {
+                file.usages().forEach((varName, usages) -> {
+                    UsageCollector collector = collectors.get(varName);
+                    if (collector != null) {
+                        usages.forEach(usage -> collector.add(usage, file.module()));
+                    }
+                });
+            }
+        }
 
-            sourceCodeAnalyzer.parseJavaFile(javaFile).ifPresent(cu -> {
-                String className = sourceCodeAnalyzer.extractFullClassName(cu);
+        if (propagationDepth > 0) {
+            propagateUsages(collectors, modules, variableNames, propagationDepth);
+        }
 
-                Map<String, List<VariableUsage>> usagesByVar =
-                        findUsagesInFile(cu, variables.keySet(), relativePath, className,
-                                placeholderPattern, stringPattern);
+        if (persist) {
+            Map<String, UsageCache.FileEntry> entries = new LinkedHashMap<>();
+            modules.forEach(moduleFiles -> moduleFiles.stream()
+                    .filter(file -> file.cacheEntry() != null)
+                    .forEach(file -> entries.put(file.filePath(), file.cacheEntry())));
+            usageCache.save(repositoryKey, variableNames, entries);
+        }
+
+        collectors.forEach((varName, collector) -> {
+            EnvVariable variable = variables.get(varName);
+            variable.setUsages(collector.retained());
+            variable.setTotalUsages(collector.total());
+            variable.setUsagePurposeCounts(collector.purposeCounts());
+        });
+
+        log.info("Usage analysis completed ({} modules)", shards.size());
+    }
 
-                usagesByVar.forEach((varName, usages) -> {
-                    EnvVariable variable = variables.get(varName);
-                    if (variable != null) {
-                        variable.getUsages().addAll(usages);
+    /**
+     * Находит использования в файлах модуля и собирает символы для межклассового индекса;
+     * результаты в порядке файлов.
+     */
+    private List<FileAnalysis> analyzeModule(Path repoPath,
+                                             ModuleLayout.ModuleShard shard,
+                                             Set<String> variableNames,
+                                             VariableNameMatcher nameMatcher,
+                                             boolean collectSymbols,
+                                             boolean persist,
+                                             IncrementalPlan plan) {
+        long start = System.nanoTime();
+        List<Callable<FileAnalysis>> files = shard.javaFiles().stream()
+                .<Callable<FileAnalysis>>map(javaFile -> () -> analyzeFile(repoPath, javaFile, shard.name(),
+                        variableNames, nameMatcher, collectSymbols, persist, plan))
+                .toList();
+
+        List<FileAnalysis> analyses = extractionExecutor.invokeAll(files);
+        extractionMetrics.recordModuleShard("usages", System.nanoTime() - start, shard.size());
+        return analyses;
+    }
+
+    private FileAnalysis analyzeFile(Path repoPath,
+                                     Path javaFile,
+                                     String module,
+                                     Set<String> variableNames,
+                                     VariableNameMatcher nameMatcher,
+                                     boolean collectSymbols,
+                                     boolean persist,
+                                     IncrementalPlan plan) {
+        String relativePath = repoPath.relativize(javaFile).toString();
+        String content = sourceCodeAnalyzer.readFileContent(javaFile);
+        String contentHash = persist || plan != null ? UsageCache.hash(content) : null;
+
+        UsageCache.FileEntry previous = plan != null ? plan.previous(relativePath, contentHash) : null;
+        if (previous != null && (previous.symbols() != null || !collectSymbols)) {
+            if (!plan.mayContainAddedNames(previous)) {
+                extractionMetrics.recordUsageFile("reused");
+                Map<String, List<VariableUsage>> usages = new HashMap<>();
+                previous.usages().forEach((varName, varUsages) -> {
+                    if (variableNames.contains(varName)) {
+                        usages.put(varName, varUsages);
                     }
                 });
-            });
+                UsageCache.FileEntry entry = new UsageCache.FileEntry(contentHash, previous.fingerprint(),
+                        previous.fingerprintHashes(), usages, previous.symbols());
+                return new FileAnalysis(relativePath, module, usages, previous.symbols(), persist ? entry : null);
+            }
+            extractionMetrics.recordUsageFile("rescanned");
+        } else if (plan != null) {
+            extractionMetrics.recordUsageFile("analyzed");
         }
 
-        // Дедупликация использований
-        for (EnvVariable variable : variables.values()) {
-            variable.setUsages(deduplicateUsages(variable.getUsages()));
+        SourceText source = SourceText.of(content);
+        Optional<CompilationUnit> parsed = sourceCodeAnalyzer.parseJavaSource(javaFile, content);
+        Map<String, List<VariableUsage>> usages = parsed
+                .map(cu -> findUsagesInFile(cu, source, variableNames, relativePath,
+                        sourceCodeAnalyzer.extractFullClassName(cu), nameMatcher))
+                .orElse(Map.of());
+        SymbolCollector.FileSymbols symbols = collectSymbols ? parsed.map(SymbolCollector::collect).orElse(null) : null;
+
+        UsageCache.FileEntry entry = null;
+        if (persist) {
+            BloomFilter fingerprint = previous != null ? previous.filter() : UsageCache.fingerprint(content);
+            entry = new UsageCache.FileEntry(contentHash, fingerprint.bits(), fingerprint.hashes(), usages, symbols);
         }
+        return new FileAnalysis(relativePath, module, usages, symbols, entry);
+    }
 
-        log.info("Usage analysis completed");
+    /**
+     * Добавляет использования, достижимые из полей переменных по индексу символов
+     * не далее заданной глубины. Методы, для которых уже найдено прямое
+     * использование, не дублируются.
+     */
+    private void propagateUsages(Map<String, UsageCollector> collectors,
+                                 List<List<FileAnalysis>> modules,
+                                 Set<String> variableNames,
+                                 int maxDepth) {
+        SymbolIndex.Builder builder = SymbolIndex.builder(variableNames);
+        Map<String, String> moduleByFile = new HashMap<>();
+        for (List<FileAnalysis> moduleFiles : modules) {
+            for (FileAnalysis file : moduleFiles) {
+                if (file.symbols() != null) {
+                    builder.addFile(file.filePath(), file.symbols());
+                    moduleByFile.put(file.filePath(), file.module());
+                }
+            }
+        }
+        SymbolIndex index = builder.build();
+        log.debug("Symbol index: {} symbols, {} references", index.symbolCount(), index.edgeCount());
+
+        collectors.forEach((varName, collector) -> {
+            for (SymbolIndex.Reach reach : index.reachable(varName, maxDepth)) {
+                if (!collector.contains(reach.className(), reach.methodName())) {
+                    collector.add(buildIndirectUsage(reach), moduleByFile.get(reach.filePath()));
+                }
+            }
+        });
     }
 
     /**
@@ -111,11 +307,11 @@ public class UsageAnalyzer {
      */
     private Map<String, List<VariableUsage>> findUsagesInFile(
             CompilationUnit cu,
+            SourceText source,
             Set<String> variableNames,
             String filePath,
             String className,
-            Pattern placeholderPattern,
-            Pattern stringPattern) {
+            VariableNameMatcher nameMatcher) {
 
         Map<String, List<VariableUsage>> usages = new HashMap<>();
 
@@ -123,8 +319,7 @@ public class UsageAnalyzer {
         findValueFieldUsages(cu, variableNames, filePath, className, usages);
 
         // 2. Прямые использования имени переменной
-        findDirectUsages(cu, variableNames, filePath, className, usages,
-                placeholderPattern, stringPattern);
+        findDirectUsages(cu, source, variableNames, filePath, className, usages, nameMatcher);
 
         return usages;
     }
@@ -140,6 +335,10 @@ public class UsageAnalyzer {
 
         // Ищем поля с @Value, содержащие имя переменной
         List<FieldDeclaration> valueFields = sourceCodeAnalyzer.findFieldsWithAnnotation(cu, "Value");
+        if (valueFields.isEmpty()) {
+            return;
+        }
+        IdentifierIndex identifiers = IdentifierIndex.of(cu);
 
         for (FieldDeclaration field : valueFields) {
             field.getAnnotationByName("Value").ifPresent(annotation -> {
@@ -153,29 +352,10 @@ public class UsageAnalyzer {
                     for (VariableDeclarator varDecl : field.getVariables()) {
                         String fieldName = varDecl.getNameAsString();
 
-                        List<MethodDeclaration> methods =
-                                sourceCodeAnalyzer.findMethodsUsingField(cu, fieldName);
+                        List<MethodDeclaration> methods = identifiers.methodsUsing(fieldName);
 
                         for (MethodDeclaration method : methods) {
-                            int lineNumber = method.getBegin().map(p -> p.line).orElse(0);
-                            String methodName = method.getNameAsString();
-
-                            // Определяем цель использования
-                            UsagePurpose purpose = detectPurpose(className, methodName,
-                                    method.toString());
-
-                            // Формируем контекст
-                            String context = buildUsageContext(className, method);
-
-                            VariableUsage usage = VariableUsage.builder()
-                                    .className(className)
-                                    .methodName(methodName)
-                                    .lineNumber(lineNumber)
-                                    .filePath(filePath)
-                                    .purpose(purpose)
-                                    .usageContext(context)
-                                    .codeSnippet(extractMethodSnippet(method))
-                                    .build();
+                            VariableUsage usage = buildUsage(className, filePath, method, fieldName);
 
                             for (String varName : matchedVars) {
                                 if (variableNames.contains(varName)) {
@@ -193,39 +373,30 @@ public class UsageAnalyzer {
      * Находит прямые использования переменной в коде.
      */
     private void findDirectUsages(CompilationUnit cu,
+                                  SourceText source,
                                   Set<String> variableNames,
                                   String filePath,
                                   String className,
                                   Map<String, List<VariableUsage>> usages,
-                                  Pattern placeholderPattern,
-                                  Pattern stringPattern) {
+                                  VariableNameMatcher nameMatcher) {
 
         cu.findAll(MethodDeclaration.class).forEach(method -> {
-            String methodBody = method.getBody().map(Object::toString).orElse("");
+            BlockStmt body = method.getBody().orElse(null);
+            int bodyStart = body != null ? source.begin(body) : -1;
+            if (bodyStart < 0) {
+                return;
+            }
+            int bodyEnd = source.end(body);
 
+            // Поиск по диапазону исходника, без печати тела метода в строку
             Set<String> matchedVars = new LinkedHashSet<>();
-            matchedVars.addAll(findMatches(placeholderPattern, methodBody));
-            matchedVars.addAll(findMatches(stringPattern, methodBody));
+            nameMatcher.findAll(source.chars(), bodyStart, bodyEnd, matchedVars);
 
             if (matchedVars.isEmpty()) {
                 return;
             }
 
-            int lineNumber = method.getBegin().map(p -> p.line).orElse(0);
-            String methodName = method.getNameAsString();
-
-            UsagePurpose purpose = detectPurpose(className, methodName, methodBody);
-            String context = buildUsageContext(className, method);
-
-            VariableUsage usage = VariableUsage.builder()
-                    .className(className)
-                    .methodName(methodName)
-                    .lineNumber(lineNumber)
-                    .filePath(filePath)
-                    .purpose(purpose)
-                    .usageContext(context)
-                    .codeSnippet(extractMethodSnippet(method))
-                    .build();
+            VariableUsage usage = buildUsage(className, filePath, method, String.join(" ", matchedVars));
 
             for (String varName : matchedVars) {
                 if (variableNames.contains(varName)) {
@@ -238,16 +409,52 @@ public class UsageAnalyzer {
     /**
      * Определяет цель использования переменной.
      */
-    public UsagePurpose detectPurpose(String className, String methodName, String context) {
-        String combined = className + " " + methodName + " " + context;
+    public UsagePurpose detectPurpose(String className, String methodName, CharSequence context) {
+        return purposeClassifier.classify(className, methodName, context).primary();
+    }
 
-        for (Map.Entry<Pattern, UsagePurpose> entry : PURPOSE_PATTERNS.entrySet()) {
-            if (entry.getKey().matcher(combined).find()) {
-                return entry.getValue();
-            }
-        }
+    /**
+     * Создаёт использование для метода. Цель определяется по имени класса, метода,
+     * сигнатуре с аннотациями и дополнительным сигналам (имя поля, имена переменных),
+     * а не по телу метода, поэтому стоимость не зависит от размера метода.
+     */
+    private VariableUsage buildUsage(String className, String filePath, MethodDeclaration method, String signal) {
+        String methodName = method.getNameAsString();
+        String snippet = extractMethodSnippet(method);
+        PurposeClassifier.Classification classification =
+                purposeClassifier.classify(className, methodName, snippet, signal);
+
+        return VariableUsage.builder()
+                .className(className)
+                .methodName(methodName)
+                .lineNumber(method.getBegin().map(p -> p.line).orElse(0))
+                .filePath(filePath)
+                .purpose(classification.primary())
+                .purposes(classification.purposes())
+                .usageContext(buildUsageContext(className, method))
+                .codeSnippet(snippet)
+                .build();
+    }
 
-        return UsagePurpose.OTHER;
+    /**
+     * Создаёт использование, найденное через индекс символов. Сигнатура метода
+     * в индексе не хранится, поэтому фрагмент кода не заполняется.
+     */
+    private VariableUsage buildIndirectUsage(SymbolIndex.Reach reach) {
+        String className = reach.className();
+        PurposeClassifier.Classification classification =
+                purposeClassifier.classify(className, reach.methodName(), reach.via());
+
+        return VariableUsage.builder()
+                .className(className)
+                .methodName(reach.methodName())
+                .lineNumber(reach.lineNumber())
+                .filePath(reach.filePath())
+                .purpose(classification.primary())
+                .purposes(classification.purposes())
+                .usageContext("Indirect use via " + reach.via() + " in " +
+                              className.substring(className.lastIndexOf('.') + 1))
+                .build();
     }
 
     /**
@@ -304,22 +511,6 @@ public class UsageAnalyzer {
         return snippet.toString();
     }
 
-    /**
-     * Удаляет дублирующиеся использования.
-     */
-    private List<VariableUsage> deduplicateUsages(List<VariableUsage> usages) {
-        Map<String, VariableUsage> unique = new LinkedHashMap<>();
-
-        for (VariableUsage usage : usages) {
-            String key = usage.getClassName() + ":" + usage.getMethodName();
-            if (!unique.containsKey(key)) {
-                unique.put(key, usage);
-            }
-        }
-
-        return new ArrayList<>(unique.values());
-    }
-
     private static final Pattern PLACEHOLDER_PATTERN =
             Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)(:[^}]*)?}");
 
@@ -331,33 +522,4 @@ public class UsageAnalyzer {
         }
         return vars;
     }
-
-    private Pattern buildPlaceholderPattern(Set<String> variableNames) {
-        if (variableNames.isEmpty()) {
-            return Pattern.compile("$^");
-        }
-        String joined = variableNames.stream()
-                .map(Pattern::quote)
-                .collect(java.util.stream.Collectors.joining("|"));
-        return Pattern.compile("\\$\\{(" + joined + ")\\}");
-    }
-
-    private Pattern buildStringLiteralPattern(Set<String> variableNames) {
-        if (variableNames.isEmpty()) {
-            return Pattern.compile("$^");
-        }
-        String joined = variableNames.stream()
-                .map(Pattern::quote)
-                .collect(java.util.stream.Collectors.joining("|"));
-        return Pattern.compile("\"(" + joined + ")\"");
-    }
-
-    private Set<String> findMatches(Pattern pattern, String text) {
-        Set<String> matches = new LinkedHashSet<>();
-        var matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            matches.add(matcher.group(1));
-        }
-        return matches;
-    }
 }
@@ -0,0 +1,185 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.model.VariableUsage;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Хранилище результатов анализа использований между запусками.
+ * <p>
+ * Для каждого репозитория сохраняется снимок: набор переменных прошлого запуска
+ * и для каждого Java файла — хеш содержимого, отпечаток (фильтр Блума по
+ * токенам идентификаторов и литералов), найденные в файле использования и
+ * символы для межклассового индекса. Снимок пишется в сжатый JSON в
+ * {@code extraction.incremental.cache-dir}; повреждённый или устаревший снимок
+ * игнорируется, и анализ выполняется полностью.
+ */
+@Slf4j
+@Component
+public class UsageCache {
+
+    /**
+     * Версия формата: меняется при изменении логики поиска использований.
+     */
+    private static final int FORMAT_VERSION = 1;
+    private static final double FINGERPRINT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final ExtractionConfig.Incremental config;
+    private final String settings;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public UsageCache(ExtractionConfig extractionConfig) {
+        this.config = extractionConfig.getIncremental();
+        // Результаты зависят от правил классификации и глубины распространения
+        this.settings = FORMAT_VERSION + ":" + extractionConfig.getUsagePropagationDepth() + ":"
+                        + extractionConfig.getPurpose();
+    }
+
+    /**
+     * Сохранённый результат одного файла.
+     *
+     * @param contentHash       SHA-256 содержимого
+     * @param fingerprint       биты фильтра Блума по токенам файла
+     * @param fingerprintHashes число хеш-функций фильтра
+     * @param usages            использования по именам переменных
+     * @param symbols           символы файла (null, если распространение выключено)
+     */
+    public record FileEntry(String contentHash,
+                            long[] fingerprint,
+                            int fingerprintHashes,
+                            Map<String, List<VariableUsage>> usages,
+                            SymbolCollector.FileSymbols symbols) {
+
+        public BloomFilter filter() {
+            return BloomFilter.restore(fingerprint, fingerprintHashes);
+        }
+    }
+
+    /**
+     * Снимок анализа репозитория.
+     *
+     * @param settings  настройки, с которыми получен снимок
+     * @param variables имена переменных прошлого запуска
+     * @param files     результаты по относительным путям файлов
+     */
+    public record Snapshot(String settings, Set<String> variables, Map<String, FileEntry> files) {
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public Optional<Snapshot> load(String repositoryKey) {
+        if (!isEnabled() || repositoryKey == null) {
+            return Optional.empty();
+        }
+        Path file = snapshotFile(repositoryKey);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            Snapshot snapshot = objectMapper.readValue(in, Snapshot.class);
+            if (!settings.equals(snapshot.settings())) {
+                log.info("Usage cache for {} was built with other settings, ignoring", repositoryKey);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read usage cache {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(String repositoryKey, Set<String> variables, Map<String, FileEntry> files) {
+        if (!isEnabled() || repositoryKey == null) {
+            return;
+        }
+        Path file = snapshotFile(repositoryKey);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "usages", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, new Snapshot(settings, variables, files));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write usage cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path snapshotFile(String repositoryKey) {
+        return Path.of(config.getCacheDir()).resolve(hash(repositoryKey) + ".json.gz");
+    }
+
+    /**
+     * SHA-256 строки в шестнадцатеричном виде.
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Отпечаток файла: все максимальные последовательности символов {@code [A-Za-z0-9_.-]}.
+     * Имя переменной ищется в контекстах {@code "NAME"} и {@code ${NAME}}, где оно
+     * ограничено кавычками или скобками, поэтому всегда совпадает с одним токеном.
+     */
+    public static BloomFilter fingerprint(String content) {
+        Set<String> tokens = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= content.length(); i++) {
+            boolean tokenChar = i < content.length() && isTokenChar(content.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(content.substring(start, i));
+                start = -1;
+            }
+        }
+        return BloomFilter.of(tokens, FINGERPRINT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Может ли имя встречаться в файле с таким отпечатком. Имена с символами вне
+     * токенов отпечатком не покрываются и считаются возможными.
+     */
+    public static boolean mayContain(BloomFilter fingerprint, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (!isTokenChar(name.charAt(i))) {
+                return true;
+            }
+        }
+        return fingerprint.mightContain(name);
+    }
+
+    private static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+               || c == '_' || c == '.' || c == '-';
+    }
+}
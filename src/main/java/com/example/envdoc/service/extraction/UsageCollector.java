@@ -0,0 +1,188 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableUsage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ограниченный сборщик использований одной переменной.
+ * <p>
+ * Считает точное число уникальных использований (по паре класс, метод) и их
+ * распределение по целям, но хранит не более {@code limit} кандидатов на переменную.
+ * При переполнении новый кандидат вытесняет кандидата самой представленной цели, если
+ * его цель представлена заметно реже; иначе он соревнуется только с кандидатами своей цели,
+ * и вытесняется наименее информативный из модуля, который уже представлен. Информативность —
+ * прямое использование против найденного через индекс символов и аннотированный метод
+ * (@Bean, @Scheduled и т.п.). Использования возвращаются в порядке поступления, поэтому
+ * результат детерминирован при детерминированном порядке добавления.
+ * Сборщик не потокобезопасен.
+ */
+final class UsageCollector {
+
+    private static final Comparator<Candidate> BY_SCORE =
+            Comparator.comparingInt(Candidate::score).reversed().thenComparingLong(Candidate::order);
+
+    private final int limit;
+    private final Set<UsageKey> seen = new HashSet<>();
+    private final int[] purposeCounts = new int[UsagePurpose.values().length];
+    private final List<Candidate> kept = new ArrayList<>();
+    private long sequence;
+
+    /**
+     * @param limit максимальное число хранимых использований (0 — без ограничения)
+     */
+    UsageCollector(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Ключ дедупликации: одно использование на метод класса (перегрузки объединяются).
+     */
+    record UsageKey(String className, String methodName) {
+
+        static UsageKey of(VariableUsage usage) {
+            return new UsageKey(usage.getClassName(), usage.getMethodName());
+        }
+    }
+
+    private record Candidate(VariableUsage usage, UsagePurpose purpose, String module, int score, long order) {
+    }
+
+    boolean contains(String className, String methodName) {
+        return seen.contains(new UsageKey(className, methodName));
+    }
+
+    /**
+     * Добавляет использование, если метод ещё не учтён.
+     *
+     * @param usage  использование
+     * @param module модуль файла использования
+     * @return true, если использование новое
+     */
+    boolean add(VariableUsage usage, String module) {
+        if (!seen.add(UsageKey.of(usage))) {
+            return false;
+        }
+        UsagePurpose purpose = usage.getPurpose() != null ? usage.getPurpose() : UsagePurpose.OTHER;
+        purposeCounts[purpose.ordinal()]++;
+
+        String moduleName = module != null ? module : "";
+        Candidate candidate = new Candidate(usage, purpose, moduleName, score(usage), sequence++);
+        if (limit <= 0 || kept.size() < limit) {
+            kept.add(candidate);
+            return true;
+        }
+
+        int[] keptByPurpose = new int[UsagePurpose.values().length];
+        kept.forEach(c -> keptByPurpose[c.purpose().ordinal()]++);
+        UsagePurpose crowded = purpose;
+        for (UsagePurpose other : UsagePurpose.values()) {
+            if (keptByPurpose[other.ordinal()] > keptByPurpose[crowded.ordinal()]) {
+                crowded = other;
+            }
+        }
+        // Цель нового кандидата представлена заметно реже: он вытесняет кандидата самой частой цели
+        if (keptByPurpose[purpose.ordinal()] + 1 < keptByPurpose[crowded.ordinal()]) {
+            kept.set(weakest(crowded), candidate);
+            return true;
+        }
+        if (keptByPurpose[purpose.ordinal()] == 0) {
+            return true;
+        }
+
+        int weakest = weakest(purpose);
+        Candidate current = kept.get(weakest);
+        boolean newModule = kept.stream()
+                .noneMatch(c -> c.purpose() == purpose && c.module().equals(moduleName));
+        boolean currentRedundant = kept.stream()
+                .filter(c -> c.purpose() == purpose && c.module().equals(current.module()))
+                .count() > 1;
+        // Замена не должна уменьшать число представленных модулей
+        boolean keepsModules = newModule || currentRedundant;
+        if (keepsModules && ((newModule && currentRedundant) || candidate.score() > current.score())) {
+            kept.set(weakest, candidate);
+        }
+        return true;
+    }
+
+    /**
+     * Точное число уникальных использований.
+     */
+    int total() {
+        return seen.size();
+    }
+
+    Map<UsagePurpose, Integer> purposeCounts() {
+        Map<UsagePurpose, Integer> counts = new EnumMap<>(UsagePurpose.class);
+        for (UsagePurpose purpose : UsagePurpose.values()) {
+            if (purposeCounts[purpose.ordinal()] > 0) {
+                counts.put(purpose, purposeCounts[purpose.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Сохранённые использования (не более limit) в порядке добавления.
+     */
+    List<VariableUsage> retained() {
+        List<Candidate> chosen = new ArrayList<>(kept);
+        chosen.sort(Comparator.comparingLong(Candidate::order));
+        List<VariableUsage> usages = new ArrayList<>(chosen.size());
+        chosen.forEach(c -> usages.add(c.usage()));
+        return usages;
+    }
+
+    /**
+     * Кандидат цели на вытеснение: худший по информативности, при равенстве — более поздний,
+     * причём кандидаты из модулей, представленных в цели несколько раз, вытесняются первыми.
+     */
+    private int weakest(UsagePurpose purpose) {
+        Map<String, Integer> modules = new HashMap<>();
+        kept.stream()
+                .filter(c -> c.purpose() == purpose)
+                .forEach(c -> modules.merge(c.module(), 1, Integer::sum));
+        int weakest = -1;
+        for (int i = 0; i < kept.size(); i++) {
+            Candidate c = kept.get(i);
+            if (c.purpose() == purpose && (weakest < 0 || isWeaker(c, kept.get(weakest), modules))) {
+                weakest = i;
+            }
+        }
+        return weakest;
+    }
+
+    private static boolean isWeaker(Candidate a, Candidate b, Map<String, Integer> modules) {
+        boolean aRedundant = modules.get(a.module()) > 1;
+        boolean bRedundant = modules.get(b.module()) > 1;
+        if (aRedundant != bRedundant) {
+            return aRedundant;
+        }
+        return BY_SCORE.compare(a, b) > 0;
+    }
+
+    /**
+     * Информативность использования: прямое (есть сигнатура) важнее найденного через индекс,
+     * аннотированный метод (@Bean, @Scheduled, @PostConstruct) — точка входа фреймворка,
+     * несколько целей — больше контекста для описания.
+     */
+    static int score(VariableUsage usage) {
+        String snippet = usage.getCodeSnippet();
+        int score = snippet != null ? 2 : 1;
+        if (snippet != null && snippet.startsWith("@")) {
+            score += 2;
+        }
+        if (usage.getPurposes() != null && usage.getPurposes().size() > 1) {
+            score++;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.envdoc.service.extraction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Поиск имён переменных в тексте автоматом Ахо-Корасик.
+ * <p>
+ * Находит имена в контекстах {@code ${NAME}} и {@code "NAME"} за один проход
+ * по тексту; время поиска линейно по длине текста и не зависит от числа имён,
+ * в отличие от регулярного выражения с альтернативой из всех имён.
+ * Переходы хранятся в сжатом виде (отсортированные массивы рёбер на состояние),
+ * автомат неизменяем и может использоваться из нескольких потоков.
+ */
+public final class VariableNameMatcher {
+
+    private static final int NONE = -1;
+
+    private final String[] names;
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] outputLink;
+
+    private VariableNameMatcher(String[] names, List<TreeMap<Character, Integer>> children, int[] output) {
+        this.names = names;
+        this.output = output;
+
+        int states = children.size();
+        this.edgeStart = new int[states + 1];
+        int edges = 0;
+        for (int state = 0; state < states; state++) {
+            edgeStart[state] = edges;
+            edges += children.get(state).size();
+        }
+        edgeStart[states] = edges;
+
+        this.edgeChars = new char[edges];
+        this.edgeTargets = new int[edges];
+        for (int state = 0; state < states; state++) {
+            int edge = edgeStart[state];
+            for (Map.Entry<Character, Integer> child : children.get(state).entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue();
+                edge++;
+            }
+        }
+
+        this.fail = new int[states];
+        this.outputLink = new int[states];
+        buildLinks();
+    }
+
+    /**
+     * Строит автомат по именам переменных. Пустые имена и повторы игнорируются.
+     *
+     * @param variableNames имена переменных
+     * @return автомат
+     */
+    public static VariableNameMatcher of(Collection<String> variableNames) {
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(variableNames));
+        unique.removeIf(name -> name == null || name.isEmpty());
+
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        children.add(new TreeMap<>());
+        Map<Integer, Integer> terminals = new HashMap<>();
+
+        for (int id = 0; id < unique.size(); id++) {
+            String name = unique.get(id);
+            int state = 0;
+            for (int i = 0; i < name.length(); i++) {
+                Integer next = children.get(state).get(name.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    children.get(state).put(name.charAt(i), next);
+                }
+                state = next;
+            }
+            terminals.put(state, id);
+        }
+
+        int[] output = new int[children.size()];
+        Arrays.fill(output, NONE);
+        terminals.forEach((state, id) -> output[state] = id);
+        return new VariableNameMatcher(unique.toArray(String[]::new), children, output);
+    }
+
+    /**
+     * Имена, встречающиеся в тексте как {@code ${NAME}} или {@code "NAME"}, в порядке первого вхождения.
+     */
+    public Set<String> findAll(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        Set<String> matches = new LinkedHashSet<>();
+        findAll(chars, 0, chars.length, matches);
+        return matches;
+    }
+
+    /**
+     * Ищет имена в диапазоне {@code [from, to)} массива символов.
+     * Ограничители проверяются только внутри диапазона.
+     *
+     * @param text    текст
+     * @param from    начало диапазона (включительно)
+     * @param to      конец диапазона (не включительно)
+     * @param matches множество, в которое добавляются найденные имена
+     */
+    public void findAll(char[] text, int from, int to, Set<String> matches) {
+        if (names.length == 0) {
+            return;
+        }
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = next(state, text[i]);
+            int match = output[state] != NONE ? state : outputLink[state];
+            while (match != NONE) {
+                String name = names[output[match]];
+                int start = i - name.length() + 1;
+                if (isDelimited(text, from, to, start, i + 1)) {
+                    matches.add(name);
+                }
+                match = outputLink[match];
+            }
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int target = transition(state, c);
+            if (target != NONE) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int transition(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return NONE;
+    }
+
+    private void buildLinks() {
+        outputLink[0] = NONE;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int edge = edgeStart[0]; edge < edgeStart[1]; edge++) {
+            int child = edgeTargets[edge];
+            fail[child] = 0;
+            outputLink[child] = NONE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int edge = edgeStart[state]; edge < edgeStart[state + 1]; edge++) {
+                int child = edgeTargets[edge];
+                int fallback = next(fail[state], edgeChars[edge]);
+                fail[child] = fallback;
+                outputLink[child] = output[fallback] != NONE ? fallback : outputLink[fallback];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * {@code ${NAME}} или {@code "NAME"}: окружение совпадения внутри диапазона.
+     */
+    private static boolean isDelimited(char[] text, int from, int to, int start, int end) {
+        if (end >= to || start <= from) {
+            return false;
+        }
+        char after = text[end];
+        char before = text[start - 1];
+        if (before == '"' && after == '"') {
+            return true;
+        }
+        return before == '{' && after == '}' && start - 2 >= from && text[start - 2] == '$';
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Извлекает переменные из классов с @ConfigurationProperties.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfigPropertiesExtractorPlugin implements EnvVarExtractorPlugin {
+
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+
+    @Override
+    public DefinitionType type() {
+        return DefinitionType.CONFIG_PROPERTIES;
+    }
+
+    @Override
+    public void extract(JavaFileContext file, ExtractionSink sink) {
+        CompilationUnit cu = file.getCu();
+        if (!sourceCodeAnalyzer.hasClassAnnotation(cu, "ConfigurationProperties")) {
+            return;
+        }
+
+        // Находим prefix аннотации
+        cu.findAll(AnnotationExpr.class).stream()
+                .filter(a -> a.getNameAsString().equals("ConfigurationProperties"))
+                .findFirst()
+                .ifPresent(annotation -> {
+                    String prefix = extractConfigPropertiesPrefix(annotation);
+                    if (prefix != null) {
+                        // Анализируем поля класса
+                        List<FieldDeclaration> fields = cu.findAll(FieldDeclaration.class);
+                        sink.examined(fields.size());
+                        fields.forEach(field -> {
+                            field.getVariables().forEach(var -> {
+                                String propertyName = prefix + "." + ExtractionSupport.camelToKebab(var.getNameAsString());
+                                String envVarName = ExtractionSupport.toEnvName(propertyName);
+
+                                int lineNumber = field.getBegin().map(p -> p.line).orElse(0);
+                                String defaultValue = ExtractionSupport.resolvePropertyDefault(
+                                        file.getPropertyDefaults(), propertyName);
+                                if (defaultValue == null) {
+                                    defaultValue = var.getInitializer()
+                                            .map(ExtractionSupport::extractLiteralValue)
+                                            .orElse(null);
+                                }
+
+                                VariableDefinition definition = VariableDefinition.builder()
+                                        .type(DefinitionType.CONFIG_PROPERTIES)
+                                        .filePath(file.getFilePath())
+                                        .lineNumber(lineNumber)
+                                        .className(file.getClassName())
+                                        .fieldOrMethodName(var.getNameAsString())
+                                        .javaType(var.getTypeAsString())
+                                        .codeSnippet(field.toString())
+                                        .moduleName(file.getModuleName())
+                                        .build();
+
+                                sink.add(VariableCandidate.literal(envVarName, defaultValue,
+                                        defaultValue == null, definition));
+                            });
+                        });
+                    }
+                });
+    }
+
+    private String extractConfigPropertiesPrefix(AnnotationExpr annotation) {
+        if (annotation.isSingleMemberAnnotationExpr()) {
+            return annotation.asSingleMemberAnnotationExpr()
+                    .getMemberValue().toString()
+                    .replace("\"", "");
+        } else if (annotation.isNormalAnnotationExpr()) {
+            return annotation.asNormalAnnotationExpr().getPairs().stream()
+                    .filter(p -> p.getNameAsString().equals("prefix") || p.getNameAsString().equals("value"))
+                    .findFirst()
+                    .map(p -> p.getValue().toString().replace("\"", ""))
+                    .orElse(null);
+        }
+        return null;
+    }
+}
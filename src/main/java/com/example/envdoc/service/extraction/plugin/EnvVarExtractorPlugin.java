@@ -0,0 +1,29 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+
+/**
+ * Расширение для извлечения переменных окружения из Java файла.
+ * <p>
+ * Реализации регистрируются как Spring бины и подхватываются
+ * {@link com.example.envdoc.service.extraction.EnvVarExtractor}. Плагины одного файла
+ * выполняются параллельно над общим CompilationUnit, поэтому AST нельзя изменять.
+ */
+public interface EnvVarExtractorPlugin {
+
+    /**
+     * Тип определения, который находит плагин. По нему плагин включается
+     * в запросе, а его метрики помечаются тегом plugin.
+     *
+     * @return тип определения
+     */
+    DefinitionType type();
+
+    /**
+     * Извлекает кандидатов в переменные из файла.
+     *
+     * @param file разобранный файл и общий контекст извлечения
+     * @param sink приёмник кандидатов и счётчик посещённых узлов
+     */
+    void extract(JavaFileContext file, ExtractionSink sink);
+}
@@ -0,0 +1,57 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Извлекает переменные из Spring Environment API.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnvironmentApiExtractorPlugin implements EnvVarExtractorPlugin {
+
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+
+    @Override
+    public DefinitionType type() {
+        return DefinitionType.ENVIRONMENT_API;
+    }
+
+    @Override
+    public void extract(JavaFileContext file, ExtractionSink sink) {
+        List<MethodCallExpr> getPropertyCalls = sourceCodeAnalyzer.findMethodCalls(file.getCu(), "getProperty");
+        sink.examined(getPropertyCalls.size());
+
+        for (MethodCallExpr call : getPropertyCalls) {
+            // Проверяем, что это вызов на Environment объекте
+            if (file.getReceivers().isEnvironmentCall(call)) {
+                if (call.getArguments().isEmpty()) {
+                    continue;
+                }
+                file.getConstantIndex().capture(call.getArgument(0)).ifPresent(propName -> {
+                    int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
+                    String methodName = file.findContainingMethodName(lineNumber);
+
+                    VariableDefinition definition = VariableDefinition.builder()
+                            .type(DefinitionType.ENVIRONMENT_API)
+                            .filePath(file.getFilePath())
+                            .lineNumber(lineNumber)
+                            .className(file.getClassName())
+                            .fieldOrMethodName(methodName)
+                            .codeSnippet(call.toString())
+                            .moduleName(file.getModuleName())
+                            .build();
+
+                    sink.add(new VariableCandidate(propName, ExtractionSupport::environmentPropertyToEnvName,
+                            file.captureDefault(call), null, definition));
+                });
+            }
+        }
+    }
+}
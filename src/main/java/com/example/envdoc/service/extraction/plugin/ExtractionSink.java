@@ -0,0 +1,23 @@
+package com.example.envdoc.service.extraction.plugin;
+
+/**
+ * Приёмник результатов плагина. Для каждого запуска плагина создаётся свой экземпляр,
+ * поэтому реализации не обязаны быть потокобезопасными.
+ */
+public interface ExtractionSink {
+
+    /**
+     * Добавляет кандидата в переменные окружения.
+     *
+     * @param candidate кандидат
+     */
+    void add(VariableCandidate candidate);
+
+    /**
+     * Учитывает узлы AST, которые плагин отобрал и разобрал как возможные
+     * определения (вызовы, поля), для метрик. Обход остального дерева не учитывается.
+     *
+     * @param nodes количество разобранных узлов
+     */
+    void examined(int nodes);
+}
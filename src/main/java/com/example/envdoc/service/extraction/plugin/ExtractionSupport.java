@@ -0,0 +1,104 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.github.javaparser.ast.expr.Expression;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Общие правила именования и разбора значений для экстракторов.
+ */
+public final class ExtractionSupport {
+
+    /**
+     * Placeholder ${NAME:default}.
+     * Поддерживаем как env-стиль (UPPER_SNAKE), так и property-стиль (db.url, my-key)
+     */
+    public static final Pattern ENV_VAR_PATTERN =
+            Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)(:[^}]*)?}");
+
+    private ExtractionSupport() {
+    }
+
+    /**
+     * Имя свойства в формате переменной окружения (db.pool-size -> DB_POOL_SIZE).
+     */
+    public static String toEnvName(String propertyName) {
+        return propertyName.toUpperCase().replace(".", "_").replace("-", "_");
+    }
+
+    /**
+     * Имя переменной для Environment.getProperty: содержимое placeholder ${...}
+     * или имя свойства в формате переменной окружения.
+     */
+    public static String environmentPropertyToEnvName(String propName) {
+        Matcher matcher = ENV_VAR_PATTERN.matcher(propName);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return toEnvName(propName);
+    }
+
+    public static String camelToKebab(String camelCase) {
+        return camelCase.replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
+    }
+
+    /**
+     * Значение литерала (строка, число, boolean, char) или null для прочих выражений.
+     */
+    public static String extractLiteralValue(Expression expr) {
+        if (expr.isStringLiteralExpr()) {
+            return expr.asStringLiteralExpr().getValue();
+        }
+        if (expr.isBooleanLiteralExpr()) {
+            return Boolean.toString(expr.asBooleanLiteralExpr().getValue());
+        }
+        if (expr.isIntegerLiteralExpr()) {
+            return expr.asIntegerLiteralExpr().getValue();
+        }
+        if (expr.isLongLiteralExpr()) {
+            return expr.asLongLiteralExpr().getValue();
+        }
+        if (expr.isDoubleLiteralExpr()) {
+            return expr.asDoubleLiteralExpr().getValue();
+        }
+        if (expr.isCharLiteralExpr()) {
+            return String.valueOf(expr.asCharLiteralExpr().getValue());
+        }
+        return null;
+    }
+
+    /**
+     * Ищет значение свойства по relaxed binding ключам (db.pool-size, db.pool_size, db_pool_size...).
+     *
+     * @param defaults     значения из конфигурационных файлов (ключи нормализованы)
+     * @param propertyName имя свойства
+     * @return значение или null
+     */
+    public static String resolvePropertyDefault(Map<String, String> defaults, String propertyName) {
+        for (String candidate : relaxedPropertyKeys(propertyName)) {
+            String value = defaults.get(normalizePropertyKey(candidate));
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public static String normalizePropertyKey(String key) {
+        return key == null ? "" : key.trim().toLowerCase();
+    }
+
+    private static Set<String> relaxedPropertyKeys(String propertyName) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(propertyName);
+        keys.add(propertyName.replace('-', '_'));
+        keys.add(propertyName.replace('.', '_'));
+        keys.add(propertyName.replace('.', '-'));
+        keys.add(propertyName.replace('.', '_').replace('-', '_'));
+        return keys;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.service.extraction.ConstantIndex;
+import com.example.envdoc.service.extraction.EnvironmentReceiverClassifier;
+import com.example.envdoc.service.extraction.IdentifierIndex;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Разобранный Java файл и общий контекст извлечения, передаваемый плагинам.
+ */
+@Getter
+@Builder
+public class JavaFileContext {
+
+    private final CompilationUnit cu;
+
+    private final Path repoPath;
+
+    /**
+     * Путь к файлу относительно репозитория
+     */
+    private final String filePath;
+
+    private final String className;
+
+    private final String moduleName;
+
+    /**
+     * Индекс строковых констант репозитория (заполняется по мере обхода)
+     */
+    private final ConstantIndex constantIndex;
+
+    /**
+     * Классификация получателей getProperty для этого файла
+     */
+    private final EnvironmentReceiverClassifier.FileSession receivers;
+
+    /**
+     * Значения свойств из конфигурационных файлов (нормализованные ключи)
+     */
+    private final Map<String, String> propertyDefaults;
+
+    /**
+     * Индекс идентификаторов файла: методы, использующие поле, и поиск метода по строке
+     */
+    private final IdentifierIndex identifiers;
+
+    /**
+     * Имя метода, содержащего указанную строку, или "unknown".
+     */
+    public String findContainingMethodName(int lineNumber) {
+        return identifiers.methodAt(lineNumber)
+                .map(MethodDeclaration::getNameAsString)
+                .orElse("unknown");
+    }
+
+    /**
+     * Захватывает значение по умолчанию (второй аргумент getProperty): литерал или константу.
+     */
+    public VariableCandidate.DefaultArgument captureDefault(MethodCallExpr call) {
+        if (call.getArguments().size() < 2) {
+            return null;
+        }
+        Expression argument = call.getArgument(1);
+        String literal = ExtractionSupport.extractLiteralValue(argument);
+        if (literal != null) {
+            return new VariableCandidate.DefaultArgument(literal, null);
+        }
+        return constantIndex.capture(argument)
+                .map(expression -> new VariableCandidate.DefaultArgument(null, expression))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+
+/**
+ * Извлекает переменные из аннотаций @Value.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpringValueExtractorPlugin implements EnvVarExtractorPlugin {
+
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+
+    @Override
+    public DefinitionType type() {
+        return DefinitionType.SPRING_VALUE;
+    }
+
+    @Override
+    public void extract(JavaFileContext file, ExtractionSink sink) {
+        List<FieldDeclaration> fields = sourceCodeAnalyzer.findFieldsWithAnnotation(file.getCu(), "Value");
+        sink.examined(fields.size());
+
+        for (FieldDeclaration field : fields) {
+            Optional<AnnotationExpr> valueAnnotation = field.getAnnotationByName("Value");
+            if (valueAnnotation.isEmpty()) continue;
+
+            Optional<String> annotationContent = sourceCodeAnalyzer.extractValueAnnotationContent(valueAnnotation.get());
+            if (annotationContent.isEmpty()) continue;
+
+            String content = annotationContent.get();
+            Matcher matcher = ExtractionSupport.ENV_VAR_PATTERN.matcher(content);
+
+            while (matcher.find()) {
+                String varName = matcher.group(1);
+                String defaultValue = matcher.group(2);
+
+                if (defaultValue != null && defaultValue.startsWith(":")) {
+                    defaultValue = defaultValue.substring(1);
+                }
+
+                String fieldName = field.getVariables().stream()
+                        .findFirst()
+                        .map(VariableDeclarator::getNameAsString)
+                        .orElse("unknown");
+
+                int lineNumber = field.getBegin().map(p -> p.line).orElse(0);
+
+                VariableDefinition definition = VariableDefinition.builder()
+                        .type(DefinitionType.SPRING_VALUE)
+                        .filePath(file.getFilePath())
+                        .lineNumber(lineNumber)
+                        .className(file.getClassName())
+                        .fieldOrMethodName(fieldName)
+                        .javaType(field.getVariable(0).getTypeAsString())
+                        .codeSnippet(field.toString())
+                        .moduleName(file.getModuleName())
+                        .build();
+
+                // YAML приоритетнее: при совпадении имени сохраняется первое определение
+                sink.add(VariableCandidate.literal(varName, defaultValue,
+                        defaultValue == null || defaultValue.isBlank(), definition));
+            }
+        }
+    }
+}
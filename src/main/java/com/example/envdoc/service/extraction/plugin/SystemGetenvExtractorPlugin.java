@@ -0,0 +1,56 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Извлекает переменные из вызовов System.getenv().
+ */
+@Component
+@RequiredArgsConstructor
+public class SystemGetenvExtractorPlugin implements EnvVarExtractorPlugin {
+
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+
+    @Override
+    public DefinitionType type() {
+        return DefinitionType.SYSTEM_GETENV;
+    }
+
+    @Override
+    public void extract(JavaFileContext file, ExtractionSink sink) {
+        List<MethodCallExpr> getenvCalls = sourceCodeAnalyzer.findMethodCalls(file.getCu(), "getenv");
+        sink.examined(getenvCalls.size());
+
+        for (MethodCallExpr call : getenvCalls) {
+            if (call.getScope().map(s -> s.toString().equals("System")).orElse(false)) {
+                call.getArguments().forEach(arg -> file.getConstantIndex().capture(arg).ifPresent(name -> {
+                    int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
+
+                    // Найти метод, содержащий этот вызов
+                    String methodName = file.findContainingMethodName(lineNumber);
+
+                    VariableDefinition definition = VariableDefinition.builder()
+                            .type(DefinitionType.SYSTEM_GETENV)
+                            .filePath(file.getFilePath())
+                            .lineNumber(lineNumber)
+                            .className(file.getClassName())
+                            .fieldOrMethodName(methodName)
+                            .codeSnippet(call.toString())
+                            .moduleName(file.getModuleName())
+                            .build();
+
+                    // System.getenv обычно для обязательных переменных
+                    sink.add(new VariableCandidate(name, UnaryOperator.identity(), null, true, definition));
+                }));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Извлекает переменные из вызовов System.getProperty().
+ */
+@Component
+@RequiredArgsConstructor
+public class SystemPropertyExtractorPlugin implements EnvVarExtractorPlugin {
+
+    private final SourceCodeAnalyzer sourceCodeAnalyzer;
+
+    @Override
+    public DefinitionType type() {
+        return DefinitionType.SYSTEM_PROPERTY;
+    }
+
+    @Override
+    public void extract(JavaFileContext file, ExtractionSink sink) {
+        List<MethodCallExpr> getPropertyCalls = sourceCodeAnalyzer.findMethodCalls(file.getCu(), "getProperty");
+        sink.examined(getPropertyCalls.size());
+
+        for (MethodCallExpr call : getPropertyCalls) {
+            if (call.getScope().map(s -> s.toString().equals("System")).orElse(false)) {
+                if (call.getArguments().isEmpty()) {
+                    continue;
+                }
+                file.getConstantIndex().capture(call.getArgument(0)).ifPresent(propName -> {
+                    int lineNumber = call.getBegin().map(p -> p.line).orElse(0);
+                    String methodName = file.findContainingMethodName(lineNumber);
+
+                    VariableDefinition definition = VariableDefinition.builder()
+                            .type(DefinitionType.SYSTEM_PROPERTY)
+                            .filePath(file.getFilePath())
+                            .lineNumber(lineNumber)
+                            .className(file.getClassName())
+                            .fieldOrMethodName(methodName)
+                            .codeSnippet(call.toString())
+                            .moduleName(file.getModuleName())
+                            .build();
+
+                    // Преобразуем в формат переменной окружения
+                    sink.add(new VariableCandidate(propName, ExtractionSupport::toEnvName,
+                            file.captureDefault(call), null, definition));
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.envdoc.service.extraction.plugin;
+
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.ConstantIndex;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Кандидат в переменные окружения из Java кода. Имя и значение по умолчанию
+ * вычисляются по индексу констант после обхода всех файлов.
+ *
+ * @param name       символьное имя (литерал или ссылка на константу)
+ * @param naming     преобразование разрешённого имени в имя переменной
+ * @param defaultArg значение по умолчанию (может быть null)
+ * @param required   обязательность; null — вычисляется по наличию default
+ * @param definition место определения
+ */
+public record VariableCandidate(ConstantIndex.ConstantExpression name,
+                                UnaryOperator<String> naming,
+                                DefaultArgument defaultArg,
+                                Boolean required,
+                                VariableDefinition definition) {
+
+    /**
+     * Кандидат с уже известным именем и значением по умолчанию.
+     */
+    public static VariableCandidate literal(String varName, String defaultValue, boolean required,
+                                            VariableDefinition definition) {
+        return new VariableCandidate(ConstantIndex.ConstantExpression.literal(varName), UnaryOperator.identity(),
+                defaultValue != null ? new DefaultArgument(defaultValue, null) : null,
+                required, definition);
+    }
+
+    /**
+     * Вычисляет переменную по индексу констант.
+     *
+     * @param constantIndex индекс констант репозитория
+     * @return переменная или empty, если имя не разрешилось
+     */
+    public Optional<EnvVariable> resolve(ConstantIndex constantIndex) {
+        Optional<String> resolvedName = constantIndex.resolve(name);
+        if (resolvedName.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String varName = naming.apply(resolvedName.get());
+        if (varName == null || varName.isBlank()) {
+            return Optional.empty();
+        }
+        String defaultValue = defaultArg != null ? defaultArg.resolve(constantIndex) : null;
+
+        return Optional.of(EnvVariable.builder()
+                .name(varName)
+                .defaultValue(defaultValue)
+                .required(required != null ? required : defaultValue == null)
+                .definition(definition)
+                .usages(new ArrayList<>())
+                .build());
+    }
+
+    /**
+     * Значение по умолчанию: литерал или ссылка на константу.
+     */
+    public record DefaultArgument(String literal, ConstantIndex.ConstantExpression expression) {
+        String resolve(ConstantIndex constantIndex) {
+            return literal != null ? literal : constantIndex.resolve(expression).orElse(null);
+        }
+    }
+}
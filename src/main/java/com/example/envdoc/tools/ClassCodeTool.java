@@ -1,24 +1,75 @@
 package com.example.envdoc.tools;
 
-import dev.langchain4j.agent.tool.Tool;
-import lombok.Setter;
+import com.example.envdoc.service.extraction.IdentifierIndex;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.printer.DefaultPrettyPrinter;
+import com.github.javaparser.printer.configuration.DefaultConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration.ConfigOption;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
- * Tool для GigaChat - получение полного исходного кода Java класса.
+ * Доступ к исходному коду классов одного репозитория.
+ * <p>
+ * Экземпляр создаётся на задачу: путь к репозиторию задаётся в конструкторе.
+ * Классы ищутся по {@link ClassIndex}, построенному по списку файлов извлечения
+ * (или одним обходом репозитория, если списка нет),
+ * а прочитанные файлы кэшируются, поэтому повторные вызовы агента не обращаются к диску.
+ * Агенту GigaChat методы доступны через {@link ScopedClassCodeTool}.
  */
 @Slf4j
-@Component
 public class ClassCodeTool {
 
-    @Setter
-    private Path repoPath;
+    private static final int MAX_PATTERN_MATCHES = 20;
+    private static final int MAX_CACHED_FILES = 64;
+    private static final DefaultPrettyPrinter PRINTER = new DefaultPrettyPrinter(new DefaultPrinterConfiguration()
+            .removeOption(new DefaultConfigurationOption(ConfigOption.PRINT_COMMENTS))
+            .removeOption(new DefaultConfigurationOption(ConfigOption.PRINT_JAVADOC)));
+
+    private final Path repoPath;
+    private final Map<Path, String> contents = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, String> eldest) {
+            return size() > MAX_CACHED_FILES;
+        }
+    };
+    private final List<Path> javaFiles;
+    private volatile ClassIndex index;
+
+    public ClassCodeTool(Path repoPath) {
+        this(repoPath, null);
+    }
+
+    /**
+     * @param javaFiles Java файлы репозитория, уже найденные при извлечении (null — обойти репозиторий)
+     */
+    public ClassCodeTool(Path repoPath, List<Path> javaFiles) {
+        this.repoPath = repoPath;
+        this.javaFiles = javaFiles;
+    }
+
+    public Path getRepoPath() {
+        return repoPath;
+    }
 
     /**
      * Получает полный исходный код Java класса по его имени.
@@ -26,8 +77,6 @@ public class ClassCodeTool {
      * @param className полное имя класса (например, com.example.MyClass)
      * @return исходный код класса или сообщение об ошибке
      */
-    @Tool("Получить полный исходный код Java класса по имени. " +
-          "Используйте полное имя класса, например: com.example.service.MyService")
     public String getClassCode(String className) {
         if (repoPath == null) {
             return "Error: Repository path not set";
@@ -35,46 +84,12 @@ public class ClassCodeTool {
 
         log.info("Getting code for class: {}", className);
 
-        // Преобразуем имя класса в путь к файлу
-        String relativePath = className.replace('.', '/') + ".java";
-
         try {
-            // Ищем файл в стандартных директориях
-            Path[] searchDirs = {
-                    repoPath.resolve("src/main/java"),
-                    repoPath.resolve("src"),
-                    repoPath
-            };
-
-            for (Path searchDir : searchDirs) {
-                Path filePath = searchDir.resolve(relativePath);
-                if (Files.exists(filePath)) {
-                    String content = Files.readString(filePath);
-                    log.debug("Found class file: {}", filePath);
-                    return limitToMaxLines(content, 1000);
-                }
-            }
-
-            // Если не найден по точному пути, ищем по имени файла
-            String simpleClassName = className.contains(".")
-                    ? className.substring(className.lastIndexOf('.') + 1)
-                    : className;
-            String fileName = simpleClassName + ".java";
-
-            try (Stream<Path> paths = Files.walk(repoPath)) {
-                Path found = paths
-                        .filter(Files::isRegularFile)
-                        .filter(p -> p.getFileName().toString().equals(fileName))
-                        .filter(p -> !p.toString().contains("/test/"))
-                        .filter(p -> !p.toString().contains("/target/"))
-                        .findFirst()
-                        .orElse(null);
-
-                if (found != null) {
-                    String content = Files.readString(found);
-                    log.debug("Found class file by name: {}", found);
-                    return limitToMaxLines(content, 1000);
-                }
+            Optional<Path> classFile = index().resolve(className);
+            if (classFile.isPresent()) {
+                String content = read(classFile.get());
+                log.debug("Found class file: {}", classFile.get());
+                return limitToMaxLines(content, 1000);
             }
 
             log.warn("Class not found: {}", className);
@@ -87,87 +102,191 @@ public class ClassCodeTool {
     }
 
     /**
-     * Получает список всех классов в пакете.
+     * Находит методы класса, использующие поле (точное совпадение идентификатора).
      *
-     * @param packageName имя пакета
-     * @return список классов в пакете
+     * @param className полное имя класса
+     * @param fieldName имя поля
+     * @return список методов со строками или сообщение об ошибке
      */
-    @Tool("Получить список всех классов в указанном пакете")
-    public String listClassesInPackage(String packageName) {
+    public String findFieldUsages(String className, String fieldName) {
         if (repoPath == null) {
             return "Error: Repository path not set";
         }
 
-        String packagePath = packageName.replace('.', '/');
-
         try {
-            Path[] searchDirs = {
-                    repoPath.resolve("src/main/java").resolve(packagePath),
-                    repoPath.resolve("src").resolve(packagePath)
-            };
+            Optional<Path> classFile = index().resolve(className);
+            if (classFile.isEmpty()) {
+                return "Class not found: " + className;
+            }
 
+            IdentifierIndex identifiers = IdentifierIndex.of(StaticJavaParser.parse(read(classFile.get())));
             StringBuilder result = new StringBuilder();
-            result.append("Classes in package ").append(packageName).append(":\n");
-
-            for (Path searchDir : searchDirs) {
-                if (Files.exists(searchDir) && Files.isDirectory(searchDir)) {
-                    try (Stream<Path> paths = Files.list(searchDir)) {
-                        paths.filter(Files::isRegularFile)
-                             .filter(p -> p.toString().endsWith(".java"))
-                             .forEach(p -> {
-                                 String fileName = p.getFileName().toString();
-                                 String className = fileName.replace(".java", "");
-                                 result.append("- ").append(packageName).append(".").append(className).append("\n");
-                             });
-                    }
-                    break;
-                }
+            result.append("Methods of ").append(className).append(" using '").append(fieldName).append("':\n");
+            for (MethodDeclaration method : identifiers.methodsUsing(fieldName)) {
+                result.append("- ").append(method.getDeclarationAsString(false, false, true));
+                method.getBegin().ifPresent(p -> result.append(" (line ").append(p.line).append(")"));
+                result.append("\n");
             }
-
             return result.toString();
 
-        } catch (IOException e) {
-            log.error("Error listing classes in package: {}", packageName, e);
+        } catch (IOException | ParseProblemException e) {
+            log.error("Error analyzing field usages: {}#{}", className, fieldName, e);
             return "Error: " + e.getMessage();
         }
     }
 
+    /**
+     * Выдержка из класса для промпта: пакет, объявление, поля, сигнатуры конструкторов и методов.
+     * Методы из {@code focus} (по имени или по используемому идентификатору) и методы,
+     * содержащие строки {@code lines}, выводятся с телом не длиннее {@code maxMethodLines} строк.
+     *
+     * @return выдержка или пустой результат, если класс не найден или не разбирается
+     */
+    public Optional<String> classExcerpt(String className, Set<String> focus, Set<Integer> lines, int maxMethodLines) {
+        if (repoPath == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<Path> classFile = index().resolve(className);
+            if (classFile.isEmpty()) {
+                return Optional.empty();
+            }
+            CompilationUnit cu = StaticJavaParser.parse(read(classFile.get()));
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            Optional<TypeDeclaration<?>> type = cu.getTypes().stream()
+                    .filter(t -> t.getNameAsString().equals(simpleName))
+                    .findFirst()
+                    .or(() -> cu.getTypes().getFirst());
+            if (type.isEmpty()) {
+                return Optional.empty();
+            }
+
+            IdentifierIndex identifiers = IdentifierIndex.of(cu);
+            Set<MethodDeclaration> relevant = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String name : focus) {
+                relevant.addAll(identifiers.methodsUsing(name));
+            }
+            for (int line : lines) {
+                identifiers.methodAt(line).ifPresent(relevant::add);
+            }
+
+            StringBuilder excerpt = new StringBuilder();
+            excerpt.append("// ").append(repoPath.relativize(classFile.get()).toString().replace('\\', '/')).append("\n");
+            cu.getPackageDeclaration().ifPresent(p -> excerpt.append(print(p)).append("\n"));
+            TypeDeclaration<?> header = type.get().clone();
+            header.getMembers().clear();
+            String printedHeader = print(header).stripTrailing();
+            excerpt.append(printedHeader, 0, printedHeader.length() - 1);
+            for (BodyDeclaration<?> member : type.get().getMembers()) {
+                String text;
+                if (member instanceof FieldDeclaration field) {
+                    text = print(field);
+                } else if (member instanceof ConstructorDeclaration constructor) {
+                    text = constructor.getDeclarationAsString(true, false, true) + ";";
+                } else if (member instanceof MethodDeclaration method) {
+                    text = relevant.contains(method) || focus.contains(method.getNameAsString())
+                            ? limitMethod(print(method), maxMethodLines)
+                            : annotations(method) + method.getDeclarationAsString(true, false, true) + ";";
+                } else {
+                    continue;
+                }
+                text.lines().forEach(line -> excerpt.append("    ").append(line).append("\n"));
+            }
+            excerpt.append("}\n");
+            return Optional.of(excerpt.toString());
+
+        } catch (IOException | ParseProblemException e) {
+            log.debug("Cannot build excerpt of {}: {}", className, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Получает список всех классов в пакете.
+     *
+     * @param packageName имя пакета
+     * @return список классов в пакете
+     */
+    public String listClassesInPackage(String packageName) {
+        if (repoPath == null) {
+            return "Error: Repository path not set";
+        }
+
+        StringBuilder result = new StringBuilder();
+        result.append("Classes in package ").append(packageName).append(":\n");
+        for (String fqn : index().classesInPackage(packageName)) {
+            result.append("- ").append(fqn).append("\n");
+        }
+        return result.toString();
+    }
+
     /**
      * Ищет классы по паттерну в имени.
      *
      * @param pattern паттерн для поиска (часть имени класса)
      * @return список найденных классов
      */
-    @Tool("Найти классы по паттерну в имени. Например: 'Config' найдёт все конфигурационные классы")
     public String findClassesByPattern(String pattern) {
         if (repoPath == null) {
             return "Error: Repository path not set";
         }
 
-        try {
-            StringBuilder result = new StringBuilder();
-            result.append("Classes matching '").append(pattern).append("':\n");
-
-            try (Stream<Path> paths = Files.walk(repoPath)) {
-                paths.filter(Files::isRegularFile)
-                     .filter(p -> p.toString().endsWith(".java"))
-                     .filter(p -> !p.toString().contains("/test/"))
-                     .filter(p -> !p.toString().contains("/target/"))
-                     .filter(p -> p.getFileName().toString().toLowerCase()
-                             .contains(pattern.toLowerCase()))
-                     .limit(20) // Ограничиваем количество результатов
-                     .forEach(p -> {
-                         String relativePath = repoPath.relativize(p).toString();
-                         result.append("- ").append(relativePath).append("\n");
-                     });
+        ClassIndex classes = index();
+        StringBuilder result = new StringBuilder();
+        result.append("Classes matching '").append(pattern).append("':\n");
+        for (String fqn : classes.classesMatching(pattern, MAX_PATTERN_MATCHES)) {
+            result.append("- ").append(classes.relativePath(fqn)).append("\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Индекс классов строится при первом обращении и используется всеми вызовами задачи.
+     */
+    ClassIndex index() {
+        ClassIndex built = index;
+        if (built == null) {
+            synchronized (this) {
+                built = index;
+                if (built == null) {
+                    built = javaFiles != null ? ClassIndex.build(repoPath, javaFiles) : ClassIndex.build(repoPath);
+                    index = built;
+                }
             }
+        }
+        return built;
+    }
 
-            return result.toString();
+    private String read(Path file) throws IOException {
+        synchronized (contents) {
+            String cached = contents.get(file);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String content = Files.readString(file);
+        synchronized (contents) {
+            contents.put(file, content);
+        }
+        return content;
+    }
 
-        } catch (IOException e) {
-            log.error("Error finding classes by pattern: {}", pattern, e);
-            return "Error: " + e.getMessage();
+    private static String print(Node node) {
+        return PRINTER.print(node);
+    }
+
+    private static String annotations(MethodDeclaration method) {
+        StringBuilder text = new StringBuilder();
+        method.getAnnotations().forEach(a -> text.append(print(a)).append(' '));
+        return text.toString();
+    }
+
+    private static String limitMethod(String method, int maxLines) {
+        List<String> lines = method.lines().toList();
+        if (maxLines <= 0 || lines.size() <= maxLines) {
+            return method;
         }
+        return String.join("\n", lines.subList(0, maxLines)) + "\n    // …\n}";
     }
 
     private String limitToMaxLines(String content, int maxLines) {
@@ -0,0 +1,173 @@
+package com.example.envdoc.tools;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Индекс классов репозитория: полное имя → файл, пакет → классы, простое имя → полные имена.
+ * <p>
+ * Строится по списку Java файлов, уже найденному при извлечении, а без него — одним
+ * обходом дерева. Полное имя выводится из пути относительно
+ * {@code src/main/java} (в любом модуле); для файлов вне стандартной структуры
+ * читается объявление пакета. Тестовые и собранные файлы не индексируются.
+ */
+@Slf4j
+public final class ClassIndex {
+
+    private static final String SOURCE_ROOT = "src/main/java/";
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private final Path repoPath;
+    private final Map<String, Path> byFqn = new HashMap<>();
+    private final Map<String, List<String>> byPackage = new HashMap<>();
+    private final Map<String, List<String>> bySimpleName = new HashMap<>();
+    private final TreeMap<String, List<String>> byLowerSimpleName = new TreeMap<>();
+
+    private ClassIndex(Path repoPath) {
+        this.repoPath = repoPath;
+    }
+
+    public static ClassIndex build(Path repoPath) {
+        try (Stream<Path> paths = Files.walk(repoPath)) {
+            return build(repoPath, paths.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(".java"))
+                    .filter(p -> {
+                        String path = p.toString().replace('\\', '/');
+                        return !path.contains("/test/") && !path.contains("/target/");
+                    })
+                    .sorted()
+                    .toList());
+        } catch (IOException e) {
+            log.error("Error indexing classes in {}", repoPath, e);
+            return new ClassIndex(repoPath);
+        }
+    }
+
+    /**
+     * Строит индекс по готовому списку Java файлов без обхода репозитория.
+     *
+     * @param javaFiles Java файлы репозитория, отсортированные по пути
+     */
+    public static ClassIndex build(Path repoPath, List<Path> javaFiles) {
+        ClassIndex index = new ClassIndex(repoPath);
+        javaFiles.forEach(index::add);
+        index.byPackage.values().forEach(Collections::sort);
+        log.debug("Indexed {} classes in {}", index.size(), repoPath);
+        return index;
+    }
+
+    public int size() {
+        return byFqn.size();
+    }
+
+    public Optional<Path> find(String fqn) {
+        return Optional.ofNullable(byFqn.get(fqn));
+    }
+
+    /**
+     * Файл класса по полному имени, а если такого нет — по простому имени.
+     */
+    public Optional<Path> resolve(String className) {
+        Path exact = byFqn.get(className);
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        List<String> candidates = bySimpleName.getOrDefault(simpleName, List.of());
+        return candidates.isEmpty() ? Optional.empty() : Optional.of(byFqn.get(candidates.get(0)));
+    }
+
+    /**
+     * Классы пакета (по всем модулям), отсортированные по имени.
+     */
+    public List<String> classesInPackage(String packageName) {
+        return byPackage.getOrDefault(packageName, List.of());
+    }
+
+    public List<String> classesNamed(String simpleName) {
+        return bySimpleName.getOrDefault(simpleName, List.of());
+    }
+
+    /**
+     * Классы, простое имя которых содержит паттерн (без учёта регистра):
+     * сначала совпадения по префиксу, затем остальные.
+     */
+    public List<String> classesMatching(String pattern, int limit) {
+        String needle = pattern.toLowerCase(Locale.ROOT);
+        Set<String> result = new LinkedHashSet<>();
+        for (List<String> fqns : byLowerSimpleName.subMap(needle, true, needle + Character.MAX_VALUE, true).values()) {
+            addAll(result, fqns, limit);
+        }
+        for (Map.Entry<String, List<String>> entry : byLowerSimpleName.entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (entry.getKey().contains(needle)) {
+                addAll(result, entry.getValue(), limit);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    public String relativePath(String fqn) {
+        return repoPath.relativize(byFqn.get(fqn)).toString().replace('\\', '/');
+    }
+
+    private void add(Path file) {
+        String relative = repoPath.relativize(file).toString().replace('\\', '/');
+        String fileName = file.getFileName().toString();
+        String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+
+        String packageName;
+        int root = relative.lastIndexOf(SOURCE_ROOT);
+        if (root >= 0 && (root == 0 || relative.charAt(root - 1) == '/')) {
+            String packagePath = relative.substring(root + SOURCE_ROOT.length(), relative.length() - fileName.length());
+            packageName = packagePath.isEmpty() ? "" : packagePath.substring(0, packagePath.length() - 1).replace('/', '.');
+        } else {
+            packageName = declaredPackage(file);
+        }
+
+        String fqn = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        if (byFqn.putIfAbsent(fqn, file) != null) {
+            return;
+        }
+        byPackage.computeIfAbsent(packageName, k -> new ArrayList<>()).add(fqn);
+        bySimpleName.computeIfAbsent(simpleName, k -> new ArrayList<>()).add(fqn);
+        byLowerSimpleName.computeIfAbsent(simpleName.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(fqn);
+    }
+
+    private static String declaredPackage(Path file) {
+        try {
+            Matcher matcher = PACKAGE.matcher(Files.readString(file));
+            return matcher.find() ? matcher.group(1) : "";
+        } catch (IOException e) {
+            log.debug("Cannot read package of {}: {}", file, e.getMessage());
+            return "";
+        }
+    }
+
+    private static void addAll(Set<String> result, List<String> fqns, int limit) {
+        for (String fqn : fqns) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(fqn);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.envdoc.tools;
+
+import dev.langchain4j.agent.tool.Tool;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tool для GigaChat - получение исходного кода классов репозитория текущей задачи.
+ * <p>
+ * Один экземпляр регистрируется в скомпилированном графе агента и переиспользуется
+ * всеми задачами. Вызовы делегируются {@link ClassCodeTool}, привязанному к потоку
+ * на время {@link #call(ClassCodeTool, Callable)}; без привязки инструменты возвращают
+ * ошибку, поэтому агент одной задачи не может прочитать репозиторий другой.
+ */
+@Component
+public class ScopedClassCodeTool {
+
+    private static final String NOT_BOUND = "Error: Repository path not set";
+
+    private final ThreadLocal<Binding> current = new ThreadLocal<>();
+
+    /**
+     * Вызовы инструментов за один запуск агента.
+     */
+    public static final class ToolCalls {
+        private final Map<String, Integer> byTool = new ConcurrentHashMap<>();
+        private final Set<String> requestedClasses = ConcurrentHashMap.newKeySet();
+
+        public int total() {
+            return byTool.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public Map<String, Integer> byTool() {
+            return Map.copyOf(byTool);
+        }
+
+        /**
+         * Запрашивал ли агент код класса (по полному или простому имени).
+         */
+        public boolean requested(String className) {
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            return requestedClasses.contains(className) || requestedClasses.contains(simpleName);
+        }
+
+        private void record(String tool, String className) {
+            byTool.merge(tool, 1, Integer::sum);
+            if (className != null) {
+                requestedClasses.add(className);
+            }
+        }
+    }
+
+    private record Binding(ClassCodeTool tool, ToolCalls calls) {
+    }
+
+    /**
+     * Выполняет действие с инструментами, привязанными к репозиторию задачи.
+     *
+     * @param tool   инструмент репозитория задачи
+     * @param action действие (вызов агента)
+     * @return результат действия
+     */
+    public <T> T call(ClassCodeTool tool, Callable<T> action) throws Exception {
+        return call(tool, new ToolCalls(), action);
+    }
+
+    /**
+     * Выполняет действие, записывая вызовы инструментов в {@code calls}.
+     */
+    public <T> T call(ClassCodeTool tool, ToolCalls calls, Callable<T> action) throws Exception {
+        Binding previous = current.get();
+        current.set(new Binding(tool, calls));
+        try {
+            return action.call();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    @Tool("Получить полный исходный код Java класса по имени. " +
+          "Используйте полное имя класса, например: com.example.service.MyService")
+    public String getClassCode(String className) {
+        ClassCodeTool tool = bound("getClassCode", className);
+        return tool != null ? tool.getClassCode(className) : NOT_BOUND;
+    }
+
+    @Tool("Найти методы класса, которые используют указанное поле (например, поле с @Value). " +
+          "Параметры: полное имя класса и имя поля")
+    public String findFieldUsages(String className, String fieldName) {
+        ClassCodeTool tool = bound("findFieldUsages", className);
+        return tool != null ? tool.findFieldUsages(className, fieldName) : NOT_BOUND;
+    }
+
+    @Tool("Получить список всех классов в указанном пакете")
+    public String listClassesInPackage(String packageName) {
+        ClassCodeTool tool = bound("listClassesInPackage", null);
+        return tool != null ? tool.listClassesInPackage(packageName) : NOT_BOUND;
+    }
+
+    @Tool("Найти классы по паттерну в имени. Например: 'Config' найдёт все конфигурационные классы")
+    public String findClassesByPattern(String pattern) {
+        ClassCodeTool tool = bound("findClassesByPattern", null);
+        return tool != null ? tool.findClassesByPattern(pattern) : NOT_BOUND;
+    }
+
+    private ClassCodeTool bound(String toolName, String className) {
+        Binding binding = current.get();
+        if (binding == null) {
+            return null;
+        }
+        binding.calls().record(toolName, className);
+        return binding.tool();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.envdoc.benchmark;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.ExtractionMode;
+import com.example.envdoc.service.extraction.EnvVarExtractor;
+import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
+import com.example.envdoc.service.extraction.TestExtractors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Сравнение AST и лексического режимов извлечения на синтетическом репозитории.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.envdoc.benchmark.ExtractionModeBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionModeBenchmark {
+
+    @Param({"200", "1000"})
+    public int files;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path repo;
+    private EnvVarExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repo = Files.createTempDirectory("extraction-benchmark");
+        Path sources = repo.resolve("src/main/java/com/example/generated");
+        Files.createDirectories(sources);
+        for (int i = 0; i < files; i++) {
+            Files.writeString(sources.resolve("Service" + i + ".java"), generatedClass(i));
+        }
+
+        ExtractionConfig config = new ExtractionConfig();
+        config.setParallelism(parallelism);
+        extractor = TestExtractors.envVarExtractor(new SourceCodeAnalyzer(), config, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(repo)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, EnvVariable> ast() {
+        return extractor.extractAllVariables(repo, null, ExtractionMode.AST);
+    }
+
+    @Benchmark
+    public Map<String, EnvVariable> lexical() {
+        return extractor.extractAllVariables(repo, null, ExtractionMode.LEXICAL);
+    }
+
+    private static String generatedClass(int index) {
+        StringBuilder source = new StringBuilder()
+                .append("package com.example.generated;\n\n")
+                .append("import org.springframework.beans.factory.annotation.Value;\n")
+                .append("import org.springframework.core.env.Environment;\n\n")
+                .append("public class Service").append(index).append(" {\n")
+                .append("    @Value(\"${SERVICE_").append(index).append("_URL:http://localhost}\")\n")
+                .append("    private String url;\n")
+                .append("    private final Environment environment;\n\n")
+                .append("    public Service").append(index).append("(Environment environment) {\n")
+                .append("        this.environment = environment;\n")
+                .append("    }\n\n");
+        for (int method = 0; method < 20; method++) {
+            source.append("    public String method").append(method).append("(String input) {\n")
+                    .append("        StringBuilder result = new StringBuilder(input);\n")
+                    .append("        for (int i = 0; i < 10; i++) {\n")
+                    .append("            result.append(i).append(':').append(input.length());\n")
+                    .append("        }\n");
+            if (method % 5 == 0) {
+                source.append("        result.append(System.getenv(\"SERVICE_").append(index)
+                        .append("_VAR_").append(method).append("\"));\n")
+                        .append("        result.append(environment.getProperty(\"service.")
+                        .append(index).append(".prop").append(method).append("\", \"x\"));\n");
+            }
+            source.append("        return result.toString();\n")
+                    .append("    }\n\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ExtractionModeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
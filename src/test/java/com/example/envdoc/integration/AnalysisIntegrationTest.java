@@ -4,9 +4,12 @@ import com.example.envdoc.model.AnalysisResult;
 import com.example.envdoc.model.EnvVariable;
 import com.example.envdoc.service.documentation.DocumentGenerator;
 import com.example.envdoc.service.extraction.EnvVarExtractor;
+import com.example.envdoc.service.extraction.TestExtractors;
 import com.example.envdoc.service.extraction.SourceCodeAnalyzer;
 import com.example.envdoc.service.extraction.UsageAnalyzer;
+import com.example.envdoc.config.ExtractionConfig;
 import com.example.envdoc.config.OutputConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -38,8 +41,10 @@ class AnalysisIntegrationTest {
     @BeforeEach
     void setUp() {
         SourceCodeAnalyzer sourceCodeAnalyzer = new SourceCodeAnalyzer();
-        envVarExtractor = new EnvVarExtractor(sourceCodeAnalyzer);
-        usageAnalyzer = new UsageAnalyzer(sourceCodeAnalyzer);
+        envVarExtractor = TestExtractors.envVarExtractor(sourceCodeAnalyzer,
+                new ExtractionConfig(), new SimpleMeterRegistry());
+        usageAnalyzer = TestExtractors.usageAnalyzer(sourceCodeAnalyzer,
+                new ExtractionConfig(), new SimpleMeterRegistry());
 
         OutputConfig outputConfig = new OutputConfig();
         outputConfig.getMarkdown().setPath(outputDir.toString());
@@ -0,0 +1,138 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.model.VariableUsage;
+import com.example.envdoc.tools.ClassCodeTool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPrefetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GigaChatConfig config;
+    private ContextPrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = new GigaChatConfig();
+        prefetcher = new ContextPrefetcher(config);
+        write("src/main/java/com/example/db/DbConfig.java", """
+                package com.example.db;
+
+                import org.springframework.beans.factory.annotation.Value;
+
+                /** Настройки БД. */
+                public class DbConfig {
+                    @Value("${DB_URL}")
+                    private String url;
+
+                    public DbConfig() {
+                    }
+
+                    public String jdbcUrl() {
+                        // комментарий не попадает в выдержку
+                        return url.trim();
+                    }
+
+                    public int unrelated() {
+                        int a = 1;
+                        return a + 2;
+                    }
+                }
+                """);
+        write("src/main/java/com/example/db/Pool.java", """
+                package com.example.db;
+
+                public class Pool {
+                    public void open(DbConfig config) {
+                        connect(config.jdbcUrl());
+                    }
+
+                    private void connect(String url) {
+                    }
+                }
+                """);
+    }
+
+    @Test
+    void shouldPrefetchDefinitionAndUsageClassesAsExcerpts() {
+        // Given
+        EnvVariable variable = variable();
+
+        // When
+        ContextPrefetcher.Prefetch prefetch = prefetcher.prefetch(List.of(variable), new ClassCodeTool(tempDir));
+
+        // Then: класс определения первым, методы с переменной — с телом, остальные — сигнатурой
+        assertEquals(List.of("com.example.db.DbConfig", "com.example.db.Pool"), prefetch.classes());
+        String context = prefetch.context();
+        assertTrue(context.startsWith("// src/main/java/com/example/db/DbConfig.java\npackage com.example.db;"), context);
+        assertTrue(context.contains("@Value(\"${DB_URL}\")"), context);
+        assertTrue(context.contains("return url.trim();"), context);
+        assertTrue(context.contains("public int unrelated();"), context);
+        assertFalse(context.contains("a + 2"), context);
+        assertFalse(context.contains("комментарий"), context);
+        assertFalse(context.contains("Настройки БД"), context);
+        assertTrue(context.contains("connect(config.jdbcUrl());"), context);
+        assertTrue(context.contains("private void connect(String url);"), context);
+        assertTrue(prefetch.tokens() > 0);
+    }
+
+    @Test
+    void shouldRespectTokenBudgetAndClassLimit() {
+        // Given
+        EnvVariable variable = variable();
+        ContextPrefetcher.Prefetch full = prefetcher.prefetch(List.of(variable), new ClassCodeTool(tempDir));
+
+        // When
+        config.getPrefetch().setTokenBudget(full.tokens() - 1);
+        ContextPrefetcher.Prefetch budgeted = prefetcher.prefetch(List.of(variable), new ClassCodeTool(tempDir));
+        config.getPrefetch().setTokenBudget(10_000);
+        config.getPrefetch().setMaxClasses(1);
+        ContextPrefetcher.Prefetch limited = prefetcher.prefetch(List.of(variable), new ClassCodeTool(tempDir));
+        config.getPrefetch().setEnabled(false);
+        ContextPrefetcher.Prefetch disabled = prefetcher.prefetch(List.of(variable), new ClassCodeTool(tempDir));
+
+        // Then
+        assertEquals(1, budgeted.classes().size());
+        assertTrue(budgeted.tokens() < full.tokens());
+        assertEquals(List.of("com.example.db.DbConfig"), limited.classes());
+        assertTrue(disabled.isEmpty());
+    }
+
+    private EnvVariable variable() {
+        EnvVariable variable = EnvVariable.builder()
+                .name("DB_URL")
+                .definition(VariableDefinition.builder()
+                        .type(DefinitionType.SPRING_VALUE)
+                        .className("com.example.db.DbConfig")
+                        .fieldOrMethodName("url")
+                        .lineNumber(7)
+                        .build())
+                .build();
+        variable.addUsage(VariableUsage.builder()
+                .className("com.example.db.Pool")
+                .methodName("open")
+                .lineNumber(5)
+                .build());
+        return variable;
+    }
+
+    private void write(String relative, String content) throws IOException {
+        Path file = tempDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GigaChatConfig config;
+    private KnowledgeBase knowledgeBase;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        config.getCache().setPath(tempDir.resolve("descriptions.json").toString());
+        knowledgeBase = new KnowledgeBase(config);
+    }
+
+    @Test
+    void shouldChangeKeyWhenSemanticInputsChange() {
+        // Given
+        DescriptionCache cache = new DescriptionCache(config, knowledgeBase);
+        EnvVariable original = variable("DB_URL", "@Value(\"${DB_URL}\") String url;");
+
+        // When
+        String key = cache.key(original);
+        String sameKey = cache.key(variable("DB_URL", "@Value(\"${DB_URL}\") String url;"));
+        String changedSnippet = cache.key(variable("DB_URL", "@Value(\"${DB_URL:jdbc:h2}\") String url;"));
+        config.setModel("GigaChat-Max");
+        String changedModel = cache.key(original);
+        config.getPrompt().setDescriptionsOnly(!config.getPrompt().isDescriptionsOnly());
+        String changedPromptMode = cache.key(original);
+
+        // Then
+        assertEquals(key, sameKey);
+        assertNotEquals(key, changedSnippet);
+        assertNotEquals(key, changedModel);
+        assertNotEquals(changedModel, changedPromptMode);
+    }
+
+    @Test
+    void shouldChangeKeyWhenKnowledgeBaseVersionChanges() throws Exception {
+        // Given: словарь организации обновлён с версии 1 до версии 2
+        Path orgFile = tempDir.resolve("org.yml");
+        config.getKnowledgeBase().setOrgFile(orgFile.toString());
+        Files.writeString(orgFile, "version: 1\nvariables: []\n");
+        DescriptionCache before = new DescriptionCache(config, new KnowledgeBase(config));
+        Files.writeString(orgFile, "version: 2\nvariables: []\n");
+        DescriptionCache after = new DescriptionCache(config, new KnowledgeBase(config));
+        EnvVariable variable = variable("DB_URL", "@Value(\"${DB_URL}\") String url;");
+
+        // When / Then
+        assertNotEquals(before.key(variable), after.key(variable));
+    }
+
+    @Test
+    void shouldNotOverwriteLocallyInferredFields() {
+        // Given: тип и категория уже выведены локально, примера нет
+        EnvVariable variable = variable("DB_PORT", null);
+        variable.setDataType("int");
+        variable.setCategory("База данных");
+        DescriptionCache.Entry entry = new DescriptionCache.Entry("Порт базы", "string", "Прочее", "5432", 0);
+
+        // When
+        entry.applyTo(variable);
+
+        // Then
+        assertEquals("Порт базы", variable.getDescription());
+        assertEquals("int", variable.getDataType());
+        assertEquals("База данных", variable.getCategory());
+        assertEquals("5432", variable.getExampleValue());
+    }
+
+    @Test
+    void shouldPersistEntriesBetweenInstances() {
+        // Given
+        DescriptionCache cache = new DescriptionCache(config, knowledgeBase);
+        EnvVariable described = variable("DB_URL", "snippet");
+        String key = cache.key(described);
+        described.setDescription("URL базы данных");
+        described.setDataType("url");
+        cache.put(key, described);
+
+        // When
+        cache.flush();
+        DescriptionCache reloaded = new DescriptionCache(config, knowledgeBase);
+
+        // Then
+        assertTrue(Files.exists(tempDir.resolve("descriptions.json")));
+        DescriptionCache.Entry entry = reloaded.get(key).orElseThrow();
+        assertEquals("URL базы данных", entry.description());
+        assertEquals("url", entry.dataType());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() {
+        // Given
+        config.getCache().setMaxEntries(2);
+        DescriptionCache cache = new DescriptionCache(config, knowledgeBase);
+
+        // When
+        cache.put("a", described("A"));
+        cache.put("b", described("B"));
+        cache.get("a");
+        cache.put("c", described("C"));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    void shouldDropExpiredEntriesOnFlush() {
+        // Given
+        config.getCache().setTtlDays(1);
+        Instant now = Instant.parse("2024-01-10T00:00:00Z");
+        DescriptionCache earlier = new DescriptionCache(config, knowledgeBase,
+                Clock.fixed(now.minus(Duration.ofDays(3)), ZoneOffset.UTC));
+        earlier.put("old", described("OLD"));
+        earlier.flush();
+        DescriptionCache cache = new DescriptionCache(config, knowledgeBase, Clock.fixed(now, ZoneOffset.UTC));
+
+        // When
+        cache.put("fresh", described("FRESH"));
+        cache.flush();
+
+        // Then
+        DescriptionCache reloaded = new DescriptionCache(config, knowledgeBase, Clock.fixed(now, ZoneOffset.UTC));
+        assertTrue(reloaded.get("old").isEmpty());
+        assertTrue(reloaded.get("fresh").isPresent());
+    }
+
+    private static EnvVariable variable(String name, String snippet) {
+        return EnvVariable.builder()
+                .name(name)
+                .definition(VariableDefinition.builder()
+                        .type(DefinitionType.SPRING_VALUE)
+                        .codeSnippet(snippet)
+                        .build())
+                .build();
+    }
+
+    private static EnvVariable described(String name) {
+        EnvVariable variable = variable(name, null);
+        variable.setDescription("Описание " + name);
+        return variable;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.tools.ClassCodeTool;
+import com.example.envdoc.tools.ScopedClassCodeTool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigaChatAgentDocumentationServiceTest {
+
+    private static final int JOBS = 8;
+    private static final int TOOL_CALLS_PER_RUN = 5;
+
+    @TempDir
+    Path tempDir;
+
+    private GigaChatConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        config.getPrefetch().setEnabled(false);
+    }
+
+    @Test
+    void shouldIsolateToolCallsOfParallelAgentRuns() throws Exception {
+        // Given: у каждой задачи свой репозиторий с одноимённым классом,
+        // модель запрашивает его код несколько раз и возвращает полученные ответы
+        List<Path> repos = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            repos.add(createRepo("repo-" + i, "JOB_" + i));
+        }
+        CyclicBarrier allStarted = new CyclicBarrier(JOBS);
+        ChatModel chatModel = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                List<ChatMessage> messages = request.messages();
+                List<String> results = messages.stream()
+                        .filter(ToolExecutionResultMessage.class::isInstance)
+                        .map(message -> ((ToolExecutionResultMessage) message).text())
+                        .toList();
+                if (results.isEmpty()) {
+                    try {
+                        allStarted.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                if (results.size() == TOOL_CALLS_PER_RUN) {
+                    return ChatResponse.builder()
+                            .aiMessage(AiMessage.from(results.stream().collect(Collectors.joining("\n---\n"))))
+                            .build();
+                }
+                ToolExecutionRequest call = ToolExecutionRequest.builder()
+                        .id("call-" + results.size())
+                        .name("getClassCode")
+                        .arguments("{\"className\":\"com.example.Marker\"}")
+                        .build();
+                return ChatResponse.builder().aiMessage(AiMessage.from(List.of(call))).build();
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GigaChatAgentDocumentationService service = new GigaChatAgentDocumentationService(new GigaChatPromptBuilder(),
+                new ScopedClassCodeTool(), new ContextPrefetcher(config), new DocumentationMetrics(meterRegistry),
+                chatModel);
+        List<EnvVariable> variables = List.of(EnvVariable.builder().name("MARKER_ID").build());
+        ExecutorService pool = Executors.newFixedThreadPool(JOBS);
+
+        // When: задачи одновременно запускают общий скомпилированный граф агента
+        List<Future<String>> jobs = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            ClassCodeTool tool = new ClassCodeTool(repos.get(i));
+            jobs.add(pool.submit(() -> service.generateDocumentation(variables, "demo", tool)));
+        }
+
+        // Then: каждый вызов инструмента видит репозиторий своей задачи
+        try {
+            for (int i = 0; i < JOBS; i++) {
+                String answer = jobs.get(i).get(30, TimeUnit.SECONDS);
+                assertNotNull(answer);
+                assertFalse(answer.contains("Repository path not set"), answer);
+                String[] results = answer.split("\n---\n");
+                assertEquals(TOOL_CALLS_PER_RUN, results.length);
+                for (String result : results) {
+                    assertTrue(result.contains("\"JOB_" + i + "\""), result);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        DistributionSummary perRun = meterRegistry.get("documentation.agent.tool.calls.per.run")
+                .tag("prefetch", "disabled").summary();
+        assertEquals(JOBS, perRun.count());
+        assertEquals(JOBS * TOOL_CALLS_PER_RUN, perRun.totalAmount());
+    }
+
+    private Path createRepo(String name, String marker) throws IOException {
+        Path repo = tempDir.resolve(name);
+        Path source = repo.resolve("src/main/java/com/example/Marker.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, """
+                package com.example;
+
+                public class Marker {
+                    public static final String ID = "%s";
+                }
+                """.formatted(marker));
+        return repo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.ResilienceMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigaChatCircuitBreakerTest {
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresAndCloseAfterSuccessfulTrial() {
+        // Given
+        GigaChatConfig config = new GigaChatConfig();
+        config.getCircuitBreaker().setFailureThreshold(2);
+        config.getCircuitBreaker().setOpenSeconds(60);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicLong now = new AtomicLong();
+        GigaChatCircuitBreaker breaker = new GigaChatCircuitBreaker(config, new ResilienceMetrics(meterRegistry), now::get);
+
+        // When: успех сбрасывает счётчик, две ошибки подряд размыкают цепь
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(GigaChatCircuitBreaker.State.CLOSED, breaker.state());
+        breaker.recordFailure();
+
+        // Then
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.allowRequest());
+
+        // When: после паузы проходит только один пробный запрос
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(GigaChatCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // Then: ошибка пробного запроса снова размыкает, успех — замыкает
+        breaker.recordFailure();
+        assertTrue(breaker.isOpen());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(GigaChatCircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0.0, meterRegistry.get("gigachat.circuit.state").gauge().value());
+        assertEquals(2, meterRegistry.get("gigachat.circuit.transitions").tag("state", "open").counter().count());
+    }
+
+    @Test
+    void shouldAlwaysAllowWhenDisabled() {
+        // Given
+        GigaChatConfig config = new GigaChatConfig();
+        config.getCircuitBreaker().setEnabled(false);
+        config.getCircuitBreaker().setFailureThreshold(1);
+        GigaChatCircuitBreaker breaker =
+                new GigaChatCircuitBreaker(config, new ResilienceMetrics(new SimpleMeterRegistry()));
+
+        // When
+        breaker.recordFailure();
+
+        // Then
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.envdoc.service.documentation;
 
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
 import com.example.envdoc.model.DefinitionType;
 import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.UsagePurpose;
 import com.example.envdoc.model.VariableDefinition;
 import com.example.envdoc.model.VariableUsage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GigaChatPromptBuilderTest {
@@ -44,6 +55,111 @@ class GigaChatPromptBuilderTest {
         assertTrue(prompt.contains("ВХОДНЫЕ ДАННЫЕ В JSON"));
         assertTrue(prompt.contains("\"projectName\":\"test-project\""));
         assertTrue(prompt.contains("\"name\":\"APP_TOKEN\""));
-        assertTrue(prompt.contains("Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования"));
+        assertTrue(prompt.contains("Переменная | Описание\n"));
+        assertFalse(prompt.contains("Переменная | Описание | Тип"));
+
+        GigaChatConfig config = new GigaChatConfig();
+        config.getPrompt().setDescriptionsOnly(false);
+        String fullPrompt = new GigaChatPromptBuilder(config).buildPrompt(List.of(variable), "test-project");
+        assertTrue(fullPrompt.contains("Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования"));
+    }
+
+    @Test
+    void shouldReportOmittedUsagesInsteadOfListingThem() {
+        GigaChatPromptBuilder builder = new GigaChatPromptBuilder();
+
+        EnvVariable hot = EnvVariable.builder()
+                .name("BASE_URL")
+                .usages(List.of(VariableUsage.builder()
+                        .className("com.example.ApiClient")
+                        .methodName("get")
+                        .purpose(UsagePurpose.EXTERNAL_API)
+                        .build()))
+                .totalUsages(120)
+                .usagePurposeCounts(Map.of(UsagePurpose.EXTERNAL_API, 120))
+                .build();
+        EnvVariable regular = EnvVariable.builder()
+                .name("APP_NAME")
+                .build();
+
+        String prompt = builder.buildPrompt(List.of(hot, regular), "test-project");
+        String json = prompt.substring(prompt.indexOf("```json"), prompt.indexOf("\n```\n"));
+
+        assertTrue(json.contains("\"moreUsages\":119,\"usagesByPurpose\":{\"EXTERNAL_API\":120}"));
+        assertFalse(json.substring(json.indexOf("APP_NAME")).contains("moreUsages"));
+    }
+
+    @Test
+    void shouldCompressInputWithDictionaryDedupAndCap() throws Exception {
+        // Given
+        GigaChatConfig config = new GigaChatConfig();
+        config.getPrompt().setSnippetMaxChars(20);
+        config.getPrompt().setMaxUsagesPerVariable(3);
+        config.getPrompt().setTokenSavingsMetric(true);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GigaChatPromptBuilder builder = new GigaChatPromptBuilder(config, new DocumentationMetrics(meterRegistry));
+
+        List<VariableUsage> usages = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            usages.add(VariableUsage.builder()
+                    .className("com.example.orders.OrderRepository")
+                    .methodName("connect")
+                    .lineNumber(10 + i)
+                    .purpose(UsagePurpose.DATABASE_CONNECTION)
+                    .usageContext("DriverManager.getConnection(url)")
+                    .build());
+        }
+        for (int i = 0; i < 4; i++) {
+            usages.add(VariableUsage.builder()
+                    .className("com.example.orders.OrderService")
+                    .methodName("method" + i)
+                    .purpose(UsagePurpose.DATABASE_CONNECTION)
+                    .build());
+        }
+        EnvVariable variable = EnvVariable.builder()
+                .name("DB_URL")
+                .required(true)
+                .definition(VariableDefinition.builder()
+                        .type(DefinitionType.APPLICATION_YAML)
+                        .filePath("orders/src/main/resources/application.yml")
+                        .lineNumber(3)
+                        .codeSnippet("spring:\n  datasource:\n    url: ${DB_URL}\n    username: app")
+                        .build())
+                .usages(usages)
+                .totalUsages(7)
+                .build();
+
+        // When
+        String prompt = builder.buildPrompt(List.of(variable), "orders");
+        JsonNode json = new ObjectMapper().readTree(
+                prompt.substring(prompt.indexOf("```json") + 7, prompt.indexOf("\n```\n")));
+
+        // Then
+        assertEquals(List.of("com.example.orders.OrderRepository", "com.example.orders.OrderService"),
+                List.of(json.get("classes").get(0).asText(), json.get("classes").get(1).asText()));
+        assertEquals("orders/src/main/resources/application.yml", json.get("files").get(0).asText());
+        JsonNode db = json.get("variables").get(0);
+        assertEquals(0, db.get("definition").get("file").asInt());
+        assertEquals("spring:\n datasource:…", db.get("definition").get("snippet").asText());
+        assertEquals(3, db.get("usages").size());
+        assertEquals(0, db.get("usages").get(0).get("class").asInt());
+        assertEquals(1, db.get("usages").get(1).get("class").asInt());
+        assertEquals(4, db.get("moreUsages").asInt());
+        assertEquals(7, db.get("usagesByPurpose").get("DATABASE_CONNECTION").asInt());
+        assertFalse(db.has("description"));
+        double compactTokens = meterRegistry.get("documentation.prompt.tokens")
+                .tag("encoding", "compact").counter().count();
+        assertTrue(compactTokens > 0);
+        assertTrue(compactTokens < meterRegistry.get("documentation.prompt.tokens")
+                .tag("encoding", "full").counter().count());
+    }
+
+    @Test
+    void shouldCollapseBlankLinesWithTabsAndCrLf() {
+        // When
+        String truncated = GigaChatPromptBuilder.truncate("a\r\n\r\n\tb\n\n \n\tc\n\t\nd", 0);
+
+        // Then
+        assertEquals("a\n b\n c\nd", truncated);
     }
 }
@@ -0,0 +1,123 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.RateLimitMetrics;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.RateLimitException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigaChatRateLimiterTest {
+
+    private GigaChatConfig config;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        config.getRateLimit().setRequestsPerSecond(0);
+        config.getRateLimit().setTokensPerMinute(0);
+        config.getRateLimit().setRetryBaseMillis(1);
+        config.getRateLimit().setRetryMaxMillis(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRetryThrottledRequestsAndHalveConcurrency() throws Exception {
+        // Given: первые два запроса получают 429
+        config.getRateLimit().setInitialConcurrency(8);
+        GigaChatRateLimiter limiter = new GigaChatRateLimiter(config, new RateLimitMetrics(meterRegistry));
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = limiter.execute(100, () -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new RateLimitException("Too Many Requests");
+            }
+            return "ok";
+        }, null);
+
+        // Then
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.get("gigachat.ratelimit.throttled").counter().count());
+        assertEquals(2.0, meterRegistry.get("gigachat.ratelimit.retries").counter().count());
+        assertEquals(3, meterRegistry.get("gigachat.ratelimit.queue.wait").timer().count());
+        assertTrue(limiter.concurrencyLimit() < 3, "limit " + limiter.concurrencyLimit());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxRetriesAndNotRetryOtherErrors() {
+        // Given
+        config.getRateLimit().setMaxRetries(1);
+        GigaChatRateLimiter limiter = new GigaChatRateLimiter(config, new RateLimitMetrics(meterRegistry));
+        AtomicInteger throttledCalls = new AtomicInteger();
+        AtomicInteger failedCalls = new AtomicInteger();
+
+        // When / Then
+        assertThrows(HttpException.class, () -> limiter.execute(10, () -> {
+            throttledCalls.incrementAndGet();
+            throw new HttpException(429, "quota exceeded");
+        }, null));
+        assertThrows(IllegalStateException.class, () -> limiter.execute(10, () -> {
+            failedCalls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }, null));
+        assertEquals(2, throttledCalls.get());
+        assertEquals(1, failedCalls.get());
+        assertEquals(1.0, meterRegistry.get("gigachat.ratelimit.exhausted").counter().count());
+    }
+
+    @Test
+    void shouldRecognizeThrottlingInCauseChain() {
+        assertTrue(GigaChatRateLimiter.isThrottled(
+                new IllegalStateException(new RuntimeException("HTTP 429 Too Many Requests"))));
+        assertTrue(GigaChatRateLimiter.isThrottled(new HttpException(429, "limit")));
+        assertFalse(GigaChatRateLimiter.isThrottled(new HttpException(500, "error at line 4290")));
+    }
+
+    @Test
+    void shouldReserveTokensAheadOfRefill() {
+        // Given: 60 токенов в минуту — один в секунду
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(60, 1, now::get);
+
+        // When / Then: запас расходуется сразу, дальше ожидание растёт с долгом
+        assertEquals(0, bucket.reserve(60));
+        assertEquals(TimeUnit.SECONDS.toNanos(10), bucket.reserve(10));
+        assertEquals(TimeUnit.SECONDS.toNanos(15), bucket.reserve(5));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        bucket.adjust(-5);
+        assertEquals(5.0, bucket.available(), 1e-6);
+    }
+
+    @Test
+    void shouldGrowConcurrencyAdditivelyAndShrinkOnSlowResponses() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3, TimeUnit.SECONDS.toNanos(1));
+
+        // When: два быстрых ответа при лимите 2 увеличивают его на единицу
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limit.acquire(0));
+            limit.release(AdaptiveConcurrencyLimit.Outcome.SUCCESS, 0);
+        }
+        double grown = limit.limit();
+        assertTrue(limit.acquire(0));
+        limit.release(AdaptiveConcurrencyLimit.Outcome.SUCCESS, TimeUnit.SECONDS.toNanos(2));
+
+        // Then
+        assertEquals(2.0 + 1 / 2.0 + 1 / 2.5, grown, 1e-9);
+        assertEquals(grown * 0.9, limit.limit(), 1e-9);
+        assertTrue(limit.acquire(0));
+        assertTrue(limit.acquire(0));
+        assertFalse(limit.acquire(0));
+    }
+}
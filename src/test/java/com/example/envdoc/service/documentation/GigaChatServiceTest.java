@@ -0,0 +1,307 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
+import com.example.envdoc.metrics.RateLimitMetrics;
+import com.example.envdoc.metrics.ResilienceMetrics;
+import com.example.envdoc.model.EnvVariable;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GigaChatServiceTest {
+
+    private static final String HEADER = """
+            # Переменные окружения для проекта demo
+
+            | Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования |
+            |---|---|---|---|---|---|---|---|---|---|---|
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private GigaChatConfig config;
+    private GigaChatAgentDocumentationService agentService;
+    private GigaChatSimpleDocumentationService simpleService;
+    private MeterRegistry meterRegistry;
+    private GigaChatService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        config.setCredentials("secret");
+        config.getCache().setPath(tempDir.resolve("descriptions.json").toString());
+        config.getBatching().setRetryBackoffMillis(0);
+        agentService = mock(GigaChatAgentDocumentationService.class);
+        simpleService = mock(GigaChatSimpleDocumentationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = createService();
+    }
+
+    private GigaChatService createService() {
+        return createService(null);
+    }
+
+    private GigaChatService createService(StreamingChatModel streamingModel) {
+        GigaChatPromptBuilder promptBuilder = new GigaChatPromptBuilder();
+        DocumentationMetrics metrics = new DocumentationMetrics(meterRegistry);
+        ResilienceMetrics resilienceMetrics = new ResilienceMetrics(meterRegistry);
+        return new GigaChatService(config, agentService, simpleService,
+                new GigaChatStreamingDocumentationService(promptBuilder, config, metrics,
+                        new GigaChatRateLimiter(config, new RateLimitMetrics(meterRegistry)), streamingModel),
+                new GigaChatFallbackDocumentationService(), promptBuilder,
+                new DescriptionCache(config, new KnowledgeBase(config)), metrics,
+                new PromptBatcher(config, promptBuilder), new DocumentationExecutor(config),
+                new GigaChatCircuitBreaker(config, resilienceMetrics), resilienceMetrics,
+                new VariableTypeInference(), new KnowledgeBase(config));
+    }
+
+    @Test
+    void shouldSendOnlyNewVariablesWhenDescriptionsAreCached() throws Exception {
+        // Given: первый запуск описывает DB_URL
+        when(agentService.generateDocumentation(anyList(), anyString(), any())).thenReturn(HEADER
+                + "| `DB_URL` | URL базы \\| основной | url | Да | - | `jdbc:postgresql://db/app` | Database | - | - | - | - |\n");
+        service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // When: во втором запуске появляется API_KEY
+        when(agentService.generateDocumentation(anyList(), anyString(), any())).thenReturn(HEADER
+                + "| `API_KEY` | Ключ API | string | Да | - | - | Security | - | - | - | - |\n");
+        String doc = service.generateDocumentation(List.of(variable("DB_URL"), variable("API_KEY")), "demo", tempDir);
+
+        // Then: в GigaChat уходит только API_KEY, описание DB_URL берётся из кэша в исходном порядке,
+        // а пример, выведенный локально, кэш не затирает
+        verify(agentService).generateDocumentation(argThat(vars -> vars.size() == 1
+                && vars.get(0).getName().equals("API_KEY")), eq("demo"), any());
+        assertTrue(doc.indexOf("`DB_URL`") < doc.indexOf("`API_KEY`"));
+        assertTrue(doc.contains("URL базы \\| основной"));
+        assertFalse(doc.contains("`jdbc:postgresql://db/app`"));
+        assertEquals(1.0, meterRegistry.get("documentation.cache.lookups").tag("result", "hit").counter().count());
+        assertTrue(meterRegistry.get("documentation.cache.tokens.saved").counter().count() > 0);
+    }
+
+    @Test
+    void shouldSkipGigaChatWhenAllVariablesAreCached() throws Exception {
+        // Given
+        when(agentService.generateDocumentation(anyList(), anyString(), any())).thenReturn(HEADER
+                + "| `DB_URL` | URL базы | url | Да | - | - | Database | - | - | - | - |\n");
+        service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // Then
+        verify(agentService, times(1)).generateDocumentation(anyList(), anyString(), any());
+        assertTrue(doc.contains("| `DB_URL` | URL базы | url |"));
+        assertEquals(0.5, meterRegistry.get("documentation.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void shouldMergeBatchesInVariableOrderAndRetryFailedBatch() throws Exception {
+        // Given: пакеты по 2 переменные, первый запрос пакета с B_VAR падает
+        config.getCache().setEnabled(false);
+        config.getBatching().setMaxVariables(2);
+        config.getBatching().setConcurrency(3);
+        service = createService();
+        AtomicBoolean failed = new AtomicBoolean();
+        when(agentService.generateDocumentation(anyList(), anyString(), any())).thenAnswer(invocation -> {
+            List<EnvVariable> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(v -> v.getName().equals("B_VAR")) && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("timeout");
+            }
+            StringBuilder table = new StringBuilder(HEADER);
+            batch.forEach(v -> table.append("| `").append(v.getName()).append("` | Описание ")
+                    .append(v.getName()).append(" | string | Да | - | - | - | - | - | - | - |\n"));
+            return table.toString();
+        });
+        List<EnvVariable> variables = List.of(variable("E_VAR"), variable("B_VAR"), variable("D_VAR"),
+                variable("A_VAR"), variable("C_VAR"));
+
+        // When
+        String doc = service.generateDocumentation(variables, "demo", tempDir);
+
+        // Then
+        verify(agentService, times(4)).generateDocumentation(anyList(), anyString(), any());
+        List<String> rows = doc.lines().filter(line -> line.startsWith("| `")).toList();
+        assertEquals(5, rows.size());
+        for (int i = 0; i < variables.size(); i++) {
+            String name = variables.get(i).getName();
+            assertTrue(rows.get(i).startsWith("| `" + name + "` | Описание " + name), rows.get(i));
+        }
+        assertEquals(1, meterRegistry.get("documentation.batch.duration").tag("result", "retried").timer().count());
+    }
+
+    @Test
+    void shouldReportRowsWhileStreaming() {
+        // Given: модель отдаёт ответ фрагментами по полстроки
+        config.setStreaming(true);
+        String answer = HEADER
+                + "| `DB_URL` | URL базы | url | Да | - | - | Database | - | - | - | - |\n"
+                + "| `API_KEY` | Ключ API | string | Да | - | - | Security | - | - | - | - |";
+        StreamingChatModel streamingModel = new StreamingChatModel() {
+            @Override
+            public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+                for (int i = 0; i < answer.length(); i += 40) {
+                    handler.onPartialResponse(answer.substring(i, Math.min(answer.length(), i + 40)));
+                }
+                handler.onCompleteResponse(ChatResponse.builder().aiMessage(AiMessage.from(answer)).build());
+            }
+        };
+        service = createService(streamingModel);
+        List<String> partials = new ArrayList<>();
+        List<Integer> progress = new ArrayList<>();
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("DB_URL"), variable("API_KEY")), "demo", tempDir,
+                (rows, total, partialMarkdown) -> {
+                    progress.add(rows * 100 / total);
+                    partials.add(partialMarkdown);
+                });
+
+        // Then
+        assertEquals(List.of(50, 100), progress);
+        assertTrue(partials.get(0).startsWith("# Переменные окружения для проекта demo"));
+        assertTrue(partials.get(0).contains("`DB_URL`"));
+        assertFalse(partials.get(0).contains("`API_KEY`"));
+        assertTrue(doc.contains("`API_KEY`"));
+        verifyNoInteractions(agentService);
+        assertEquals(1, meterRegistry.get("documentation.stream.first.token").timer().count());
+    }
+
+    @Test
+    void shouldUseSimpleClientWhenAgentIsSlow() throws Exception {
+        // Given: агент отвечает дольше порога hedging
+        config.getCache().setEnabled(false);
+        config.getHedging().setHedgeAfterMillis(50);
+        when(agentService.generateDocumentation(anyList(), anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return HEADER + "| `DB_URL` | От агента | url | Да | - | - | - | - | - | - | - |\n";
+        });
+        when(simpleService.generateDocumentation(anyList(), anyString()))
+                .thenReturn(HEADER + "| `DB_URL` | От простого клиента | url | Да | - | - | - | - | - | - | - |\n");
+
+        // When
+        long start = System.nanoTime();
+        String doc = service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // Then
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(doc.contains("От простого клиента"));
+        assertEquals(1, meterRegistry.get("documentation.hedge.requests")
+                .tag("hedged", "true").tag("winner", "simple").counter().count());
+    }
+
+    @Test
+    void shouldPreferSimpleClientTableOverAgentAnswerWithoutTable() throws Exception {
+        // Given: агент сразу отвечает текстом без таблицы
+        config.getCache().setEnabled(false);
+        config.getHedging().setHedgeAfterMillis(5_000);
+        when(agentService.generateDocumentation(anyList(), anyString(), any()))
+                .thenReturn("Не удалось найти описание переменных.");
+        when(simpleService.generateDocumentation(anyList(), anyString()))
+                .thenReturn(HEADER + "| `DB_URL` | От простого клиента | url | Да | - | - | - | - | - | - | - |\n");
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // Then
+        assertTrue(doc.contains("От простого клиента"));
+        verify(agentService, times(1)).generateDocumentation(anyList(), anyString(), any());
+        assertEquals(1, meterRegistry.get("documentation.hedge.requests")
+                .tag("hedged", "false").tag("winner", "simple").counter().count());
+    }
+
+    @Test
+    void shouldCountAnswersWithoutTableAsFailureWithHedging() throws Exception {
+        config.getHedging().setEnabled(true);
+        config.getHedging().setHedgeAfterMillis(5_000);
+        assertAnswersWithoutTableOpenCircuit();
+    }
+
+    @Test
+    void shouldCountAnswersWithoutTableAsFailureWithoutHedging() throws Exception {
+        config.getHedging().setEnabled(false);
+        assertAnswersWithoutTableOpenCircuit();
+    }
+
+    private void assertAnswersWithoutTableOpenCircuit() throws Exception {
+        // Given: ни агент, ни простой клиент не возвращают таблицу
+        config.getCache().setEnabled(false);
+        config.getBatching().setMaxAttempts(1);
+        config.getCircuitBreaker().setFailureThreshold(1);
+        when(agentService.generateDocumentation(anyList(), anyString(), any()))
+                .thenReturn("Не удалось найти описание переменных.");
+        when(simpleService.generateDocumentation(anyList(), anyString()))
+                .thenReturn("Описание недоступно.");
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // Then: используется локальная документация, а цепь размыкается одинаково в обоих режимах
+        assertTrue(doc.contains("`DB_URL`"));
+        assertFalse(doc.contains("Описание недоступно"));
+        verify(simpleService, times(1)).generateDocumentation(anyList(), anyString());
+        assertEquals(2.0, meterRegistry.get("gigachat.circuit.state").gauge().value());
+    }
+
+    @Test
+    void shouldUseFallbackWhileCircuitIsOpen() throws Exception {
+        // Given: после ошибки цепь размыкается
+        config.getCache().setEnabled(false);
+        config.getBatching().setMaxAttempts(1);
+        config.getCircuitBreaker().setFailureThreshold(1);
+        when(agentService.generateDocumentation(anyList(), anyString(), any()))
+                .thenThrow(new IllegalStateException("GigaChat unavailable"));
+        service.generateDocumentation(List.of(variable("DB_URL")), "demo", tempDir);
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("API_KEY")), "demo", tempDir);
+
+        // Then
+        verify(agentService, times(1)).generateDocumentation(anyList(), anyString(), any());
+        assertTrue(doc.contains("`API_KEY`"));
+        assertEquals(2.0, meterRegistry.get("gigachat.circuit.state").gauge().value());
+        assertEquals(1, meterRegistry.get("gigachat.circuit.short.circuited").counter().count());
+    }
+
+    @Test
+    void shouldDescribeWellKnownVariablesWithoutGigaChat() throws Exception {
+        // Given
+        config.getCache().setEnabled(false);
+        when(agentService.generateDocumentation(anyList(), anyString(), any()))
+                .thenReturn(HEADER + "| `API_KEY` | Ключ API | string | Да | - | - | - | - | - | - | - |\n");
+
+        // When
+        String doc = service.generateDocumentation(List.of(variable("SERVER_PORT"), variable("API_KEY"),
+                variable("LOGGING_LEVEL_ORG_HIBERNATE")), "demo", tempDir);
+
+        // Then
+        verify(agentService).generateDocumentation(argThat(vars -> vars.size() == 1
+                && vars.get(0).getName().equals("API_KEY")), eq("demo"), any());
+        assertTrue(doc.contains("| `SERVER_PORT` | Порт HTTP-сервера приложения. | int |"));
+        assertTrue(doc.contains("Уровень логирования пакета org.hibernate."));
+        assertEquals(2.0, meterRegistry.get("documentation.variables.resolved")
+                .tag("source", "knowledge_base").counter().count());
+        assertEquals(2.0 / 3, meterRegistry.get("documentation.local.resolution.ratio").gauge().value(), 1e-9);
+    }
+
+    private static EnvVariable variable(String name) {
+        return EnvVariable.builder().name(name).required(true).build();
+    }
+}
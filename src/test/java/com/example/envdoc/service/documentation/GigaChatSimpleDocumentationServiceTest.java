@@ -1,6 +1,9 @@
 package com.example.envdoc.service.documentation;
 
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.RateLimitMetrics;
 import com.example.envdoc.model.EnvVariable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -14,7 +17,9 @@ class GigaChatSimpleDocumentationServiceTest {
     void shouldReturnNullWhenModelMissing() {
         GigaChatPromptBuilder promptBuilder = new GigaChatPromptBuilder();
         GigaChatSimpleDocumentationService service =
-                new GigaChatSimpleDocumentationService(promptBuilder, Optional.empty());
+                new GigaChatSimpleDocumentationService(promptBuilder,
+                        new GigaChatRateLimiter(new GigaChatConfig(), new RateLimitMetrics(new SimpleMeterRegistry())),
+                        Optional.empty());
 
         String result = service.generateDocumentation(List.of(EnvVariable.builder()
                 .name("TEST_VAR")
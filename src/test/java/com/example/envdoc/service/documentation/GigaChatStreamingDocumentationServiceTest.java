@@ -0,0 +1,87 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.DocumentationMetrics;
+import com.example.envdoc.metrics.RateLimitMetrics;
+import com.example.envdoc.model.EnvVariable;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigaChatStreamingDocumentationServiceTest {
+
+    private static final String ANSWER = """
+            # Переменные окружения для проекта demo
+
+            | Переменная | Описание | Тип | Обязательная | По умолчанию | Пример | Категория | Модуль | Источник | Инициализация | Использования |
+            |---|---|---|---|---|---|---|---|---|---|---|
+            | `DB_URL` | URL базы | url | Да | - | - | Database | - | - | - | - |
+            """;
+
+    private GigaChatConfig config;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        config.setStreaming(true);
+        config.setTimeoutSeconds(1);
+        config.getRateLimit().setRequestsPerSecond(0);
+        config.getRateLimit().setTokensPerMinute(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldDropTokensOfAbandonedStreamAndHoldQuotaUntilItEnds() throws Exception {
+        // Given: первая попытка зависает, вторая отвечает сразу
+        AtomicReference<StreamingChatResponseHandler> abandoned = new AtomicReference<>();
+        AtomicInteger calls = new AtomicInteger();
+        StreamingChatModel streamingModel = new StreamingChatModel() {
+            @Override
+            public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+                if (calls.incrementAndGet() == 1) {
+                    handler.onPartialResponse("# Переменные");
+                    abandoned.set(handler);
+                    return;
+                }
+                handler.onPartialResponse(ANSWER);
+                handler.onCompleteResponse(ChatResponse.builder().aiMessage(AiMessage.from(ANSWER)).build());
+            }
+        };
+        GigaChatStreamingDocumentationService service = new GigaChatStreamingDocumentationService(
+                new GigaChatPromptBuilder(), config, new DocumentationMetrics(meterRegistry),
+                new GigaChatRateLimiter(config, new RateLimitMetrics(meterRegistry)), streamingModel);
+        DocumentationStream stream = new DocumentationStream(1, (rows, total, partialMarkdown) -> {
+        });
+        DocumentationStream.Part part = stream.part();
+        List<EnvVariable> variables = List.of(EnvVariable.builder().name("DB_URL").build());
+
+        // When
+        assertThrows(TimeoutException.class, () -> service.generateDocumentation(variables, "demo", part));
+        String retried = service.generateDocumentation(variables, "demo", part);
+        double inFlightWhileAbandoned = meterRegistry.get("gigachat.ratelimit.in.flight").gauge().value();
+        abandoned.get().onPartialResponse("\n| `STALE` | Устаревший ответ | string | Да | - | - | - | - | - | - | - |\n");
+        abandoned.get().onCompleteResponse(ChatResponse.builder().aiMessage(AiMessage.from("stale")).build());
+
+        // Then
+        assertEquals(ANSWER, retried);
+        assertEquals(ANSWER, part.text());
+        assertFalse(stream.partialMarkdown().contains("STALE"));
+        assertEquals(1, stream.rows());
+        assertEquals(1.0, inFlightWhileAbandoned);
+        assertEquals(0.0, meterRegistry.get("gigachat.ratelimit.in.flight").gauge().value());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.envdoc.service.documentation;
+
+import chat.giga.client.auth.AuthClient;
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.metrics.ConnectionMetrics;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class GigaChatWarmupTest {
+
+    private final GigaChatConfig config = new GigaChatConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldFetchTokenAndOpenConnectionWithOneTokenProbe() {
+        // Given
+        AuthClient authClient = mock(AuthClient.class);
+        when(authClient.getToken()).thenReturn("token");
+        ChatModel chatModel = mock(ChatModel.class);
+        GigaChatWarmup warmup = new GigaChatWarmup(config, new ConnectionMetrics(meterRegistry), authClient, chatModel);
+
+        // When
+        warmup.warmUp();
+
+        // Then
+        verify(chatModel).chat(argThat((ChatRequest request) -> request.maxOutputTokens() == 1));
+        assertEquals(1, meterRegistry.get("gigachat.warmup.duration")
+                .tag("stage", "token").tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("gigachat.warmup.duration")
+                .tag("stage", "connection").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void shouldSkipProbeAndRecordErrorWhenTokenIsUnavailable() {
+        // Given
+        AuthClient authClient = mock(AuthClient.class);
+        when(authClient.getToken()).thenThrow(new IllegalStateException("401 Unauthorized"));
+        ChatModel chatModel = mock(ChatModel.class);
+        GigaChatWarmup warmup = new GigaChatWarmup(config, new ConnectionMetrics(meterRegistry), authClient, chatModel);
+
+        // When
+        warmup.warmUp();
+
+        // Then
+        verify(chatModel, never()).chat(any(ChatRequest.class));
+        assertEquals(1, meterRegistry.get("gigachat.warmup.duration")
+                .tag("stage", "token").tag("result", "error").timer().count());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnowledgeBaseTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldResolveExactNamesAndMostSpecificPattern() {
+        // Given
+        KnowledgeBase knowledgeBase = new KnowledgeBase(new GigaChatConfig());
+
+        // When / Then
+        assertEquals("2", knowledgeBase.version());
+        assertEquals("list", knowledgeBase.lookup("SPRING_KAFKA_BOOTSTRAP_SERVERS").orElseThrow().type());
+        assertEquals("Включает endpoint Actuator health.",
+                knowledgeBase.lookup("MANAGEMENT_ENDPOINT_HEALTH_ENABLED").orElseThrow().description());
+        assertTrue(knowledgeBase.lookup("MANAGEMENT_TRACING_SAMPLING_PROBABILITY").isEmpty());
+        assertTrue(knowledgeBase.lookup("MANAGEMENT_FEE_PERCENT").isEmpty());
+        assertTrue(knowledgeBase.lookup("BILLING_API_URL").isEmpty());
+    }
+
+    @Test
+    void shouldMatchPropertyStyleNamesLikeRelaxedBinding() {
+        // Given
+        KnowledgeBase knowledgeBase = new KnowledgeBase(new GigaChatConfig());
+
+        // When / Then
+        assertEquals("Порт HTTP-сервера приложения.", knowledgeBase.lookup("server.port").orElseThrow().description());
+        assertEquals("url", knowledgeBase.lookup("spring.datasource-url").orElseThrow().type());
+        assertEquals("Уровень логирования пакета org.hibernate.",
+                knowledgeBase.lookup("logging.level.org.hibernate").orElseThrow().description());
+        assertTrue(knowledgeBase.lookup("server.portal").isEmpty());
+    }
+
+    @Test
+    void shouldKeepTypeFromDeclarationOverPatternType() {
+        // Given: шаблон LOGGING_LEVEL_* описывает строку, а поле объявлено как boolean
+        KnowledgeBase knowledgeBase = new KnowledgeBase(new GigaChatConfig());
+        EnvVariable declared = EnvVariable.builder()
+                .name("LOGGING_LEVEL_AUDIT")
+                .definition(VariableDefinition.builder().javaType("boolean").build())
+                .build();
+        EnvVariable plain = EnvVariable.builder().name("LOGGING_LEVEL_WEB").build();
+
+        // When
+        knowledgeBase.resolve(List.of(declared, plain));
+
+        // Then
+        assertEquals("Уровень логирования пакета audit.", declared.getDescription());
+        assertEquals("boolean", declared.getDataType());
+        assertNull(declared.getExampleValue());
+        assertEquals("string", plain.getDataType());
+        assertEquals("DEBUG", plain.getExampleValue());
+    }
+
+    @Test
+    void shouldPreferOrganizationEntriesAndKeepExistingDescriptions() throws Exception {
+        // Given
+        Path orgFile = tempDir.resolve("org-variables.yml");
+        Files.writeString(orgFile, """
+                version: 7
+                variables:
+                  - names: [SERVER_PORT]
+                    description: Порт сервиса за балансировщиком.
+                    type: int
+                  - pattern: BILLING_*_URL
+                    description: Адрес сервиса биллинга {match}.
+                    type: url
+                    category: Внешние сервисы
+                """);
+        GigaChatConfig config = new GigaChatConfig();
+        config.getKnowledgeBase().setOrgFile(orgFile.toString());
+        KnowledgeBase knowledgeBase = new KnowledgeBase(config);
+        EnvVariable port = EnvVariable.builder().name("SERVER_PORT").build();
+        EnvVariable billing = EnvVariable.builder().name("BILLING_INVOICES_URL").build();
+        EnvVariable described = EnvVariable.builder().name("SPRING_DATASOURCE_URL").description("Своя БД").build();
+        EnvVariable unknown = EnvVariable.builder().name("ORDERS_LIMIT").build();
+
+        // When
+        List<EnvVariable> unresolved = knowledgeBase.resolve(List.of(port, billing, described, unknown));
+
+        // Then
+        assertEquals(List.of(described, unknown), unresolved);
+        assertEquals("2+org-7", knowledgeBase.version());
+        assertEquals("Порт сервиса за балансировщиком.", port.getDescription());
+        assertNull(port.getCategory());
+        assertEquals("Адрес сервиса биллинга invoices.", billing.getDescription());
+        assertEquals("url", billing.getDataType());
+        assertEquals("Своя БД", described.getDescription());
+    }
+
+    @Test
+    void shouldCheckOrganizationPatternsBeforeBuiltInEntries() throws Exception {
+        // Given
+        Path orgFile = tempDir.resolve("org-variables.yml");
+        Files.writeString(orgFile, """
+                version: 1
+                variables:
+                  - pattern: LOGGING_*
+                    description: Настройка логирования платформы {match}.
+                    category: Логирование
+                  - pattern: SERVER_*
+                    description: Параметр сервера {match}, задаётся платформой.
+                """);
+        GigaChatConfig config = new GigaChatConfig();
+        config.getKnowledgeBase().setOrgFile(orgFile.toString());
+        KnowledgeBase knowledgeBase = new KnowledgeBase(config);
+
+        // When / Then
+        assertEquals("Параметр сервера address, задаётся платформой.",
+                knowledgeBase.lookup("SERVER_ADDRESS").orElseThrow().description());
+        assertEquals("Настройка логирования платформы level.web.",
+                knowledgeBase.lookup("LOGGING_LEVEL_WEB").orElseThrow().description());
+        assertEquals("JDBC URL основной базы данных.",
+                knowledgeBase.lookup("SPRING_DATASOURCE_URL").orElseThrow().description());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.config.GigaChatConfig;
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.VariableDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptBatcherTest {
+
+    private GigaChatConfig config;
+    private GigaChatPromptBuilder promptBuilder;
+
+    @BeforeEach
+    void setUp() {
+        config = new GigaChatConfig();
+        promptBuilder = new GigaChatPromptBuilder();
+    }
+
+    @Test
+    void shouldKeepModuleGroupsTogether() {
+        // Given
+        config.getBatching().setMaxVariables(3);
+        List<EnvVariable> variables = List.of(
+                variable("ORDERS_DB", "orders"), variable("BILLING_DB", "billing"),
+                variable("ORDERS_TOPIC", "orders"), variable("BILLING_KEY", "billing"));
+
+        // When
+        List<List<EnvVariable>> batches = new PromptBatcher(config, promptBuilder).split(variables);
+
+        // Then
+        assertEquals(List.of(List.of("BILLING_DB", "BILLING_KEY"), List.of("ORDERS_DB", "ORDERS_TOPIC")),
+                batches.stream().map(PromptBatcherTest::names).toList());
+    }
+
+    @Test
+    void shouldRespectTokenBudget() {
+        // Given
+        List<EnvVariable> variables = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            variables.add(variable("VAR_" + i, "app"));
+        }
+        int overhead = promptBuilder.overheadTokens();
+        int perVariable = TokenEstimator.estimate(promptBuilder.variableJson(variables.get(0)));
+        config.getBatching().setPromptTokenBudget(overhead + perVariable * 10);
+
+        // When
+        List<List<EnvVariable>> batches = new PromptBatcher(config, promptBuilder).split(variables);
+
+        // Then
+        assertTrue(batches.size() >= 4);
+        assertEquals(40, batches.stream().mapToInt(List::size).sum());
+        for (List<EnvVariable> batch : batches) {
+            int tokens = batch.stream()
+                    .mapToInt(v -> TokenEstimator.estimate(promptBuilder.variableJson(v)))
+                    .sum();
+            assertTrue(tokens <= perVariable * 11, "batch over budget: " + tokens);
+        }
+    }
+
+    @Test
+    void shouldReservePrefetchBudgetForAgentBatches() {
+        // Given: бюджет вмещает 20 переменных, из них 10 — место под выдержки классов
+        List<EnvVariable> variables = new ArrayList<>();
+        for (int i = 10; i < 30; i++) {
+            variables.add(variable("VAR_" + i, "app"));
+        }
+        int perVariable = TokenEstimator.estimate(promptBuilder.variableJson(variables.get(0)));
+        config.getPrefetch().setTokenBudget(perVariable * 10);
+        config.getBatching().setPromptTokenBudget(promptBuilder.overheadTokens() + perVariable * 20);
+        PromptBatcher batcher = new PromptBatcher(config, promptBuilder);
+
+        // When
+        List<List<EnvVariable>> simple = batcher.split(variables);
+        List<List<EnvVariable>> agent = batcher.split(variables, true);
+
+        // Then
+        assertEquals(1, simple.size());
+        assertTrue(agent.size() >= 2);
+        for (List<EnvVariable> batch : agent) {
+            int tokens = batch.stream()
+                    .mapToInt(v -> TokenEstimator.estimate(promptBuilder.variableJson(v)))
+                    .sum();
+            assertTrue(tokens + config.getPrefetch().getTokenBudget()
+                    <= config.getBatching().getPromptTokenBudget() - promptBuilder.overheadTokens());
+        }
+    }
+
+    @Test
+    void shouldReturnSingleBatchWhenDisabled() {
+        // Given
+        config.getBatching().setEnabled(false);
+        config.getBatching().setMaxVariables(1);
+        List<EnvVariable> variables = List.of(variable("A", "app"), variable("B", "app"));
+
+        // When
+        List<List<EnvVariable>> batches = new PromptBatcher(config, promptBuilder).split(variables);
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(variables, batches.get(0));
+    }
+
+    private static EnvVariable variable(String name, String module) {
+        return EnvVariable.builder()
+                .name(name)
+                .definition(VariableDefinition.builder()
+                        .type(DefinitionType.SYSTEM_GETENV)
+                        .moduleName(module)
+                        .build())
+                .build();
+    }
+
+    private static List<String> names(List<EnvVariable> batch) {
+        return batch.stream().map(EnvVariable::getName).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.envdoc.service.documentation;
+
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariableTypeInferenceTest {
+
+    private final VariableTypeInference inference = new VariableTypeInference();
+
+    @Test
+    void shouldInferTypeFromJavaTypeDefaultValueAndName() {
+        // Given
+        EnvVariable timeout = variable("CLIENT_TIMEOUT", null, "Duration");
+        EnvVariable retries = variable("HTTP_RETRIES", "3", null);
+        EnvVariable enabled = variable("CACHE_ENABLED", null, null);
+        EnvVariable url = variable("BILLING_URL", "https://billing/api", null);
+        EnvVariable password = variable("DB_PASSWORD", null, "String");
+        EnvVariable tokenTtl = variable("TOKEN_TTL", null, null);
+        EnvVariable hosts = variable("KAFKA_BROKERS", null, "List<String>");
+
+        // When
+        Map<VariableTypeInference.Field, Integer> filled = inference.inferAll(
+                List.of(timeout, retries, enabled, url, password, tokenTtl, hosts));
+
+        // Then
+        assertEquals("duration", timeout.getDataType());
+        assertEquals("int", retries.getDataType());
+        assertEquals("boolean", enabled.getDataType());
+        assertEquals("url", url.getDataType());
+        assertEquals("secret", password.getDataType());
+        assertEquals("duration", tokenTtl.getDataType());
+        assertEquals("list", hosts.getDataType());
+        assertEquals(7, filled.get(VariableTypeInference.Field.TYPE));
+    }
+
+    @Test
+    void shouldInferCategoryAndExampleWithoutOverwritingKnownValues() {
+        // Given
+        EnvVariable port = variable("SERVER_PORT", null, "int");
+        EnvVariable secret = variable("JWT_SECRET", "dev-secret", null);
+        EnvVariable flag = variable("NEW_CHECKOUT_ENABLED", "true", null);
+        EnvVariable billing = variable("BILLING_REGION", null, null);
+        Map<UsagePurpose, Integer> purposes = new EnumMap<>(UsagePurpose.class);
+        purposes.put(UsagePurpose.OTHER, 5);
+        purposes.put(UsagePurpose.EXTERNAL_API, 2);
+        billing.setUsagePurposeCounts(purposes);
+        EnvVariable described = variable("APP_MODE", null, null);
+        described.setDataType("enum");
+        described.setCategory("Приложение");
+
+        // When
+        inference.inferAll(List.of(port, secret, flag, billing, described));
+
+        // Then
+        assertEquals("Сервер и сеть", port.getCategory());
+        assertEquals("8080", port.getExampleValue());
+        assertEquals("Безопасность", secret.getCategory());
+        assertEquals("<secret>", secret.getExampleValue());
+        assertEquals("false", flag.getExampleValue());
+        assertEquals("Внешние сервисы", billing.getCategory());
+        assertNull(billing.getExampleValue());
+        assertEquals("enum", described.getDataType());
+        assertEquals("Приложение", described.getCategory());
+    }
+
+    private static EnvVariable variable(String name, String defaultValue, String javaType) {
+        return EnvVariable.builder()
+                .name(name)
+                .defaultValue(defaultValue)
+                .definition(VariableDefinition.builder()
+                        .type(DefinitionType.SPRING_VALUE)
+                        .javaType(javaType)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.envdoc.service.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverMissAddedItemsAndRarelyMatchOthers() {
+        // Given
+        List<String> items = IntStream.range(0, 2000).mapToObj(i -> "VAR_" + i).toList();
+        BloomFilter filter = BloomFilter.of(items, 0.01);
+
+        // When
+        long falsePositives = IntStream.range(0, 10000)
+                .mapToObj(i -> "OTHER_" + i)
+                .filter(filter::mightContain)
+                .count();
+
+        // Then
+        assertTrue(items.stream().allMatch(filter::mightContain));
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldRestoreFromBits() {
+        // Given
+        BloomFilter filter = BloomFilter.of(List.of("DB_URL", "app.mail.host"), 0.01);
+
+        // When
+        BloomFilter restored = BloomFilter.restore(filter.bits(), filter.hashes());
+
+        // Then
+        assertEquals(filter, restored);
+        assertTrue(restored.mightContain("app.mail.host"));
+    }
+
+    @Test
+    void shouldFingerprintIdentifiersAndLiterals() {
+        // Given
+        BloomFilter fingerprint = UsageCache.fingerprint("""
+                @Value("${app.mail.host:localhost}")
+                String host = System.getenv("DB_URL");
+                """);
+
+        // Then
+        assertTrue(UsageCache.mayContain(fingerprint, "app.mail.host"));
+        assertTrue(UsageCache.mayContain(fingerprint, "DB_URL"));
+        assertFalse(UsageCache.mayContain(fingerprint, "KAFKA_BROKERS"));
+        // Имена с символами вне токенов отпечатком не покрываются
+        assertTrue(UsageCache.mayContain(fingerprint, "list[0]"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.expr.Expression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantIndexTest {
+
+    @Test
+    void shouldRegisterOnlyStringConstants() {
+        // Given
+        ConstantIndex index = new ConstantIndex();
+
+        // When
+        index.register(StaticJavaParser.parse("""
+                package com.example;
+
+                public class Keys {
+                    public static final String DB_URL = "DB_URL";
+                    public static final java.lang.String DB_USER = "DB_USER";
+                    public static final ConnectionString DB_CONNECTION = "DB_CONNECTION";
+                    public static final MyString DB_NAME = "DB_NAME";
+                }
+                """));
+
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(Optional.of("DB_URL"), resolve(index, "com.example.Keys.DB_URL"));
+        assertEquals(Optional.of("DB_USER"), resolve(index, "com.example.Keys.DB_USER"));
+        assertEquals(Optional.empty(), resolve(index, "com.example.Keys.DB_CONNECTION"));
+    }
+
+    private Optional<String> resolve(ConstantIndex index, String reference) {
+        Expression expression = StaticJavaParser.parseExpression(reference);
+        return index.resolve(expression);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.envdoc.service.extraction;
 
+import com.example.envdoc.config.ExtractionConfig;
 import com.example.envdoc.model.DefinitionType;
 import com.example.envdoc.model.EnvVariable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -9,6 +11,8 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,6 +21,7 @@ class EnvVarExtractorTest {
 
     private EnvVarExtractor extractor;
     private SourceCodeAnalyzer sourceCodeAnalyzer;
+    private SimpleMeterRegistry meterRegistry;
 
     @TempDir
     Path tempDir;
@@ -24,7 +29,23 @@ class EnvVarExtractorTest {
     @BeforeEach
     void setUp() {
         sourceCodeAnalyzer = new SourceCodeAnalyzer();
-        extractor = new EnvVarExtractor(sourceCodeAnalyzer);
+        meterRegistry = new SimpleMeterRegistry();
+        extractor = createExtractor(false);
+    }
+
+    private EnvVarExtractor createExtractor(boolean typeResolution) {
+        ExtractionConfig config = new ExtractionConfig();
+        config.setParallelism(2);
+        config.getTypeResolution().setEnabled(typeResolution);
+        return TestExtractors.envVarExtractor(sourceCodeAnalyzer, config, meterRegistry);
+    }
+
+    private EnvVarExtractor createPreciseExtractor(int parallelism, long fileBudgetMillis) {
+        ExtractionConfig config = new ExtractionConfig();
+        config.setParallelism(parallelism);
+        config.getTypeResolution().setEnabled(true);
+        config.getTypeResolution().setFileBudgetMillis(fileBudgetMillis);
+        return TestExtractors.envVarExtractor(sourceCodeAnalyzer, config, meterRegistry);
     }
 
     @Test
@@ -432,4 +453,299 @@ class EnvVarExtractorTest {
         assertNull(variables.get("TEST_VAR"));
         assertNull(variables.get("TEST_CONFIG"));
     }
+
+    @Test
+    void shouldResolveConstantArgumentsAcrossFiles() throws IOException {
+        // Given
+        Path javaDir = tempDir.resolve("src/main/java/com/example");
+        Path keysDir = tempDir.resolve("src/main/java/com/example/keys");
+        Files.createDirectories(javaDir);
+        Files.createDirectories(keysDir);
+
+        Files.writeString(javaDir.resolve("Client.java"), """
+            package com.example;
+
+            import com.example.keys.Keys;
+            import org.springframework.core.env.Environment;
+
+            import static com.example.keys.Keys.API_TOKEN;
+
+            public class Client {
+                private static final String PREFIX = "client.";
+                private static final String TIMEOUT = PREFIX + "timeout";
+
+                private final Environment env;
+
+                public Client(Environment env) {
+                    this.env = env;
+                }
+
+                public String url() {
+                    return System.getenv(Keys.DB_URL);
+                }
+
+                public String token() {
+                    return System.getenv(API_TOKEN);
+                }
+
+                public String timeout() {
+                    return env.getProperty(TIMEOUT, Keys.DEFAULT_TIMEOUT);
+                }
+
+                public String retries() {
+                    return env.getProperty(PREFIX + "retries");
+                }
+
+                public String dynamic(String key) {
+                    return System.getenv(key);
+                }
+            }
+            """);
+        Files.writeString(keysDir.resolve("Keys.java"), """
+            package com.example.keys;
+
+            public final class Keys {
+                public static final String DB_URL = "DATABASE_" + "URL";
+                public static final String API_TOKEN = "API_TOKEN";
+                public static final String DEFAULT_TIMEOUT = "30s";
+
+                private Keys() {
+                }
+            }
+            """);
+
+        // When
+        Map<String, EnvVariable> variables = extractor.extractAllVariables(tempDir);
+
+        // Then
+        assertEquals(4, variables.size());
+
+        EnvVariable dbUrl = variables.get("DATABASE_URL");
+        assertNotNull(dbUrl);
+        assertEquals(DefinitionType.SYSTEM_GETENV, dbUrl.getDefinition().getType());
+        assertEquals("url", dbUrl.getDefinition().getFieldOrMethodName());
+
+        assertNotNull(variables.get("API_TOKEN"));
+
+        EnvVariable timeout = variables.get("CLIENT_TIMEOUT");
+        assertNotNull(timeout);
+        assertEquals("30s", timeout.getDefaultValue());
+        assertFalse(timeout.isRequired());
+
+        EnvVariable retries = variables.get("CLIENT_RETRIES");
+        assertNotNull(retries);
+        assertTrue(retries.isRequired());
+    }
+
+    @Test
+    void shouldClassifyEnvironmentReceiversByTypeInPreciseMode() throws IOException {
+        // Given
+        Path javaDir = tempDir.resolve("src/main/java/com/example");
+        Files.createDirectories(javaDir);
+
+        Files.writeString(javaDir.resolve("Envelope.java"), """
+            package com.example;
+
+            public class Envelope {
+                public String getProperty(String name) { return name; }
+            }
+            """);
+
+        Files.writeString(javaDir.resolve("Settings.java"), """
+            package com.example;
+
+            import java.util.Properties;
+            import org.springframework.core.env.Environment;
+
+            public class Settings {
+                private final Environment environment;
+                private final Properties envProps = new Properties();
+                private final Envelope envelope = new Envelope();
+
+                public Settings(Environment environment) {
+                    this.environment = environment;
+                }
+
+                public void load() {
+                    environment.getProperty("service.url");
+                    envProps.getProperty("props.key");
+                    envelope.getProperty("envelope.key");
+                }
+            }
+            """);
+
+        // When
+        Map<String, EnvVariable> heuristic = extractor.extractAllVariables(tempDir);
+        Map<String, EnvVariable> precise = createExtractor(true).extractAllVariables(tempDir);
+
+        // Then
+        assertTrue(heuristic.containsKey("SERVICE_URL"));
+        assertTrue(heuristic.containsKey("PROPS_KEY"));
+        assertTrue(heuristic.containsKey("ENVELOPE_KEY"));
+
+        assertEquals(1, precise.size());
+        assertEquals(DefinitionType.ENVIRONMENT_API, precise.get("SERVICE_URL").getDefinition().getType());
+    }
+
+    @Test
+    void shouldClassifyEnvironmentReceiversByTypeInParallel() throws IOException {
+        // Given
+        int files = 12;
+        for (int module = 0; module < 3; module++) {
+            Path javaDir = tempDir.resolve("module-" + module + "/src/main/java/com/example/m" + module);
+            Files.createDirectories(javaDir);
+            Files.writeString(javaDir.resolve("Envelope.java"), """
+                package com.example.m%d;
+
+                public class Envelope {
+                    public String getProperty(String name) { return name; }
+                }
+                """.formatted(module));
+            for (int i = 0; i < files / 3; i++) {
+                Files.writeString(javaDir.resolve("Settings" + i + ".java"), """
+                    package com.example.m%1$d;
+
+                    import org.springframework.core.env.Environment;
+
+                    public class Settings%2$d {
+                        private final Environment environment;
+                        private final Envelope envelope = new Envelope();
+
+                        public Settings%2$d(Environment environment) {
+                            this.environment = environment;
+                        }
+
+                        public void load() {
+                            environment.getProperty("service.m%1$d.url%2$d");
+                            envelope.getProperty("envelope.m%1$d.key%2$d");
+                        }
+                    }
+                    """.formatted(module, i));
+            }
+        }
+
+        // When
+        Map<String, EnvVariable> variables = createPreciseExtractor(4, 5_000).extractAllVariables(tempDir);
+
+        // Then
+        assertEquals(files, variables.size());
+        for (int module = 0; module < 3; module++) {
+            for (int i = 0; i < files / 3; i++) {
+                EnvVariable variable = variables.get("SERVICE_M" + module + "_URL" + i);
+                assertNotNull(variable, "SERVICE_M" + module + "_URL" + i);
+                assertEquals(DefinitionType.ENVIRONMENT_API, variable.getDefinition().getType());
+            }
+        }
+        assertNull(meterRegistry.find("extraction.type.resolution.fallback").tag("reason", "budget").counter());
+    }
+
+    @Test
+    void shouldRunOnlyEnabledExtractorsAndReportPluginMetrics() throws IOException {
+        // Given
+        Path javaDir = tempDir.resolve("src/main/java/com/example");
+        Files.createDirectories(javaDir);
+
+        Files.writeString(javaDir.resolve("ClientProperties.java"), """
+            package com.example;
+
+            import org.springframework.boot.context.properties.ConfigurationProperties;
+
+            @ConfigurationProperties(prefix = "client")
+            public class ClientProperties {
+                private String url;
+            }
+            """);
+
+        Files.writeString(javaDir.resolve("Launcher.java"), """
+            package com.example;
+
+            public class Launcher {
+                public String home() {
+                    return System.getenv("APP_HOME");
+                }
+            }
+            """);
+
+        // When
+        Map<String, EnvVariable> variables = extractor.extractAllVariables(tempDir,
+                List.of(DefinitionType.SYSTEM_GETENV, DefinitionType.SPRING_VALUE), null);
+
+        // Then
+        assertTrue(variables.containsKey("APP_HOME"));
+        assertFalse(variables.containsKey("CLIENT_URL"));
+
+        assertEquals(2, meterRegistry.get("extraction.plugin.duration")
+                .tag("plugin", "SYSTEM_GETENV").timer().count());
+        assertEquals(1.0, meterRegistry.get("extraction.plugin.candidates")
+                .tag("plugin", "SYSTEM_GETENV").counter().count());
+        assertEquals(1.0, meterRegistry.get("extraction.plugin.examined")
+                .tag("plugin", "SYSTEM_GETENV").counter().count());
+        assertNull(meterRegistry.find("extraction.plugin.duration")
+                .tag("plugin", "CONFIG_PROPERTIES").timer());
+    }
+
+    @Test
+    void shouldExtractModulesAsShardsAndKeepModuleNamespaces() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        Path orders = tempDir.resolve("orders");
+        Path billing = tempDir.resolve("billing");
+        Files.createDirectories(orders.resolve("src/main/resources"));
+        Files.createDirectories(orders.resolve("src/main/java/com/acme/orders"));
+        Files.createDirectories(billing.resolve("src/main/java/com/acme/billing"));
+        Files.writeString(orders.resolve("pom.xml"), "<project/>");
+        Files.writeString(billing.resolve("build.gradle"), "");
+
+        Files.writeString(orders.resolve("src/main/resources/application.yml"), """
+            orders:
+              url: ${ORDERS_URL:http://orders}
+              token: ${SHARED_TOKEN}
+            """);
+        Files.writeString(orders.resolve("src/main/java/com/acme/orders/OrdersClient.java"), """
+            package com.acme.orders;
+
+            import com.acme.billing.BillingNames;
+
+            public class OrdersClient {
+                public String key() {
+                    return System.getenv("ORDERS_KEY") + System.getenv(BillingNames.BILLING_KEY);
+                }
+            }
+            """);
+        Files.writeString(billing.resolve("src/main/java/com/acme/billing/BillingNames.java"), """
+            package com.acme.billing;
+
+            public class BillingNames {
+                public static final String BILLING_KEY = "BILLING_KEY";
+
+                public String token() {
+                    return System.getenv("SHARED_TOKEN") + System.getenv(BILLING_KEY);
+                }
+            }
+            """);
+
+        List<String> progress = new ArrayList<>();
+
+        // When
+        ExtractionResult result = extractor.extract(tempDir, null, null,
+                (module, completed, total) -> progress.add(module + ":" + completed + "/" + total));
+
+        // Then
+        Map<String, EnvVariable> variables = result.variables();
+        assertEquals(List.of("ORDERS_URL", "SHARED_TOKEN"), List.copyOf(variables.keySet()).subList(0, 2));
+        assertTrue(variables.keySet().containsAll(List.of("ORDERS_KEY", "BILLING_KEY")));
+        assertEquals(DefinitionType.APPLICATION_YAML, variables.get("SHARED_TOKEN").getDefinition().getType());
+        assertEquals("orders", variables.get("ORDERS_KEY").getDefinition().getModuleName());
+
+        assertEquals(List.of("ORDERS_URL", "SHARED_TOKEN", "ORDERS_KEY", "BILLING_KEY"),
+                result.moduleVariables().get("orders"));
+        assertEquals(List.of("SHARED_TOKEN", "BILLING_KEY"), result.moduleVariables().get("billing"));
+        assertEquals(2, result.moduleVariables().size());
+
+        assertEquals(2, progress.size());
+        assertTrue(progress.get(0).endsWith(":1/2"));
+        assertTrue(progress.get(1).endsWith(":2/2"));
+        assertEquals(2, meterRegistry.get("extraction.module.duration")
+                .tag("stage", "extract").timer().count());
+    }
 }
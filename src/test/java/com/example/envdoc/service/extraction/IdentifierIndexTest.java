@@ -0,0 +1,64 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentifierIndexTest {
+
+    private final IdentifierIndex index = IdentifierIndex.of(StaticJavaParser.parse("""
+            package com.example;
+
+            public class Client {
+                private String url;
+                private StringBuilder urlBuilder;
+
+                public String plain() {
+                    return url;
+                }
+
+                public String qualified() {
+                    return this.url.trim();
+                }
+
+                public void builder() {
+                    urlBuilder.append("url");
+                }
+
+                public Runnable task() {
+                    return new Runnable() {
+                        public void run() {
+                            System.out.println(url);
+                        }
+                    };
+                }
+            }
+            """));
+
+    @Test
+    void shouldMatchExactIdentifiersOnly() {
+        // When
+        List<String> users = index.methodsUsing("url").stream()
+                .map(MethodDeclaration::getNameAsString)
+                .toList();
+
+        // Then
+        assertEquals(List.of("plain", "qualified", "task", "run"), users);
+        assertEquals(List.of("builder"), index.methodsUsing("urlBuilder").stream()
+                .map(MethodDeclaration::getNameAsString).toList());
+        assertTrue(index.methodsUsing("missing").isEmpty());
+        assertFalse(index.identifiers().contains("trim"));
+    }
+
+    @Test
+    void shouldFindOutermostMethodByLine() {
+        // Then
+        assertEquals("task", index.methodAt(22).map(MethodDeclaration::getNameAsString).orElseThrow());
+        assertEquals("plain", index.methodAt(8).map(MethodDeclaration::getNameAsString).orElseThrow());
+        assertTrue(index.methodAt(4).isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.model.DefinitionType;
+import com.example.envdoc.model.EnvVariable;
+import com.example.envdoc.model.ExtractionMode;
+import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.service.extraction.plugin.VariableCandidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexicalEnvVarScannerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LexicalEnvVarScannerTest.class);
+    private static final Path REPORT = Path.of("target", "extraction-report", "lexical-vs-ast.tsv");
+
+    private final LexicalEnvVarScanner scanner = new LexicalEnvVarScanner();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRecognizeEnvAccessTokenSequences() {
+        // Given
+        String source = """
+            package com.example;
+
+            @ConfigurationProperties(prefix = "client")
+            public class Client {
+                // System.getenv("IN_COMMENT")
+                @Value("${CLIENT_TOKEN:}")
+                private String token;
+
+                private int retries = 3;
+
+                private final Map<String, List<? extends Number>> limits = Map.of();
+
+                @Value("${SETTER_ONLY}")
+                public void setName(String name) {
+                }
+
+                public String url() {
+                    String text = "System.getenv(\\"IN_STRING\\")";
+                    String block = \"""
+                        System.getenv("IN_TEXT_BLOCK")
+                        \""";
+                    return System.getenv("CLIENT_URL");
+                }
+
+                public String timeout() {
+                    return environment.getProperty("client.timeout", "30s");
+                }
+            }
+            """;
+
+        // When
+        List<VariableCandidate> candidates = scanner.scan(source.toCharArray(), "Client.java",
+                "com.example.Client", "app", Map.of()).candidates();
+
+        // Then
+        Map<String, VariableDefinition> byName = new LinkedHashMap<>();
+        candidates.forEach(c -> byName.putIfAbsent(literal(c), c.definition()));
+
+        assertEquals(List.of("CLIENT_TOKEN", "CLIENT_TOKEN", "CLIENT_RETRIES", "CLIENT_LIMITS", "CLIENT_URL",
+                        "CLIENT_TIMEOUT"),
+                candidates.stream().map(this::literal).toList());
+
+        VariableDefinition token = candidates.get(0).definition();
+        assertEquals(DefinitionType.SPRING_VALUE, token.getType());
+        assertEquals("token", token.getFieldOrMethodName());
+        assertEquals(6, token.getLineNumber());
+        assertEquals("String", token.getJavaType());
+
+        VariableDefinition url = byName.get("CLIENT_URL");
+        assertEquals(DefinitionType.SYSTEM_GETENV, url.getType());
+        assertEquals("url", url.getFieldOrMethodName());
+        assertEquals("System.getenv(\"CLIENT_URL\")", url.getCodeSnippet());
+
+        VariableDefinition timeout = byName.get("CLIENT_TIMEOUT");
+        assertEquals(DefinitionType.ENVIRONMENT_API, timeout.getType());
+        assertEquals("timeout", timeout.getFieldOrMethodName());
+
+        assertEquals(DefinitionType.CONFIG_PROPERTIES, byName.get("CLIENT_RETRIES").getType());
+        assertEquals("int", byName.get("CLIENT_RETRIES").getJavaType());
+        assertEquals("Map<String,List<? extends Number>>", byName.get("CLIENT_LIMITS").getJavaType());
+        assertNull(url.getJavaType());
+    }
+
+    /**
+     * Сравнение с AST режимом на эталонном корпусе: lexical режим не разрешает константы,
+     * поэтому допускается небольшая потеря полноты, но не ложные срабатывания.
+     * Точность и полнота по типам определений пишутся в лог и в {@code target/extraction-report}.
+     */
+    @Test
+    void shouldMatchAstModeOnFixtureCorpus() throws Exception {
+        // Given
+        Path corpus = copyCorpus();
+        ExtractionConfig config = new ExtractionConfig();
+        config.setParallelism(2);
+        EnvVarExtractor extractor = TestExtractors.envVarExtractor(
+                new SourceCodeAnalyzer(), config, new SimpleMeterRegistry());
+
+        // When
+        Map<String, EnvVariable> ast = extractor.extractAllVariables(corpus, null, ExtractionMode.AST);
+        Map<String, EnvVariable> lexical = extractor.extractAllVariables(corpus, null, ExtractionMode.LEXICAL);
+
+        // Then
+        Set<String> truePositives = new TreeSet<>(lexical.keySet());
+        truePositives.retainAll(ast.keySet());
+        Set<String> falseNegatives = new TreeSet<>(ast.keySet());
+        falseNegatives.removeAll(lexical.keySet());
+
+        double precision = (double) truePositives.size() / lexical.size();
+        double recall = (double) truePositives.size() / ast.size();
+        long typeMismatches = truePositives.stream()
+                .filter(name -> ast.get(name).getDefinition().getType() != lexical.get(name).getDefinition().getType())
+                .count();
+        report(ast, lexical);
+
+        assertEquals(1.0, precision);
+        assertTrue(recall >= 0.9, "recall " + recall);
+        assertEquals(Set.of("PAYMENT_API_KEY"), falseNegatives);
+        assertEquals(0, typeMismatches);
+        for (String name : truePositives) {
+            EnvVariable expected = ast.get(name);
+            EnvVariable actual = lexical.get(name);
+            assertEquals(expected.getDefaultValue(), actual.getDefaultValue(), name);
+            assertEquals(expected.isRequired(), actual.isRequired(), name);
+            assertEquals(expected.getDefinition().getLineNumber(), actual.getDefinition().getLineNumber(), name);
+            assertEquals(expected.getDefinition().getFieldOrMethodName(),
+                    actual.getDefinition().getFieldOrMethodName(), name);
+            assertEquals(expected.getDefinition().getClassName(), actual.getDefinition().getClassName(), name);
+            assertEquals(expected.getDefinition().getJavaType(), actual.getDefinition().getJavaType(), name);
+        }
+    }
+
+    /**
+     * Точность и полнота lexical режима относительно AST по типам определений. Переменная
+     * относится к типу эталонного определения, лишняя — к типу найденного.
+     */
+    private static void report(Map<String, EnvVariable> ast, Map<String, EnvVariable> lexical) throws IOException {
+        Map<DefinitionType, int[]> counts = new EnumMap<>(DefinitionType.class);
+        ast.forEach((name, expected) -> {
+            int[] c = counts.computeIfAbsent(expected.getDefinition().getType(), k -> new int[3]);
+            c[lexical.containsKey(name) ? 0 : 2]++;
+        });
+        lexical.forEach((name, actual) -> {
+            if (!ast.containsKey(name)) {
+                counts.computeIfAbsent(actual.getDefinition().getType(), k -> new int[3])[1]++;
+            }
+        });
+
+        List<String> lines = new ArrayList<>();
+        lines.add("category\ttp\tfp\tfn\tprecision\trecall");
+        counts.forEach((type, c) -> {
+            double precision = c[0] + c[1] == 0 ? 1.0 : (double) c[0] / (c[0] + c[1]);
+            double recall = c[0] + c[2] == 0 ? 1.0 : (double) c[0] / (c[0] + c[2]);
+            lines.add(String.format(Locale.ROOT, "%s\t%d\t%d\t%d\t%.3f\t%.3f",
+                    type, c[0], c[1], c[2], precision, recall));
+            log.info("Lexical vs AST {}: precision={} recall={} (tp={} fp={} fn={})", type,
+                    String.format(Locale.ROOT, "%.3f", precision), String.format(Locale.ROOT, "%.3f", recall),
+                    c[0], c[1], c[2]);
+        });
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, lines);
+    }
+
+    private String literal(VariableCandidate candidate) {
+        return candidate.resolve(new ConstantIndex()).map(EnvVariable::getName).orElse("?");
+    }
+
+    private Path copyCorpus() throws IOException, URISyntaxException {
+        Path source = Path.of(Objects.requireNonNull(getClass().getResource("/extraction-corpus")).toURI());
+        Path target = tempDir.resolve("shop");
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.collect(Collectors.toList())) {
+                Path destination = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination);
+                }
+            }
+        }
+        return target;
+    }
+}
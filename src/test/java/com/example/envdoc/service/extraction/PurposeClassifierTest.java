@@ -0,0 +1,68 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.model.UsagePurpose;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurposeClassifierTest {
+
+    private final PurposeClassifier classifier = new PurposeClassifier(new ExtractionConfig());
+
+    @Test
+    void shouldMatchWholeTokensAndJoinedTokens() {
+        // Then
+        assertEquals(UsagePurpose.DATABASE_CONNECTION,
+                classifier.classify("com.example.CatalogService", "loadFromMongoDb").primary());
+        assertEquals(UsagePurpose.DATABASE_CONNECTION,
+                classifier.classify("HikariDataSource", "build").primary());
+        assertEquals(UsagePurpose.OTHER, classifier.classify("com.example.CatalogService", "login").primary());
+        assertEquals(UsagePurpose.EXTERNAL_API, classifier.classify("PaymentClients", "call").primary());
+        assertEquals(UsagePurpose.AUTHENTICATION, classifier.classify("OAuth2Config", "OAUTH2_CLIENT_SECRET").primary());
+    }
+
+    @Test
+    void shouldRankLabelsByWeightInsteadOfFirstMatch() {
+        // When
+        PurposeClassifier.Classification classification = classifier.classify(
+                "com.example.messaging.KafkaTopicConfig", "kafkaProducerFactory", "String securityProtocol");
+
+        // Then
+        assertEquals(UsagePurpose.MESSAGING_CONFIG, classification.primary());
+        assertEquals(List.of(UsagePurpose.MESSAGING_CONFIG), classification.purposes());
+        assertEquals(1.5, classification.scores().get(UsagePurpose.AUTHENTICATION));
+        assertEquals(4.4, classification.scores().get(UsagePurpose.MESSAGING_CONFIG), 1e-9);
+    }
+
+    @Test
+    void shouldReportSecondaryLabelsAboveThreshold() {
+        // When
+        PurposeClassifier.Classification classification =
+                classifier.classify("RedisConfig", "redisHost", "int port");
+
+        // Then
+        assertEquals(List.of(UsagePurpose.CACHE_CONFIG, UsagePurpose.SERVER_CONFIG), classification.purposes());
+    }
+
+    @Test
+    void shouldLoadRulesFromConfiguration() {
+        // Given
+        ExtractionConfig config = new ExtractionConfig();
+        ExtractionConfig.PurposeRule rule = new ExtractionConfig.PurposeRule();
+        rule.setPurpose(UsagePurpose.DATABASE_CONNECTION);
+        rule.setWeight(2.0);
+        rule.setKeywords(List.of("ClickHouse"));
+        config.getPurpose().getRules().add(rule);
+        config.getPurpose().setIncludeDefaults(false);
+
+        // When
+        PurposeClassifier custom = new PurposeClassifier(config);
+
+        // Then
+        assertEquals(UsagePurpose.DATABASE_CONNECTION, custom.classify("ClickHouseWriter", "flush").primary());
+        assertEquals(UsagePurpose.OTHER, custom.classify("KafkaConfig", "producer").primary());
+    }
+}
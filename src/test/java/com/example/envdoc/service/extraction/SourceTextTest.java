@@ -0,0 +1,37 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceTextTest {
+
+    @Test
+    void shouldSliceNodesByOriginalPositions() {
+        // Given
+        String content = "package com.example;\r\n" +
+                "\r\n" +
+                "public class Client {\r\n" +
+                "\tpublic String url() {\r\n" +
+                "\t\t/* \"ignored\" */ return System.getenv(\"CLIENT_URL\");\r\n" +
+                "\t}\r\n" +
+                "}\r\n";
+        CompilationUnit cu = StaticJavaParser.parse(content);
+        SourceText source = SourceText.of(content);
+        MethodDeclaration method = cu.findFirst(MethodDeclaration.class).orElseThrow();
+        StringLiteralExpr literal = cu.findFirst(StringLiteralExpr.class).orElseThrow();
+
+        // When
+        CharSequence body = source.view(method.getBody().orElseThrow());
+
+        // Then
+        String expectedBody = content.substring(content.indexOf("{\r\n\t\t"), content.indexOf("\t}") + 2);
+        assertEquals(expectedBody, body.toString());
+        assertEquals("\"CLIENT_URL\"", source.view(literal).toString());
+        assertEquals(-1, source.begin(new StringLiteralExpr("detached")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.envdoc.service.extraction;
+
+import com.github.javaparser.StaticJavaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolIndexTest {
+
+    private static SymbolIndex index(Set<String> variables, String... sources) {
+        SymbolIndex.Builder builder = SymbolIndex.builder(variables);
+        for (int i = 0; i < sources.length; i++) {
+            builder.addFile("File" + i + ".java", SymbolCollector.collect(StaticJavaParser.parse(sources[i])));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void shouldReachCallersThroughGettersAndStaticMethods() {
+        // Given
+        SymbolIndex index = index(Set.of("CACHE_TTL"), """
+                package com.example.cache;
+
+                import org.springframework.beans.factory.annotation.Value;
+
+                public class CacheSettings {
+                    @Value("${CACHE_TTL:60}")
+                    private long ttl;
+
+                    public long getTtl() {
+                        return ttl;
+                    }
+                }
+                """, """
+                package com.example.cache;
+
+                public class CacheFactory {
+                    public static Object create(CacheSettings settings) {
+                        return settings.getTtl();
+                    }
+
+                    public Object createDefault() {
+                        return create(null);
+                    }
+                }
+                """, """
+                package com.example.web;
+
+                import com.example.cache.CacheFactory;
+
+                public class CatalogController {
+                    public Object catalog() {
+                        return CacheFactory.create(null);
+                    }
+                }
+                """);
+
+        // When
+        List<SymbolIndex.Reach> reached = index.reachable("CACHE_TTL", 3);
+
+        // Then
+        assertEquals(List.of(
+                        "com.example.cache.CacheSettings#getTtl@1 via CacheSettings.ttl",
+                        "com.example.cache.CacheFactory#create@2 via CacheSettings.getTtl",
+                        "com.example.cache.CacheFactory#createDefault@3 via CacheFactory.create",
+                        "com.example.web.CatalogController#catalog@3 via CacheFactory.create"),
+                reached.stream()
+                        .map(r -> r.className() + "#" + r.methodName() + "@" + r.depth() + " via " + r.via())
+                        .toList());
+        assertEquals("File2.java", reached.get(3).filePath());
+    }
+
+    @Test
+    void shouldStopAtMaxDepthAndIgnoreUnknownVariables() {
+        // Given
+        SymbolIndex index = index(Set.of("API_URL"), """
+                package com.example;
+
+                public class Endpoints {
+                    public static final String API_URL = "API_URL";
+                    public static final String CONTENT_TYPE = "application/json";
+                }
+                """, """
+                package com.example;
+
+                public class ApiClient {
+                    public String url() {
+                        return System.getenv(Endpoints.API_URL);
+                    }
+
+                    public String fetch() {
+                        return url() + Endpoints.CONTENT_TYPE;
+                    }
+                }
+                """);
+
+        // When / Then
+        assertEquals(List.of("url"), index.reachable("API_URL", 1).stream()
+                .map(SymbolIndex.Reach::methodName)
+                .toList());
+        assertEquals(List.of("url", "fetch"), index.reachable("API_URL", 2).stream()
+                .map(SymbolIndex.Reach::methodName)
+                .toList());
+        assertTrue(index.reachable("application/json", 2).isEmpty());
+        assertTrue(index.reachable("API_URL", 0).isEmpty());
+    }
+
+    @Test
+    void shouldResolveConfigurationPropertiesFieldsAndSkipExternalTypes() {
+        // Given
+        SymbolIndex index = index(Set.of("APP_MAIL_SENDER_ADDRESS"), """
+                package com.example.mail;
+
+                import org.springframework.boot.context.properties.ConfigurationProperties;
+
+                @ConfigurationProperties("app.mail")
+                public class MailProperties {
+                    private String senderAddress;
+                }
+                """, """
+                package com.example.mail;
+
+                import java.util.List;
+
+                public class MailService {
+                    private final MailProperties properties;
+                    private final List<String> log;
+
+                    public void send() {
+                        log.add("sent");
+                        System.out.println(properties.getSenderAddress());
+                    }
+                }
+                """);
+
+        // When
+        List<SymbolIndex.Reach> reached = index.reachable("APP_MAIL_SENDER_ADDRESS", 3);
+
+        // Then
+        assertEquals(1, reached.size());
+        assertEquals("send", reached.get(0).methodName());
+        assertEquals("MailProperties.senderAddress", reached.get(0).via());
+        // Поля и метод; вызовы List.add и System.out не индексируются
+        assertEquals(4, index.symbolCount());
+        assertEquals(3, index.edgeCount());
+    }
+}
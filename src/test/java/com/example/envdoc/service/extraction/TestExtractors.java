@@ -0,0 +1,40 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.config.ExtractionConfig;
+import com.example.envdoc.metrics.ExtractionMetrics;
+import com.example.envdoc.service.extraction.plugin.*;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+
+/**
+ * Сборка EnvVarExtractor со всеми плагинами и UsageAnalyzer для тестов без Spring контекста.
+ */
+public final class TestExtractors {
+
+    private TestExtractors() {
+    }
+
+    public static EnvVarExtractor envVarExtractor(SourceCodeAnalyzer sourceCodeAnalyzer,
+                                                  ExtractionConfig config,
+                                                  MeterRegistry meterRegistry) {
+        ExtractionMetrics metrics = new ExtractionMetrics(meterRegistry);
+        List<EnvVarExtractorPlugin> plugins = List.of(
+                new SpringValueExtractorPlugin(sourceCodeAnalyzer),
+                new ConfigPropertiesExtractorPlugin(sourceCodeAnalyzer),
+                new SystemGetenvExtractorPlugin(sourceCodeAnalyzer),
+                new SystemPropertyExtractorPlugin(sourceCodeAnalyzer),
+                new EnvironmentApiExtractorPlugin(sourceCodeAnalyzer));
+        return new EnvVarExtractor(sourceCodeAnalyzer, new EnvironmentReceiverClassifier(config, metrics),
+                plugins, new ExtractionExecutor(config), metrics, new LexicalEnvVarScanner(), config,
+                new ModuleLayout());
+    }
+
+    public static UsageAnalyzer usageAnalyzer(SourceCodeAnalyzer sourceCodeAnalyzer,
+                                              ExtractionConfig config,
+                                              MeterRegistry meterRegistry) {
+        return new UsageAnalyzer(sourceCodeAnalyzer, new ModuleLayout(), new ExtractionExecutor(config),
+                new ExtractionMetrics(meterRegistry), new PurposeClassifier(config), config,
+                new UsageCache(config));
+    }
+}
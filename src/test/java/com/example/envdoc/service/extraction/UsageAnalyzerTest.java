@@ -1,9 +1,13 @@
 package com.example.envdoc.service.extraction;
 
+import com.example.envdoc.config.ExtractionConfig;
 import com.example.envdoc.model.DefinitionType;
 import com.example.envdoc.model.EnvVariable;
 import com.example.envdoc.model.UsagePurpose;
 import com.example.envdoc.model.VariableDefinition;
+import com.example.envdoc.model.VariableUsage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -13,7 +17,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,7 +35,8 @@ class UsageAnalyzerTest {
     @BeforeEach
     void setUp() {
         sourceCodeAnalyzer = new SourceCodeAnalyzer();
-        usageAnalyzer = new UsageAnalyzer(sourceCodeAnalyzer);
+        usageAnalyzer = TestExtractors.usageAnalyzer(sourceCodeAnalyzer,
+                new ExtractionConfig(), new SimpleMeterRegistry());
     }
 
     @Test
@@ -235,4 +243,299 @@ class UsageAnalyzerTest {
         // Then
         assertEquals(UsagePurpose.OTHER, purpose);
     }
+
+    @Test
+    void shouldMergeUsagesFromModuleShards() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        for (String module : List.of("api", "worker")) {
+            Path javaDir = tempDir.resolve(module + "/src/main/java/com/example/" + module);
+            Files.createDirectories(javaDir);
+            Files.writeString(tempDir.resolve(module + "/pom.xml"), "<project/>");
+            Files.writeString(javaDir.resolve("QueueClient.java"), """
+                package com.example.%s;
+
+                public class QueueClient {
+                    public String queue() {
+                        return System.getenv("QUEUE_NAME");
+                    }
+                }
+                """.formatted(module));
+        }
+
+        Map<String, EnvVariable> variables = new HashMap<>();
+        variables.put("QUEUE_NAME", EnvVariable.builder()
+                .name("QUEUE_NAME")
+                .usages(new ArrayList<>())
+                .build());
+        List<String> modules = new ArrayList<>();
+
+        // When
+        usageAnalyzer.analyzeUsages(variables, tempDir, (module, completed, total) -> modules.add(module));
+
+        // Then
+        assertEquals(Set.of("api", "worker"), Set.copyOf(modules));
+        assertEquals(Set.of("com.example.api.QueueClient", "com.example.worker.QueueClient"),
+                variables.get("QUEUE_NAME").getUsages().stream()
+                        .map(VariableUsage::getClassName)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void shouldFindUsagesInOtherClassesThroughSymbolIndex() throws IOException {
+        // Given
+        Path javaDir = tempDir.resolve("src/main/java/com/example");
+        Files.createDirectories(javaDir.resolve("config"));
+        Files.writeString(javaDir.resolve("config/OrderProperties.java"), """
+            package com.example.config;
+
+            import lombok.Data;
+            import org.springframework.boot.context.properties.ConfigurationProperties;
+
+            @Data
+            @ConfigurationProperties(prefix = "order")
+            public class OrderProperties {
+                private String serviceUrl;
+            }
+            """);
+        Files.writeString(javaDir.resolve("config/Keys.java"), """
+            package com.example.config;
+
+            public final class Keys {
+                public static final String PAYMENT_TOKEN = "PAYMENT_TOKEN";
+            }
+            """);
+        Files.writeString(javaDir.resolve("OrderClient.java"), """
+            package com.example;
+
+            import com.example.config.OrderProperties;
+
+            public class OrderClient {
+                private final OrderProperties properties;
+
+                public OrderClient(OrderProperties properties) {
+                    this.properties = properties;
+                }
+
+                public String call() {
+                    return properties.getServiceUrl() + "/orders";
+                }
+            }
+            """);
+        Files.writeString(javaDir.resolve("OrderFacade.java"), """
+            package com.example;
+
+            import com.example.config.Keys;
+
+            public class OrderFacade {
+                private final OrderClient client;
+
+                public OrderFacade(OrderClient client) {
+                    this.client = client;
+                }
+
+                public String placeOrder() {
+                    return client.call();
+                }
+
+                public String authorize() {
+                    return System.getenv(Keys.PAYMENT_TOKEN);
+                }
+            }
+            """);
+
+        Map<String, EnvVariable> variables = new HashMap<>();
+        for (String name : List.of("ORDER_SERVICE_URL", "PAYMENT_TOKEN")) {
+            variables.put(name, EnvVariable.builder().name(name).usages(new ArrayList<>()).build());
+        }
+
+        // When
+        usageAnalyzer.analyzeUsages(variables, tempDir);
+
+        // Then
+        List<VariableUsage> urlUsages = variables.get("ORDER_SERVICE_URL").getUsages();
+        assertEquals(List.of("com.example.OrderClient#call", "com.example.OrderFacade#placeOrder"),
+                urlUsages.stream().map(u -> u.getClassName() + "#" + u.getMethodName()).toList());
+        assertEquals("Indirect use via OrderProperties.serviceUrl in OrderClient", urlUsages.get(0).getUsageContext());
+        assertEquals("Indirect use via OrderClient.call in OrderFacade", urlUsages.get(1).getUsageContext());
+        assertEquals("src/main/java/com/example/OrderFacade.java",
+                urlUsages.get(1).getFilePath());
+
+        assertTrue(variables.get("PAYMENT_TOKEN").getUsages().stream()
+                .anyMatch(u -> u.getMethodName().equals("authorize")));
+    }
+
+    @Test
+    void shouldLimitCrossClassPropagationDepth() throws IOException {
+        // Given
+        ExtractionConfig config = new ExtractionConfig();
+        config.setUsagePropagationDepth(1);
+        UsageAnalyzer shallowAnalyzer = TestExtractors.usageAnalyzer(sourceCodeAnalyzer, config,
+                new SimpleMeterRegistry());
+        Path javaDir = tempDir.resolve("src/main/java/com/example");
+        Files.createDirectories(javaDir);
+        Files.writeString(javaDir.resolve("MailSettings.java"), """
+            package com.example;
+
+            import org.springframework.beans.factory.annotation.Value;
+
+            public class MailSettings {
+                @Value("${MAIL_HOST}")
+                private String host;
+
+                public String getHost() {
+                    return host;
+                }
+            }
+            """);
+        Files.writeString(javaDir.resolve("MailSender.java"), """
+            package com.example;
+
+            public class MailSender {
+                private MailSettings settings;
+
+                public void send() {
+                    System.out.println(settings.getHost());
+                }
+            }
+            """);
+
+        Map<String, EnvVariable> variables = new HashMap<>();
+        variables.put("MAIL_HOST", EnvVariable.builder().name("MAIL_HOST").usages(new ArrayList<>()).build());
+
+        // When
+        shallowAnalyzer.analyzeUsages(variables, tempDir);
+
+        // Then
+        assertEquals(List.of("getHost"), variables.get("MAIL_HOST").getUsages().stream()
+                .map(VariableUsage::getMethodName)
+                .toList());
+    }
+
+    @Test
+    void shouldProduceSameUsagesRegardlessOfParallelism() throws IOException {
+        // Given
+        for (int module = 0; module < 3; module++) {
+            Path javaDir = tempDir.resolve("m" + module + "/src/main/java/com/example/m" + module);
+            Files.createDirectories(javaDir);
+            Files.writeString(tempDir.resolve("m" + module + "/pom.xml"), "<project/>");
+            for (int file = 0; file < 8; file++) {
+                Files.writeString(javaDir.resolve("Worker" + file + ".java"), """
+                    package com.example.m%d;
+
+                    import org.springframework.beans.factory.annotation.Value;
+
+                    public class Worker%d {
+                        @Value("${WORKER_TIMEOUT}")
+                        private int timeout;
+
+                        public int timeout() {
+                            return timeout;
+                        }
+
+                        public String queue() {
+                            return System.getenv("WORKER_QUEUE") + System.getenv("WORKER_TIMEOUT");
+                        }
+                    }
+                    """.formatted(module, file));
+            }
+        }
+
+        // When
+        List<List<String>> results = new ArrayList<>();
+        for (int parallelism : List.of(1, 4, 16)) {
+            ExtractionConfig config = new ExtractionConfig();
+            config.setParallelism(parallelism);
+            Map<String, EnvVariable> variables = new HashMap<>();
+            for (String name : List.of("WORKER_TIMEOUT", "WORKER_QUEUE")) {
+                variables.put(name, EnvVariable.builder().name(name).usages(new ArrayList<>()).build());
+            }
+            TestExtractors.usageAnalyzer(sourceCodeAnalyzer, config, new SimpleMeterRegistry())
+                    .analyzeUsages(variables, tempDir);
+            results.add(variables.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .flatMap(e -> e.getValue().getUsages().stream()
+                            .map(u -> e.getKey() + " " + u.getClassName() + "#" + u.getMethodName()))
+                    .toList());
+        }
+
+        // Then
+        assertEquals(24 * 2 + 24, results.get(0).size());
+        assertEquals(results.get(0), results.get(1));
+        assertEquals(results.get(0), results.get(2));
+        assertEquals("WORKER_QUEUE com.example.m0.Worker0#queue", results.get(0).get(0));
+    }
+
+    @Test
+    void shouldReuseCachedFilesAndRescanOnlyCandidatesForNewVariables() throws IOException {
+        // Given
+        Path repo = tempDir.resolve("repo");
+        Path javaDir = repo.resolve("src/main/java/com/example");
+        Files.createDirectories(javaDir);
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(javaDir.resolve("Plain" + i + ".java"), """
+                package com.example;
+
+                public class Plain%d {
+                    public String host() {
+                        return System.getenv("APP_HOST");
+                    }
+                }
+                """.formatted(i));
+        }
+        Files.writeString(javaDir.resolve("Mailer.java"), """
+            package com.example;
+
+            public class Mailer {
+                public String sender() {
+                    return System.getenv("MAIL_SENDER");
+                }
+            }
+            """);
+
+        ExtractionConfig config = new ExtractionConfig();
+        config.getIncremental().setCacheDir(tempDir.resolve("cache").toString());
+
+        // When: первый запуск знает только APP_HOST, второй — добавляет MAIL_SENDER
+        MeterRegistry firstRun = new SimpleMeterRegistry();
+        TestExtractors.usageAnalyzer(sourceCodeAnalyzer, config, firstRun)
+                .analyzeUsages(variables("APP_HOST"), repo, ModuleProgressListener.NONE, "repo#main");
+
+        MeterRegistry secondRun = new SimpleMeterRegistry();
+        Map<String, EnvVariable> variables = variables("APP_HOST", "MAIL_SENDER");
+        TestExtractors.usageAnalyzer(sourceCodeAnalyzer, config, secondRun)
+                .analyzeUsages(variables, repo, ModuleProgressListener.NONE, "repo#main");
+
+        // Then
+        assertNull(firstRun.find("extraction.usage.files").counter());
+        assertEquals(5.0, secondRun.get("extraction.usage.files").tag("result", "reused").counter().count());
+        assertEquals(1.0, secondRun.get("extraction.usage.files").tag("result", "rescanned").counter().count());
+        assertEquals(5, variables.get("APP_HOST").getUsages().size());
+        assertEquals(List.of("com.example.Mailer"), variables.get("MAIL_SENDER").getUsages().stream()
+                .map(VariableUsage::getClassName)
+                .toList());
+
+        // Изменённый файл анализируется заново, удалённая переменная отбрасывается
+        Files.writeString(javaDir.resolve("Plain0.java"), """
+            package com.example;
+
+            public class Plain0 {
+            }
+            """);
+        MeterRegistry thirdRun = new SimpleMeterRegistry();
+        Map<String, EnvVariable> reduced = variables("APP_HOST");
+        TestExtractors.usageAnalyzer(sourceCodeAnalyzer, config, thirdRun)
+                .analyzeUsages(reduced, repo, ModuleProgressListener.NONE, "repo#main");
+        assertEquals(1.0, thirdRun.get("extraction.usage.files").tag("result", "analyzed").counter().count());
+        assertEquals(5.0, thirdRun.get("extraction.usage.files").tag("result", "reused").counter().count());
+        assertEquals(4, reduced.get("APP_HOST").getUsages().size());
+    }
+
+    private static Map<String, EnvVariable> variables(String... names) {
+        Map<String, EnvVariable> variables = new HashMap<>();
+        for (String name : names) {
+            variables.put(name, EnvVariable.builder().name(name).usages(new ArrayList<>()).build());
+        }
+        return variables;
+    }
 }
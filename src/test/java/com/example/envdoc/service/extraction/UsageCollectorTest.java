@@ -0,0 +1,101 @@
+package com.example.envdoc.service.extraction;
+
+import com.example.envdoc.model.UsagePurpose;
+import com.example.envdoc.model.VariableUsage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageCollectorTest {
+
+    private static VariableUsage usage(String className, String methodName, UsagePurpose purpose, String snippet) {
+        return VariableUsage.builder()
+                .className(className)
+                .methodName(methodName)
+                .purpose(purpose)
+                .purposes(List.of(purpose))
+                .codeSnippet(snippet)
+                .build();
+    }
+
+    @Test
+    void shouldKeepExactTotalsWhileRetainingAtMostLimit() {
+        // Given
+        UsageCollector collector = new UsageCollector(5);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            collector.add(usage("com.example.Client" + i, "call", UsagePurpose.EXTERNAL_API, "String call()"), "api");
+        }
+        for (int i = 0; i < 10; i++) {
+            collector.add(usage("com.example.Repo" + i, "load", UsagePurpose.DATABASE_CONNECTION, "void load()"), "db");
+        }
+        boolean duplicate = collector.add(usage("com.example.Client0", "call", UsagePurpose.EXTERNAL_API, null), "api");
+
+        // Then
+        assertFalse(duplicate);
+        assertEquals(1010, collector.total());
+        assertEquals(Map.of(UsagePurpose.EXTERNAL_API, 1000, UsagePurpose.DATABASE_CONNECTION, 10),
+                collector.purposeCounts());
+        List<VariableUsage> retained = collector.retained();
+        assertEquals(5, retained.size());
+        // Обе цели представлены, хотя API-использований в сто раз больше
+        assertTrue(retained.stream().anyMatch(u -> u.getPurpose() == UsagePurpose.DATABASE_CONNECTION));
+        assertTrue(retained.stream().anyMatch(u -> u.getPurpose() == UsagePurpose.EXTERNAL_API));
+    }
+
+    @Test
+    void shouldBoundRetainedUsagesPerVariableAcrossAllPurposes() {
+        // Given
+        UsageCollector collector = new UsageCollector(3);
+
+        // When: каждая цель сама по себе заполнила бы лимит
+        for (UsagePurpose purpose : UsagePurpose.values()) {
+            for (int i = 0; i < 5; i++) {
+                collector.add(usage("com.example." + purpose + i, "run", purpose, "void run()"), "m" + i);
+                assertTrue(collector.retained().size() <= 3);
+            }
+        }
+
+        // Then
+        assertEquals(UsagePurpose.values().length * 5, collector.total());
+        assertEquals(UsagePurpose.values().length, collector.purposeCounts().size());
+        List<VariableUsage> retained = collector.retained();
+        assertEquals(3, retained.size());
+        assertEquals(3, retained.stream().map(VariableUsage::getPurpose).distinct().count());
+    }
+
+    @Test
+    void shouldPreferAnnotatedDirectUsagesAndModuleSpread() {
+        // Given
+        UsageCollector collector = new UsageCollector(3);
+        collector.add(usage("com.example.a.Indirect", "run", UsagePurpose.OTHER, null), "a");
+        collector.add(usage("com.example.a.Plain", "run", UsagePurpose.OTHER, "void run()"), "a");
+        collector.add(usage("com.example.a.Plain2", "run", UsagePurpose.OTHER, "void run()"), "a");
+        collector.add(usage("com.example.a.Job", "run", UsagePurpose.OTHER, "@Scheduled\nvoid run()"), "a");
+        collector.add(usage("com.example.b.Other", "run", UsagePurpose.OTHER, null), "b");
+
+        // When
+        List<String> retained = collector.retained().stream().map(VariableUsage::getClassName).toList();
+
+        // Then
+        assertEquals(List.of("com.example.a.Plain", "com.example.a.Job", "com.example.b.Other"), retained);
+    }
+
+    @Test
+    void shouldKeepEverythingInArrivalOrderWhenUnlimited() {
+        // Given
+        UsageCollector collector = new UsageCollector(0);
+        collector.add(usage("com.example.B", "b", UsagePurpose.CACHE_CONFIG, null), "m");
+        collector.add(usage("com.example.A", "a", UsagePurpose.AUTHENTICATION, null), "m");
+        collector.add(usage("com.example.C", "c", UsagePurpose.CACHE_CONFIG, null), "m");
+
+        // When / Then
+        assertEquals(List.of("com.example.B", "com.example.A", "com.example.C"),
+                collector.retained().stream().map(VariableUsage::getClassName).toList());
+        assertTrue(collector.contains("com.example.A", "a"));
+    }
+}
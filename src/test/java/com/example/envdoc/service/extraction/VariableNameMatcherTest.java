@@ -0,0 +1,68 @@
+package com.example.envdoc.service.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariableNameMatcherTest {
+
+    @Test
+    void shouldMatchPlaceholderAndStringContextsInOnePass() {
+        // Given
+        VariableNameMatcher matcher = VariableNameMatcher.of(List.of("DB", "DB_URL", "URL", "API_KEY", "TIMEOUT"));
+        String body = """
+            {
+                String url = env.resolvePlaceholders("${DB_URL}");
+                String key = System.getenv("API_KEY");
+                String timeout = "TIMEOUT_MS" + TIMEOUT + "${URL:x}";
+            }
+            """;
+
+        // When
+        Set<String> matches = matcher.findAll(body);
+
+        // Then
+        assertEquals(List.of("DB_URL", "API_KEY"), List.copyOf(matches));
+    }
+
+    @Test
+    void shouldRespectRangeBoundsForDelimiters() {
+        // Given
+        VariableNameMatcher matcher = VariableNameMatcher.of(List.of("PORT"));
+        char[] text = "x(\"PORT\") + \"PORT\"".toCharArray();
+        Set<String> matches = new LinkedHashSet<>();
+
+        // When
+        matcher.findAll(text, 3, 8, matches);
+
+        // Then
+        assertTrue(matches.isEmpty());
+        matcher.findAll(text, 2, 9, matches);
+        assertEquals(Set.of("PORT"), matches);
+    }
+
+    @Test
+    void shouldMatchSameNamesAsAlternationRegex() {
+        // Given
+        List<String> names = IntStream.range(0, 2000).mapToObj(i -> "SERVICE_" + i + "_URL").toList();
+        VariableNameMatcher matcher = VariableNameMatcher.of(names);
+        String body = IntStream.range(0, 2100).filter(i -> i % 7 == 0)
+                .mapToObj(i -> i % 2 == 0 ? "get(\"SERVICE_" + i + "_URL\");" : "\"${SERVICE_" + i + "_URL}\";")
+                .collect(Collectors.joining("\n"));
+
+        // When
+        Set<String> matches = matcher.findAll(body);
+
+        // Then
+        Set<String> expected = IntStream.range(0, 2000).filter(i -> i % 7 == 0)
+                .mapToObj(i -> "SERVICE_" + i + "_URL").collect(Collectors.toSet());
+        assertEquals(expected, matches);
+        assertEquals(2000, matcher.size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.envdoc.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldIndexClassesOfAllModules() throws IOException {
+        // Given
+        write("core/src/main/java/com/example/app/AppConfig.java", "package com.example.app;");
+        write("web/src/main/java/com/example/app/WebConfig.java", "package com.example.app;");
+        write("web/src/test/java/com/example/app/WebConfigTest.java", "package com.example.app;");
+        write("web/target/generated/com/example/app/Generated.java", "package com.example.app;");
+
+        // When
+        ClassIndex index = ClassIndex.build(tempDir);
+
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(List.of("com.example.app.AppConfig", "com.example.app.WebConfig"),
+                index.classesInPackage("com.example.app"));
+        assertEquals("web/src/main/java/com/example/app/WebConfig.java",
+                index.relativePath("com.example.app.WebConfig"));
+    }
+
+    @Test
+    void shouldIndexOnlyGivenFilesWithoutWalkingRepository() throws IOException {
+        // Given: список файлов из извлечения и файл, появившийся после него
+        Path config = write("core/src/main/java/com/example/app/AppConfig.java", "package com.example.app;");
+        write("core/src/main/java/com/example/app/Unlisted.java", "package com.example.app;");
+
+        // When
+        ClassIndex index = ClassIndex.build(tempDir, List.of(config));
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(config, index.find("com.example.app.AppConfig").orElseThrow());
+        assertTrue(index.find("com.example.app.Unlisted").isEmpty());
+    }
+
+    @Test
+    void shouldResolveBySimpleNameWhenPackageIsUnknown() throws IOException {
+        // Given
+        Path source = write("src/main/java/com/example/service/PaymentService.java", "package com.example.service;");
+
+        // When
+        ClassIndex index = ClassIndex.build(tempDir);
+
+        // Then
+        assertEquals(source, index.resolve("com.example.service.PaymentService").orElseThrow());
+        assertEquals(source, index.resolve("PaymentService").orElseThrow());
+        assertEquals(source, index.resolve("com.other.PaymentService").orElseThrow());
+        assertTrue(index.resolve("com.example.Missing").isEmpty());
+    }
+
+    @Test
+    void shouldReadDeclaredPackageOutsideStandardLayout() throws IOException {
+        // Given
+        write("legacy/Handler.java", """
+                // header
+                package org.legacy.handlers;
+
+                public class Handler {}
+                """);
+
+        // When
+        ClassIndex index = ClassIndex.build(tempDir);
+
+        // Then
+        assertTrue(index.find("org.legacy.handlers.Handler").isPresent());
+        assertEquals(List.of("org.legacy.handlers.Handler"), index.classesNamed("Handler"));
+    }
+
+    @Test
+    void shouldListPrefixMatchesBeforeContainsMatches() throws IOException {
+        // Given
+        write("src/main/java/com/example/DbConfig.java", "package com.example;");
+        write("src/main/java/com/example/ConfigLoader.java", "package com.example;");
+        write("src/main/java/com/example/Configuration.java", "package com.example;");
+        write("src/main/java/com/example/Service.java", "package com.example;");
+
+        // When
+        ClassIndex index = ClassIndex.build(tempDir);
+
+        // Then
+        assertEquals(List.of("com.example.ConfigLoader", "com.example.Configuration", "com.example.DbConfig"),
+                index.classesMatching("config", 20));
+        assertEquals(List.of("com.example.ConfigLoader"), index.classesMatching("CONFIG", 1));
+        assertTrue(index.classesMatching("Missing", 20).isEmpty());
+    }
+
+    private Path write(String relative, String content) throws IOException {
+        Path file = tempDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.envdoc.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopedClassCodeToolTest {
+
+    private static final int JOBS = 8;
+    private static final int CALLS_PER_JOB = 50;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldIsolateRepositoriesOfParallelJobs() throws Exception {
+        // Given: у каждой задачи свой репозиторий с одноимённым классом
+        List<Path> repos = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            repos.add(createRepo("repo-" + i, "JOB_" + i));
+        }
+        ScopedClassCodeTool tool = new ScopedClassCodeTool();
+        CyclicBarrier allBound = new CyclicBarrier(JOBS);
+        ExecutorService pool = Executors.newFixedThreadPool(JOBS);
+
+        // When: задачи одновременно обращаются к общему инструменту
+        List<Future<List<String>>> jobs = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            Path repo = repos.get(i);
+            Callable<List<String>> job = () -> tool.call(new ClassCodeTool(repo), () -> {
+                allBound.await(10, TimeUnit.SECONDS);
+                List<String> answers = new ArrayList<>();
+                for (int call = 0; call < CALLS_PER_JOB; call++) {
+                    answers.add(tool.getClassCode("com.example.Marker"));
+                    answers.add(tool.findClassesByPattern("Marker"));
+                    Thread.yield();
+                }
+                return answers;
+            });
+            jobs.add(pool.submit(job));
+        }
+
+        // Then: каждая задача видит только свой репозиторий
+        try {
+            for (int i = 0; i < JOBS; i++) {
+                List<String> answers = jobs.get(i).get(30, TimeUnit.SECONDS);
+                assertEquals(CALLS_PER_JOB * 2, answers.size());
+                for (int a = 0; a < answers.size(); a += 2) {
+                    assertTrue(answers.get(a).contains("\"JOB_" + i + "\""), answers.get(a));
+                    assertEquals("Classes matching 'Marker':\n- src/main/java/com/example/Marker.java\n",
+                            answers.get(a + 1));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals("Error: Repository path not set", tool.getClassCode("com.example.Marker"));
+    }
+
+    @Test
+    void shouldRestoreOuterScopeAfterNestedCall() throws Exception {
+        // Given
+        ScopedClassCodeTool tool = new ScopedClassCodeTool();
+        Path outer = createRepo("outer", "OUTER");
+        Path inner = createRepo("inner", "INNER");
+
+        // When
+        String afterNested = tool.call(new ClassCodeTool(outer), () -> {
+            String nested = tool.call(new ClassCodeTool(inner), () -> tool.getClassCode("com.example.Marker"));
+            assertTrue(nested.contains("INNER"));
+            return tool.getClassCode("com.example.Marker");
+        });
+
+        // Then
+        assertTrue(afterNested.contains("OUTER"));
+        assertEquals("Error: Repository path not set", tool.getClassCode("com.example.Marker"));
+    }
+
+    @Test
+    void shouldCountToolCallsOfRun() throws Exception {
+        // Given
+        ScopedClassCodeTool tool = new ScopedClassCodeTool();
+        Path repo = createRepo("calls", "CALLS");
+        ScopedClassCodeTool.ToolCalls calls = new ScopedClassCodeTool.ToolCalls();
+
+        // When
+        tool.call(new ClassCodeTool(repo), calls, () -> {
+            tool.getClassCode("Marker");
+            tool.findFieldUsages("com.example.Marker", "ID");
+            return tool.findClassesByPattern("Mark");
+        });
+
+        // Then
+        assertEquals(3, calls.total());
+        assertEquals(1, calls.byTool().get("getClassCode"));
+        assertTrue(calls.requested("com.example.Marker"));
+        assertFalse(calls.requested("com.example.Other"));
+    }
+
+    private Path createRepo(String name, String marker) throws IOException {
+        Path repo = tempDir.resolve(name);
+        Path source = repo.resolve("src/main/java/com/example/Marker.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, """
+                package com.example;
+
+                public class Marker {
+                    public static final String ID = "%s";
+                }
+                """.formatted(marker));
+        return repo;
+    }
+}
@@ -0,0 +1,43 @@
+package com.acme.shop.catalog;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CatalogService {
+
+    private final Environment env;
+    private final Envelope envelope = new Envelope();
+
+    public CatalogService(Environment env) {
+        this.env = env;
+    }
+
+    public String searchUrl() {
+        return env.getProperty("catalog.search.url");
+    }
+
+    public String indexName() {
+        return this.env.getProperty("${CATALOG_INDEX:products}");
+    }
+
+    public String envelopeProperty() {
+        return envelope.getProperty("envelope.key");
+    }
+
+    enum Sort {
+        NAME("name"), PRICE("price");
+
+        private final String field;
+
+        Sort(String field) {
+            this.field = field;
+        }
+    }
+
+    static class Envelope {
+        String getProperty(String key) {
+            return key;
+        }
+    }
+}
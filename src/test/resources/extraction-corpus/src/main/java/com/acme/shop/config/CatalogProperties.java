@@ -0,0 +1,24 @@
+package com.acme.shop.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Catalog settings. Example: System.getenv("NOT_A_CALL") in a comment.
+ */
+@ConfigurationProperties(prefix = "shop.catalog")
+public class CatalogProperties {
+    private int pageSize = 20;
+    private String cdnUrl;
+    private Map<String, String> labels = Map.of();
+    private List<String> regions;
+    private Duration cacheTtl = Duration.ofMinutes(5);
+    private boolean showHidden = false;
+
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+    public String getCdnUrl() { return cdnUrl; }
+    public void setCdnUrl(String cdnUrl) { this.cdnUrl = cdnUrl; }
+}
@@ -0,0 +1,42 @@
+package com.acme.shop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class ShopConfig {
+
+    @Value("${SHOP_REGION:eu-west-1}")
+    private String region;
+
+    @Value("${shop.currency:EUR}")
+    private String currency;
+
+    @Value(value = "${SHOP_FEATURE_FLAGS:}")
+    private String featureFlags;
+
+    @Value("${SHOP_ADMIN_EMAIL}")
+    private String adminEmail;
+
+    private final Environment environment;
+
+    public ShopConfig(Environment environment, @Value("${SHOP_CTOR_PARAM:x}") String param) {
+        this.environment = environment;
+    }
+
+    @Value("${SHOP_SETTER_VALUE}")
+    public void setSetterValue(String value) {
+    }
+
+    @Bean
+    public String mailHost() {
+        return environment.getProperty("mail.host", "localhost");
+    }
+
+    @Bean
+    public Integer mailPort() {
+        return environment.getProperty("mail.port", Integer.class, 25);
+    }
+}
@@ -0,0 +1,36 @@
+package com.acme.shop.payment;
+
+import java.util.Properties;
+
+public class PaymentGateway {
+    private static final String KEY_VAR = "PAYMENT_API_KEY";
+
+    private final Properties envProps = new Properties();
+    private final String apiKey = System.getenv(KEY_VAR);
+    private final String endpoint = System.getenv("PAYMENT_ENDPOINT");
+
+    public String secret() {
+        // System.getenv("COMMENTED_OUT")
+        String value = System.getenv("PAYMENT_SECRET");
+        return value != null ? value : "";
+    }
+
+    public int timeout() {
+        return Integer.parseInt(System.getProperty("payment.timeout", "30"));
+    }
+
+    public String fromProps() {
+        return envProps.getProperty("payment.props.key");
+    }
+
+    public Runnable retry() {
+        return () -> {
+            String retries = System.getenv("PAYMENT_RETRIES");
+            System.out.println("retries=" + retries);
+        };
+    }
+
+    public String message() {
+        return "Call System.getenv(\"IN_STRING\") to configure";
+    }
+}
@@ -0,0 +1,18 @@
+package com.acme.shop.util;
+
+public final class Jvm {
+    private Jvm() {
+    }
+
+    public static String tmpDir() {
+        return System.getProperty("java.io.tmpdir");
+    }
+
+    public static boolean debug() {
+        return Boolean.parseBoolean(System.getProperty("shop.debug", "false"));
+    }
+
+    public static String home() {
+        return System.getenv().getOrDefault("SHOP_HOME", "/opt/shop");
+    }
+}